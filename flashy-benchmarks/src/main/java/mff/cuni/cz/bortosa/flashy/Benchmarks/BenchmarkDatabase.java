@@ -0,0 +1,180 @@
+package mff.cuni.cz.bortosa.flashy.Benchmarks;
+
+import mff.cuni.cz.bortosa.flashy.DatabaseOperations.DatabaseConfig;
+import mff.cuni.cz.bortosa.flashy.DatabaseOperations.DatabaseInitializer;
+import mff.cuni.cz.bortosa.flashy.DatabaseOperations.DatabaseManager;
+import mff.cuni.cz.bortosa.flashy.Models.Deck;
+import mff.cuni.cz.bortosa.flashy.Models.Flashcard;
+import mff.cuni.cz.bortosa.flashy.Repositories.DecksRepository;
+import mff.cuni.cz.bortosa.flashy.Repositories.FlashcardDeckRepository;
+import mff.cuni.cz.bortosa.flashy.Repositories.FlashcardsRepository;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A generated SQLite database the benchmarks run against.
+ * It holds the requested number of flashcards, spread over decks of {@link #DECK_SIZE} flashcards with every state
+ * and difficulty represented. The database is generated once per size into the directory given by the
+ * {@code flashy.benchmark.dir} system property, and reused by later runs as long as it still has the expected number
+ * of flashcards; the benchmarks which add data remove it again when they are done.
+ * The connections use the application's {@link DatabaseConfig}, so other pragmas can be compared with the usual
+ * system properties, e.g. {@code -jvmArgs -Dflashy.db.cacheSizeKib=2000}. The slow-query log is turned off unless
+ * a benchmark asks for it, and then writes to the same directory.
+ */
+public final class BenchmarkDatabase implements AutoCloseable {
+    public static final int DECK_SIZE = 1_000;
+    public static final String DECK_NAME_PREFIX = "Benchmark deck ";
+    private static final String DIRECTORY_PROPERTY = "flashy.benchmark.dir";
+    private static final String DEFAULT_DIRECTORY = "target/benchmark-databases";
+    private static final int DECKS_PER_TRANSACTION = 50;
+
+    private final DatabaseManager databaseManager;
+    private final List<Deck> decks;
+    private final int minFlashcardId;
+    private final int maxFlashcardId;
+
+    private BenchmarkDatabase(DatabaseManager databaseManager, List<Deck> decks, int minFlashcardId, int maxFlashcardId) {
+        this.databaseManager = databaseManager;
+        this.decks = decks;
+        this.minFlashcardId = minFlashcardId;
+        this.maxFlashcardId = maxFlashcardId;
+    }
+
+    /**
+     * Opens the benchmark database with the given number of flashcards, generating it if necessary.
+     *
+     * @param flashcardCount The number of flashcards.
+     * @return The opened database.
+     * @throws SQLException If the database cannot be generated or opened.
+     * @throws IOException  If the database file cannot be created.
+     */
+    public static BenchmarkDatabase open(int flashcardCount) throws SQLException, IOException {
+        return open(flashcardCount, -1);
+    }
+
+    /**
+     * Opens the benchmark database with the given number of flashcards, generating it if necessary.
+     *
+     * @param flashcardCount           The number of flashcards.
+     * @param slowQueryThresholdMillis The threshold of the slow-query log, negative to turn it off.
+     * @return The opened database.
+     * @throws SQLException If the database cannot be generated or opened.
+     * @throws IOException  If the database file cannot be created.
+     */
+    public static BenchmarkDatabase open(int flashcardCount, long slowQueryThresholdMillis) throws SQLException, IOException {
+        Path directory = Path.of(System.getProperty(DIRECTORY_PROPERTY, DEFAULT_DIRECTORY));
+        Files.createDirectories(directory);
+        Path file = directory.resolve("flashcards-" + flashcardCount + ".db");
+
+        DatabaseManager databaseManager = openDatabase(file, slowQueryThresholdMillis);
+        if (countFlashcards(databaseManager) != flashcardCount) {
+            // left over from an interrupted run, or a different schema version
+            databaseManager.close();
+            for (String suffix : new String[]{"", "-wal", "-shm"}) {
+                Files.deleteIfExists(Path.of(file + suffix));
+            }
+            databaseManager = openDatabase(file, slowQueryThresholdMillis);
+            generate(databaseManager, flashcardCount);
+        }
+
+        List<Deck> decks = new ArrayList<>();
+        for (Deck deck : new DecksRepository(databaseManager).getAllDecks()) {
+            if (deck.getName().startsWith(DECK_NAME_PREFIX)) {
+                decks.add(deck);
+            }
+        }
+        try (Connection conn = databaseManager.getReadConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT MIN(id), MAX(id) FROM flashcards")) {
+            rs.next();
+            return new BenchmarkDatabase(databaseManager, decks, rs.getInt(1), rs.getInt(2));
+        }
+    }
+
+    public DatabaseManager getDatabaseManager() {
+        return databaseManager;
+    }
+
+    /**
+     * @return The ID of a random generated flashcard.
+     */
+    public int randomFlashcardId() {
+        return ThreadLocalRandom.current().nextInt(minFlashcardId, maxFlashcardId + 1);
+    }
+
+    /**
+     * @return A random generated deck.
+     */
+    public Deck randomDeck() {
+        return decks.get(ThreadLocalRandom.current().nextInt(decks.size()));
+    }
+
+    @Override
+    public void close() {
+        databaseManager.close();
+    }
+
+    private static DatabaseManager openDatabase(Path file, long slowQueryThresholdMillis) throws SQLException {
+        DatabaseConfig config = DatabaseConfig.load()
+                .with(DatabaseConfig.DB_PATH, file.toString())
+                .with(DatabaseConfig.SLOW_QUERY_THRESHOLD_MILLIS, String.valueOf(slowQueryThresholdMillis))
+                .with(DatabaseConfig.SLOW_QUERY_FILE, file.resolveSibling("slow-queries.log").toString());
+        DatabaseManager databaseManager = new DatabaseManager(config);
+        DatabaseInitializer.initializeDatabase(databaseManager);
+        return databaseManager;
+    }
+
+    private static int countFlashcards(DatabaseManager databaseManager) throws SQLException {
+        try (Connection conn = databaseManager.getReadConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM flashcards")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    private static void generate(DatabaseManager databaseManager, int flashcardCount) throws SQLException {
+        FlashcardsRepository flashcardsRepository = new FlashcardsRepository(databaseManager);
+        FlashcardDeckRepository flashcardDeckRepository = new FlashcardDeckRepository(databaseManager);
+        DecksRepository decksRepository = new DecksRepository(databaseManager);
+        Flashcard.State[] states = Flashcard.State.values();
+        Flashcard.Difficulty[] difficulties = Flashcard.Difficulty.values();
+
+        long start = System.nanoTime();
+        int generated = 0;
+        int transactions = 0;
+        while (generated < flashcardCount) {
+            // several decks per transaction, so that the generation is not bound by the commits
+            int first = generated;
+            generated = databaseManager.inTransaction(conn -> {
+                int next = first;
+                for (int d = 0; d < DECKS_PER_TRANSACTION && next < flashcardCount; d++) {
+                    Deck deck = new Deck(DECK_NAME_PREFIX + (next / DECK_SIZE), "Generated for the benchmarks");
+                    decksRepository.addDeck(deck);
+                    List<Flashcard> flashcards = new ArrayList<>(DECK_SIZE);
+                    for (int i = next; i < Math.min(next + DECK_SIZE, flashcardCount); i++) {
+                        flashcards.add(new Flashcard(0, "Question " + i + " about topic " + (i % 97),
+                                "Answer " + i + ", which is a little longer than the question",
+                                i % 3 == 0 ? "Hint " + i : null,
+                                states[i % states.length], difficulties[(i / states.length) % difficulties.length]));
+                    }
+                    flashcardsRepository.addFlashcards(flashcards);
+                    flashcardDeckRepository.addFlashcardsToDeck(flashcards, deck.getId());
+                    next += flashcards.size();
+                }
+                return next;
+            });
+            transactions++;
+        }
+        System.out.printf("Generated %d flashcards in %d transactions in %d ms%n",
+                flashcardCount, transactions, (System.nanoTime() - start) / 1_000_000);
+    }
+}
@@ -0,0 +1,77 @@
+package mff.cuni.cz.bortosa.flashy.Benchmarks;
+
+import mff.cuni.cz.bortosa.flashy.ImportExport.CsvReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the {@link CsvReader} with the regular expression split that the import used before.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CsvReaderBenchmark {
+    private static final String REGEX_SPLIT = ",(?=(?:[^\"]*\"[^\"]*\")*[^\"]*$)";
+    private static final int ROWS = 50_000;
+
+    private String csv;
+
+    @Setup(Level.Trial)
+    public void generateCsv() {
+        csv = generateCsv(ROWS);
+    }
+
+    @Benchmark
+    public long parseWithRegex() throws IOException {
+        long fields = 0;
+        try (BufferedReader br = new BufferedReader(new StringReader(csv))) {
+            String line;
+            while ((line = br.readLine()) != null) {
+                fields += line.split(REGEX_SPLIT).length;
+            }
+        }
+        return fields;
+    }
+
+    @Benchmark
+    public long parseWithCsvReader() throws IOException {
+        long fields = 0;
+        try (CsvReader reader = new CsvReader(new StringReader(csv))) {
+            List<String> values = new ArrayList<>();
+            while (reader.readRecord(values)) {
+                fields += values.size();
+            }
+        }
+        return fields;
+    }
+
+    // rows shaped like the exported decks, with long quoted answers containing commas and escaped quotes
+    private static String generateCsv(int rows) {
+        StringBuilder csv = new StringBuilder("ID,Question,Answer,Hint,State,Difficulty\n");
+        for (int i = 0; i < rows; i++) {
+            csv.append(i).append(",\"question ").append(i).append(", with a comma\",\"")
+                    .append("an \"\"answer\"\" that is a bit longer, ".repeat(6))
+                    .append("\",\"hint ").append(i).append("\",LEARNING,MEDIUM\n");
+        }
+        return csv.toString();
+    }
+}
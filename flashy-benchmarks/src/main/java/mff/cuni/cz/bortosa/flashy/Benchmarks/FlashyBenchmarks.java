@@ -0,0 +1,33 @@
+package mff.cuni.cz.bortosa.flashy.Benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Runs the benchmarks, accepting the usual JMH command line options.
+ * Unless the command line says otherwise, the results are written as JSON to {@value #DEFAULT_RESULT_FILE},
+ * so that runs can be compared to track regressions; e.g. to run the repository benchmarks on the smallest database:
+ * {@code java -jar flashy-benchmarks/target/benchmarks.jar RepositoryBenchmarks -p flashcards=1000}
+ */
+public class FlashyBenchmarks {
+    private static final String DEFAULT_RESULT_FILE = "target/jmh-results.json";
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLine);
+        if (!commandLine.getResultFormat().hasValue()) {
+            options.resultFormat(ResultFormatType.JSON);
+        }
+        if (!commandLine.getResult().hasValue()) {
+            Files.createDirectories(Path.of(DEFAULT_RESULT_FILE).getParent());
+            options.result(DEFAULT_RESULT_FILE);
+        }
+        new Runner(options.build()).run();
+    }
+}
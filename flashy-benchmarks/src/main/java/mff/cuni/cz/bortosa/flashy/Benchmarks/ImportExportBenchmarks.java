@@ -0,0 +1,95 @@
+package mff.cuni.cz.bortosa.flashy.Benchmarks;
+
+import mff.cuni.cz.bortosa.flashy.ImportExport.ImportResult;
+import mff.cuni.cz.bortosa.flashy.Models.Deck;
+import mff.cuni.cz.bortosa.flashy.Services.DependencyInjector;
+import mff.cuni.cz.bortosa.flashy.Services.FlashcardService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the CSV import and export of a deck of {@link BenchmarkDatabase#DECK_SIZE} flashcards, through the
+ * flashcard service as the application calls it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ImportExportBenchmarks {
+    // the service reads the imported files from this directory
+    private static final Path EXPORTS_DIRECTORY = Path.of("exports");
+
+    @Param({"1000", "100000", "1000000"})
+    public int flashcards;
+
+    private BenchmarkDatabase database;
+    private DependencyInjector injector;
+    private FlashcardService flashcardService;
+    private String csvFileName;
+    private Deck importedDeck;
+    private int imports;
+
+    @Setup(Level.Trial)
+    public void openDatabase() throws SQLException, IOException {
+        database = BenchmarkDatabase.open(flashcards);
+        injector = new DependencyInjector(database.getDatabaseManager());
+        flashcardService = injector.getFlashcardService();
+
+        csvFileName = "flashy-benchmark-" + ProcessHandle.current().pid() + ".csv";
+        Files.createDirectories(EXPORTS_DIRECTORY);
+        try (OutputStream out = Files.newOutputStream(EXPORTS_DIRECTORY.resolve(csvFileName))) {
+            flashcardService.exportDeckToCSV(database.randomDeck().getName(), out);
+        }
+    }
+
+    // an import adds a whole deck, which is removed right away so that every import sees the same database
+    @TearDown(Level.Invocation)
+    public void removeImportedDeck() throws SQLException {
+        if (importedDeck != null) {
+            flashcardService.deleteFlashcards(injector.getFlashcardDeckRepository().getFlashcardsFromDeck(importedDeck.getId()));
+            flashcardService.deleteDeck(importedDeck);
+            importedDeck = null;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void closeDatabase() throws SQLException, IOException {
+        Files.deleteIfExists(EXPORTS_DIRECTORY.resolve(csvFileName));
+        try {
+            injector.close();
+        } finally {
+            database.close();
+        }
+    }
+
+    @Benchmark
+    public ImportResult importDeckFromCSV() throws SQLException, IOException {
+        importedDeck = new Deck("Imported benchmark deck " + (++imports), "Imported by the benchmarks");
+        return flashcardService.importDeckFromCSV(importedDeck, csvFileName);
+    }
+
+    @Benchmark
+    public int exportDeckToCSV() throws SQLException, IOException {
+        return flashcardService.exportDeckToCSV(database.randomDeck().getName(), OutputStream.nullOutputStream());
+    }
+}
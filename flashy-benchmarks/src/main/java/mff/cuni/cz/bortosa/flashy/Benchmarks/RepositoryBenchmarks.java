@@ -0,0 +1,102 @@
+package mff.cuni.cz.bortosa.flashy.Benchmarks;
+
+import mff.cuni.cz.bortosa.flashy.Models.Flashcard;
+import mff.cuni.cz.bortosa.flashy.Repositories.FlashcardDeckRepository;
+import mff.cuni.cz.bortosa.flashy.Repositories.FlashcardsRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the repositories, without the caches of the application, so that they measure the queries themselves.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RepositoryBenchmarks {
+    @Param({"1000", "100000", "1000000"})
+    public int flashcards;
+
+    private BenchmarkDatabase database;
+    private FlashcardsRepository flashcardsRepository;
+    private FlashcardDeckRepository flashcardDeckRepository;
+    private final List<Integer> addedIds = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void openDatabase() throws SQLException, IOException {
+        database = BenchmarkDatabase.open(flashcards);
+        flashcardsRepository = new FlashcardsRepository(database.getDatabaseManager());
+        flashcardDeckRepository = new FlashcardDeckRepository(database.getDatabaseManager());
+    }
+
+    // keeps the database at its size, an iteration adds a few thousand flashcards at most
+    @TearDown(Level.Iteration)
+    public void removeAddedFlashcards() throws SQLException {
+        if (!addedIds.isEmpty()) {
+            flashcardsRepository.deleteFlashcards(addedIds);
+            addedIds.clear();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void closeDatabase() {
+        database.close();
+    }
+
+    @Benchmark
+    public int addFlashcard() throws SQLException {
+        int id = flashcardsRepository.addFlashcard(new Flashcard("Added question", "Added answer", "Added hint"));
+        addedIds.add(id);
+        return id;
+    }
+
+    @Benchmark
+    public List<Flashcard> getAllFlashcards() throws SQLException {
+        return flashcardsRepository.getAllFlashcards();
+    }
+
+    @Benchmark
+    public Flashcard getFlashcardById() throws SQLException {
+        return flashcardsRepository.getFlashcardById(database.randomFlashcardId());
+    }
+
+    @Benchmark
+    public List<Integer> getFlashcardsFromDeck() throws SQLException {
+        return flashcardDeckRepository.getFlashcardsFromDeck(database.randomDeck().getId());
+    }
+
+    @Benchmark
+    public List<Flashcard> getFlashcardsInDeck() throws SQLException {
+        return flashcardDeckRepository.getFlashcardsInDeck(database.randomDeck().getId());
+    }
+
+    @Benchmark
+    public Map<Flashcard.State, Integer> getFlashcardsByState() throws SQLException {
+        return flashcardsRepository.getFlashcardsByState();
+    }
+
+    @Benchmark
+    public Map<Flashcard.Difficulty, Integer> getFlashcardsByDifficulty() throws SQLException {
+        return flashcardsRepository.getFlashcardsByDifficulty();
+    }
+}
@@ -0,0 +1,74 @@
+package mff.cuni.cz.bortosa.flashy.Benchmarks;
+
+import mff.cuni.cz.bortosa.flashy.Models.Flashcard;
+import mff.cuni.cz.bortosa.flashy.Repositories.FlashcardDeckRepository;
+import mff.cuni.cz.bortosa.flashy.Repositories.FlashcardsRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the cost of the slow-query log, which traces every statement while it is on: the same reads with
+ * the log off ({@code -1}) and with the default threshold, at which these reads are traced but not logged.
+ * {@link #getAllFlashcards()} reads every row through the traced result set, {@link #getFlashcardById()} measures
+ * the cost per statement.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SlowQueryLogBenchmarks {
+    @Param({"-1", "100"})
+    public long slowQueryThresholdMillis;
+
+    @Param({"100000"})
+    public int flashcards;
+
+    private BenchmarkDatabase database;
+    private FlashcardsRepository flashcardsRepository;
+    private FlashcardDeckRepository flashcardDeckRepository;
+
+    @Setup(Level.Trial)
+    public void openDatabase() throws SQLException, IOException {
+        database = BenchmarkDatabase.open(flashcards, slowQueryThresholdMillis);
+        flashcardsRepository = new FlashcardsRepository(database.getDatabaseManager());
+        flashcardDeckRepository = new FlashcardDeckRepository(database.getDatabaseManager());
+    }
+
+    @TearDown(Level.Trial)
+    public void closeDatabase() {
+        database.close();
+    }
+
+    @Benchmark
+    public List<Flashcard> getAllFlashcards() throws SQLException {
+        return flashcardsRepository.getAllFlashcards();
+    }
+
+    @Benchmark
+    public Flashcard getFlashcardById() throws SQLException {
+        return flashcardsRepository.getFlashcardById(database.randomFlashcardId());
+    }
+
+    @Benchmark
+    public List<Flashcard> getFlashcardsInDeck() throws SQLException {
+        return flashcardDeckRepository.getFlashcardsInDeck(database.randomDeck().getId());
+    }
+}
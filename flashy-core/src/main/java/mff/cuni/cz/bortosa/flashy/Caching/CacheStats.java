@@ -0,0 +1,75 @@
+package mff.cuni.cz.bortosa.flashy.Caching;
+
+/**
+ * Immutable snapshot of the usage of an {@link LruCache}.
+ */
+public class CacheStats {
+    private final String cacheName;
+    private final int size;
+    private final long weight;
+    private final long maxWeight;
+    private final long hitCount;
+    private final long missCount;
+    private final long evictionCount;
+
+    public CacheStats(String cacheName, int size, long weight, long maxWeight,
+                      long hitCount, long missCount, long evictionCount) {
+        this.cacheName = cacheName;
+        this.size = size;
+        this.weight = weight;
+        this.maxWeight = maxWeight;
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+    }
+
+    public String getCacheName() {
+        return cacheName;
+    }
+
+    // number of cached entries
+    public int getSize() {
+        return size;
+    }
+
+    // total weight of the cached entries
+    public long getWeight() {
+        return weight;
+    }
+
+    public long getMaxWeight() {
+        return maxWeight;
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public long getMissCount() {
+        return missCount;
+    }
+
+    // number of entries removed to make room for new ones
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    public double getHitRate() {
+        long requests = hitCount + missCount;
+        return requests == 0 ? 0 : (double) hitCount / requests;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheStats{" +
+                "cache='" + cacheName + '\'' +
+                ", size=" + size +
+                ", weight=" + weight +
+                ", maxWeight=" + maxWeight +
+                ", hits=" + hitCount +
+                ", misses=" + missCount +
+                ", evictions=" + evictionCount +
+                ", hitRate=" + String.format("%.3f", getHitRate()) +
+                '}';
+    }
+}
@@ -0,0 +1,141 @@
+package mff.cuni.cz.bortosa.flashy.Caching;
+
+import mff.cuni.cz.bortosa.flashy.DatabaseOperations.DatabaseManager;
+import mff.cuni.cz.bortosa.flashy.Models.Deck;
+import mff.cuni.cz.bortosa.flashy.Observer.Event;
+import mff.cuni.cz.bortosa.flashy.Observer.Observer;
+import mff.cuni.cz.bortosa.flashy.Repositories.DecksRepository;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Decks repository keeping the decks read by ID, and the list of all decks, in memory.
+ * Decks are few and small, so the caches are bounded by their number of entries.
+ * Writes made through this repository and the deck events of the observed services invalidate the caches.
+ * Cached decks are copied on the way in and out, so callers may modify them freely.
+ */
+public class CachingDecksRepository extends DecksRepository implements Observer {
+    public static final int DEFAULT_MAX_DECKS = 10_000;
+    private static final String ALL_DECKS = "all";
+
+    private final LruCache<Integer, Deck> decksById;
+    private final LruCache<String, List<Deck>> allDecks;
+
+    public CachingDecksRepository(DatabaseManager databaseManager) {
+        this(databaseManager, DEFAULT_MAX_DECKS);
+    }
+
+    /**
+     * Creates a caching decks repository.
+     *
+     * @param databaseManager Provider of the database connections.
+     * @param maxDecks        The maximum number of cached decks, in each of the two caches.
+     */
+    public CachingDecksRepository(DatabaseManager databaseManager, int maxDecks) {
+        super(databaseManager);
+        this.decksById = new LruCache<>("decks", maxDecks);
+        this.allDecks = new LruCache<>("all-decks", maxDecks, List::size);
+    }
+
+    @Override
+    public List<Deck> getAllDecks() throws SQLException {
+        List<Deck> cached = allDecks.get(ALL_DECKS);
+        if (cached != null) {
+            return copyOf(cached);
+        }
+
+        long stamp = allDecks.stamp();
+        List<Deck> decks = super.getAllDecks();
+        allDecks.put(ALL_DECKS, copyOf(decks), stamp);
+        return decks;
+    }
+
+    @Override
+    public Deck getDeckById(int deckId) throws SQLException {
+        Deck cached = decksById.get(deckId);
+        if (cached != null) {
+            return new Deck(cached);
+        }
+
+        long stamp = decksById.stamp();
+        Deck deck = super.getDeckById(deckId);
+        if (deck != null) {
+            decksById.put(deckId, new Deck(deck), stamp);
+        }
+        return deck;
+    }
+
+    @Override
+    public int addDeck(Deck deck) throws SQLException {
+        try {
+            return super.addDeck(deck);
+        } finally {
+            allDecks.invalidateAll();
+        }
+    }
+
+    @Override
+    public void deleteDeck(int id) throws SQLException {
+        try {
+            super.deleteDeck(id);
+        } finally {
+            invalidate(id);
+        }
+    }
+
+    @Override
+    public boolean updateDeck(Deck deck) throws SQLException {
+        try {
+            return super.updateDeck(deck);
+        } finally {
+            invalidate(deck.getId());
+        }
+    }
+
+    /**
+     * Invalidates the decks changed by the services.
+     * @param eventType The type of event that occurred.
+     * @param data The deck added, updated or removed.
+     */
+    @Override
+    public void update(Event eventType, Object data) {
+        switch (eventType) {
+            case ADD_DECK:
+                allDecks.invalidateAll();
+                break;
+            case UPDATE_DECK:
+            case REMOVE_DECK:
+                if (data instanceof Deck deck) {
+                    invalidate(deck.getId());
+                } else {
+                    decksById.invalidateAll();
+                    allDecks.invalidateAll();
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * @return The statistics of the cache of decks by ID and of the cache of all decks.
+     */
+    public List<CacheStats> getCacheStats() {
+        return List.of(decksById.getStats(), allDecks.getStats());
+    }
+
+    private void invalidate(int id) {
+        decksById.invalidate(id);
+        allDecks.invalidateAll();
+    }
+
+    private static List<Deck> copyOf(List<Deck> decks) {
+        List<Deck> copy = new ArrayList<>(decks.size());
+        for (Deck deck : decks) {
+            copy.add(new Deck(deck));
+        }
+        return copy;
+    }
+}
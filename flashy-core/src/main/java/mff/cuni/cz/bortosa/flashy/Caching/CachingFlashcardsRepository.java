@@ -0,0 +1,233 @@
+package mff.cuni.cz.bortosa.flashy.Caching;
+
+import mff.cuni.cz.bortosa.flashy.DatabaseOperations.DatabaseManager;
+import mff.cuni.cz.bortosa.flashy.Models.Flashcard;
+import mff.cuni.cz.bortosa.flashy.Models.FlashcardProgress;
+import mff.cuni.cz.bortosa.flashy.Observer.Event;
+import mff.cuni.cz.bortosa.flashy.Observer.Observer;
+import mff.cuni.cz.bortosa.flashy.Repositories.FlashcardsRepository;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Flashcards repository keeping the flashcards read by ID, and the list of all flashcards, in memory.
+ * The caches are bounded by the approximate size of the cached flashcards in bytes.
+ * Every write made through this repository invalidates the affected entries, and so do the events of the services
+ * it observes: they are sent after the transactions are committed, so they also cover writes that were part of
+ * a larger transaction. Cached flashcards are copied on the way in and out, so callers may modify them freely.
+ */
+public class CachingFlashcardsRepository extends FlashcardsRepository implements Observer {
+    public static final long DEFAULT_MAX_BYTES = 64L * 1024 * 1024;
+    private static final String ALL_FLASHCARDS = "all";
+
+    private final LruCache<Integer, Flashcard> flashcardsById;
+    private final LruCache<String, List<Flashcard>> allFlashcards;
+
+    public CachingFlashcardsRepository(DatabaseManager databaseManager) {
+        this(databaseManager, DEFAULT_MAX_BYTES);
+    }
+
+    /**
+     * Creates a caching flashcards repository.
+     *
+     * @param databaseManager Provider of the database connections.
+     * @param maxBytes        The approximate memory available to each of the two caches.
+     */
+    public CachingFlashcardsRepository(DatabaseManager databaseManager, long maxBytes) {
+        super(databaseManager);
+        this.flashcardsById = new LruCache<>("flashcards", maxBytes, CachingFlashcardsRepository::estimateSize);
+        this.allFlashcards = new LruCache<>("all-flashcards", maxBytes, flashcards -> {
+            long size = 0;
+            for (Flashcard flashcard : flashcards) {
+                size += Long.BYTES + estimateSize(flashcard);
+            }
+            return size;
+        });
+    }
+
+    @Override
+    public Flashcard getFlashcardById(int id) throws SQLException {
+        Flashcard cached = flashcardsById.get(id);
+        if (cached != null) {
+            return new Flashcard(cached);
+        }
+
+        long stamp = flashcardsById.stamp();
+        Flashcard flashcard = super.getFlashcardById(id);
+        if (flashcard != null) {
+            flashcardsById.put(id, new Flashcard(flashcard), stamp);
+        }
+        return flashcard;
+    }
+
+    @Override
+    public List<Flashcard> getAllFlashcards() throws SQLException {
+        List<Flashcard> cached = allFlashcards.get(ALL_FLASHCARDS);
+        if (cached != null) {
+            return copyOf(cached);
+        }
+
+        long stamp = allFlashcards.stamp();
+        List<Flashcard> flashcards = super.getAllFlashcards();
+        allFlashcards.put(ALL_FLASHCARDS, copyOf(flashcards), stamp);
+        return flashcards;
+    }
+
+    @Override
+    public int addFlashcard(Flashcard flashcard) throws SQLException {
+        try {
+            return super.addFlashcard(flashcard);
+        } finally {
+            allFlashcards.invalidateAll();
+        }
+    }
+
+    @Override
+    public void addFlashcards(List<Flashcard> flashcards) throws SQLException {
+        try {
+            super.addFlashcards(flashcards);
+        } finally {
+            allFlashcards.invalidateAll();
+        }
+    }
+
+    @Override
+    public void deleteFlashcard(int id) throws SQLException {
+        try {
+            super.deleteFlashcard(id);
+        } finally {
+            invalidate(id);
+        }
+    }
+
+    @Override
+    public boolean updateFlashcard(Flashcard flashcard) throws SQLException {
+        try {
+            return super.updateFlashcard(flashcard);
+        } finally {
+            invalidate(flashcard.getFlashcardId());
+        }
+    }
+
+    @Override
+    public void updateFlashcardState(int id, Flashcard.State newState) throws SQLException {
+        try {
+            super.updateFlashcardState(id, newState);
+        } finally {
+            invalidate(id);
+        }
+    }
+
+    @Override
+    public void updateFlashcardDifficulty(int id, Flashcard.Difficulty newDifficulty) throws SQLException {
+        try {
+            super.updateFlashcardDifficulty(id, newDifficulty);
+        } finally {
+            invalidate(id);
+        }
+    }
+
+    @Override
+    public void updateFlashcardsProgress(Collection<FlashcardProgress> changes) throws SQLException {
+        try {
+            super.updateFlashcardsProgress(changes);
+        } finally {
+            for (FlashcardProgress change : changes) {
+                flashcardsById.invalidate(change.getFlashcardId());
+            }
+            allFlashcards.invalidateAll();
+        }
+    }
+
+    @Override
+    public List<Integer> deleteFlashcards(Collection<Integer> ids) throws SQLException {
+        try {
+            return super.deleteFlashcards(ids);
+        } finally {
+            invalidateAll(ids);
+        }
+    }
+
+    @Override
+    public List<Integer> resetFlashcardsOfDeck(int deckId) throws SQLException {
+        // the flashcards of the deck are only known once the update has run, nothing changes if it fails
+        List<Integer> reset = super.resetFlashcardsOfDeck(deckId);
+        invalidateAll(reset);
+        return reset;
+    }
+
+    /**
+     * Invalidates the flashcards changed by the services.
+     * @param eventType The type of event that occurred.
+     * @param data The flashcard added, updated or removed, or the changes of many flashcards (see {@link Event}).
+     */
+    @Override
+    public void update(Event eventType, Object data) {
+        switch (eventType) {
+            case ADD_FLASHCARD:
+            case ADD_FLASHCARDS:
+                allFlashcards.invalidateAll();
+                break;
+            case UPDATE_FLASHCARD:
+            case REMOVE_FLASHCARD:
+                if (data instanceof Flashcard flashcard) {
+                    invalidate(flashcard.getFlashcardId());
+                } else {
+                    flashcardsById.invalidateAll();
+                    allFlashcards.invalidateAll();
+                }
+                break;
+            case UPDATE_FLASHCARDS:
+                for (Object change : (List<?>) data) {
+                    flashcardsById.invalidate(((FlashcardProgress) change).getFlashcardId());
+                }
+                allFlashcards.invalidateAll();
+                break;
+            case REMOVE_FLASHCARDS:
+                for (Object id : (List<?>) data) {
+                    flashcardsById.invalidate((Integer) id);
+                }
+                allFlashcards.invalidateAll();
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * @return The statistics of the cache of flashcards by ID and of the cache of all flashcards.
+     */
+    public List<CacheStats> getCacheStats() {
+        return List.of(flashcardsById.getStats(), allFlashcards.getStats());
+    }
+
+    private void invalidate(int id) {
+        flashcardsById.invalidate(id);
+        allFlashcards.invalidateAll();
+    }
+
+    private void invalidateAll(Collection<Integer> ids) {
+        for (int id : ids) {
+            flashcardsById.invalidate(id);
+        }
+        allFlashcards.invalidateAll();
+    }
+
+    private static List<Flashcard> copyOf(List<Flashcard> flashcards) {
+        List<Flashcard> copy = new ArrayList<>(flashcards.size());
+        for (Flashcard flashcard : flashcards) {
+            copy.add(new Flashcard(flashcard));
+        }
+        return copy;
+    }
+
+    // approximate memory used by a cached flashcard: the object, its strings and the cache entry
+    private static long estimateSize(Flashcard flashcard) {
+        long chars = flashcard.getQuestion().length() + flashcard.getAnswer().length()
+                + (flashcard.getHint() == null ? 0 : flashcard.getHint().length());
+        return 160 + 2 * chars;
+    }
+}
@@ -0,0 +1,141 @@
+package mff.cuni.cz.bortosa.flashy.Caching;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+/**
+ * Thread-safe least-recently-used cache bounded by the total weight of its values.
+ * When adding a value makes the total weight exceed the limit, the least recently used entries are evicted.
+ * Counts hits, misses and evictions, so the limit can be sized from the observed {@link CacheStats}.
+ * <p>
+ * To avoid caching stale values read concurrently with a write, readers take a {@link #stamp()} before reading
+ * from the database and store the value with {@link #put(Object, Object, long)}, which is ignored if the cache
+ * was invalidated in the meantime.
+ *
+ * @param <K> The type of the keys.
+ * @param <V> The type of the values.
+ */
+public class LruCache<K, V> {
+    private final String name;
+    private final long maxWeight;
+    private final ToLongFunction<V> weigher;
+    private final LinkedHashMap<K, V> entries = new LinkedHashMap<>(16, 0.75f, true); // in access order
+    private long weight;
+    private long invalidations;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * Creates a cache where every value weighs 1, i.e. bounded by its number of entries.
+     *
+     * @param name       The name of the cache, used in its statistics.
+     * @param maxEntries The maximum number of entries.
+     */
+    public LruCache(String name, long maxEntries) {
+        this(name, maxEntries, _ -> 1);
+    }
+
+    /**
+     * Creates a cache bounded by the total weight of its values.
+     *
+     * @param name      The name of the cache, used in its statistics.
+     * @param maxWeight The maximum total weight of the values.
+     * @param weigher   Computes the weight of a value, e.g. its approximate size in bytes.
+     */
+    public LruCache(String name, long maxWeight, ToLongFunction<V> weigher) {
+        if (maxWeight < 1) {
+            throw new IllegalArgumentException("The maximum weight must be at least 1.");
+        }
+        this.name = name;
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+    }
+
+    /**
+     * @param key The key of the value.
+     * @return The cached value, or null if it is not cached.
+     */
+    public synchronized V get(K key) {
+        V value = entries.get(key);
+        if (value == null) {
+            misses++;
+        } else {
+            hits++;
+        }
+        return value;
+    }
+
+    /**
+     * @return A stamp to pass to {@link #put(Object, Object, long)} for a value which is about to be read.
+     */
+    public synchronized long stamp() {
+        return invalidations;
+    }
+
+    /**
+     * Caches a value, unless the cache was invalidated since the stamp was taken (the value may be stale then)
+     * or the value alone is heavier than the whole cache.
+     *
+     * @param key   The key of the value.
+     * @param value The value to cache.
+     * @param stamp The stamp taken before the value was read.
+     */
+    public synchronized void put(K key, V value, long stamp) {
+        if (stamp != invalidations) {
+            return;
+        }
+        long valueWeight = weigher.applyAsLong(value);
+        if (valueWeight > maxWeight) {
+            return;
+        }
+
+        V previous = entries.put(key, value);
+        if (previous != null) {
+            weight -= weigher.applyAsLong(previous);
+        }
+        weight += valueWeight;
+
+        Iterator<Map.Entry<K, V>> eldest = entries.entrySet().iterator();
+        while (weight > maxWeight && eldest.hasNext()) {
+            Map.Entry<K, V> entry = eldest.next();
+            if (entry.getKey().equals(key)) {
+                continue;
+            }
+            weight -= weigher.applyAsLong(entry.getValue());
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    /**
+     * Removes the value of the given key.
+     *
+     * @param key The key of the value.
+     */
+    public synchronized void invalidate(K key) {
+        invalidations++;
+        V removed = entries.remove(key);
+        if (removed != null) {
+            weight -= weigher.applyAsLong(removed);
+        }
+    }
+
+    /**
+     * Removes all the values.
+     */
+    public synchronized void invalidateAll() {
+        invalidations++;
+        entries.clear();
+        weight = 0;
+    }
+
+    /**
+     * @return A snapshot of the usage of the cache.
+     */
+    public synchronized CacheStats getStats() {
+        return new CacheStats(name, entries.size(), weight, maxWeight, hits, misses, evictions);
+    }
+}
@@ -0,0 +1,128 @@
+package mff.cuni.cz.bortosa.flashy.DatabaseOperations;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed-size pool of already configured JDBC connections.
+ * Connections are opened lazily, at most {@code maxSize} of them exist at any time,
+ * and borrowers wait (up to a timeout) when all of them are lent out.
+ */
+class ConnectionPool implements AutoCloseable {
+
+    /**
+     * Opens and configures a new physical connection for the pool.
+     */
+    @FunctionalInterface
+    interface ConnectionFactory {
+        Connection create() throws SQLException;
+    }
+
+    private final String name;
+    private final int maxSize;
+    private final ConnectionFactory factory;
+    private final BlockingQueue<Connection> idleConnections = new LinkedBlockingQueue<>();
+    private final Semaphore permits;
+    private final AtomicInteger activeCount = new AtomicInteger();
+    private final LongAdder borrowCount = new LongAdder();
+    private final LongAdder timeoutCount = new LongAdder();
+    private final LongAdder totalBorrowNanos = new LongAdder();
+    private final AtomicLong maxBorrowNanos = new AtomicLong();
+    private volatile boolean closed;
+
+    ConnectionPool(String name, int maxSize, ConnectionFactory factory) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Pool size must be at least 1.");
+        }
+        this.name = name;
+        this.maxSize = maxSize;
+        this.factory = factory;
+        this.permits = new Semaphore(maxSize, true);
+    }
+
+    /**
+     * Borrows a connection, opening a new one if no idle connection is available and the pool is not full.
+     *
+     * @param timeoutMillis How long to wait for a connection to be returned when the pool is exhausted.
+     * @return A physical connection which must be handed back through {@link #release(Connection, boolean)}.
+     * @throws SQLException If the pool is closed, the wait times out or a new connection cannot be opened.
+     */
+    Connection borrow(long timeoutMillis) throws SQLException {
+        if (closed) {
+            throw new SQLException("The " + name + " connection pool is closed.");
+        }
+
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                timeoutCount.increment();
+                throw new SQLException("Timed out waiting for a connection from the " + name + " pool.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a connection from the " + name + " pool.", e);
+        }
+
+        Connection connection = idleConnections.poll();
+        try {
+            if (connection == null || connection.isClosed()) {
+                connection = factory.create();
+            }
+        } catch (SQLException e) {
+            permits.release();
+            throw e;
+        }
+
+        activeCount.incrementAndGet();
+        long elapsed = System.nanoTime() - start;
+        borrowCount.increment();
+        totalBorrowNanos.add(elapsed);
+        maxBorrowNanos.accumulateAndGet(elapsed, Math::max);
+        return connection;
+    }
+
+    /**
+     * Returns a borrowed connection to the pool.
+     *
+     * @param connection The connection obtained from {@link #borrow(long)}.
+     * @param broken     Whether the connection is unusable and should be discarded instead of reused.
+     */
+    void release(Connection connection, boolean broken) {
+        activeCount.decrementAndGet();
+        if (closed || broken) {
+            closeQuietly(connection);
+        } else {
+            idleConnections.offer(connection);
+        }
+        permits.release();
+    }
+
+    PoolMetrics getMetrics() {
+        return new PoolMetrics(name, maxSize, activeCount.get(), idleConnections.size(),
+                borrowCount.sum(), timeoutCount.sum(), totalBorrowNanos.sum(), maxBorrowNanos.get());
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        Connection connection;
+        while ((connection = idleConnections.poll()) != null) {
+            closeQuietly(connection);
+        }
+    }
+
+    private static void closeQuietly(Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+}
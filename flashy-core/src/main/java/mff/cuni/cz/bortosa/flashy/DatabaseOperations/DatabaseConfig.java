@@ -0,0 +1,296 @@
+package mff.cuni.cz.bortosa.flashy.DatabaseOperations;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * Settings of the database: where it is, how many connections read it, the SQLite pragmas applied to every connection
+ * when it is opened and the slow-query log. Every setting has a default; a deployment overrides them, from the lowest
+ * to the highest precedence, in
+ * <ol>
+ *     <li>{@code config.properties} on the class path,</li>
+ *     <li>an external properties file, {@code flashy.properties} in the working directory or the file named by the
+ *     {@code flashy.config} system property,</li>
+ *     <li>system properties prefixed with {@code flashy.}, e.g. {@code -Dflashy.db.cacheSizeKib=131072}.</li>
+ * </ol>
+ * The values are validated when the configuration is loaded, so that a mistake stops the application at startup
+ * instead of when the first connection is opened.
+ */
+public class DatabaseConfig {
+    public static final String DB_PATH = "db.path";
+    public static final String READER_POOL_SIZE = "db.readerPoolSize";
+    public static final String BUSY_TIMEOUT_MILLIS = "db.busyTimeoutMillis";
+    public static final String JOURNAL_MODE = "db.journalMode";
+    public static final String SYNCHRONOUS = "db.synchronous";
+    public static final String CACHE_SIZE_KIB = "db.cacheSizeKib";
+    public static final String MMAP_SIZE_BYTES = "db.mmapSizeBytes";
+    public static final String TEMP_STORE = "db.tempStore";
+    public static final String SLOW_QUERY_THRESHOLD_MILLIS = "slowQuery.thresholdMillis";
+    public static final String SLOW_QUERY_FILE = "slowQuery.file";
+    public static final String SLOW_QUERY_MAX_FILE_BYTES = "slowQuery.maxFileBytes";
+    public static final String SLOW_QUERY_MAX_FILES = "slowQuery.maxFiles";
+
+    public static final String CONFIG_FILE_PROPERTY = "flashy.config";
+    private static final String SYSTEM_PROPERTY_PREFIX = "flashy.";
+    private static final String CLASS_PATH_FILE = "config.properties";
+    private static final String DEFAULT_EXTERNAL_FILE = "flashy.properties";
+    private static final String DEFAULT_SOURCE = "default";
+
+    private static final Set<String> JOURNAL_MODES = Set.of("DELETE", "TRUNCATE", "PERSIST", "MEMORY", "WAL", "OFF");
+    private static final Set<String> SYNCHRONOUS_MODES = Set.of("OFF", "NORMAL", "FULL", "EXTRA");
+    private static final Set<String> TEMP_STORES = Set.of("DEFAULT", "FILE", "MEMORY");
+
+    // Measured on a library of a million flashcards (about 300 MB): synchronous=NORMAL, which is safe in WAL mode,
+    // makes commits wait for the disk only at checkpoints and halves the time of saving a single card.
+    // A larger page cache, a memory map or in-memory temporary tables did not speed up the queries while the file
+    // was in the cache of the operating system and slowed down batch inserts, so they keep the defaults of SQLite.
+    private static final Map<String, String> DEFAULTS = defaultValues();
+
+    private final Map<String, String> values;
+    private final Map<String, String> sources;
+
+    private final Path databasePath;
+    private final int readerPoolSize;
+    private final int busyTimeoutMillis;
+    private final String journalMode;
+    private final String synchronous;
+    private final long cacheSizeKib;
+    private final long mmapSizeBytes;
+    private final String tempStore;
+    private final long slowQueryThresholdMillis;
+    private final Path slowQueryFile;
+    private final long slowQueryMaxFileBytes;
+    private final int slowQueryMaxFiles;
+
+    private DatabaseConfig(Map<String, String> values, Map<String, String> sources) {
+        this.values = values;
+        this.sources = sources;
+        this.databasePath = Path.of(values.get(DB_PATH));
+        this.readerPoolSize = (int) parseLong(READER_POOL_SIZE, 1, 64);
+        this.busyTimeoutMillis = (int) parseLong(BUSY_TIMEOUT_MILLIS, 0, Integer.MAX_VALUE);
+        this.journalMode = parseChoice(JOURNAL_MODE, JOURNAL_MODES);
+        this.synchronous = parseChoice(SYNCHRONOUS, SYNCHRONOUS_MODES);
+        this.cacheSizeKib = parseLong(CACHE_SIZE_KIB, 0, Long.MAX_VALUE);
+        this.mmapSizeBytes = parseLong(MMAP_SIZE_BYTES, 0, Long.MAX_VALUE);
+        this.tempStore = parseChoice(TEMP_STORE, TEMP_STORES);
+        this.slowQueryThresholdMillis = parseLong(SLOW_QUERY_THRESHOLD_MILLIS, Long.MIN_VALUE, Long.MAX_VALUE);
+        this.slowQueryFile = Path.of(values.get(SLOW_QUERY_FILE));
+        this.slowQueryMaxFileBytes = parseLong(SLOW_QUERY_MAX_FILE_BYTES, 1, Long.MAX_VALUE);
+        this.slowQueryMaxFiles = (int) parseLong(SLOW_QUERY_MAX_FILES, 1, 1_000);
+    }
+
+    /**
+     * @return The default configuration, without reading any file or system property.
+     */
+    public static DatabaseConfig defaults() {
+        Map<String, String> sources = new LinkedHashMap<>();
+        DEFAULTS.keySet().forEach(key -> sources.put(key, DEFAULT_SOURCE));
+        return new DatabaseConfig(new LinkedHashMap<>(DEFAULTS), sources);
+    }
+
+    /**
+     * Loads the configuration of the application from the class path, the external file and the system properties.
+     *
+     * @return The configuration.
+     * @throws IllegalArgumentException If a setting has an invalid value or the external file cannot be read.
+     */
+    public static DatabaseConfig load() {
+        Map<String, String> values = new LinkedHashMap<>(DEFAULTS);
+        Map<String, String> sources = new LinkedHashMap<>();
+        DEFAULTS.keySet().forEach(key -> sources.put(key, DEFAULT_SOURCE));
+
+        try (InputStream input = DatabaseConfig.class.getClassLoader().getResourceAsStream(CLASS_PATH_FILE)) {
+            if (input != null) {
+                Properties properties = new Properties();
+                properties.load(input);
+                apply(properties, "", CLASS_PATH_FILE, values, sources);
+            }
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Cannot read " + CLASS_PATH_FILE + " from the class path.", e);
+        }
+
+        String configuredFile = System.getProperty(CONFIG_FILE_PROPERTY);
+        Path externalFile = Path.of(configuredFile != null ? configuredFile : DEFAULT_EXTERNAL_FILE);
+        if (configuredFile != null || Files.isRegularFile(externalFile)) {
+            try (Reader reader = Files.newBufferedReader(externalFile)) {
+                Properties properties = new Properties();
+                properties.load(reader);
+                apply(properties, "", externalFile.toString(), values, sources);
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Cannot read the configuration file " + externalFile + ".", e);
+            }
+        }
+
+        apply(System.getProperties(), SYSTEM_PROPERTY_PREFIX, "system property", values, sources);
+        return new DatabaseConfig(values, sources);
+    }
+
+    /**
+     * Returns a copy of this configuration with one setting changed.
+     *
+     * @param key   The name of the setting, e.g. {@link #DB_PATH}.
+     * @param value The new value.
+     * @return The changed configuration.
+     * @throws IllegalArgumentException If the setting does not exist or the value is invalid.
+     */
+    public DatabaseConfig with(String key, String value) {
+        if (!DEFAULTS.containsKey(key)) {
+            throw new IllegalArgumentException("Unknown database setting: " + key);
+        }
+        Map<String, String> changedValues = new LinkedHashMap<>(values);
+        Map<String, String> changedSources = new LinkedHashMap<>(sources);
+        changedValues.put(key, value.strip());
+        changedSources.put(key, "set by the application");
+        return new DatabaseConfig(changedValues, changedSources);
+    }
+
+    public String getDbUrl() {
+        return "jdbc:sqlite:" + databasePath;
+    }
+
+    public Path getDatabasePath() {
+        return databasePath;
+    }
+
+    public int getReaderPoolSize() {
+        return readerPoolSize;
+    }
+
+    public int getBusyTimeoutMillis() {
+        return busyTimeoutMillis;
+    }
+
+    public String getJournalMode() {
+        return journalMode;
+    }
+
+    public String getSynchronous() {
+        return synchronous;
+    }
+
+    public long getCacheSizeKib() {
+        return cacheSizeKib;
+    }
+
+    public long getMmapSizeBytes() {
+        return mmapSizeBytes;
+    }
+
+    public String getTempStore() {
+        return tempStore;
+    }
+
+    public long getSlowQueryThresholdMillis() {
+        return slowQueryThresholdMillis;
+    }
+
+    public Path getSlowQueryFile() {
+        return slowQueryFile;
+    }
+
+    public long getSlowQueryMaxFileBytes() {
+        return slowQueryMaxFileBytes;
+    }
+
+    public int getSlowQueryMaxFiles() {
+        return slowQueryMaxFiles;
+    }
+
+    /**
+     * @return The pragmas applied to every connection when it is opened, in order.
+     */
+    public List<String> getConnectionPragmas() {
+        List<String> pragmas = new ArrayList<>();
+        pragmas.add("PRAGMA journal_mode=" + journalMode); // with WAL, concurrent readers never block the writer
+        pragmas.add("PRAGMA busy_timeout=" + busyTimeoutMillis);
+        pragmas.add("PRAGMA synchronous=" + synchronous);
+        pragmas.add("PRAGMA cache_size=-" + cacheSizeKib); // negative: in KiB instead of pages
+        pragmas.add("PRAGMA mmap_size=" + mmapSizeBytes);
+        pragmas.add("PRAGMA temp_store=" + tempStore);
+        return pragmas;
+    }
+
+    /**
+     * @return Where the value of every setting comes from, e.g. {@code default} or {@code system property}.
+     */
+    public Map<String, String> getSources() {
+        return Collections.unmodifiableMap(sources);
+    }
+
+    /**
+     * @return The settings, one per line with the value and its source.
+     */
+    @Override
+    public String toString() {
+        StringBuilder report = new StringBuilder("Database settings:");
+        values.forEach((key, value) -> report.append(System.lineSeparator())
+                .append("  ").append(key).append(" = ").append(value).append(" (").append(sources.get(key)).append(')'));
+        return report.toString();
+    }
+
+    private static Map<String, String> defaultValues() {
+        Map<String, String> defaults = new LinkedHashMap<>();
+        defaults.put(DB_PATH, "database/flashcards.db");
+        defaults.put(READER_POOL_SIZE, "4");
+        defaults.put(BUSY_TIMEOUT_MILLIS, "5000");
+        defaults.put(JOURNAL_MODE, "WAL");
+        defaults.put(SYNCHRONOUS, "NORMAL");
+        defaults.put(CACHE_SIZE_KIB, "2000");
+        defaults.put(MMAP_SIZE_BYTES, "0");
+        defaults.put(TEMP_STORE, "DEFAULT");
+        defaults.put(SLOW_QUERY_THRESHOLD_MILLIS, "100");
+        defaults.put(SLOW_QUERY_FILE, "logs/slow-queries.log");
+        defaults.put(SLOW_QUERY_MAX_FILE_BYTES, "1048576");
+        defaults.put(SLOW_QUERY_MAX_FILES, "5");
+        return Collections.unmodifiableMap(defaults);
+    }
+
+    // copies the known settings, other properties of the source are not meant for the database
+    private static void apply(Properties properties, String prefix, String source,
+                              Map<String, String> values, Map<String, String> sources) {
+        for (String key : DEFAULTS.keySet()) {
+            String value = properties.getProperty(prefix + key);
+            if (value != null) {
+                values.put(key, value.strip());
+                sources.put(key, source);
+            }
+        }
+    }
+
+    private long parseLong(String key, long min, long max) {
+        try {
+            long value = Long.parseLong(values.get(key));
+            if (value < min || value > max) {
+                throw new IllegalArgumentException(invalid(key, "a number from " + min + " to " + max));
+            }
+            return value;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(invalid(key, "a number"), e);
+        }
+    }
+
+    // the value is part of a pragma statement, so only the known keywords are accepted
+    private String parseChoice(String key, Set<String> choices) {
+        String value = values.get(key).toUpperCase(Locale.ROOT);
+        if (!choices.contains(value)) {
+            throw new IllegalArgumentException(invalid(key, "one of " + choices));
+        }
+        return value;
+    }
+
+    private String invalid(String key, String expected) {
+        return "Invalid database setting " + key + "=" + values.get(key) + " (" + sources.get(key) + "), expected "
+                + expected + ".";
+    }
+}
@@ -0,0 +1,227 @@
+package mff.cuni.cz.bortosa.flashy.DatabaseOperations;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class DatabaseInitializer {
+
+    // The versions of the schema, see MigrationRunner. A migration is never changed once released, later changes
+    // of the schema are added as new migrations.
+    public static final List<Migration> MIGRATIONS = List.of(
+            new Migration(1, "create the tables, indexes and full-text search", DatabaseInitializer::createSchema),
+            new Migration(2, "make the deck names unique", DatabaseInitializer::makeDeckNamesUnique),
+            new Migration(3, "index the flashcards by state and by difficulty", DatabaseInitializer::createFilterIndexes)
+    );
+
+    public static void initializeDatabase(DatabaseManager databaseManager) {
+        try {
+            new MigrationRunner(databaseManager).migrate(MIGRATIONS);
+            System.out.println("Database initialized successfully!");
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+
+    // The schema before the migrations were numbered. Databases created by earlier versions of the application
+    // have version 0 and already contain part of it, which is why every step checks whether it is needed.
+    private static void createSchema(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+
+            // Create decks table
+            String createDecksTable = "CREATE TABLE IF NOT EXISTS decks ("
+                    + "id INTEGER PRIMARY KEY AUTOINCREMENT, "
+                    + "name TEXT NOT NULL, "
+                    + "description TEXT)";
+
+            // Create flashcards table
+            String createFlashcardsTable = "CREATE TABLE IF NOT EXISTS flashcards ("
+                    + "id INTEGER PRIMARY KEY AUTOINCREMENT, "
+                    + "question TEXT NOT NULL, "
+                    + "answer TEXT NOT NULL, "
+                    + "hint TEXT, "
+                    + "state TEXT CHECK(state IN ('CREATED','LEARNING','LEARNT','TO_REVIEW')) DEFAULT 'CREATED', "
+                    + "difficulty TEXT CHECK(difficulty IN ('EASY','MEDIUM','HARD','DEFAULT')) DEFAULT 'DEFAULT', "
+                    + "interval_days INTEGER NOT NULL DEFAULT 0, "
+                    + "ease REAL NOT NULL DEFAULT 2.5, "
+                    + "repetitions INTEGER NOT NULL DEFAULT 0, "
+                    + "due_at INTEGER NOT NULL DEFAULT 0)";
+
+            // Create flashcard_deck table (Many-to-Many Relationship)
+            String createFlashcardDeckTable = "CREATE TABLE IF NOT EXISTS flashcard_deck ("
+                    + "flashcard_id INTEGER NOT NULL, "
+                    + "deck_id INTEGER NOT NULL, "
+                    + "PRIMARY KEY (flashcard_id, deck_id), "
+                    + "FOREIGN KEY (flashcard_id) REFERENCES flashcards(id) ON DELETE CASCADE, "
+                    + "FOREIGN KEY (deck_id) REFERENCES decks(id) ON DELETE CASCADE)";
+
+            // Create import_checkpoints table, holding the progress of interrupted CSV imports
+            String createImportCheckpointsTable = "CREATE TABLE IF NOT EXISTS import_checkpoints ("
+                    + "source TEXT PRIMARY KEY, "
+                    + "deck_id INTEGER NOT NULL, "
+                    + "rows_committed INTEGER NOT NULL)";
+
+            // Create review_log table, the append-only history of the reviews made in study sessions
+            String createReviewLogTable = "CREATE TABLE IF NOT EXISTS review_log ("
+                    + "id INTEGER PRIMARY KEY, "
+                    + "flashcard_id INTEGER NOT NULL, "
+                    + "reviewed_at INTEGER NOT NULL, "
+                    + "grade INTEGER NOT NULL CHECK(grade BETWEEN 0 AND 5), "
+                    + "answer_millis INTEGER NOT NULL, "
+                    + "hint_used INTEGER NOT NULL DEFAULT 0, "
+                    + "FOREIGN KEY (flashcard_id) REFERENCES flashcards(id) ON DELETE CASCADE)";
+
+            // Indexes used to read the reviews of a flashcard, or of a time window, in chronological order
+            String createReviewLogFlashcardIndex = "CREATE INDEX IF NOT EXISTS idx_review_log_flashcard "
+                    + "ON review_log (flashcard_id, reviewed_at)";
+            String createReviewLogTimeIndex = "CREATE INDEX IF NOT EXISTS idx_review_log_time "
+                    + "ON review_log (reviewed_at)";
+
+            // Index used to read the flashcards of a deck in ID order without scanning the whole table
+            String createFlashcardDeckIndex = "CREATE INDEX IF NOT EXISTS idx_flashcard_deck_deck "
+                    + "ON flashcard_deck (deck_id, flashcard_id)";
+
+            // Index used when a study session is restricted to a state and a difficulty
+            String createFlashcardsStateIndex = "CREATE INDEX IF NOT EXISTS idx_flashcards_state_difficulty "
+                    + "ON flashcards (state, difficulty)";
+
+            // Index used to find the flashcards due for a review, in the order they became due
+            String createFlashcardsDueIndex = "CREATE INDEX IF NOT EXISTS idx_flashcards_due "
+                    + "ON flashcards (due_at)";
+
+            // Full-text index over the text of the flashcards. It is an external content table: the text is stored
+            // only in the flashcards table, and the triggers below keep the index in sync with it
+            String createFlashcardsFtsTable = "CREATE VIRTUAL TABLE IF NOT EXISTS flashcards_fts USING fts5("
+                    + "question, answer, hint, "
+                    + "content='flashcards', content_rowid='id', "
+                    + "tokenize='unicode61 remove_diacritics 2')";
+
+            String createFtsInsertTrigger = "CREATE TRIGGER IF NOT EXISTS flashcards_fts_insert AFTER INSERT ON flashcards BEGIN "
+                    + "INSERT INTO flashcards_fts (rowid, question, answer, hint) VALUES (new.id, new.question, new.answer, new.hint); "
+                    + "END";
+
+            String createFtsDeleteTrigger = "CREATE TRIGGER IF NOT EXISTS flashcards_fts_delete AFTER DELETE ON flashcards BEGIN "
+                    + "INSERT INTO flashcards_fts (flashcards_fts, rowid, question, answer, hint) VALUES ('delete', old.id, old.question, old.answer, old.hint); "
+                    + "END";
+
+            // Only changes of the text are indexed, grading a flashcard does not touch the index
+            String createFtsUpdateTrigger = "CREATE TRIGGER IF NOT EXISTS flashcards_fts_update AFTER UPDATE OF question, answer, hint ON flashcards BEGIN "
+                    + "INSERT INTO flashcards_fts (flashcards_fts, rowid, question, answer, hint) VALUES ('delete', old.id, old.question, old.answer, old.hint); "
+                    + "INSERT INTO flashcards_fts (rowid, question, answer, hint) VALUES (new.id, new.question, new.answer, new.hint); "
+                    + "END";
+
+            // Execute table creation
+            stmt.execute(createDecksTable);
+            stmt.execute(createFlashcardsTable);
+            stmt.execute(createFlashcardDeckTable);
+            stmt.execute(createImportCheckpointsTable);
+            stmt.execute(createReviewLogTable);
+            stmt.execute(createFlashcardDeckIndex);
+            stmt.execute(createFlashcardsStateIndex);
+            stmt.execute(createReviewLogFlashcardIndex);
+            stmt.execute(createReviewLogTimeIndex);
+
+            // Review schedule of the flashcards (see Sm2Scheduler), missing in databases created before it was added.
+            // Flashcards which were never reviewed are due immediately.
+            addColumnIfMissing(stmt, "flashcards", "interval_days", "INTEGER NOT NULL DEFAULT 0");
+            addColumnIfMissing(stmt, "flashcards", "ease", "REAL NOT NULL DEFAULT 2.5");
+            addColumnIfMissing(stmt, "flashcards", "repetitions", "INTEGER NOT NULL DEFAULT 0");
+            addColumnIfMissing(stmt, "flashcards", "due_at", "INTEGER NOT NULL DEFAULT 0");
+            stmt.execute(createFlashcardsDueIndex);
+
+            boolean ftsExisted = tableExists(stmt, "flashcards_fts");
+            stmt.execute(createFlashcardsFtsTable);
+            stmt.execute(createFtsInsertTrigger);
+            stmt.execute(createFtsDeleteTrigger);
+            stmt.execute(createFtsUpdateTrigger);
+            if (!ftsExisted) {
+                // index the flashcards created before full-text search was added
+                stmt.execute("INSERT INTO flashcards_fts (flashcards_fts) VALUES ('rebuild')");
+            }
+        }
+    }
+
+    // Decks are looked up by their name (e.g. when exporting), which the unique index turns from a scan into a search.
+    // Decks created before the names were unique may share a name: the oldest keeps it, the others are renamed
+    // to "name (2)", "name (3)", ...
+    private static void makeDeckNamesUnique(Connection connection) throws SQLException {
+        Set<String> takenNames = new HashSet<>();
+        Set<String> keptNames = new HashSet<>();
+        Map<Integer, String> renamedDecks = new LinkedHashMap<>();
+        try (Statement stmt = connection.createStatement();
+             ResultSet resultSet = stmt.executeQuery("SELECT id, name FROM decks ORDER BY id")) {
+            Map<Integer, String> names = new LinkedHashMap<>();
+            while (resultSet.next()) {
+                names.put(resultSet.getInt("id"), resultSet.getString("name"));
+            }
+            takenNames.addAll(names.values());
+            names.forEach((id, name) -> {
+                if (!keptNames.add(name)) {
+                    String newName;
+                    int suffix = 2;
+                    do {
+                        newName = name + " (" + suffix++ + ")";
+                    } while (!takenNames.add(newName));
+                    renamedDecks.put(id, newName);
+                }
+            });
+        }
+
+        try (PreparedStatement stmt = connection.prepareStatement("UPDATE decks SET name = ? WHERE id = ?")) {
+            for (Map.Entry<Integer, String> renamedDeck : renamedDecks.entrySet()) {
+                stmt.setString(1, renamedDeck.getValue());
+                stmt.setInt(2, renamedDeck.getKey());
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+        if (!renamedDecks.isEmpty()) {
+            System.out.println("Renamed " + renamedDecks.size() + " decks sharing their name with an older deck.");
+        }
+
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("CREATE UNIQUE INDEX IF NOT EXISTS idx_decks_name ON decks (name)");
+        }
+    }
+
+    // A study session restricted to only a state or only a difficulty reads the matching flashcards through one of
+    // these indexes, in ID order, instead of every flashcard of the deck; the (state, difficulty) index cannot serve
+    // a difficulty alone, nor return the flashcards of a state in ID order.
+    private static void createFilterIndexes(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_flashcards_state ON flashcards (state)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_flashcards_difficulty ON flashcards (difficulty)");
+        }
+    }
+
+    private static boolean tableExists(Statement stmt, String name) throws SQLException {
+        try (ResultSet resultSet = stmt.executeQuery(
+                "SELECT 1 FROM sqlite_master WHERE type = 'table' AND name = '" + name + "'")) {
+            return resultSet.next();
+        }
+    }
+
+    private static void addColumnIfMissing(Statement stmt, String table, String column, String definition) throws SQLException {
+        try (ResultSet resultSet = stmt.executeQuery("PRAGMA table_info(" + table + ")")) {
+            while (resultSet.next()) {
+                if (resultSet.getString("name").equalsIgnoreCase(column)) {
+                    return;
+                }
+            }
+        }
+        stmt.execute("ALTER TABLE " + table + " ADD COLUMN " + column + " " + definition);
+    }
+
+    public static void main(String[] args) {
+        try (DatabaseManager databaseManager = new DatabaseManager()) {
+            initializeDatabase(databaseManager);
+        }
+    }
+}
@@ -0,0 +1,406 @@
+package mff.cuni.cz.bortosa.flashy.DatabaseOperations;
+
+import mff.cuni.cz.bortosa.flashy.Metrics.MetricsRegistry;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Class for handling the connections with the local database.
+ * It owns a small pool of read-only connections that can be used concurrently and a single writer connection,
+ * so that writes are serialized inside the application instead of competing for the SQLite write lock.
+ * Every connection is configured once, when it is opened. Closing a connection obtained from this class
+ * returns it to its pool, so callers keep using try-with-resources as with plain JDBC connections.
+ * With a {@link SlowQueryLog}, the prepared statements of the connections are timed and the slow ones logged.
+ */
+public class DatabaseManager implements AutoCloseable {
+    private static final long BORROW_TIMEOUT_MILLIS = 30_000;
+
+    private final String dbUrl;
+    private final DatabaseConfig config;
+    private final ConnectionPool readerPool;
+    private final ConnectionPool writerPool;
+    private final MetricsRegistry metrics = new MetricsRegistry();
+    private final SlowQueryLog slowQueryLog;
+    // the writer lease held by the current thread, used to make nested writer requests reentrant
+    private final ThreadLocal<WriterOwnership> writerOwnership = new ThreadLocal<>();
+
+    // the application's database, as configured by DatabaseConfig.load()
+    public DatabaseManager() {
+        this(DatabaseConfig.load());
+    }
+
+    /**
+     * Creates a database manager for the configured database, with the slow-query log unless it is turned off.
+     *
+     * @param config The configuration of the database.
+     */
+    public DatabaseManager(DatabaseConfig config) {
+        this(config.getDbUrl(), config.getReaderPoolSize(), config, SlowQueryLog.fromConfig(config));
+    }
+
+    /**
+     * Creates a database manager for the given SQLite database, with the default settings and without a slow-query log.
+     *
+     * @param dbUrl          The JDBC URL of the database.
+     * @param readerPoolSize The maximum number of concurrently opened read-only connections.
+     */
+    public DatabaseManager(String dbUrl, int readerPoolSize) {
+        this(dbUrl, readerPoolSize, null);
+    }
+
+    /**
+     * Creates a database manager for the given SQLite database, with the default settings.
+     *
+     * @param dbUrl          The JDBC URL of the database.
+     * @param readerPoolSize The maximum number of concurrently opened read-only connections.
+     * @param slowQueryLog   The log of the slow statements, closed with the manager; null to not time the statements.
+     */
+    public DatabaseManager(String dbUrl, int readerPoolSize, SlowQueryLog slowQueryLog) {
+        this(dbUrl, readerPoolSize, DatabaseConfig.defaults(), slowQueryLog);
+    }
+
+    private DatabaseManager(String dbUrl, int readerPoolSize, DatabaseConfig config, SlowQueryLog slowQueryLog) {
+        this.dbUrl = dbUrl;
+        this.config = config;
+        this.slowQueryLog = slowQueryLog;
+        this.readerPool = new ConnectionPool("reader", readerPoolSize, () -> openConnection(true));
+        this.writerPool = new ConnectionPool("writer", 1, () -> openConnection(false));
+        registerPoolGauges(readerPool);
+        registerPoolGauges(writerPool);
+        if (slowQueryLog != null) {
+            slowQueryLog.setConnectionFactory(() -> openConnection(true));
+            metrics.gauge("slowQueries.logged", slowQueryLog::getLoggedCount);
+            metrics.gauge("slowQueries.dropped", slowQueryLog::getDroppedCount);
+        }
+    }
+
+    /**
+     * Borrows a read-only connection. If the calling thread currently holds the writer connection
+     * (e.g. inside {@link #inTransaction(TransactionCallback)}), the writer is returned instead,
+     * so that the read sees the uncommitted changes of the ongoing transaction.
+     *
+     * @return A pooled connection, returned to the pool when closed.
+     * @throws SQLException If no connection could be obtained.
+     */
+    public Connection getReadConnection() throws SQLException {
+        if (writerOwnership.get() != null) {
+            return getWriteConnection();
+        }
+        Connection physical = readerPool.borrow(BORROW_TIMEOUT_MILLIS);
+        return lease(new ReaderLease(physical));
+    }
+
+    /**
+     * Borrows the writer connection, waiting until no other thread is using it.
+     * Requests made by a thread which already holds the writer are reentrant: they share the outer lease,
+     * and {@code setAutoCommit}, {@code commit} and {@code rollback} are left to the outermost holder,
+     * which makes the nested work part of the outer transaction.
+     *
+     * @return The writer connection, released when closed.
+     * @throws SQLException If the connection could not be obtained.
+     */
+    public Connection getWriteConnection() throws SQLException {
+        WriterOwnership ownership = writerOwnership.get();
+        if (ownership != null) {
+            ownership.depth++;
+            return lease(new WriterLease(ownership.connection, true));
+        }
+
+        Connection physical = writerPool.borrow(BORROW_TIMEOUT_MILLIS);
+        writerOwnership.set(new WriterOwnership(physical));
+        return lease(new WriterLease(physical, false));
+    }
+
+    /**
+     * Runs the given work in a single transaction on the writer connection.
+     * Repository calls made from inside the work reuse the same connection and therefore join the transaction.
+     *
+     * @param work The work to execute.
+     * @param <T>  The type of the result.
+     * @return The result of the work.
+     * @throws SQLException If a database error occurs; the transaction is rolled back in that case.
+     */
+    public <T> T inTransaction(TransactionCallback<T> work) throws SQLException {
+        try (Connection connection = getWriteConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                T result = work.execute(connection);
+                connection.commit();
+                return result;
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Retrieves the metrics of everything using this database, e.g. the timings of the repositories.
+     * @return The metrics registry.
+     */
+    public MetricsRegistry getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * @return The configuration the connections are opened with.
+     */
+    public DatabaseConfig getConfig() {
+        return config;
+    }
+
+    /**
+     * Reads the settings SQLite actually applied to a connection, which can differ from the configured ones,
+     * e.g. when the memory map is limited by the SQLite build or the journal mode cannot be changed.
+     *
+     * @return The value of every pragma of the configuration, by name.
+     * @throws SQLException If the settings cannot be read.
+     */
+    public Map<String, String> getEffectivePragmas() throws SQLException {
+        Map<String, String> pragmas = new LinkedHashMap<>();
+        try (Connection conn = getReadConnection();
+             Statement stmt = conn.createStatement()) {
+            for (String pragma : new String[]{"journal_mode", "busy_timeout", "synchronous", "cache_size", "mmap_size", "temp_store"}) {
+                try (ResultSet resultSet = stmt.executeQuery("PRAGMA " + pragma)) {
+                    pragmas.put(pragma, resultSet.next() ? resultSet.getString(1) : "");
+                }
+            }
+        }
+        // reported as numbers by SQLite
+        pragmas.computeIfPresent("synchronous", (_, value) -> List.of("OFF", "NORMAL", "FULL", "EXTRA").get(Integer.parseInt(value)));
+        pragmas.computeIfPresent("temp_store", (_, value) -> List.of("DEFAULT", "FILE", "MEMORY").get(Integer.parseInt(value)));
+        return pragmas;
+    }
+
+    /**
+     * @return The configured settings and the pragmas in effect, for the startup report of the application.
+     */
+    public String getSettingsReport() {
+        StringBuilder report = new StringBuilder(config.toString());
+        report.append(System.lineSeparator()).append("SQLite pragmas in effect:");
+        try {
+            getEffectivePragmas().forEach((name, value) ->
+                    report.append(System.lineSeparator()).append("  ").append(name).append(" = ").append(value));
+        } catch (SQLException e) {
+            report.append(" unavailable, ").append(e.getMessage());
+        }
+        return report.toString();
+    }
+
+    /**
+     * @return Usage metrics of the read-only connection pool.
+     */
+    public PoolMetrics getReaderPoolMetrics() {
+        return readerPool.getMetrics();
+    }
+
+    /**
+     * @return Usage metrics of the writer connection.
+     */
+    public PoolMetrics getWriterPoolMetrics() {
+        return writerPool.getMetrics();
+    }
+
+    @Override
+    public void close() {
+        readerPool.close();
+        writerPool.close();
+        if (slowQueryLog != null) {
+            slowQueryLog.close();
+        }
+    }
+
+    private Connection openConnection(boolean readOnly) throws SQLException {
+        Connection connection = DriverManager.getConnection(dbUrl);
+        try (Statement stmt = connection.createStatement()) {
+            for (String pragma : config.getConnectionPragmas()) {
+                stmt.execute(pragma);
+            }
+            if (readOnly) {
+                stmt.execute("PRAGMA query_only=ON;");
+            }
+        } catch (SQLException e) {
+            connection.close();
+            throw e;
+        }
+        return connection;
+    }
+
+    private void registerPoolGauges(ConnectionPool pool) {
+        String prefix = "pool." + pool.getMetrics().getPoolName() + ".";
+        metrics.gauge(prefix + "active", () -> pool.getMetrics().getActive());
+        metrics.gauge(prefix + "idle", () -> pool.getMetrics().getIdle());
+        metrics.gauge(prefix + "borrows", () -> pool.getMetrics().getBorrowCount());
+        metrics.gauge(prefix + "timeouts", () -> pool.getMetrics().getTimeoutCount());
+        metrics.gauge(prefix + "maxBorrowMicros", () -> pool.getMetrics().getMaxBorrowNanos() / 1_000);
+    }
+
+    private Connection lease(InvocationHandler handler) {
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(), new Class<?>[]{Connection.class}, handler);
+    }
+
+    // leaves the connection in auto-commit mode, returns false if the connection is no longer usable
+    private static boolean resetConnection(Connection connection) {
+        try {
+            if (!connection.getAutoCommit()) {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+            return !connection.isClosed();
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    private static Object delegate(Connection connection, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(connection, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static final class WriterOwnership {
+        private final Connection connection;
+        private int depth = 1;
+
+        private WriterOwnership(Connection connection) {
+            this.connection = connection;
+        }
+    }
+
+    private abstract class Lease implements InvocationHandler {
+        protected final Connection physical;
+        private boolean released;
+
+        private Lease(Connection physical) {
+            this.physical = physical;
+        }
+
+        protected abstract void release();
+
+        protected Object intercept(Method method, Object[] args) throws Throwable {
+            Object result = delegate(physical, method, args);
+            if (slowQueryLog != null && result instanceof PreparedStatement statement) {
+                return StatementTracer.trace(statement, (String) args[0], slowQueryLog);
+            }
+            return result;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!released) {
+                        released = true;
+                        release();
+                    }
+                    return null;
+                case "isClosed":
+                    return released || physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + physical + "]";
+                default:
+                    if (released) {
+                        throw new SQLException("The connection has already been returned to the pool.");
+                    }
+                    return intercept(method, args);
+            }
+        }
+    }
+
+    private final class ReaderLease extends Lease {
+        private ReaderLease(Connection physical) {
+            super(physical);
+        }
+
+        @Override
+        protected void release() {
+            boolean usable = resetConnection(physical);
+            readerPool.release(physical, !usable);
+        }
+    }
+
+    private final class WriterLease extends Lease {
+        private final boolean nested;
+
+        private WriterLease(Connection physical, boolean nested) {
+            super(physical);
+            this.nested = nested;
+        }
+
+        @Override
+        protected Object intercept(Method method, Object[] args) throws Throwable {
+            if (nested) {
+                switch (method.getName()) {
+                    case "setAutoCommit":
+                    case "commit":
+                    case "rollback":
+                        return null; // the transaction belongs to the outermost lease
+                    default:
+                        break;
+                }
+            }
+            return super.intercept(method, args);
+        }
+
+        @Override
+        protected void release() {
+            WriterOwnership ownership = writerOwnership.get();
+            if (ownership != null && --ownership.depth > 0) {
+                return;
+            }
+            writerOwnership.remove();
+            boolean usable = resetConnection(physical);
+            writerPool.release(physical, !usable);
+        }
+    }
+}
+
+//public class DatabaseManager {
+//    private String dbURL;
+//    private String dbUser;
+//    private String dbPassword;
+//
+//    public DatabaseManager() {
+//        try (InputStream input = getClass().getClassLoader().getResourceAsStream("config.properties")) {
+//            Properties properties = new Properties();
+//            if (input == null) {
+//                throw new IOException("config.properties file not found");
+//            }
+//            properties.load(input);
+//
+//            dbURL = properties.getProperty("db.url");
+//            dbUser = properties.getProperty("db.user");
+//            dbPassword = properties.getProperty("db.password");
+//
+//        } catch (IOException e) {
+//            e.printStackTrace();
+//        }
+//    }
+//
+//    public Connection getConnection() throws SQLException {
+//        return DriverManager.getConnection(dbURL, dbUser, dbPassword);
+//    }
+//}
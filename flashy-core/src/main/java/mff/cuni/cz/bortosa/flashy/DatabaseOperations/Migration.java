@@ -0,0 +1,57 @@
+package mff.cuni.cz.bortosa.flashy.DatabaseOperations;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * A numbered change of the schema, applied once to every database by the {@link MigrationRunner}.
+ * The change must be idempotent: a database may already contain part of it, e.g. when it was created before
+ * the migrations were numbered.
+ */
+public class Migration {
+    /**
+     * The work of a migration.
+     */
+    @FunctionalInterface
+    public interface Change {
+        /**
+         * Changes the schema, inside the transaction of the migration.
+         *
+         * @param connection The writer connection.
+         * @throws SQLException If a database error occurs, in which case the migration is rolled back.
+         */
+        void apply(Connection connection) throws SQLException;
+    }
+
+    private final int version;
+    private final String description;
+    private final Change change;
+
+    /**
+     * Creates a migration.
+     *
+     * @param version     The schema version reached by the migration, starting from 1.
+     * @param description What the migration changes, for the log.
+     * @param change      The change of the schema.
+     */
+    public Migration(int version, String description, Change change) {
+        if (version < 1) {
+            throw new IllegalArgumentException("Migration versions start from 1.");
+        }
+        this.version = version;
+        this.description = description;
+        this.change = change;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public Change getChange() {
+        return change;
+    }
+}
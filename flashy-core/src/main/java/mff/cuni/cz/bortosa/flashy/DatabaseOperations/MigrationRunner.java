@@ -0,0 +1,111 @@
+package mff.cuni.cz.bortosa.flashy.DatabaseOperations;
+
+import mff.cuni.cz.bortosa.flashy.Metrics.QueryEvent;
+import mff.cuni.cz.bortosa.flashy.Metrics.Timer;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Upgrades a database in place to the latest version of the schema.
+ * The version of a database is stored in its {@code PRAGMA user_version}, 0 for a new database and for the
+ * databases created before the migrations were numbered, and only the migrations of higher versions are applied.
+ * <p>
+ * Every migration runs in its own transaction together with the update of the version, so a migration
+ * interrupted on a large database, e.g. while building an index, is rolled back and applied again by the
+ * next start. Readers are not blocked meanwhile, because the database is in WAL mode. The index builds write
+ * the whole index to the WAL, which is therefore checkpointed and truncated after the migrations.
+ */
+public class MigrationRunner {
+    private final DatabaseManager databaseManager;
+    private final Timer migrationTimer;
+
+    /**
+     * Creates a runner for the given database.
+     *
+     * @param databaseManager The database to migrate.
+     */
+    public MigrationRunner(DatabaseManager databaseManager) {
+        this.databaseManager = databaseManager;
+        this.migrationTimer = databaseManager.getMetrics().timer("MigrationRunner.migrate");
+    }
+
+    /**
+     * Applies the migrations newer than the version of the database, in the order of their versions.
+     *
+     * @param migrations The migrations, sorted by strictly increasing versions.
+     * @return The number of migrations applied.
+     * @throws SQLException If a migration fails; the database keeps the version of the last successful one.
+     */
+    public int migrate(List<Migration> migrations) throws SQLException {
+        for (int i = 1; i < migrations.size(); i++) {
+            if (migrations.get(i).getVersion() <= migrations.get(i - 1).getVersion()) {
+                throw new IllegalArgumentException("The migrations must be sorted by strictly increasing versions.");
+            }
+        }
+
+        int version = getSchemaVersion();
+        int latestVersion = migrations.isEmpty() ? 0 : migrations.getLast().getVersion();
+        if (version > latestVersion) {
+            // an older build leaves the newer schema as it is
+            System.out.println("The database has schema version " + version + ", newer than the latest known version "
+                    + latestVersion + ".");
+            return 0;
+        }
+
+        int applied = 0;
+        for (Migration migration : migrations) {
+            if (migration.getVersion() > version) {
+                apply(migration);
+                applied++;
+            }
+        }
+        if (applied > 0) {
+            try (Connection connection = databaseManager.getWriteConnection();
+                 Statement stmt = connection.createStatement()) {
+                stmt.execute("PRAGMA wal_checkpoint(TRUNCATE)");
+            }
+        }
+        return applied;
+    }
+
+    /**
+     * @return The schema version of the database, 0 if it was never migrated.
+     * @throws SQLException If a database error occurs.
+     */
+    public int getSchemaVersion() throws SQLException {
+        try (Connection connection = databaseManager.getWriteConnection();
+             Statement stmt = connection.createStatement();
+             ResultSet resultSet = stmt.executeQuery("PRAGMA user_version")) {
+            return resultSet.next() ? resultSet.getInt(1) : 0;
+        }
+    }
+
+    private void apply(Migration migration) throws SQLException {
+        long start = System.nanoTime();
+        QueryEvent event = migrationTimer.begin();
+        try {
+            databaseManager.inTransaction(connection -> {
+                migration.getChange().apply(connection);
+                try (Statement stmt = connection.createStatement()) {
+                    // part of the transaction, so the version only changes if the migration is committed
+                    stmt.execute("PRAGMA user_version = " + migration.getVersion());
+                }
+                return null;
+            });
+        } catch (SQLException | RuntimeException e) {
+            migrationTimer.failed(event);
+            System.out.println("Migration to schema version " + migration.getVersion() + " ("
+                    + migration.getDescription() + ") failed, it was rolled back.");
+            throw e;
+        } finally {
+            migrationTimer.end(event, start);
+        }
+        System.out.println(String.format(Locale.ROOT, "Migrated the database to schema version %d (%s) in %.1f ms.",
+                migration.getVersion(), migration.getDescription(), (System.nanoTime() - start) / 1e6));
+    }
+}
@@ -0,0 +1,80 @@
+package mff.cuni.cz.bortosa.flashy.DatabaseOperations;
+
+/**
+ * Immutable snapshot of the usage of a connection pool managed by the {@link DatabaseManager}.
+ */
+public class PoolMetrics {
+    private final String poolName;
+    private final int maxSize;
+    private final int active;
+    private final int idle;
+    private final long borrowCount;
+    private final long timeoutCount;
+    private final long totalBorrowNanos;
+    private final long maxBorrowNanos;
+
+    public PoolMetrics(String poolName, int maxSize, int active, int idle, long borrowCount,
+                       long timeoutCount, long totalBorrowNanos, long maxBorrowNanos) {
+        this.poolName = poolName;
+        this.maxSize = maxSize;
+        this.active = active;
+        this.idle = idle;
+        this.borrowCount = borrowCount;
+        this.timeoutCount = timeoutCount;
+        this.totalBorrowNanos = totalBorrowNanos;
+        this.maxBorrowNanos = maxBorrowNanos;
+    }
+
+    public String getPoolName() {
+        return poolName;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    // number of connections currently lent out
+    public int getActive() {
+        return active;
+    }
+
+    // number of opened connections waiting in the pool
+    public int getIdle() {
+        return idle;
+    }
+
+    public long getBorrowCount() {
+        return borrowCount;
+    }
+
+    public long getTimeoutCount() {
+        return timeoutCount;
+    }
+
+    // time spent waiting for (and, if needed, opening) a connection
+    public long getTotalBorrowNanos() {
+        return totalBorrowNanos;
+    }
+
+    public long getMaxBorrowNanos() {
+        return maxBorrowNanos;
+    }
+
+    public double getAverageBorrowMillis() {
+        return borrowCount == 0 ? 0 : totalBorrowNanos / (borrowCount * 1_000_000.0);
+    }
+
+    @Override
+    public String toString() {
+        return "PoolMetrics{" +
+                "pool='" + poolName + '\'' +
+                ", maxSize=" + maxSize +
+                ", active=" + active +
+                ", idle=" + idle +
+                ", borrows=" + borrowCount +
+                ", timeouts=" + timeoutCount +
+                ", avgBorrowMs=" + String.format("%.3f", getAverageBorrowMillis()) +
+                ", maxBorrowMs=" + String.format("%.3f", maxBorrowNanos / 1_000_000.0) +
+                '}';
+    }
+}
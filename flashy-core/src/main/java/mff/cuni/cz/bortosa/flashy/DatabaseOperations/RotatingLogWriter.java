@@ -0,0 +1,214 @@
+package mff.cuni.cz.bortosa.flashy.DatabaseOperations;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Appends entries to a log file on a background thread, so that the threads producing them never wait for the disk.
+ * An entry may be queued as a supplier, which then also formats it on the background thread.
+ * When the file would grow over its maximum size it is renamed to {@code <file>.1}, the older files moving to
+ * {@code <file>.2} and so on, and the oldest file is deleted so that at most {@code maxFiles} files exist.
+ * Entries arriving faster than they can be written are dropped and counted.
+ */
+class RotatingLogWriter implements AutoCloseable {
+    private static final int QUEUE_CAPACITY = 1024;
+    private static final long POLL_MILLIS = 100;
+    private static final long CLOSE_TIMEOUT_MILLIS = 5_000;
+
+    private final Path file;
+    private final long maxFileBytes;
+    private final int maxFiles;
+    private final BlockingQueue<Supplier<String>> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final LongAdder writtenCount = new LongAdder();
+    private final LongAdder droppedCount = new LongAdder();
+    private final Runnable onStop;
+    private final Thread thread;
+    private volatile boolean closed;
+
+    // only used by the background thread
+    private OutputStream out;
+    private long fileSize;
+
+    /**
+     * Creates the writer and starts its background thread; the file is created with the first entry.
+     *
+     * @param file         The log file.
+     * @param maxFileBytes The size above which the file is rotated.
+     * @param maxFiles     The number of files kept, including the current one.
+     */
+    RotatingLogWriter(Path file, long maxFileBytes, int maxFiles) {
+        this(file, maxFileBytes, maxFiles, () -> { });
+    }
+
+    /**
+     * Creates the writer and starts its background thread, which runs the given action when it stops.
+     *
+     * @param file         The log file.
+     * @param maxFileBytes The size above which the file is rotated.
+     * @param maxFiles     The number of files kept, including the current one.
+     * @param onStop       Releases what the suppliers of the entries use, on the background thread after the last
+     *                     entry.
+     */
+    RotatingLogWriter(Path file, long maxFileBytes, int maxFiles, Runnable onStop) {
+        if (maxFileBytes < 1 || maxFiles < 1) {
+            throw new IllegalArgumentException("The log needs a positive file size and at least one file.");
+        }
+        this.file = file;
+        this.maxFileBytes = maxFileBytes;
+        this.maxFiles = maxFiles;
+        this.onStop = onStop;
+        this.thread = new Thread(this::run, "flashy-log-writer-" + file.getFileName());
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Queues an entry to be written, without waiting.
+     *
+     * @param entry The entry, written followed by a line separator.
+     */
+    void append(String entry) {
+        append(() -> entry);
+    }
+
+    /**
+     * Queues an entry to be formatted and written by the background thread, without waiting.
+     *
+     * @param entry Supplies the entry, written followed by a line separator.
+     */
+    void append(Supplier<String> entry) {
+        if (closed || !queue.offer(entry)) {
+            droppedCount.increment();
+        }
+    }
+
+    long getWrittenCount() {
+        return writtenCount.sum();
+    }
+
+    long getDroppedCount() {
+        return droppedCount.sum();
+    }
+
+    /**
+     * Writes the queued entries and stops the background thread, waiting for it at most a few seconds.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            thread.join(CLOSE_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        try {
+            while (!closed || !queue.isEmpty()) {
+                Supplier<String> entry = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (entry == null) {
+                    continue;
+                }
+                // everything queued in the meantime is written before the single flush
+                do {
+                    write(entry);
+                } while ((entry = queue.poll()) != null);
+                flush();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            closeFile();
+            onStop.run();
+        }
+    }
+
+    private void write(Supplier<String> entry) {
+        byte[] bytes;
+        try {
+            bytes = (entry.get() + System.lineSeparator()).getBytes(StandardCharsets.UTF_8);
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+            droppedCount.increment();
+            return;
+        }
+        try {
+            if (out == null) {
+                openFile();
+            }
+            if (fileSize > 0 && fileSize + bytes.length > maxFileBytes) {
+                closeFile();
+                rotate();
+                openFile();
+            }
+            out.write(bytes);
+            fileSize += bytes.length;
+            writtenCount.increment();
+        } catch (IOException e) {
+            e.printStackTrace();
+            droppedCount.increment();
+            closeFile(); // reopened with the next entry
+        }
+    }
+
+    private void flush() {
+        if (out != null) {
+            try {
+                out.flush();
+            } catch (IOException e) {
+                e.printStackTrace();
+                closeFile();
+            }
+        }
+    }
+
+    private void openFile() throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        if (directory != null) {
+            Files.createDirectories(directory);
+        }
+        out = new BufferedOutputStream(Files.newOutputStream(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND));
+        fileSize = Files.size(file);
+    }
+
+    private void closeFile() {
+        if (out != null) {
+            try {
+                out.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+            out = null;
+        }
+    }
+
+    private void rotate() throws IOException {
+        if (maxFiles == 1) {
+            Files.deleteIfExists(file);
+            return;
+        }
+        Files.deleteIfExists(rotatedFile(maxFiles - 1));
+        for (int i = maxFiles - 2; i >= 1; i--) {
+            if (Files.exists(rotatedFile(i))) {
+                Files.move(rotatedFile(i), rotatedFile(i + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        Files.move(file, rotatedFile(1), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private Path rotatedFile(int index) {
+        return file.resolveSibling(file.getFileName() + "." + index);
+    }
+}
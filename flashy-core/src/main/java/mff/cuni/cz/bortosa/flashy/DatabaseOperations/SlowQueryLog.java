@@ -0,0 +1,245 @@
+package mff.cuni.cz.bortosa.flashy.DatabaseOperations;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Log of the SQL statements slower than a threshold, written to a rotating file in the background.
+ * The {@link DatabaseManager} times every prepared statement executed on its connections, from the execution until
+ * the last row is read, and reports the slow ones here. An entry holds the statement, the types of its bound
+ * parameters but never their values, the elapsed time, the number of rows and the repository method and its caller.
+ * The first time a statement of a given shape is slow, its {@code EXPLAIN QUERY PLAN} is added to the entry,
+ * which shows the scans that a missing index would avoid.
+ * <p>
+ * The thread which ran the statement, often the JavaFX thread, only captures the statement, its timings and the
+ * frames of its callers. The entry is formatted, and the plan looked up on a read-only connection of the log,
+ * by the background thread writing the file.
+ * <p>
+ * The application configures the log with the {@code slowQuery.*} settings of the {@link DatabaseConfig}, e.g.
+ * {@code -Dflashy.slowQuery.thresholdMillis=50}; a negative threshold turns the log off.
+ */
+public class SlowQueryLog implements AutoCloseable {
+    // the frames of the statement tracing, which are skipped when looking for the caller
+    private static final List<String> TRACING_CLASSES = List.of(StatementTracer.class.getName(),
+            SlowQueryLog.class.getName(), DatabaseManager.class.getName());
+    private static final String REPOSITORIES_PACKAGE = "mff.cuni.cz.bortosa.flashy.Repositories.";
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance();
+    // enough to reach the caller of a repository through the tracing frames
+    private static final int MAX_CAPTURED_FRAMES = 32;
+    // string and number literals, which make statements of the same shape differ
+    private static final Pattern LITERALS = Pattern.compile("'(?:[^']|'')*'|\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final long thresholdNanos;
+    private final RotatingLogWriter writer;
+    private volatile ConnectionPool.ConnectionFactory connectionFactory;
+
+    // only used by the background writer
+    private final Set<String> explainedShapes = new HashSet<>();
+    private Connection planConnection;
+
+    /**
+     * Creates a slow-query log writing to the given file.
+     *
+     * @param threshold    The execution time from which a statement is logged.
+     * @param file         The log file; the directory is created if necessary.
+     * @param maxFileBytes The size above which the file is rotated.
+     * @param maxFiles     The number of files kept, including the current one.
+     */
+    public SlowQueryLog(Duration threshold, Path file, long maxFileBytes, int maxFiles) {
+        this.thresholdNanos = threshold.toNanos();
+        this.writer = new RotatingLogWriter(file, maxFileBytes, maxFiles, this::closePlanConnection);
+    }
+
+    /**
+     * Creates the slow-query log of the given configuration.
+     *
+     * @param config The configuration of the database.
+     * @return The log, or null if it is turned off by a negative threshold.
+     */
+    public static SlowQueryLog fromConfig(DatabaseConfig config) {
+        if (config.getSlowQueryThresholdMillis() < 0) {
+            return null;
+        }
+        return new SlowQueryLog(Duration.ofMillis(config.getSlowQueryThresholdMillis()), config.getSlowQueryFile(),
+                config.getSlowQueryMaxFileBytes(), config.getSlowQueryMaxFiles());
+    }
+
+    public long getThresholdNanos() {
+        return thresholdNanos;
+    }
+
+    /**
+     * @return The number of slow statements written to the log.
+     */
+    public long getLoggedCount() {
+        return writer.getWrittenCount();
+    }
+
+    /**
+     * @return The number of slow statements lost, because they were reported faster than the log could write them.
+     */
+    public long getDroppedCount() {
+        return writer.getDroppedCount();
+    }
+
+    /**
+     * Sets how the log opens the read-only connection on which it looks up the query plans.
+     * Called by the {@link DatabaseManager} owning the log.
+     *
+     * @param connectionFactory Opens a read-only connection to the database.
+     */
+    void setConnectionFactory(ConnectionPool.ConnectionFactory connectionFactory) {
+        this.connectionFactory = connectionFactory;
+    }
+
+    /**
+     * Writes the pending entries and stops the background writer, which then closes the connection of the plans.
+     */
+    @Override
+    public void close() {
+        writer.close();
+    }
+
+    /**
+     * Logs a slow statement. Called on the thread which executed it, so that its callers can be found.
+     *
+     * @param sql          The statement.
+     * @param parameters   The redacted parameters, e.g. {@code ?1=INTEGER, ?2=TEXT(12)}.
+     * @param elapsedNanos The time spent executing the statement and reading its rows.
+     * @param rows         The number of rows read or changed, -1 if unknown.
+     * @param failed       Whether the statement failed.
+     */
+    void record(String sql, String parameters, long elapsedNanos, long rows, boolean failed) {
+        List<StackWalker.StackFrame> frames = STACK_WALKER.walk(stream -> stream.limit(MAX_CAPTURED_FRAMES).toList());
+        writer.append(new SlowStatement(System.currentTimeMillis(), Thread.currentThread().getName(), sql, parameters,
+                elapsedNanos, rows, failed, frames));
+    }
+
+    // a slow statement as captured by the thread which ran it, formatted by the background writer
+    private final class SlowStatement implements Supplier<String> {
+        private final long timeMillis;
+        private final String threadName;
+        private final String sql;
+        private final String parameters;
+        private final long elapsedNanos;
+        private final long rows;
+        private final boolean failed;
+        private final List<StackWalker.StackFrame> frames;
+
+        SlowStatement(long timeMillis, String threadName, String sql, String parameters, long elapsedNanos, long rows,
+                      boolean failed, List<StackWalker.StackFrame> frames) {
+            this.timeMillis = timeMillis;
+            this.threadName = threadName;
+            this.sql = sql;
+            this.parameters = parameters;
+            this.elapsedNanos = elapsedNanos;
+            this.rows = rows;
+            this.failed = failed;
+            this.frames = frames;
+        }
+
+        @Override
+        public String get() {
+            StringBuilder entry = new StringBuilder();
+            entry.append(LocalDateTime.ofInstant(Instant.ofEpochMilli(timeMillis), ZoneId.systemDefault())
+                            .truncatedTo(ChronoUnit.MILLIS))
+                    .append(String.format(Locale.ROOT, " %.1f ms", elapsedNanos / 1e6))
+                    .append(", ").append(rows).append(rows == 1 ? " row" : " rows")
+                    .append(failed ? ", failed" : "")
+                    .append(", ").append(findCaller(frames))
+                    .append(" on ").append(threadName);
+            String statement = WHITESPACE.matcher(sql.strip()).replaceAll(" ");
+            entry.append(System.lineSeparator()).append("  ").append(statement);
+            if (!parameters.isEmpty()) {
+                entry.append(System.lineSeparator()).append("  parameters: ").append(parameters);
+            }
+            if (explainedShapes.add(LITERALS.matcher(statement).replaceAll("?"))) {
+                appendQueryPlan(entry, statement);
+            }
+            return entry.toString();
+        }
+    }
+
+    // the repository method which ran the statement and the method which called the repository
+    private static String findCaller(List<StackWalker.StackFrame> frames) {
+        String repositoryMethod = null;
+        for (StackWalker.StackFrame frame : frames) {
+            String className = frame.getClassName();
+            if (className.startsWith("java.") || className.startsWith("jdk.") || className.startsWith("com.sun.proxy.")
+                    || TRACING_CLASSES.contains(className.split("\\$", 2)[0])) {
+                continue;
+            }
+            String method = className.substring(className.lastIndexOf('.') + 1) + "." + frame.getMethodName();
+            if (className.startsWith(REPOSITORIES_PACKAGE)) {
+                if (repositoryMethod == null) {
+                    repositoryMethod = method;
+                }
+            } else {
+                return repositoryMethod == null ? method : repositoryMethod + " called by " + method;
+            }
+        }
+        return repositoryMethod == null ? "unknown caller" : repositoryMethod;
+    }
+
+    // the parameters are not bound for the plan, which SQLite chooses without looking at their values;
+    // statements without a plan, e.g. inserts of values, add nothing
+    private void appendQueryPlan(StringBuilder entry, String statement) {
+        StringBuilder plan = new StringBuilder();
+        try (Statement stmt = getPlanConnection().createStatement();
+             ResultSet resultSet = stmt.executeQuery("EXPLAIN QUERY PLAN " + statement)) {
+            Map<Integer, Integer> depths = new HashMap<>();
+            while (resultSet.next()) {
+                int depth = depths.getOrDefault(resultSet.getInt("parent"), 0);
+                depths.put(resultSet.getInt("id"), depth + 1);
+                plan.append(System.lineSeparator()).append("    ").append("  ".repeat(depth))
+                        .append(resultSet.getString("detail"));
+            }
+        } catch (SQLException e) {
+            plan.append(" unavailable, ").append(e.getMessage());
+        }
+        if (!plan.isEmpty()) {
+            entry.append(System.lineSeparator()).append("  plan:").append(plan);
+        }
+    }
+
+    // opened by the background writer with the first plan, so that looking up plans never borrows a connection
+    // of the application
+    private Connection getPlanConnection() throws SQLException {
+        if (planConnection == null) {
+            if (connectionFactory == null) {
+                throw new SQLException("The log is not attached to a database.");
+            }
+            planConnection = connectionFactory.create();
+        }
+        return planConnection;
+    }
+
+    // run by the background writer when it stops, so that the connection is never closed under a running plan
+    private void closePlanConnection() {
+        if (planConnection != null) {
+            try {
+                planConnection.close();
+            } catch (SQLException e) {
+                e.printStackTrace();
+            }
+            planConnection = null;
+        }
+    }
+}
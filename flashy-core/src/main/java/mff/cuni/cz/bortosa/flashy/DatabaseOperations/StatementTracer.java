@@ -0,0 +1,295 @@
+package mff.cuni.cz.bortosa.flashy.DatabaseOperations;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.StringJoiner;
+
+/**
+ * Wraps a prepared statement to time its executions and report the slow ones to the {@link SlowQueryLog}.
+ * An execution lasts from the call to an {@code execute} method until its result set is read to the end or closed,
+ * but only the time spent inside the driver counts, not the work the caller does with every row.
+ * The bound parameters are kept until the execution is reported, and only their types are logged.
+ * <p>
+ * The statement and its result sets forward the other calls directly, so reading a column costs one virtual call
+ * more than on the driver's result set.
+ */
+final class StatementTracer extends DelegatingPreparedStatement {
+    private final String sql;
+    private final SlowQueryLog log;
+    private Object[] parameters = new Object[8];
+    private int parameterCount;
+    private int batchSize;
+
+    // the execution being timed; result sets of earlier executions no longer count
+    private int execution;
+    private boolean executing;
+    private long elapsedNanos;
+    private long rows;
+    private int executedBatchSize;
+    private boolean failed;
+
+    private StatementTracer(PreparedStatement statement, String sql, SlowQueryLog log) {
+        super(statement);
+        this.sql = sql;
+        this.log = log;
+    }
+
+    /**
+     * Wraps a statement prepared on a physical connection.
+     *
+     * @param statement The statement.
+     * @param sql       The SQL of the statement.
+     * @param log       The log receiving the slow executions.
+     * @return The traced statement.
+     */
+    static PreparedStatement trace(PreparedStatement statement, String sql, SlowQueryLog log) {
+        return new StatementTracer(statement, sql, log);
+    }
+
+    @Override
+    public ResultSet executeQuery() throws SQLException {
+        startExecution();
+        ResultSet resultSet;
+        long start = System.nanoTime();
+        try {
+            resultSet = delegate.executeQuery();
+        } catch (SQLException | RuntimeException e) {
+            failExecution(start);
+            throw e;
+        }
+        elapsedNanos += System.nanoTime() - start;
+        return new TracedResultSet(resultSet, execution);
+    }
+
+    @Override
+    public int executeUpdate() throws SQLException {
+        startExecution();
+        long start = System.nanoTime();
+        int count;
+        try {
+            count = delegate.executeUpdate();
+        } catch (SQLException | RuntimeException e) {
+            failExecution(start);
+            throw e;
+        }
+        elapsedNanos += System.nanoTime() - start;
+        rows = count;
+        finishExecution();
+        return count;
+    }
+
+    @Override
+    public long executeLargeUpdate() throws SQLException {
+        startExecution();
+        long start = System.nanoTime();
+        long count;
+        try {
+            count = delegate.executeLargeUpdate();
+        } catch (SQLException | RuntimeException e) {
+            failExecution(start);
+            throw e;
+        }
+        elapsedNanos += System.nanoTime() - start;
+        rows = count;
+        finishExecution();
+        return count;
+    }
+
+    @Override
+    public int[] executeBatch() throws SQLException {
+        startBatchExecution();
+        long start = System.nanoTime();
+        int[] counts;
+        try {
+            counts = delegate.executeBatch();
+        } catch (SQLException | RuntimeException e) {
+            failExecution(start);
+            throw e;
+        }
+        elapsedNanos += System.nanoTime() - start;
+        for (int count : counts) {
+            rows += Math.max(count, 0);
+        }
+        finishExecution();
+        return counts;
+    }
+
+    @Override
+    public long[] executeLargeBatch() throws SQLException {
+        startBatchExecution();
+        long start = System.nanoTime();
+        long[] counts;
+        try {
+            counts = delegate.executeLargeBatch();
+        } catch (SQLException | RuntimeException e) {
+            failExecution(start);
+            throw e;
+        }
+        elapsedNanos += System.nanoTime() - start;
+        for (long count : counts) {
+            rows += Math.max(count, 0);
+        }
+        finishExecution();
+        return counts;
+    }
+
+    @Override
+    public boolean execute() throws SQLException {
+        startExecution();
+        long start = System.nanoTime();
+        boolean hasResultSet;
+        try {
+            hasResultSet = delegate.execute();
+        } catch (SQLException | RuntimeException e) {
+            failExecution(start);
+            throw e;
+        }
+        elapsedNanos += System.nanoTime() - start;
+        rows = hasResultSet ? -1 : delegate.getUpdateCount();
+        finishExecution();
+        return hasResultSet;
+    }
+
+    @Override
+    public void addBatch() throws SQLException {
+        delegate.addBatch();
+        batchSize++;
+    }
+
+    @Override
+    public void clearBatch() throws SQLException {
+        delegate.clearBatch();
+        batchSize = 0;
+    }
+
+    @Override
+    public void clearParameters() throws SQLException {
+        delegate.clearParameters();
+        Arrays.fill(parameters, 0, parameterCount, null);
+        parameterCount = 0;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        finishExecution();
+        delegate.close();
+    }
+
+    @Override
+    protected void parameterBound(int parameterIndex, Object value) {
+        if (parameterIndex < 1) {
+            return;
+        }
+        if (parameterIndex > parameters.length) {
+            parameters = Arrays.copyOf(parameters, Math.max(parameterIndex, parameters.length * 2));
+        }
+        parameters[parameterIndex - 1] = value;
+        parameterCount = Math.max(parameterCount, parameterIndex);
+    }
+
+    private void startExecution() {
+        finishExecution(); // the result set of the previous execution was left open
+        execution++;
+        executing = true;
+        elapsedNanos = 0;
+        rows = 0;
+        failed = false;
+    }
+
+    private void startBatchExecution() {
+        startExecution();
+        executedBatchSize = batchSize;
+        batchSize = 0;
+    }
+
+    private void failExecution(long startNanos) {
+        elapsedNanos += System.nanoTime() - startNanos;
+        failed = true;
+        finishExecution();
+    }
+
+    private void finishExecution() {
+        if (!executing) {
+            return;
+        }
+        executing = false;
+        if (elapsedNanos >= log.getThresholdNanos()) {
+            log.record(sql, describeParameters(), elapsedNanos, rows, failed);
+        }
+        executedBatchSize = 0;
+    }
+
+    // the types of the bound values, which tell apart the cases of a statement without revealing the user's data
+    private String describeParameters() {
+        StringJoiner values = new StringJoiner(", ");
+        for (int i = 0; i < parameterCount; i++) {
+            values.add("?" + (i + 1) + "=" + describeValue(parameters[i]));
+        }
+        if (executedBatchSize > 0) {
+            return "batch of " + executedBatchSize + (parameterCount == 0 ? "" : ", the last with " + values);
+        }
+        return values.toString();
+    }
+
+    // a bound value, or the wrapper class of a bound primitive
+    private static String describeValue(Object value) {
+        if (value == null) {
+            return "NULL";
+        } else if (value instanceof String text) {
+            return "TEXT(" + text.length() + ")";
+        } else if (value instanceof byte[] bytes) {
+            return "BLOB(" + bytes.length + ")";
+        }
+        Class<?> type = value instanceof Class<?> boundType ? boundType : value.getClass();
+        if (type == Integer.class || type == Long.class || type == Short.class || type == Byte.class) {
+            return "INTEGER";
+        } else if (Number.class.isAssignableFrom(type)) {
+            return "REAL";
+        }
+        return type.getSimpleName();
+    }
+
+    /**
+     * Result set of an execution, which adds the time spent reading its rows to the execution.
+     */
+    private final class TracedResultSet extends DelegatingResultSet {
+        private final int resultExecution;
+
+        private TracedResultSet(ResultSet resultSet, int resultExecution) {
+            super(resultSet);
+            this.resultExecution = resultExecution;
+        }
+
+        @Override
+        public boolean next() throws SQLException {
+            if (!executing || resultExecution != execution) {
+                return delegate.next();
+            }
+            long start = System.nanoTime();
+            boolean hasRow;
+            try {
+                hasRow = delegate.next();
+            } catch (SQLException | RuntimeException e) {
+                failExecution(start);
+                throw e;
+            }
+            elapsedNanos += System.nanoTime() - start;
+            if (hasRow) {
+                rows++;
+            } else {
+                finishExecution();
+            }
+            return hasRow;
+        }
+
+        @Override
+        public void close() throws SQLException {
+            if (executing && resultExecution == execution) {
+                finishExecution();
+            }
+            delegate.close();
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package mff.cuni.cz.bortosa.flashy.DatabaseOperations;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Unit of work executed by {@link DatabaseManager#inTransaction(TransactionCallback)}.
+ *
+ * @param <T> The type of the result produced by the work.
+ */
+@FunctionalInterface
+public interface TransactionCallback<T> {
+    /**
+     * Executes the work on the writer connection that owns the current transaction.
+     *
+     * @param connection The writer connection.
+     * @return The result of the work.
+     * @throws SQLException If a database error occurs, in which case the transaction is rolled back.
+     */
+    T execute(Connection connection) throws SQLException;
+}
@@ -0,0 +1,135 @@
+package mff.cuni.cz.bortosa.flashy.ImportExport;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.List;
+
+/**
+ * Streaming reader for CSV data as described by RFC 4180.
+ * The input is scanned once, character by character, from an internal buffer: fields may be quoted, quoted fields
+ * may contain commas, line breaks and escaped quotes ({@code ""}), records may end with LF or CRLF and a leading
+ * byte order mark is ignored. Apart from the strings of the fields themselves, reading a record does not allocate.
+ * Blank lines are skipped.
+ */
+public class CsvReader implements Closeable {
+    private static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+    private static final char BYTE_ORDER_MARK = '\uFEFF';
+
+    private final Reader reader;
+    private final char[] buffer;
+    private final StringBuilder field = new StringBuilder(128);
+    private int position;
+    private int limit;
+    private boolean atStart = true;
+    private long recordNumber;
+
+    public CsvReader(Reader reader) {
+        this(reader, DEFAULT_BUFFER_SIZE);
+    }
+
+    public CsvReader(Reader reader, int bufferSize) {
+        this.reader = reader;
+        this.buffer = new char[bufferSize];
+    }
+
+    /**
+     * Reads the next record.
+     *
+     * @param fields The list receiving the fields of the record; it is cleared first and can be reused between calls.
+     * @return false if the end of the input was reached and no record was read.
+     * @throws IOException If the underlying reader fails.
+     */
+    public boolean readRecord(List<String> fields) throws IOException {
+        fields.clear();
+        if (atStart) {
+            atStart = false;
+            if (peek() == BYTE_ORDER_MARK) {
+                position++;
+            }
+        }
+
+        int c;
+        // skip blank lines between records
+        while ((c = peek()) == '\n' || c == '\r') {
+            position++;
+        }
+        if (c == -1) {
+            return false;
+        }
+
+        while (true) {
+            field.setLength(0);
+            c = next();
+            if (c == '"') {
+                c = readQuoted();
+            }
+            while (c != ',' && c != '\n' && c != '\r' && c != -1) {
+                field.append((char) c); // unquoted field, or text following a closing quote
+                c = next();
+            }
+            fields.add(field.toString());
+
+            if (c != ',') {
+                if (c == '\r' && peek() == '\n') {
+                    position++;
+                }
+                recordNumber++;
+                return true;
+            }
+        }
+    }
+
+    /**
+     * @return The number of records read so far.
+     */
+    public long getRecordNumber() {
+        return recordNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    // Reads the content of a quoted field after its opening quote, returns the character following the closing quote
+    private int readQuoted() throws IOException {
+        while (true) {
+            int c = next();
+            if (c == -1) {
+                return c; // unterminated quote, keep what was read
+            }
+            if (c == '"') {
+                if (peek() != '"') {
+                    return next();
+                }
+                position++; // escaped quote
+            }
+            field.append((char) c);
+        }
+    }
+
+    private int next() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        return buffer[position++];
+    }
+
+    private int peek() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        return buffer[position];
+    }
+
+    private boolean fill() throws IOException {
+        int read = reader.read(buffer, 0, buffer.length);
+        while (read == 0) {
+            read = reader.read(buffer, 0, buffer.length);
+        }
+        position = 0;
+        limit = Math.max(read, 0);
+        return read > 0;
+    }
+}
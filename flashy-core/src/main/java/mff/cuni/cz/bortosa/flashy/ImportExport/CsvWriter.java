@@ -0,0 +1,78 @@
+package mff.cuni.cz.bortosa.flashy.ImportExport;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writes CSV records as described by RFC 4180 to an underlying writer.
+ * Fields are escaped by scanning them once for quotes, without regular expressions or formatting,
+ * so the writer should be buffered for the output to run at disk speed.
+ */
+public class CsvWriter implements Closeable, Flushable {
+    private final Writer writer;
+    private boolean firstField = true;
+
+    public CsvWriter(Writer writer) {
+        this.writer = writer;
+    }
+
+    /**
+     * Writes a field as is, for values that cannot contain commas, quotes or line breaks (numbers, enum names).
+     */
+    public CsvWriter writePlain(String value) throws IOException {
+        separate();
+        writer.write(value);
+        return this;
+    }
+
+    public CsvWriter writePlain(int value) throws IOException {
+        return writePlain(Integer.toString(value));
+    }
+
+    /**
+     * Writes a field enclosed in quotes, doubling the quotes it contains. A null value is written as an empty field.
+     */
+    public CsvWriter writeQuoted(String value) throws IOException {
+        separate();
+        writer.write('"');
+        if (value != null) {
+            int start = 0;
+            int quote;
+            while ((quote = value.indexOf('"', start)) != -1) {
+                writer.write(value, start, quote + 1 - start);
+                writer.write('"');
+                start = quote + 1;
+            }
+            writer.write(value, start, value.length() - start);
+        }
+        writer.write('"');
+        return this;
+    }
+
+    /**
+     * Terminates the current record.
+     */
+    public void endRecord() throws IOException {
+        writer.write('\n');
+        firstField = true;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+
+    private void separate() throws IOException {
+        if (!firstField) {
+            writer.write(',');
+        }
+        firstField = false;
+    }
+}
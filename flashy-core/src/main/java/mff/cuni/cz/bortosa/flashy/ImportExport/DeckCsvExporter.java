@@ -0,0 +1,71 @@
+package mff.cuni.cz.bortosa.flashy.ImportExport;
+
+import mff.cuni.cz.bortosa.flashy.Models.Flashcard;
+import mff.cuni.cz.bortosa.flashy.Repositories.FlashcardDeckRepository;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+
+/**
+ * Exports the flashcards of a deck as UTF-8 CSV ({@code ID,Question,Answer,Hint,State,Difficulty}).
+ * Rows are written while the cursor over the deck advances, so the memory used does not depend on the deck size.
+ */
+public class DeckCsvExporter {
+    private static final int BUFFER_SIZE = 256 * 1024;
+
+    private final FlashcardDeckRepository flashcardDeckRepository;
+
+    public DeckCsvExporter(FlashcardDeckRepository flashcardDeckRepository) {
+        this.flashcardDeckRepository = flashcardDeckRepository;
+    }
+
+    /**
+     * Writes the flashcards of a deck to the given stream. The stream is flushed but not closed,
+     * so it can be wrapped or piped (e.g. into a {@link java.util.zip.GZIPOutputStream}) by the caller.
+     *
+     * @param deckId The ID of the deck to export.
+     * @param out    The stream receiving the CSV data.
+     * @return The number of exported flashcards.
+     * @throws SQLException If a database error occurs.
+     * @throws IOException  If writing to the stream fails.
+     */
+    public int exportDeck(int deckId, OutputStream out) throws SQLException, IOException {
+        CsvWriter csvWriter = new CsvWriter(
+                new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE));
+        csvWriter.writePlain("ID").writePlain("Question").writePlain("Answer")
+                .writePlain("Hint").writePlain("State").writePlain("Difficulty");
+        csvWriter.endRecord();
+
+        int[] rows = new int[1];
+        try {
+            flashcardDeckRepository.forEachFlashcardInDeck(deckId, flashcard -> {
+                try {
+                    writeFlashcard(csvWriter, flashcard);
+                    rows[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        csvWriter.flush();
+        return rows[0];
+    }
+
+    private static void writeFlashcard(CsvWriter csvWriter, Flashcard flashcard) throws IOException {
+        csvWriter.writePlain(flashcard.getFlashcardId())
+                .writeQuoted(flashcard.getQuestion())
+                .writeQuoted(flashcard.getAnswer())
+                .writeQuoted(flashcard.getHint())
+                .writePlain(flashcard.getState().name())
+                .writePlain(flashcard.getDifficulty().name());
+        csvWriter.endRecord();
+    }
+}
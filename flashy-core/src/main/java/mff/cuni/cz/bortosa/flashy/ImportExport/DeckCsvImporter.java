@@ -0,0 +1,171 @@
+package mff.cuni.cz.bortosa.flashy.ImportExport;
+
+import mff.cuni.cz.bortosa.flashy.DatabaseOperations.DatabaseManager;
+import mff.cuni.cz.bortosa.flashy.Models.Deck;
+import mff.cuni.cz.bortosa.flashy.Models.Flashcard;
+import mff.cuni.cz.bortosa.flashy.Models.ImportCheckpoint;
+import mff.cuni.cz.bortosa.flashy.Repositories.DecksRepository;
+import mff.cuni.cz.bortosa.flashy.Repositories.FlashcardDeckRepository;
+import mff.cuni.cz.bortosa.flashy.Repositories.FlashcardsRepository;
+import mff.cuni.cz.bortosa.flashy.Repositories.ImportCheckpointsRepository;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Imports a deck from a CSV file in the format written by the deck export
+ * ({@code ID,Question,Answer,Hint,State,Difficulty}).
+ * Rows are inserted in chunks, each chunk in a single transaction with batched statements. The number of committed
+ * rows is saved in the same transaction, so if an import fails, importing the same file again resumes after the
+ * last committed chunk instead of starting over.
+ */
+public class DeckCsvImporter {
+    public static final int DEFAULT_CHUNK_SIZE = 5_000;
+
+    private final DatabaseManager databaseManager;
+    private final FlashcardsRepository flashcardsRepository;
+    private final FlashcardDeckRepository flashcardDeckRepository;
+    private final DecksRepository decksRepository;
+    private final ImportCheckpointsRepository checkpointsRepository;
+    private final int chunkSize;
+
+    /**
+     * Creates an importer.
+     *
+     * @param chunkSize The number of rows committed per transaction; 0 or less imports the whole file in one transaction.
+     */
+    public DeckCsvImporter(DatabaseManager databaseManager, FlashcardsRepository flashcardsRepository,
+                           FlashcardDeckRepository flashcardDeckRepository, DecksRepository decksRepository,
+                           ImportCheckpointsRepository checkpointsRepository, int chunkSize) {
+        this.databaseManager = databaseManager;
+        this.flashcardsRepository = flashcardsRepository;
+        this.flashcardDeckRepository = flashcardDeckRepository;
+        this.decksRepository = decksRepository;
+        this.checkpointsRepository = checkpointsRepository;
+        this.chunkSize = chunkSize > 0 ? chunkSize : Integer.MAX_VALUE;
+    }
+
+    /**
+     * Imports the flashcards of a CSV file into a new deck, or resumes an interrupted import of the same file.
+     *
+     * @param deck     The deck to create. When resuming, it receives the ID of the deck created by the first run.
+     * @param file     The CSV file to import.
+     * @param listener Receives the progress after every committed chunk.
+     * @return The outcome of the import.
+     * @throws SQLException If a database error occurs. The chunks committed before the error are kept.
+     * @throws IOException  If the file cannot be read.
+     */
+    public ImportResult importDeck(Deck deck, Path file, ImportListener listener) throws SQLException, IOException {
+        long start = System.nanoTime();
+        String source = file.toAbsolutePath().normalize().toString();
+
+        int rowsToSkip = 0;
+        ImportCheckpoint checkpoint = checkpointsRepository.getCheckpoint(source);
+        if (checkpoint != null && decksRepository.getDeckById(checkpoint.getDeckId()) != null) {
+            deck.setId(checkpoint.getDeckId());
+            rowsToSkip = checkpoint.getRowsCommitted();
+        } else {
+            deck.setId(-1);
+        }
+
+        ImportProgress progress = new ImportProgress(deck, source, rowsToSkip, start);
+        try (CsvReader csvReader = new CsvReader(Files.newBufferedReader(file, StandardCharsets.UTF_8))) {
+            List<String> values = new ArrayList<>(6);
+            csvReader.readRecord(values); // Skip the header line
+
+            int row = 0;
+            List<Flashcard> chunk = new ArrayList<>(Math.min(chunkSize, DEFAULT_CHUNK_SIZE));
+            while (csvReader.readRecord(values)) {
+                Flashcard flashcard = parseRow(values);
+                if (flashcard == null || row++ < rowsToSkip) {
+                    continue; // invalid row, or already imported by an interrupted run
+                }
+
+                chunk.add(flashcard);
+                if (chunk.size() == chunkSize) {
+                    commitChunk(chunk, progress, listener);
+                    chunk = new ArrayList<>(chunk.size());
+                }
+            }
+
+            if (!chunk.isEmpty() || deck.getId() == -1) {
+                commitChunk(chunk, progress, listener);
+            }
+        }
+
+        checkpointsRepository.deleteCheckpoint(source);
+        return progress.toResult();
+    }
+
+    private void commitChunk(List<Flashcard> chunk, ImportProgress progress, ImportListener listener) throws SQLException {
+        Deck deck = progress.deck;
+        boolean createsDeck = deck.getId() == -1;
+        try {
+            databaseManager.inTransaction(conn -> {
+                if (createsDeck) {
+                    decksRepository.addDeck(deck);
+                }
+                flashcardsRepository.addFlashcards(chunk);
+                flashcardDeckRepository.addFlashcardsToDeck(chunk, deck.getId());
+                checkpointsRepository.saveCheckpoint(new ImportCheckpoint(
+                        progress.source, deck.getId(), progress.rowsResumedFrom + progress.rowsImported + chunk.size()));
+                return null;
+            });
+        } catch (SQLException | RuntimeException e) {
+            if (createsDeck) {
+                deck.setId(-1); // the deck was rolled back together with the chunk
+            }
+            throw e;
+        }
+
+        progress.rowsImported += chunk.size();
+        progress.chunksCommitted++;
+        if (createsDeck) {
+            listener.onDeckCreated(deck);
+        }
+        listener.onChunkCommitted(chunk, progress.toResult());
+    }
+
+    // Converts a CSV record into a flashcard, returns null if the record is not valid
+    private static Flashcard parseRow(List<String> values) {
+        if (values.size() < 6) return null; // Ensure valid row
+
+        String question = values.get(1).trim();
+        String answer = values.get(2).trim();
+        String hint = values.get(3).trim();
+        String state = values.get(4).trim();
+        String difficulty = values.get(5).trim();
+
+        try {
+            return new Flashcard(-1, question, answer, hint,
+                    Flashcard.State.valueOf(state), Flashcard.Difficulty.valueOf(difficulty));
+        } catch (IllegalArgumentException e) {
+            return null; // empty question or answer, or unknown state or difficulty
+        }
+    }
+
+    private static final class ImportProgress {
+        private final Deck deck;
+        private final String source;
+        private final int rowsResumedFrom;
+        private final long start;
+        private int rowsImported;
+        private int chunksCommitted;
+
+        private ImportProgress(Deck deck, String source, int rowsResumedFrom, long start) {
+            this.deck = deck;
+            this.source = source;
+            this.rowsResumedFrom = rowsResumedFrom;
+            this.start = start;
+        }
+
+        private ImportResult toResult() {
+            return new ImportResult(deck, rowsImported, rowsResumedFrom, chunksCommitted, System.nanoTime() - start);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package mff.cuni.cz.bortosa.flashy.ImportExport;
+
+import mff.cuni.cz.bortosa.flashy.Models.Deck;
+import mff.cuni.cz.bortosa.flashy.Models.Flashcard;
+
+import java.util.List;
+
+/**
+ * Receives the progress of a deck import. Methods are called after the corresponding transaction has been committed.
+ */
+public interface ImportListener {
+    /**
+     * Called once the deck receiving the imported flashcards has been created.
+     *
+     * @param deck The new deck.
+     */
+    default void onDeckCreated(Deck deck) {
+    }
+
+    /**
+     * Called after every committed chunk.
+     *
+     * @param flashcards The flashcards committed in the chunk.
+     * @param progress   The progress of the import so far.
+     */
+    default void onChunkCommitted(List<Flashcard> flashcards, ImportResult progress) {
+    }
+}
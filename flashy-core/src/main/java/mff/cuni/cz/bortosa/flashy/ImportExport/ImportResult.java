@@ -0,0 +1,60 @@
+package mff.cuni.cz.bortosa.flashy.ImportExport;
+
+import mff.cuni.cz.bortosa.flashy.Models.Deck;
+
+/**
+ * Progress, and eventually the outcome, of a deck import.
+ */
+public class ImportResult {
+    private final Deck deck;
+    private final int rowsImported;
+    private final int rowsResumedFrom;
+    private final int chunksCommitted;
+    private final long elapsedNanos;
+
+    public ImportResult(Deck deck, int rowsImported, int rowsResumedFrom, int chunksCommitted, long elapsedNanos) {
+        this.deck = deck;
+        this.rowsImported = rowsImported;
+        this.rowsResumedFrom = rowsResumedFrom;
+        this.chunksCommitted = chunksCommitted;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public Deck getDeck() {
+        return deck;
+    }
+
+    // rows committed by this run, excluding the ones committed by an earlier, interrupted run
+    public int getRowsImported() {
+        return rowsImported;
+    }
+
+    // rows that were already committed by an interrupted run and were skipped, 0 for a fresh import
+    public int getRowsResumedFrom() {
+        return rowsResumedFrom;
+    }
+
+    public int getChunksCommitted() {
+        return chunksCommitted;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public double getRowsPerSecond() {
+        return elapsedNanos == 0 ? 0 : rowsImported * 1_000_000_000.0 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "ImportResult{" +
+                "deck='" + deck.getName() + '\'' +
+                ", rowsImported=" + rowsImported +
+                ", rowsResumedFrom=" + rowsResumedFrom +
+                ", chunks=" + chunksCommitted +
+                ", elapsedMs=" + elapsedNanos / 1_000_000 +
+                ", rowsPerSecond=" + Math.round(getRowsPerSecond()) +
+                '}';
+    }
+}
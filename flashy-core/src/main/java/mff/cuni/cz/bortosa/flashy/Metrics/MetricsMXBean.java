@@ -0,0 +1,28 @@
+package mff.cuni.cz.bortosa.flashy.Metrics;
+
+import java.util.Map;
+
+/**
+ * The management interface of a {@link MetricsRegistry}, readable from JConsole, VisualVM or any other JMX client.
+ */
+public interface MetricsMXBean {
+    /**
+     * @return The value of every counter, by name.
+     */
+    Map<String, Long> getCounters();
+
+    /**
+     * @return The current value of every gauge, by name.
+     */
+    Map<String, Long> getGauges();
+
+    /**
+     * @return A snapshot of every timer, by name.
+     */
+    Map<String, TimerSnapshot> getTimers();
+
+    /**
+     * Sets the counters and timers back to zero, e.g. before measuring a scenario.
+     */
+    void reset();
+}
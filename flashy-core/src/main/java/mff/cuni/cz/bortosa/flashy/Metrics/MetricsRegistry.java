@@ -0,0 +1,154 @@
+package mff.cuni.cz.bortosa.flashy.Metrics;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Named counters, gauges and timers of the application.
+ * Components look their metrics up once, e.g. when they are created, and keep them in fields; updating a metric
+ * afterwards allocates nothing and takes no lock, so the instrumentation can stay enabled all the time.
+ * The registry can be published as a platform MBean to read the metrics over JMX.
+ */
+public class MetricsRegistry {
+    public static final String MBEAN_NAME = "mff.cuni.cz.bortosa.flashy:type=Metrics";
+
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private final Map<String, LongSupplier> gauges = new ConcurrentHashMap<>();
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    /**
+     * Retrieves the counter with the given name, creating it if necessary.
+     *
+     * @param name The name of the counter.
+     * @return The counter.
+     */
+    public Counter counter(String name) {
+        return counters.computeIfAbsent(name, _ -> new Counter());
+    }
+
+    /**
+     * Retrieves the timer with the given name, creating it if necessary.
+     *
+     * @param name The name of the timer, e.g. {@code FlashcardsRepository.getFlashcardById}.
+     * @return The timer.
+     */
+    public Timer timer(String name) {
+        return timers.computeIfAbsent(name, Timer::new);
+    }
+
+    /**
+     * Registers a gauge, replacing the gauge previously registered under the same name.
+     *
+     * @param name  The name of the gauge.
+     * @param value Reads the current value; called only when the metrics are read.
+     */
+    public void gauge(String name, LongSupplier value) {
+        gauges.put(name, value);
+    }
+
+    /**
+     * @return The value of every counter, sorted by name.
+     */
+    public Map<String, Long> getCounters() {
+        Map<String, Long> values = new TreeMap<>();
+        counters.forEach((name, counter) -> values.put(name, counter.getCount()));
+        return values;
+    }
+
+    /**
+     * @return The current value of every gauge, sorted by name.
+     */
+    public Map<String, Long> getGauges() {
+        Map<String, Long> values = new TreeMap<>();
+        gauges.forEach((name, gauge) -> values.put(name, gauge.getAsLong()));
+        return values;
+    }
+
+    /**
+     * @return A snapshot of every timer, sorted by name.
+     */
+    public Map<String, TimerSnapshot> getTimers() {
+        Map<String, TimerSnapshot> snapshots = new TreeMap<>();
+        timers.forEach((name, timer) -> snapshots.put(name, timer.snapshot()));
+        return snapshots;
+    }
+
+    /**
+     * Sets the counters and timers back to zero. Gauges are not affected, they report current values.
+     */
+    public void reset() {
+        counters.values().forEach(Counter::reset);
+        timers.values().forEach(Timer::reset);
+    }
+
+    /**
+     * Publishes the registry in the platform MBean server under {@link #MBEAN_NAME}, replacing a registry published before.
+     *
+     * @return The name of the MBean.
+     * @throws JMException If the MBean cannot be registered.
+     */
+    public ObjectName registerMBean() throws JMException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(MBEAN_NAME);
+        if (server.isRegistered(name)) {
+            server.unregisterMBean(name);
+        }
+        server.registerMBean(new MetricsMXBean() {
+            @Override
+            public Map<String, Long> getCounters() {
+                return MetricsRegistry.this.getCounters();
+            }
+
+            @Override
+            public Map<String, Long> getGauges() {
+                return MetricsRegistry.this.getGauges();
+            }
+
+            @Override
+            public Map<String, TimerSnapshot> getTimers() {
+                return MetricsRegistry.this.getTimers();
+            }
+
+            @Override
+            public void reset() {
+                MetricsRegistry.this.reset();
+            }
+        }, name);
+        return name;
+    }
+
+    /**
+     * Removes the MBean published by {@link #registerMBean()}, if any.
+     */
+    public void unregisterMBean() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(MBEAN_NAME);
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+        } catch (JMException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * @return The timers which recorded at least one call, then the counters and gauges, one per line.
+     */
+    @Override
+    public String toString() {
+        List<String> lines = new ArrayList<>();
+        getTimers().values().stream().filter(timer -> timer.getCount() > 0).forEach(timer -> lines.add(timer.toString()));
+        getCounters().forEach((name, value) -> lines.add(name + ": " + value));
+        getGauges().forEach((name, value) -> lines.add(name + ": " + value));
+        return String.join(System.lineSeparator(), lines);
+    }
+}
@@ -0,0 +1,43 @@
+package mff.cuni.cz.bortosa.flashy.Metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Java Flight Recorder event of a repository call, which runs one or more SQL statements.
+ * The event records the thread it ran on, so a recording shows the database calls made on the JavaFX thread;
+ * see {@code flashy.jfc} for a recording profile.
+ * Events are created and committed by {@link Timer#begin()} and {@link Timer#end(QueryEvent, long)}, only while
+ * a recording has them enabled.
+ */
+@Name("mff.cuni.cz.bortosa.flashy.Query")
+@Label("Database Query")
+@Category({"Flashy", "Database"})
+@Description("A repository call and the SQL statements it ran")
+public class QueryEvent extends Event {
+    @Label("Query")
+    @Description("The repository method, e.g. FlashcardsRepository.getFlashcardById")
+    private final String query;
+
+    @Label("Rows")
+    @Description("The number of rows read or changed, -1 if the call does not count them")
+    private long rows = -1;
+
+    @Label("Failed")
+    private boolean failed;
+
+    QueryEvent(String query) {
+        this.query = query;
+    }
+
+    void setRows(long rows) {
+        this.rows = rows;
+    }
+
+    void setFailed() {
+        this.failed = true;
+    }
+}
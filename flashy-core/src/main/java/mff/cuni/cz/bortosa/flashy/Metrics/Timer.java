@@ -0,0 +1,134 @@
+package mff.cuni.cz.bortosa.flashy.Metrics;
+
+import jdk.jfr.EventType;
+
+/**
+ * Times an operation: how often it ran, how long it took and how often it failed.
+ * Callers take {@link System#nanoTime()} before the operation and hand it to {@link #record(long)} when it ends:
+ * <pre>{@code
+ * long start = System.nanoTime();
+ * try {
+ *     ...
+ * } catch (SQLException e) {
+ *     timer.failed();
+ *     throw e;
+ * } finally {
+ *     timer.record(start);
+ * }
+ * }</pre>
+ * Database calls also emit a {@link QueryEvent} to a running flight recording, with the same block around
+ * {@link #begin()}, {@link #failed(QueryEvent)} and {@link #end(QueryEvent, long)}:
+ * <pre>{@code
+ * long start = System.nanoTime();
+ * QueryEvent event = timer.begin();
+ * try {
+ *     ...
+ *     timer.setRows(event, flashcards.size());
+ *     return flashcards;
+ * } catch (SQLException | RuntimeException e) {
+ *     timer.failed(event);
+ *     throw e;
+ * } finally {
+ *     timer.end(event, start);
+ * }
+ * }</pre>
+ * The event is null while no recording asks for it, so like {@link #record(long)} the block allocates nothing.
+ */
+public class Timer {
+    private static final EventType QUERY_EVENT_TYPE = EventType.getEventType(QueryEvent.class);
+
+    private final String name;
+    private final LatencyHistogram latencies = new LatencyHistogram();
+    private final Counter failures = new Counter();
+
+    Timer(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Records an operation which started at the given time and ends now.
+     *
+     * @param startNanos The {@link System#nanoTime()} taken when the operation started.
+     */
+    public void record(long startNanos) {
+        latencies.record(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Counts a failed operation; its duration is still recorded by {@link #record(long)}.
+     */
+    public void failed() {
+        failures.increment();
+    }
+
+    /**
+     * Starts the event of a database call.
+     *
+     * @return The started event, or null while no flight recording has {@link QueryEvent} enabled.
+     */
+    public QueryEvent begin() {
+        if (!QUERY_EVENT_TYPE.isEnabled()) {
+            return null;
+        }
+        QueryEvent event = new QueryEvent(name);
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Records a database call which started at the given time and ends now, and commits its event.
+     *
+     * @param event      The event returned by {@link #begin()}, may be null.
+     * @param startNanos The {@link System#nanoTime()} taken when the call started.
+     */
+    public void end(QueryEvent event, long startNanos) {
+        record(startNanos);
+        if (event != null) {
+            event.end();
+            if (event.shouldCommit()) {
+                event.commit();
+            }
+        }
+    }
+
+    // counts a failed database call; its duration is still recorded by end()
+    public void failed(QueryEvent event) {
+        failures.increment();
+        if (event != null) {
+            event.setFailed();
+        }
+    }
+
+    // the number of rows read or changed by a database call
+    public void setRows(QueryEvent event, long rows) {
+        if (event != null) {
+            event.setRows(rows);
+        }
+    }
+
+    public LatencyHistogram getLatencies() {
+        return latencies;
+    }
+
+    public long getFailureCount() {
+        return failures.getCount();
+    }
+
+    /**
+     * @return The current values of the timer.
+     */
+    public TimerSnapshot snapshot() {
+        return new TimerSnapshot(name, latencies.getCount(), failures.getCount(), latencies.getTotalNanos(),
+                latencies.getPercentileNanos(50), latencies.getPercentileNanos(95), latencies.getPercentileNanos(99),
+                latencies.getMaxNanos());
+    }
+
+    void reset() {
+        latencies.reset();
+        failures.reset();
+    }
+}
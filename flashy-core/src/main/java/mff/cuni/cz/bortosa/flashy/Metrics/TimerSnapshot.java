@@ -0,0 +1,65 @@
+package mff.cuni.cz.bortosa.flashy.Metrics;
+
+/**
+ * Immutable snapshot of a {@link Timer}, in microseconds as shown by JMX consoles.
+ */
+public class TimerSnapshot {
+    private final String name;
+    private final long count;
+    private final long failureCount;
+    private final long totalNanos;
+    private final long p50Nanos;
+    private final long p95Nanos;
+    private final long p99Nanos;
+    private final long maxNanos;
+
+    public TimerSnapshot(String name, long count, long failureCount, long totalNanos,
+                         long p50Nanos, long p95Nanos, long p99Nanos, long maxNanos) {
+        this.name = name;
+        this.count = count;
+        this.failureCount = failureCount;
+        this.totalNanos = totalNanos;
+        this.p50Nanos = p50Nanos;
+        this.p95Nanos = p95Nanos;
+        this.p99Nanos = p99Nanos;
+        this.maxNanos = maxNanos;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getFailureCount() {
+        return failureCount;
+    }
+
+    public double getMeanMicros() {
+        return count == 0 ? 0 : totalNanos / 1_000.0 / count;
+    }
+
+    public double getP50Micros() {
+        return p50Nanos / 1_000.0;
+    }
+
+    public double getP95Micros() {
+        return p95Nanos / 1_000.0;
+    }
+
+    public double getP99Micros() {
+        return p99Nanos / 1_000.0;
+    }
+
+    public double getMaxMicros() {
+        return maxNanos / 1_000.0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d calls, %d failed, mean %.1f us, p50 %.1f us, p95 %.1f us, p99 %.1f us, max %.1f us",
+                name, count, failureCount, getMeanMicros(), getP50Micros(), getP95Micros(), getP99Micros(), getMaxMicros());
+    }
+}
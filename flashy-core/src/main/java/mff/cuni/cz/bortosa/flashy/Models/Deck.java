@@ -23,6 +23,13 @@ public class Deck {
         this.description = description;
     }
 
+    // copy of another deck
+    public Deck(Deck other) {
+        this.id = other.id;
+        this.name = other.name;
+        this.description = other.description;
+    }
+
     // getters, setters ...
     public void setId(int id) {
         this.id = id;
@@ -17,6 +17,7 @@ public class Flashcard {
     private String hint;
     private State state;
     private Difficulty difficulty;
+    private ReviewSchedule schedule = ReviewSchedule.NEW;
 
     // for flashcards created by the user
     public Flashcard(String question, String answer, String hint) {
@@ -50,6 +51,17 @@ public class Flashcard {
         this.difficulty = difficulty;
     }
 
+    // copy of another flashcard
+    public Flashcard(Flashcard other) {
+        this.id = other.id;
+        this.question = other.question;
+        this.answer = other.answer;
+        this.hint = other.hint;
+        this.state = other.state;
+        this.difficulty = other.difficulty;
+        this.schedule = other.schedule;
+    }
+
     // getters, setters...
     public void setId(int id){
         this.id = id;
@@ -99,6 +111,15 @@ public class Flashcard {
         this.state = newState;
     }
 
+    // when the flashcard should be reviewed next, see Sm2Scheduler
+    public ReviewSchedule getSchedule() {
+        return schedule;
+    }
+
+    public void setSchedule(ReviewSchedule schedule) {
+        this.schedule = schedule;
+    }
+
     public boolean isLearnt() {
         return this.state == State.LEARNT;
     }
@@ -0,0 +1,62 @@
+package mff.cuni.cz.bortosa.flashy.Models;
+
+/**
+ * A change of the state, difficulty and/or review schedule of a flashcard, made while studying it.
+ * A null state, difficulty or schedule leaves the current value of the flashcard unchanged.
+ */
+public class FlashcardProgress {
+    private final int flashcardId;
+    private final Flashcard.State state;
+    private final Flashcard.Difficulty difficulty;
+    private final ReviewSchedule schedule;
+
+    public FlashcardProgress(int flashcardId, Flashcard.State state, Flashcard.Difficulty difficulty) {
+        this(flashcardId, state, difficulty, null);
+    }
+
+    public FlashcardProgress(int flashcardId, Flashcard.State state, Flashcard.Difficulty difficulty, ReviewSchedule schedule) {
+        this.flashcardId = flashcardId;
+        this.state = state;
+        this.difficulty = difficulty;
+        this.schedule = schedule;
+    }
+
+    public int getFlashcardId() {
+        return flashcardId;
+    }
+
+    public Flashcard.State getState() {
+        return state;
+    }
+
+    public Flashcard.Difficulty getDifficulty() {
+        return difficulty;
+    }
+
+    public ReviewSchedule getSchedule() {
+        return schedule;
+    }
+
+    /**
+     * Combines this change with a later change of the same flashcard; the values of the later change win.
+     *
+     * @param later The change made after this one.
+     * @return The combined change.
+     */
+    public FlashcardProgress mergeWith(FlashcardProgress later) {
+        return new FlashcardProgress(flashcardId,
+                later.state != null ? later.state : state,
+                later.difficulty != null ? later.difficulty : difficulty,
+                later.schedule != null ? later.schedule : schedule);
+    }
+
+    @Override
+    public String toString() {
+        return "FlashcardProgress{" +
+                "flashcardId=" + flashcardId +
+                ", state=" + state +
+                ", difficulty=" + difficulty +
+                ", schedule=" + schedule +
+                '}';
+    }
+}
@@ -0,0 +1,42 @@
+package mff.cuni.cz.bortosa.flashy.Models;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Snapshot of the number of flashcards in each state and of each difficulty.
+ * States and difficulties without any flashcard are left out of the maps.
+ */
+public class FlashcardStatistics {
+    private final Map<Flashcard.State, Integer> stateCounts;
+    private final Map<Flashcard.Difficulty, Integer> difficultyCounts;
+    private final int totalFlashcards;
+
+    public FlashcardStatistics(Map<Flashcard.State, Integer> stateCounts,
+                               Map<Flashcard.Difficulty, Integer> difficultyCounts, int totalFlashcards) {
+        this.stateCounts = Collections.unmodifiableMap(stateCounts);
+        this.difficultyCounts = Collections.unmodifiableMap(difficultyCounts);
+        this.totalFlashcards = totalFlashcards;
+    }
+
+    public Map<Flashcard.State, Integer> getStateCounts() {
+        return stateCounts;
+    }
+
+    public Map<Flashcard.Difficulty, Integer> getDifficultyCounts() {
+        return difficultyCounts;
+    }
+
+    public int getTotalFlashcards() {
+        return totalFlashcards;
+    }
+
+    @Override
+    public String toString() {
+        return "FlashcardStatistics{" +
+                "stateCounts=" + stateCounts +
+                ", difficultyCounts=" + difficultyCounts +
+                ", totalFlashcards=" + totalFlashcards +
+                '}';
+    }
+}
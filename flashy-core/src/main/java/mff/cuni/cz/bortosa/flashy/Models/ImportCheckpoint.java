@@ -0,0 +1,38 @@
+package mff.cuni.cz.bortosa.flashy.Models;
+
+/**
+ * Progress of a deck import, saved together with every committed chunk so an interrupted import can be resumed.
+ */
+public class ImportCheckpoint {
+    private final String source;
+    private final int deckId;
+    private final int rowsCommitted;
+
+    public ImportCheckpoint(String source, int deckId, int rowsCommitted) {
+        this.source = source;
+        this.deckId = deckId;
+        this.rowsCommitted = rowsCommitted;
+    }
+
+    // the normalized path of the imported file
+    public String getSource() {
+        return source;
+    }
+
+    public int getDeckId() {
+        return deckId;
+    }
+
+    public int getRowsCommitted() {
+        return rowsCommitted;
+    }
+
+    @Override
+    public String toString() {
+        return "ImportCheckpoint{" +
+                "source='" + source + '\'' +
+                ", deckId=" + deckId +
+                ", rowsCommitted=" + rowsCommitted +
+                '}';
+    }
+}
@@ -0,0 +1,71 @@
+package mff.cuni.cz.bortosa.flashy.Models;
+
+/**
+ * A single review of a flashcard during a study session, as recorded in the review log.
+ */
+public class ReviewLogEntry {
+    private final long id;
+    private final int flashcardId;
+    private final long reviewedAt;
+    private final int grade;
+    private final long answerMillis;
+    private final boolean hintUsed;
+
+    // for reviews which are not logged yet
+    public ReviewLogEntry(int flashcardId, long reviewedAt, int grade, long answerMillis, boolean hintUsed) {
+        this(-1, flashcardId, reviewedAt, grade, answerMillis, hintUsed);
+    }
+
+    /**
+     * @param id           The ID of the entry in the log.
+     * @param flashcardId  The ID of the reviewed flashcard.
+     * @param reviewedAt   The time of the review, in milliseconds since the epoch.
+     * @param grade        The quality of the answer, from 0 to 5 (see Sm2Scheduler).
+     * @param answerMillis The time from showing the question to revealing the answer.
+     * @param hintUsed     Whether the hint was shown before answering.
+     */
+    public ReviewLogEntry(long id, int flashcardId, long reviewedAt, int grade, long answerMillis, boolean hintUsed) {
+        this.id = id;
+        this.flashcardId = flashcardId;
+        this.reviewedAt = reviewedAt;
+        this.grade = grade;
+        this.answerMillis = answerMillis;
+        this.hintUsed = hintUsed;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public int getFlashcardId() {
+        return flashcardId;
+    }
+
+    public long getReviewedAt() {
+        return reviewedAt;
+    }
+
+    public int getGrade() {
+        return grade;
+    }
+
+    public long getAnswerMillis() {
+        return answerMillis;
+    }
+
+    public boolean isHintUsed() {
+        return hintUsed;
+    }
+
+    @Override
+    public String toString() {
+        return "ReviewLogEntry{" +
+                "id=" + id +
+                ", flashcardId=" + flashcardId +
+                ", reviewedAt=" + reviewedAt +
+                ", grade=" + grade +
+                ", answerMillis=" + answerMillis +
+                ", hintUsed=" + hintUsed +
+                '}';
+    }
+}
@@ -0,0 +1,60 @@
+package mff.cuni.cz.bortosa.flashy.Models;
+
+/**
+ * The spaced-repetition state of a flashcard: when it should be reviewed next and how quickly its intervals grow.
+ * Instances are immutable; every review produces a new schedule.
+ */
+public class ReviewSchedule {
+    public static final double INITIAL_EASE = 2.5;
+
+    // the schedule of a flashcard which was never reviewed, it is due immediately
+    public static final ReviewSchedule NEW = new ReviewSchedule(0, INITIAL_EASE, 0, 0);
+
+    private final int intervalDays;
+    private final double ease;
+    private final int repetitions;
+    private final long dueAt;
+
+    /**
+     * @param intervalDays The number of days between the last review and the next one.
+     * @param ease         The factor by which the interval grows after a successful review.
+     * @param repetitions  The number of successful reviews in a row.
+     * @param dueAt        The time of the next review, in milliseconds since the epoch.
+     */
+    public ReviewSchedule(int intervalDays, double ease, int repetitions, long dueAt) {
+        this.intervalDays = intervalDays;
+        this.ease = ease;
+        this.repetitions = repetitions;
+        this.dueAt = dueAt;
+    }
+
+    public int getIntervalDays() {
+        return intervalDays;
+    }
+
+    public double getEase() {
+        return ease;
+    }
+
+    public int getRepetitions() {
+        return repetitions;
+    }
+
+    public long getDueAt() {
+        return dueAt;
+    }
+
+    public boolean isDue(long now) {
+        return dueAt <= now;
+    }
+
+    @Override
+    public String toString() {
+        return "ReviewSchedule{" +
+                "intervalDays=" + intervalDays +
+                ", ease=" + ease +
+                ", repetitions=" + repetitions +
+                ", dueAt=" + dueAt +
+                '}';
+    }
+}
@@ -0,0 +1,56 @@
+package mff.cuni.cz.bortosa.flashy.Models;
+
+/**
+ * A flashcard matching a full-text search, together with its text where the matching terms are highlighted.
+ * Highlighted terms are enclosed in {@link #HIGHLIGHT_START} and {@link #HIGHLIGHT_END}, control characters
+ * which do not appear in the text of the flashcards.
+ */
+public class SearchResult {
+    public static final char HIGHLIGHT_START = '\u0002';
+    public static final char HIGHLIGHT_END = '\u0003';
+
+    private final Flashcard flashcard;
+    private final String highlightedQuestion;
+    private final String highlightedAnswer;
+    private final String highlightedHint;
+    private final double rank;
+
+    public SearchResult(Flashcard flashcard, String highlightedQuestion, String highlightedAnswer,
+                        String highlightedHint, double rank) {
+        this.flashcard = flashcard;
+        this.highlightedQuestion = highlightedQuestion;
+        this.highlightedAnswer = highlightedAnswer;
+        this.highlightedHint = highlightedHint;
+        this.rank = rank;
+    }
+
+    public Flashcard getFlashcard() {
+        return flashcard;
+    }
+
+    public String getHighlightedQuestion() {
+        return highlightedQuestion;
+    }
+
+    public String getHighlightedAnswer() {
+        return highlightedAnswer;
+    }
+
+    // null if the flashcard has no hint
+    public String getHighlightedHint() {
+        return highlightedHint;
+    }
+
+    // relevance of the result, lower is better (BM25 as computed by SQLite)
+    public double getRank() {
+        return rank;
+    }
+
+    @Override
+    public String toString() {
+        return "SearchResult{" +
+                "flashcard=" + flashcard +
+                ", rank=" + rank +
+                '}';
+    }
+}
@@ -0,0 +1,10 @@
+package mff.cuni.cz.bortosa.flashy.Observer;
+
+public enum Event {
+    ADD_FLASHCARD, REMOVE_FLASHCARD, UPDATE_FLASHCARD,
+    ADD_DECK, REMOVE_DECK, UPDATE_DECK,
+    // changes of many flashcards at once, made by a single operation:
+    ADD_FLASHCARDS,    // data: List<Flashcard>, the added flashcards with their IDs
+    UPDATE_FLASHCARDS, // data: List<FlashcardProgress>, the new progress of the flashcards, whose content is unchanged
+    REMOVE_FLASHCARDS  // data: List<Integer>, the IDs of the removed flashcards
+}
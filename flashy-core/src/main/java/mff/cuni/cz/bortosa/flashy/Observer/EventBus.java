@@ -0,0 +1,241 @@
+package mff.cuni.cz.bortosa.flashy.Observer;
+
+import mff.cuni.cz.bortosa.flashy.Models.Deck;
+import mff.cuni.cz.bortosa.flashy.Models.Flashcard;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Delivers the events published by the services to the observers subscribed to them, implementing the Subject
+ * interface for all the services at once.
+ * Each observer subscribes to a set of event types, in one of two ways:
+ * <ul>
+ *     <li>synchronously, being notified on the publishing thread before {@link #publish(Event, Object)} returns,
+ *     which keeps caches consistent with the database;</li>
+ *     <li>through an executor, such as the JavaFX application thread. The events are queued and one delivery is
+ *     scheduled; everything published until it runs is coalesced per flashcard or deck and handed over in a single
+ *     {@link Observer#updateAll(List)} call, so a burst of thousands of events becomes one batch.</li>
+ * </ul>
+ * Subscribing, unsubscribing and publishing are safe from any thread.
+ */
+public class EventBus implements Subject {
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+
+    /**
+     * Subscribes an observer to the given events, notified on the publishing thread.
+     *
+     * @param observer The observer to notify.
+     * @param events   The types of events the observer receives.
+     * @return The subscription, which can be closed to stop the notifications.
+     */
+    public Subscription subscribe(Observer observer, Set<Event> events) {
+        return subscribe(observer, events, null);
+    }
+
+    /**
+     * Subscribes an observer to the given events, notified in batches on the executor.
+     *
+     * @param observer The observer to notify.
+     * @param events   The types of events the observer receives.
+     * @param executor The executor delivering the batches, or null to notify on the publishing thread.
+     * @return The subscription, which can be closed to stop the notifications.
+     */
+    public Subscription subscribe(Observer observer, Set<Event> events, Executor executor) {
+        Subscription subscription = new Subscription(observer, events, executor);
+        subscriptions.add(subscription);
+        return subscription;
+    }
+
+    /**
+     * Removes every subscription of the observer. Events still queued for it are dropped.
+     *
+     * @param observer The observer to remove.
+     */
+    public void unsubscribe(Observer observer) {
+        for (Subscription subscription : subscriptions) {
+            if (subscription.observer == observer) {
+                subscription.close();
+            }
+        }
+    }
+
+    /**
+     * Publishes an event to the observers subscribed to its type.
+     *
+     * @param eventType The type of event.
+     * @param data      The associated data.
+     */
+    public void publish(Event eventType, Object data) {
+        Notification notification = new Notification(eventType, data);
+        for (Subscription subscription : subscriptions) {
+            subscription.deliver(notification);
+        }
+    }
+
+    // Subscribes the observer to all events, notified on the publishing thread
+    @Override
+    public void addObserver(Observer observer) {
+        subscribe(observer, EnumSet.allOf(Event.class));
+    }
+
+    @Override
+    public void removeObserver(Observer observer) {
+        unsubscribe(observer);
+    }
+
+    @Override
+    public void notifyObservers(Event eventType, Object data) {
+        publish(eventType, data);
+    }
+
+    /**
+     * Merges the events of the same flashcard or deck, keeping the order of the remaining events.
+     * An addition followed by updates becomes a single addition with the latest data, consecutive updates become the
+     * last one, an update followed by a removal becomes the removal, and an addition followed by a removal cancels out.
+     * Events whose data is not a single flashcard or deck are kept as they are.
+     *
+     * @param notifications The events in the order they were published.
+     * @return The coalesced events.
+     */
+    static List<Notification> coalesce(List<Notification> notifications) {
+        List<Notification> merged = new ArrayList<>(notifications.size());
+        Map<String, Integer> positionByKey = new HashMap<>();
+        for (Notification notification : notifications) {
+            String key = keyOf(notification);
+            Integer position = key == null ? null : positionByKey.remove(key);
+            Notification current = notification;
+            if (position != null) {
+                Notification previous = merged.get(position);
+                if (kindOf(previous) == Kind.REMOVE && kindOf(notification) == Kind.ADD) {
+                    // the ID was reused by a new flashcard or deck, both events are needed
+                } else {
+                    merged.set(position, null);
+                    current = merge(previous, notification);
+                }
+            }
+            if (current != null) {
+                if (key != null) {
+                    positionByKey.put(key, merged.size());
+                }
+                merged.add(current);
+            }
+        }
+        merged.removeIf(Objects::isNull);
+        return merged;
+    }
+
+    private static Notification merge(Notification previous, Notification next) {
+        Kind previousKind = kindOf(previous);
+        Kind nextKind = kindOf(next);
+        if (previousKind == Kind.ADD && nextKind == Kind.REMOVE) {
+            return null; // the observer never saw the addition
+        }
+        if (previousKind == Kind.ADD && nextKind == Kind.UPDATE) {
+            return new Notification(previous.getEventType(), next.getData());
+        }
+        return next;
+    }
+
+    // identifies the flashcard or deck the event is about, null if the events cannot be merged
+    private static String keyOf(Notification notification) {
+        if (kindOf(notification) == null) {
+            return null;
+        }
+        if (notification.getData() instanceof Flashcard flashcard && flashcard.getFlashcardId() > 0) {
+            return "flashcard:" + flashcard.getFlashcardId();
+        }
+        if (notification.getData() instanceof Deck deck && deck.getId() > 0) {
+            return "deck:" + deck.getId();
+        }
+        return null;
+    }
+
+    private static Kind kindOf(Notification notification) {
+        switch (notification.getEventType()) {
+            case ADD_FLASHCARD:
+            case ADD_DECK:
+                return Kind.ADD;
+            case UPDATE_FLASHCARD:
+            case UPDATE_DECK:
+                return Kind.UPDATE;
+            case REMOVE_FLASHCARD:
+            case REMOVE_DECK:
+                return Kind.REMOVE;
+            default:
+                return null;
+        }
+    }
+
+    private enum Kind { ADD, UPDATE, REMOVE }
+
+    /**
+     * The subscription of an observer to a set of events.
+     */
+    public final class Subscription implements AutoCloseable {
+        private final Observer observer;
+        private final Set<Event> events;
+        private final Executor executor;
+        private final ConcurrentLinkedQueue<Notification> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean deliveryScheduled = new AtomicBoolean();
+        private volatile boolean active = true;
+
+        private Subscription(Observer observer, Set<Event> events, Executor executor) {
+            this.observer = observer;
+            this.events = events.isEmpty() ? EnumSet.noneOf(Event.class) : EnumSet.copyOf(events);
+            this.executor = executor;
+        }
+
+        /**
+         * Stops the notifications of this subscription. Events still queued for it are dropped.
+         */
+        @Override
+        public void close() {
+            active = false;
+            subscriptions.remove(this);
+            pending.clear();
+        }
+
+        private void deliver(Notification notification) {
+            if (!active || !events.contains(notification.getEventType())) {
+                return;
+            }
+            if (executor == null) {
+                observer.update(notification.getEventType(), notification.getData());
+                return;
+            }
+            pending.add(notification);
+            // a single delivery is scheduled at a time, it takes everything queued until it runs
+            if (deliveryScheduled.compareAndSet(false, true)) {
+                executor.execute(this::deliverPending);
+            }
+        }
+
+        private void deliverPending() {
+            // cleared before draining, so that events queued from now on schedule the next delivery
+            deliveryScheduled.set(false);
+            List<Notification> batch = new ArrayList<>();
+            Notification notification;
+            while ((notification = pending.poll()) != null) {
+                batch.add(notification);
+            }
+            if (!active || batch.isEmpty()) {
+                return;
+            }
+            try {
+                observer.updateAll(coalesce(batch));
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+}
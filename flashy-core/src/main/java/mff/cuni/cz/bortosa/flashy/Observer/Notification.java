@@ -0,0 +1,31 @@
+package mff.cuni.cz.bortosa.flashy.Observer;
+
+/**
+ * An event together with its data, as delivered to the observers of the event bus.
+ */
+public final class Notification {
+    private final Event eventType;
+    private final Object data;
+
+    /**
+     * @param eventType The type of event that occurred.
+     * @param data      The data associated with the event.
+     */
+    public Notification(Event eventType, Object data) {
+        this.eventType = eventType;
+        this.data = data;
+    }
+
+    public Event getEventType() {
+        return eventType;
+    }
+
+    public Object getData() {
+        return data;
+    }
+
+    @Override
+    public String toString() {
+        return eventType + "(" + data + ")";
+    }
+}
@@ -0,0 +1,29 @@
+package mff.cuni.cz.bortosa.flashy.Observer;
+
+import java.util.List;
+
+/**
+ * Observer interface for implementing the Observer design pattern.
+ */
+public interface Observer {
+    /**
+     * Updates the observer based on the given event type and data.
+     *
+     * @param eventType The type of event that occurred.
+     * @param data      The data associated with the event.
+     */
+    void update(Event eventType, Object data);
+
+    /**
+     * Updates the observer with a batch of events, in the order they occurred.
+     * Observers which can apply many changes at once, such as views backed by observable lists, override it to
+     * apply the whole batch as a single change; by default the events are passed to {@link #update(Event, Object)}.
+     *
+     * @param notifications The events with their data.
+     */
+    default void updateAll(List<Notification> notifications) {
+        for (Notification notification : notifications) {
+            update(notification.getEventType(), notification.getData());
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package mff.cuni.cz.bortosa.flashy.Repositories;
+
+import mff.cuni.cz.bortosa.flashy.DatabaseOperations.DatabaseManager;
+import mff.cuni.cz.bortosa.flashy.Metrics.MetricsRegistry;
+import mff.cuni.cz.bortosa.flashy.Metrics.QueryEvent;
+import mff.cuni.cz.bortosa.flashy.Metrics.Timer;
+import mff.cuni.cz.bortosa.flashy.Models.Deck;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Repository class for managing the decks in the database.
+ * Provides methods to add, remove, and retrieve decks.
+ */
+public class DecksRepository {
+    private final DatabaseManager databaseManager;
+    private final Timer addDeckTimer;
+    private final Timer getAllDecksTimer;
+    private final Timer getDeckByNameTimer;
+    private final Timer getDeckByIdTimer;
+    private final Timer deleteDeckTimer;
+    private final Timer updateDeckTimer;
+
+    public DecksRepository(DatabaseManager databaseManager) {
+        this.databaseManager = databaseManager;
+        MetricsRegistry metrics = databaseManager.getMetrics();
+        this.addDeckTimer = metrics.timer("DecksRepository.addDeck");
+        this.getAllDecksTimer = metrics.timer("DecksRepository.getAllDecks");
+        this.getDeckByNameTimer = metrics.timer("DecksRepository.getDeckByName");
+        this.getDeckByIdTimer = metrics.timer("DecksRepository.getDeckById");
+        this.deleteDeckTimer = metrics.timer("DecksRepository.deleteDeck");
+        this.updateDeckTimer = metrics.timer("DecksRepository.updateDeck");
+    }
+
+    /**
+     * Adds a new deck to the database and returns the generated ID.
+     *
+     * @param deck The deck to be added.
+     * @return The generated ID of the newly inserted deck.
+     * @throws SQLException If a database error occurs.
+     */
+    public int addDeck(Deck deck) throws SQLException {
+        long start = System.nanoTime();
+        QueryEvent event = addDeckTimer.begin();
+        try {
+            String query = "INSERT INTO decks (name, description) VALUES (?, ?)";
+            try (Connection conn = databaseManager.getWriteConnection();
+                 PreparedStatement stmt = conn.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
+                stmt.setString(1, deck.getName());
+                stmt.setString(2, deck.getDescription());
+                addDeckTimer.setRows(event, stmt.executeUpdate());
+
+                try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+                    if (generatedKeys.next()) {
+                        int id = generatedKeys.getInt(1);
+                        deck.setId(id);
+                        return id;
+                    } else {
+                        throw new SQLException("Failed to add deck, no ID obtained.");
+                    }
+                }
+            }
+        } catch (SQLException | RuntimeException e) {
+            addDeckTimer.failed(event);
+            throw e;
+        } finally {
+            addDeckTimer.end(event, start);
+        }
+    }
+
+    /**
+     * Retrieves all decks from the database.
+     *
+     * @return A list of all decks.
+     * @throws SQLException If a database error occurs.
+     */
+    public List<Deck> getAllDecks() throws SQLException {
+        long start = System.nanoTime();
+        QueryEvent event = getAllDecksTimer.begin();
+        try {
+            String query = "SELECT * FROM decks";
+            List<Deck> decks = new ArrayList<>();
+
+            try (Connection conn = databaseManager.getReadConnection();
+                 PreparedStatement stmt = conn.prepareStatement(query);
+                 ResultSet resultSet = stmt.executeQuery()) {
+
+                while (resultSet.next()) {
+                    int id = resultSet.getInt("id");
+                    String name = resultSet.getString("name");
+                    String description = resultSet.getString("description");
+                    decks.add(new Deck(id, name, description));
+                }
+            }
+            getAllDecksTimer.setRows(event, decks.size());
+            return decks;
+        } catch (SQLException | RuntimeException e) {
+            getAllDecksTimer.failed(event);
+            throw e;
+        } finally {
+            getAllDecksTimer.end(event, start);
+        }
+    }
+
+    /**
+     * Retrieves a deck by its name.
+     *
+     * @param name The name of the deck.
+     * @return The deck if found, otherwise null.
+     * @throws SQLException If a database error occurs.
+     */
+    public Deck getDeckByName(String name) throws SQLException {
+        long start = System.nanoTime();
+        QueryEvent event = getDeckByNameTimer.begin();
+        try {
+            String query = "SELECT * FROM decks WHERE name = ?";
+            try (Connection conn = databaseManager.getReadConnection();
+                 PreparedStatement stmt = conn.prepareStatement(query)) {
+                stmt.setString(1, name);
+                try (ResultSet resultSet = stmt.executeQuery()) {
+                    if (resultSet.next()) {
+                        getDeckByNameTimer.setRows(event, 1);
+                        return new Deck(
+                                resultSet.getInt("id"),
+                                resultSet.getString("name"),
+                                resultSet.getString("description")
+                        );
+                    }
+                }
+            }
+            getDeckByNameTimer.setRows(event, 0);
+            return null;
+        } catch (SQLException | RuntimeException e) {
+            getDeckByNameTimer.failed(event);
+            throw e;
+        } finally {
+            getDeckByNameTimer.end(event, start);
+        }
+    }
+
+    /**
+     * Retrieves a deck by its ID.
+     *
+     * @param deckId The ID of the deck.
+     * @return The deck if found, otherwise null.
+     * @throws SQLException If a database error occurs.
+     */
+    public Deck getDeckById(int deckId) throws SQLException {
+        long start = System.nanoTime();
+        QueryEvent event = getDeckByIdTimer.begin();
+        try {
+            String query = "SELECT * FROM decks WHERE id = ?";
+            try (Connection conn = databaseManager.getReadConnection();
+                 PreparedStatement stmt = conn.prepareStatement(query)) {
+                stmt.setInt(1, deckId);
+                try (ResultSet resultSet = stmt.executeQuery()) {
+                    if (resultSet.next()) {
+                        getDeckByIdTimer.setRows(event, 1);
+                        return new Deck(
+                                resultSet.getInt("id"),
+                                resultSet.getString("name"),
+                                resultSet.getString("description")
+                        );
+                    }
+                }
+            }
+            getDeckByIdTimer.setRows(event, 0);
+            return null;
+        } catch (SQLException | RuntimeException e) {
+            getDeckByIdTimer.failed(event);
+            throw e;
+        } finally {
+            getDeckByIdTimer.end(event, start);
+        }
+    }
+
+    /**
+     * Deletes a deck by its ID.
+     *
+     * @param id The ID of the deck to delete.
+     * @throws SQLException If a database error occurs.
+     */
+    public void deleteDeck(int id) throws SQLException {
+        long start = System.nanoTime();
+        QueryEvent event = deleteDeckTimer.begin();
+        try {
+            String query = "DELETE FROM decks WHERE id = ?";
+            try (Connection conn = databaseManager.getWriteConnection();
+                 PreparedStatement stmt = conn.prepareStatement(query)) {
+                stmt.setInt(1, id);
+                deleteDeckTimer.setRows(event, stmt.executeUpdate());
+            }
+        } catch (SQLException | RuntimeException e) {
+            deleteDeckTimer.failed(event);
+            throw e;
+        } finally {
+            deleteDeckTimer.end(event, start);
+        }
+    }
+
+    /**
+     * Updates an existing deck's name and description.
+     *
+     * @param deck The deck with updated information.
+     * @return true if the deck was updated successfully, false otherwise.
+     * @throws SQLException If a database error occurs.
+     */
+    public boolean updateDeck(Deck deck) throws SQLException {
+        long start = System.nanoTime();
+        QueryEvent event = updateDeckTimer.begin();
+        try {
+            String query = "UPDATE decks SET name = ?, description = ? WHERE id = ?";
+            try (Connection conn = databaseManager.getWriteConnection();
+                 PreparedStatement stmt = conn.prepareStatement(query)) {
+                stmt.setString(1, deck.getName());
+                stmt.setString(2, deck.getDescription());
+                stmt.setInt(3, deck.getId());
+                int rowsAffected = stmt.executeUpdate();
+                updateDeckTimer.setRows(event, rowsAffected);
+                return rowsAffected > 0;
+            }
+        } catch (SQLException | RuntimeException e) {
+            updateDeckTimer.failed(event);
+            throw e;
+        } finally {
+            updateDeckTimer.end(event, start);
+        }
+    }
+}
@@ -0,0 +1,461 @@
+package mff.cuni.cz.bortosa.flashy.Repositories;
+
+import mff.cuni.cz.bortosa.flashy.DatabaseOperations.DatabaseManager;
+import mff.cuni.cz.bortosa.flashy.Metrics.MetricsRegistry;
+import mff.cuni.cz.bortosa.flashy.Metrics.QueryEvent;
+import mff.cuni.cz.bortosa.flashy.Metrics.Timer;
+import mff.cuni.cz.bortosa.flashy.Models.Flashcard;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Repository class for managing the relationship between flashcards and decks.
+ * Provides methods to add, remove, and retrieve flashcards within decks.
+ */
+public class FlashcardDeckRepository {
+    // number of rows the driver is asked to buffer while streaming a deck
+    private static final int FETCH_SIZE = 256;
+
+    private final DatabaseManager databaseManager;
+    private final Timer addFlashcardToDeckTimer;
+    private final Timer addFlashcardsToDeckTimer;
+    private final Timer removeFlashcardFromDeckTimer;
+    private final Timer removeFlashcardsFromDecksTimer;
+    private final Timer moveFlashcardsTimer;
+    private final Timer getDecksContainingFlashcardTimer;
+    private final Timer getFlashcardsFromDeckTimer;
+    private final Timer getFlashcardsInDeckTimer;
+    private final Timer forEachFlashcardInDeckTimer;
+    private final Timer getFlashcardsInDeckPageTimer;
+
+    public FlashcardDeckRepository(DatabaseManager databaseManager) {
+        this.databaseManager = databaseManager;
+        MetricsRegistry metrics = databaseManager.getMetrics();
+        this.addFlashcardToDeckTimer = metrics.timer("FlashcardDeckRepository.addFlashcardToDeck");
+        this.addFlashcardsToDeckTimer = metrics.timer("FlashcardDeckRepository.addFlashcardsToDeck");
+        this.removeFlashcardFromDeckTimer = metrics.timer("FlashcardDeckRepository.removeFlashcardFromDeck");
+        this.removeFlashcardsFromDecksTimer = metrics.timer("FlashcardDeckRepository.removeFlashcardsFromDecks");
+        this.moveFlashcardsTimer = metrics.timer("FlashcardDeckRepository.moveFlashcards");
+        this.getDecksContainingFlashcardTimer = metrics.timer("FlashcardDeckRepository.getDecksContainingFlashcard");
+        this.getFlashcardsFromDeckTimer = metrics.timer("FlashcardDeckRepository.getFlashcardsFromDeck");
+        this.getFlashcardsInDeckTimer = metrics.timer("FlashcardDeckRepository.getFlashcardsInDeck");
+        this.forEachFlashcardInDeckTimer = metrics.timer("FlashcardDeckRepository.forEachFlashcardInDeck");
+        this.getFlashcardsInDeckPageTimer = metrics.timer("FlashcardDeckRepository.getFlashcardsInDeckPage");
+    }
+
+    /**
+     * Adds a flashcard to a deck by inserting an entry into the flashcard_deck table.
+     *
+     * @param flashcardId The ID of the flashcard to add.
+     * @param deckId      The ID of the deck to associate with the flashcard.
+     * @throws SQLException If a database error occurs.
+     */
+    public void addFlashcardToDeck(int flashcardId, int deckId) throws SQLException {
+        long start = System.nanoTime();
+        QueryEvent event = addFlashcardToDeckTimer.begin();
+        try {
+            String query = "INSERT INTO flashcard_deck (flashcard_id, deck_id) VALUES (?, ?)";
+
+            try (Connection conn = databaseManager.getWriteConnection();
+                 PreparedStatement stmt = conn.prepareStatement(query)) {
+
+                conn.setAutoCommit(false);
+                stmt.setInt(1, flashcardId);
+                stmt.setInt(2, deckId);
+                addFlashcardToDeckTimer.setRows(event, stmt.executeUpdate());
+                conn.commit();
+            }
+        } catch (SQLException | RuntimeException e) {
+            addFlashcardToDeckTimer.failed(event);
+            throw e;
+        } finally {
+            addFlashcardToDeckTimer.end(event, start);
+        }
+    }
+
+    /**
+     * Adds many flashcards to a deck with one batched statement.
+     * When called inside {@link DatabaseManager#inTransaction}, the insert joins the caller's transaction.
+     *
+     * @param flashcards The flashcards to add, which must already have their IDs.
+     * @param deckId     The ID of the deck to associate with the flashcards.
+     * @throws SQLException If a database error occurs.
+     */
+    public void addFlashcardsToDeck(List<Flashcard> flashcards, int deckId) throws SQLException {
+        long start = System.nanoTime();
+        QueryEvent event = addFlashcardsToDeckTimer.begin();
+        try {
+            String query = "INSERT INTO flashcard_deck (flashcard_id, deck_id) VALUES (?, ?)";
+
+            try (Connection conn = databaseManager.getWriteConnection();
+                 PreparedStatement stmt = conn.prepareStatement(query)) {
+
+                conn.setAutoCommit(false);
+                for (Flashcard flashcard : flashcards) {
+                    stmt.setInt(1, flashcard.getFlashcardId());
+                    stmt.setInt(2, deckId);
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+                conn.commit();
+                addFlashcardsToDeckTimer.setRows(event, flashcards.size());
+            }
+        } catch (SQLException | RuntimeException e) {
+            addFlashcardsToDeckTimer.failed(event);
+            throw e;
+        } finally {
+            addFlashcardsToDeckTimer.end(event, start);
+        }
+    }
+
+    /**
+     * Removes a flashcard from a deck by deleting its entry from the flashcard_deck table.
+     *
+     * @param flashcardId The ID of the flashcard to remove.
+     * @param deckId      The ID of the deck to remove the flashcard from.
+     * @throws SQLException If a database error occurs.
+     */
+    public void removeFlashcardFromDeck(int flashcardId, int deckId) throws SQLException {
+        long start = System.nanoTime();
+        QueryEvent event = removeFlashcardFromDeckTimer.begin();
+        try {
+            String query = "DELETE FROM flashcard_deck WHERE flashcard_id = ? AND deck_id = ?";
+
+            try (Connection conn = databaseManager.getWriteConnection();
+                 PreparedStatement stmt = conn.prepareStatement(query)) {
+
+                conn.setAutoCommit(false);
+                stmt.setInt(1, flashcardId);
+                stmt.setInt(2, deckId);
+                removeFlashcardFromDeckTimer.setRows(event, stmt.executeUpdate());
+                conn.commit();
+            }
+        } catch (SQLException | RuntimeException e) {
+            removeFlashcardFromDeckTimer.failed(event);
+            throw e;
+        } finally {
+            removeFlashcardFromDeckTimer.end(event, start);
+        }
+    }
+
+    /**
+     * Removes many flashcards from all their decks with a set-based statement, executed once per
+     * {@link JsonIdArray#MAX_IDS_PER_ARRAY} IDs.
+     * When called inside {@link DatabaseManager#inTransaction}, the delete joins the caller's transaction.
+     *
+     * @param flashcardIds The IDs of the flashcards.
+     * @throws SQLException If a database error occurs.
+     */
+    public void removeFlashcardsFromDecks(Collection<Integer> flashcardIds) throws SQLException {
+        long start = System.nanoTime();
+        QueryEvent event = removeFlashcardsFromDecksTimer.begin();
+        try {
+            if (flashcardIds.isEmpty()) {
+                return;
+            }
+            String query = "DELETE FROM flashcard_deck WHERE flashcard_id IN (SELECT value FROM json_each(?))";
+
+            try (Connection conn = databaseManager.getWriteConnection();
+                 PreparedStatement stmt = conn.prepareStatement(query)) {
+
+                conn.setAutoCommit(false);
+                int removed = 0;
+                for (String chunk : JsonIdArray.chunksOf(flashcardIds)) {
+                    stmt.setString(1, chunk);
+                    removed += stmt.executeUpdate();
+                }
+                conn.commit();
+                removeFlashcardsFromDecksTimer.setRows(event, removed);
+            }
+        } catch (SQLException | RuntimeException e) {
+            removeFlashcardsFromDecksTimer.failed(event);
+            throw e;
+        } finally {
+            removeFlashcardsFromDecksTimer.end(event, start);
+        }
+    }
+
+    /**
+     * Moves flashcards from one deck to another in a single transaction, with one set-based statement adding them to
+     * the target deck and one removing them from the source deck, each executed once per
+     * {@link JsonIdArray#MAX_IDS_PER_ARRAY} IDs. Flashcards which are not in the source deck are ignored;
+     * flashcards already in the target deck are only removed from the source deck.
+     *
+     * @param flashcardIds The IDs of the flashcards to move.
+     * @param fromDeckId   The ID of the deck the flashcards are in.
+     * @param toDeckId     The ID of the deck receiving the flashcards.
+     * @return The number of flashcards removed from the source deck.
+     * @throws SQLException If a database error occurs.
+     */
+    public int moveFlashcards(Collection<Integer> flashcardIds, int fromDeckId, int toDeckId) throws SQLException {
+        long start = System.nanoTime();
+        QueryEvent event = moveFlashcardsTimer.begin();
+        try {
+            if (flashcardIds.isEmpty() || fromDeckId == toDeckId) {
+                return 0;
+            }
+            String insertQuery = "INSERT OR IGNORE INTO flashcard_deck (flashcard_id, deck_id) "
+                    + "SELECT flashcard_id, ? FROM flashcard_deck "
+                    + "WHERE deck_id = ? AND flashcard_id IN (SELECT value FROM json_each(?))";
+            String deleteQuery = "DELETE FROM flashcard_deck "
+                    + "WHERE deck_id = ? AND flashcard_id IN (SELECT value FROM json_each(?))";
+
+            try (Connection conn = databaseManager.getWriteConnection();
+                 PreparedStatement insertStmt = conn.prepareStatement(insertQuery);
+                 PreparedStatement deleteStmt = conn.prepareStatement(deleteQuery)) {
+
+                conn.setAutoCommit(false); // rolled back when the connection is released without a commit
+                int moved = 0;
+                for (String chunk : JsonIdArray.chunksOf(flashcardIds)) {
+                    insertStmt.setInt(1, toDeckId);
+                    insertStmt.setInt(2, fromDeckId);
+                    insertStmt.setString(3, chunk);
+                    insertStmt.executeUpdate();
+
+                    deleteStmt.setInt(1, fromDeckId);
+                    deleteStmt.setString(2, chunk);
+                    moved += deleteStmt.executeUpdate();
+                }
+                conn.commit();
+                moveFlashcardsTimer.setRows(event, moved);
+                return moved;
+            }
+        } catch (SQLException | RuntimeException e) {
+            moveFlashcardsTimer.failed(event);
+            throw e;
+        } finally {
+            moveFlashcardsTimer.end(event, start);
+        }
+    }
+
+    /**
+     * Retrieves a list of deck IDs that contain a specific flashcard.
+     *
+     * @param flashcardId The ID of the flashcard.
+     * @return A list of deck IDs containing the flashcard.
+     * @throws SQLException If a database error occurs.
+     */
+    public List<Integer> getDecksContainingFlashcard(int flashcardId) throws SQLException {
+        long start = System.nanoTime();
+        QueryEvent event = getDecksContainingFlashcardTimer.begin();
+        try {
+            String query = "SELECT deck_id FROM flashcard_deck WHERE flashcard_id = ?";
+            List<Integer> deckIds = new ArrayList<>();
+
+            try (Connection conn = databaseManager.getReadConnection();
+                 PreparedStatement stmt = conn.prepareStatement(query)) {
+
+                stmt.setInt(1, flashcardId);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        deckIds.add(rs.getInt("deck_id"));
+                    }
+                }
+            }
+            getDecksContainingFlashcardTimer.setRows(event, deckIds.size());
+            return deckIds;
+        } catch (SQLException | RuntimeException e) {
+            getDecksContainingFlashcardTimer.failed(event);
+            throw e;
+        } finally {
+            getDecksContainingFlashcardTimer.end(event, start);
+        }
+    }
+
+    /**
+     * Retrieves a list of flashcard IDs associated with a specific deck.
+     *
+     * @param deckId The ID of the deck.
+     * @return A list of flashcard IDs in the specified deck.
+     * @throws SQLException If a database error occurs.
+     */
+    public List<Integer> getFlashcardsFromDeck(int deckId) throws SQLException {
+        long start = System.nanoTime();
+        QueryEvent event = getFlashcardsFromDeckTimer.begin();
+        try {
+            String query = "SELECT flashcard_id FROM flashcard_deck WHERE deck_id = ?";
+            List<Integer> flashcardIds = new ArrayList<>();
+
+            try (Connection conn = databaseManager.getReadConnection();
+                 PreparedStatement stmt = conn.prepareStatement(query)) {
+
+                stmt.setInt(1, deckId);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        flashcardIds.add(rs.getInt("flashcard_id"));
+                    }
+                }
+            }
+            getFlashcardsFromDeckTimer.setRows(event, flashcardIds.size());
+            return flashcardIds;
+        } catch (SQLException | RuntimeException e) {
+            getFlashcardsFromDeckTimer.failed(event);
+            throw e;
+        } finally {
+            getFlashcardsFromDeckTimer.end(event, start);
+        }
+    }
+
+    /**
+     * Retrieves the fully populated flashcards of a deck with a single query.
+     *
+     * @param deckId The ID of the deck.
+     * @return The flashcards in the deck, ordered by their ID.
+     * @throws SQLException If a database error occurs.
+     */
+    public List<Flashcard> getFlashcardsInDeck(int deckId) throws SQLException {
+        return getFlashcardsInDeck(deckId, null, null);
+    }
+
+    /**
+     * Retrieves the flashcards of a deck which are in the given state and have the given difficulty.
+     * The filtering is done by the database, so only the matching rows are read.
+     *
+     * @param deckId     The ID of the deck.
+     * @param state      The required state, or null to accept any state.
+     * @param difficulty The required difficulty, or null to accept any difficulty.
+     * @return The matching flashcards, ordered by their ID.
+     * @throws SQLException If a database error occurs.
+     */
+    public List<Flashcard> getFlashcardsInDeck(int deckId, Flashcard.State state, Flashcard.Difficulty difficulty) throws SQLException {
+        long start = System.nanoTime();
+        QueryEvent event = getFlashcardsInDeckTimer.begin();
+        try {
+            List<Flashcard> flashcards = new ArrayList<>();
+            // the query is timed here only, not by forEachFlashcardInDeck as well
+            getFlashcardsInDeckTimer.setRows(event, queryFlashcardsInDeck(deckId, state, difficulty, -1, -1, flashcards::add));
+            return flashcards;
+        } catch (SQLException | RuntimeException e) {
+            getFlashcardsInDeckTimer.failed(event);
+            throw e;
+        } finally {
+            getFlashcardsInDeckTimer.end(event, start);
+        }
+    }
+
+    /**
+     * Streams the flashcards of a deck, ordered by their ID, to the given action.
+     * Rows are read through a single cursor and handed over one at a time, so the whole deck is never
+     * held in memory. The connection is kept for the duration of the iteration, so the action should be short.
+     *
+     * @param deckId The ID of the deck.
+     * @param action The action invoked for every flashcard in the deck.
+     * @throws SQLException If a database error occurs.
+     */
+    public void forEachFlashcardInDeck(int deckId, Consumer<Flashcard> action) throws SQLException {
+        forEachFlashcardInDeck(deckId, null, null, action);
+    }
+
+    /**
+     * Streams the flashcards of a deck matching the given state and difficulty, ordered by their ID.
+     *
+     * @param deckId     The ID of the deck.
+     * @param state      The required state, or null to accept any state.
+     * @param difficulty The required difficulty, or null to accept any difficulty.
+     * @param action     The action invoked for every matching flashcard.
+     * @throws SQLException If a database error occurs.
+     */
+    public void forEachFlashcardInDeck(int deckId, Flashcard.State state, Flashcard.Difficulty difficulty,
+                                       Consumer<Flashcard> action) throws SQLException {
+        long start = System.nanoTime();
+        QueryEvent event = forEachFlashcardInDeckTimer.begin();
+        try {
+            forEachFlashcardInDeckTimer.setRows(event, queryFlashcardsInDeck(deckId, state, difficulty, -1, -1, action));
+        } catch (SQLException | RuntimeException e) {
+            forEachFlashcardInDeckTimer.failed(event);
+            throw e;
+        } finally {
+            forEachFlashcardInDeckTimer.end(event, start);
+        }
+    }
+
+    /**
+     * Retrieves a page of the flashcards of a deck matching the given state and difficulty, ordered by their ID.
+     * The page starts right after the given flashcard, so reading a page costs the same wherever it is in the deck.
+     *
+     * @param deckId     The ID of the deck.
+     * @param state      The required state, or null to accept any state.
+     * @param difficulty The required difficulty, or null to accept any difficulty.
+     * @param afterId    The ID of the last flashcard of the previous page, 0 for the first page.
+     * @param limit      The maximum number of flashcards in the page.
+     * @return The flashcards of the page.
+     * @throws SQLException If a database error occurs.
+     */
+    public List<Flashcard> getFlashcardsInDeckPage(int deckId, Flashcard.State state, Flashcard.Difficulty difficulty,
+                                                   int afterId, int limit) throws SQLException {
+        long start = System.nanoTime();
+        QueryEvent event = getFlashcardsInDeckPageTimer.begin();
+        try {
+            List<Flashcard> flashcards = new ArrayList<>(limit);
+            getFlashcardsInDeckPageTimer.setRows(event, queryFlashcardsInDeck(deckId, state, difficulty, afterId, limit, flashcards::add));
+            return flashcards;
+        } catch (SQLException | RuntimeException e) {
+            getFlashcardsInDeckPageTimer.failed(event);
+            throw e;
+        } finally {
+            getFlashcardsInDeckPageTimer.end(event, start);
+        }
+    }
+
+    // Reads the matching flashcards of a deck, only the ones after afterId and at most limit of them when limit is not negative;
+    // returns the number of flashcards read
+    private int queryFlashcardsInDeck(int deckId, Flashcard.State state, Flashcard.Difficulty difficulty,
+                                       int afterId, int limit, Consumer<Flashcard> action) throws SQLException {
+        boolean paged = limit >= 0;
+        try (Connection conn = databaseManager.getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(flashcardsInDeckQuery(state != null, difficulty != null, paged))) {
+
+            stmt.setFetchSize(FETCH_SIZE);
+            int parameter = 1;
+            stmt.setInt(parameter++, deckId);
+            if (state != null) {
+                stmt.setString(parameter++, state.name());
+            }
+            if (difficulty != null) {
+                stmt.setString(parameter++, difficulty.name());
+            }
+            if (paged) {
+                stmt.setInt(parameter++, afterId);
+                stmt.setInt(parameter, limit);
+            }
+            int rows = 0;
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    rows++;
+                    action.accept(FlashcardsRepository.readFlashcard(rs));
+                }
+            }
+            return rows;
+        }
+    }
+
+    // The query of queryFlashcardsInDeck, with parameters for the deck, the filters which are set, and the page
+    static String flashcardsInDeckQuery(boolean byState, boolean byDifficulty, boolean paged) {
+        StringBuilder query = new StringBuilder("SELECT f.* FROM flashcard_deck fd " +
+                "JOIN flashcards f ON f.id = fd.flashcard_id " +
+                "WHERE fd.deck_id = ?");
+        if (byState) {
+            query.append(" AND f.state = ?");
+        }
+        if (byDifficulty) {
+            query.append(" AND f.difficulty = ?");
+        }
+        // Both orderings are by flashcard ID, but each one matches the index the query is driven by:
+        // the index of the filters - (state, difficulty), (state) or (difficulty), whose entries end with the row ID -
+        // when a filter is set, so that only the matching flashcards are visited, and (deck_id, flashcard_id) otherwise.
+        // Neither needs a sort step.
+        String idColumn = byState || byDifficulty ? "f.id" : "fd.flashcard_id";
+        if (paged) {
+            query.append(" AND ").append(idColumn).append(" > ?");
+        }
+        query.append(" ORDER BY ").append(idColumn);
+        if (paged) {
+            query.append(" LIMIT ?");
+        }
+        return query.toString();
+    }
+}
@@ -0,0 +1,751 @@
+package mff.cuni.cz.bortosa.flashy.Repositories;
+
+import mff.cuni.cz.bortosa.flashy.DatabaseOperations.DatabaseManager;
+import mff.cuni.cz.bortosa.flashy.Metrics.MetricsRegistry;
+import mff.cuni.cz.bortosa.flashy.Metrics.QueryEvent;
+import mff.cuni.cz.bortosa.flashy.Metrics.Timer;
+import mff.cuni.cz.bortosa.flashy.Models.Flashcard;
+import mff.cuni.cz.bortosa.flashy.Models.FlashcardProgress;
+import mff.cuni.cz.bortosa.flashy.Models.ReviewSchedule;
+import mff.cuni.cz.bortosa.flashy.Models.SearchResult;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Repository class for managing the flashcards in the database.
+ * Provides methods to add, remove, update and retrieve flashcards.
+ */
+public class FlashcardsRepository {
+
+    private static final int FETCH_SIZE = 256;
+
+    private final DatabaseManager databaseManager;
+    private final Timer addFlashcardTimer;
+    private final Timer addFlashcardsTimer;
+    private final Timer getAllFlashcardsTimer;
+    private final Timer getFlashcardsPageTimer;
+    private final Timer getDueFlashcardsPageTimer;
+    private final Timer getFlashcardIdsTimer;
+    private final Timer deleteFlashcardTimer;
+    private final Timer deleteFlashcardsTimer;
+    private final Timer getFlashcardByIdTimer;
+    private final Timer updateFlashcardTimer;
+    private final Timer updateFlashcardStateTimer;
+    private final Timer updateFlashcardDifficultyTimer;
+    private final Timer updateFlashcardsProgressTimer;
+    private final Timer resetFlashcardsOfDeckTimer;
+    private final Timer forEachFlashcardProgressTimer;
+    private final Timer getFlashcardsByStateTimer;
+    private final Timer getFlashcardsByDifficultyTimer;
+    private final Timer searchTimer;
+
+    public FlashcardsRepository(DatabaseManager databaseManager) {
+        this.databaseManager = databaseManager;
+        MetricsRegistry metrics = databaseManager.getMetrics();
+        this.addFlashcardTimer = metrics.timer("FlashcardsRepository.addFlashcard");
+        this.addFlashcardsTimer = metrics.timer("FlashcardsRepository.addFlashcards");
+        this.getAllFlashcardsTimer = metrics.timer("FlashcardsRepository.getAllFlashcards");
+        this.getFlashcardsPageTimer = metrics.timer("FlashcardsRepository.getFlashcardsPage");
+        this.getDueFlashcardsPageTimer = metrics.timer("FlashcardsRepository.getDueFlashcardsPage");
+        this.getFlashcardIdsTimer = metrics.timer("FlashcardsRepository.getFlashcardIds");
+        this.deleteFlashcardTimer = metrics.timer("FlashcardsRepository.deleteFlashcard");
+        this.deleteFlashcardsTimer = metrics.timer("FlashcardsRepository.deleteFlashcards");
+        this.getFlashcardByIdTimer = metrics.timer("FlashcardsRepository.getFlashcardById");
+        this.updateFlashcardTimer = metrics.timer("FlashcardsRepository.updateFlashcard");
+        this.updateFlashcardStateTimer = metrics.timer("FlashcardsRepository.updateFlashcardState");
+        this.updateFlashcardDifficultyTimer = metrics.timer("FlashcardsRepository.updateFlashcardDifficulty");
+        this.updateFlashcardsProgressTimer = metrics.timer("FlashcardsRepository.updateFlashcardsProgress");
+        this.resetFlashcardsOfDeckTimer = metrics.timer("FlashcardsRepository.resetFlashcardsOfDeck");
+        this.forEachFlashcardProgressTimer = metrics.timer("FlashcardsRepository.forEachFlashcardProgress");
+        this.getFlashcardsByStateTimer = metrics.timer("FlashcardsRepository.getFlashcardsByState");
+        this.getFlashcardsByDifficultyTimer = metrics.timer("FlashcardsRepository.getFlashcardsByDifficulty");
+        this.searchTimer = metrics.timer("FlashcardsRepository.search");
+    }
+
+    // Adds a new flashcard to the database, returns the ID generated automatically by the database
+    public int addFlashcard(Flashcard flashcard) throws SQLException {
+        long start = System.nanoTime();
+        QueryEvent event = addFlashcardTimer.begin();
+        try {
+            String query = "INSERT INTO flashcards (question, answer, hint) VALUES (?, ?, ?)";
+
+            try (Connection conn = databaseManager.getWriteConnection();
+                 PreparedStatement stmt = conn.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
+
+                conn.setAutoCommit(false); // Start transaction
+
+                stmt.setString(1, flashcard.getQuestion());
+                stmt.setString(2, flashcard.getAnswer());
+                stmt.setString(3, flashcard.getHint() != null ? flashcard.getHint() : null);
+                addFlashcardTimer.setRows(event, stmt.executeUpdate());
+
+                ResultSet generatedKeys = stmt.getGeneratedKeys();
+                if (generatedKeys.next()) {
+                    int id = generatedKeys.getInt(1);
+                    flashcard.setId(id);
+                    conn.commit(); // Commit changes
+                    return id;
+                } else {
+                    conn.rollback();
+                    throw new SQLException("Failed to add flashcard, no ID obtained.");
+                }
+            }
+        } catch (SQLException | RuntimeException e) {
+            addFlashcardTimer.failed(event);
+            throw e;
+        } finally {
+            addFlashcardTimer.end(event, start);
+        }
+    }
+
+    // Adds many flashcards with one batched statement and assigns their IDs.
+    // The IDs are allocated up front from the AUTOINCREMENT sequence, which is safe because the writer connection
+    // is exclusive; when called inside DatabaseManager.inTransaction the insert joins the caller's transaction.
+    public void addFlashcards(List<Flashcard> flashcards) throws SQLException {
+        long start = System.nanoTime();
+        QueryEvent event = addFlashcardsTimer.begin();
+        try {
+            if (flashcards.isEmpty()) {
+                return;
+            }
+            String nextIdQuery = "SELECT MAX(COALESCE((SELECT seq FROM sqlite_sequence WHERE name = 'flashcards'), 0), "
+                    + "COALESCE((SELECT MAX(id) FROM flashcards), 0)) + 1";
+            String query = "INSERT INTO flashcards (id, question, answer, hint, state, difficulty) VALUES (?, ?, ?, ?, ?, ?)";
+
+            try (Connection conn = databaseManager.getWriteConnection()) {
+                conn.setAutoCommit(false); // Start transaction
+
+                int firstId;
+                try (PreparedStatement stmt = conn.prepareStatement(nextIdQuery);
+                     ResultSet resultSet = stmt.executeQuery()) {
+                    resultSet.next();
+                    firstId = resultSet.getInt(1);
+                }
+
+                try (PreparedStatement stmt = conn.prepareStatement(query)) {
+                    int id = firstId;
+                    for (Flashcard flashcard : flashcards) {
+                        stmt.setInt(1, id++);
+                        stmt.setString(2, flashcard.getQuestion());
+                        stmt.setString(3, flashcard.getAnswer());
+                        stmt.setString(4, flashcard.getHint());
+                        stmt.setString(5, flashcard.getState().name());
+                        stmt.setString(6, flashcard.getDifficulty().name());
+                        stmt.addBatch();
+                    }
+                    stmt.executeBatch();
+                }
+                conn.commit(); // Commit changes
+                addFlashcardsTimer.setRows(event, flashcards.size());
+
+                int id = firstId;
+                for (Flashcard flashcard : flashcards) {
+                    flashcard.setId(id++);
+                }
+            }
+        } catch (SQLException | RuntimeException e) {
+            addFlashcardsTimer.failed(event);
+            throw e;
+        } finally {
+            addFlashcardsTimer.end(event, start);
+        }
+    }
+
+    // Retrieves all flashcards in the database
+    public List<Flashcard> getAllFlashcards() throws SQLException {
+        long start = System.nanoTime();
+        QueryEvent event = getAllFlashcardsTimer.begin();
+        try {
+            List<Flashcard> flashcards = new ArrayList<>();
+            String query = "SELECT * FROM flashcards";
+
+            try (Connection conn = databaseManager.getReadConnection();
+                 PreparedStatement stmt = conn.prepareStatement(query);
+                 ResultSet resultSet = stmt.executeQuery()) {
+
+                while (resultSet.next()) {
+                    flashcards.add(readFlashcard(resultSet));
+                }
+            }
+            getAllFlashcardsTimer.setRows(event, flashcards.size());
+            return flashcards;
+        } catch (SQLException | RuntimeException e) {
+            getAllFlashcardsTimer.failed(event);
+            throw e;
+        } finally {
+            getAllFlashcardsTimer.end(event, start);
+        }
+    }
+
+    // Retrieves at most limit flashcards with an ID greater than afterId, ordered by ID.
+    // Seeking by the last ID of the previous page keeps every page as cheap as the first one, unlike OFFSET.
+    public List<Flashcard> getFlashcardsPage(int afterId, int limit) throws SQLException {
+        long start = System.nanoTime();
+        QueryEvent event = getFlashcardsPageTimer.begin();
+        try {
+            String query = "SELECT * FROM flashcards WHERE id > ? ORDER BY id LIMIT ?";
+
+            try (Connection conn = databaseManager.getReadConnection();
+                 PreparedStatement stmt = conn.prepareStatement(query)) {
+
+                stmt.setInt(1, afterId);
+                stmt.setInt(2, limit);
+                List<Flashcard> flashcards = new ArrayList<>(limit);
+                try (ResultSet resultSet = stmt.executeQuery()) {
+                    while (resultSet.next()) {
+                        flashcards.add(readFlashcard(resultSet));
+                    }
+                }
+                getFlashcardsPageTimer.setRows(event, flashcards.size());
+                return flashcards;
+            }
+        } catch (SQLException | RuntimeException e) {
+            getFlashcardsPageTimer.failed(event);
+            throw e;
+        } finally {
+            getFlashcardsPageTimer.end(event, start);
+        }
+    }
+
+    // Retrieves at most limit flashcards due for a review at the given time, the longest overdue first.
+    // The query walks the due_at index from its start and stops after limit rows, whatever the size of the collection.
+    public List<Flashcard> getDueFlashcards(long dueBefore, int limit) throws SQLException {
+        return getDueFlashcardsPage(dueBefore, Long.MIN_VALUE, 0, limit);
+    }
+
+    // Retrieves the next page of the flashcards due at the given time, following the flashcard due at afterDueAt
+    // with the ID afterId; seeking in the due_at index makes every page as cheap as the first one
+    public List<Flashcard> getDueFlashcardsPage(long dueBefore, long afterDueAt, int afterId, int limit) throws SQLException {
+        long start = System.nanoTime();
+        QueryEvent event = getDueFlashcardsPageTimer.begin();
+        try {
+            String query = "SELECT * FROM flashcards WHERE due_at <= ? AND (due_at, id) > (?, ?) ORDER BY due_at, id LIMIT ?";
+
+            try (Connection conn = databaseManager.getReadConnection();
+                 PreparedStatement stmt = conn.prepareStatement(query)) {
+
+                stmt.setLong(1, dueBefore);
+                stmt.setLong(2, afterDueAt);
+                stmt.setInt(3, afterId);
+                stmt.setInt(4, limit);
+                List<Flashcard> flashcards = new ArrayList<>();
+                try (ResultSet resultSet = stmt.executeQuery()) {
+                    while (resultSet.next()) {
+                        flashcards.add(readFlashcard(resultSet));
+                    }
+                }
+                getDueFlashcardsPageTimer.setRows(event, flashcards.size());
+                return flashcards;
+            }
+        } catch (SQLException | RuntimeException e) {
+            getDueFlashcardsPageTimer.failed(event);
+            throw e;
+        } finally {
+            getDueFlashcardsPageTimer.end(event, start);
+        }
+    }
+
+    // Retrieves the IDs of all flashcards in ascending order, read from the primary key only
+    public int[] getFlashcardIds() throws SQLException {
+        long start = System.nanoTime();
+        QueryEvent event = getFlashcardIdsTimer.begin();
+        try {
+            String query = "SELECT id FROM flashcards ORDER BY id";
+
+            try (Connection conn = databaseManager.getReadConnection();
+                 PreparedStatement stmt = conn.prepareStatement(query)) {
+
+                stmt.setFetchSize(FETCH_SIZE);
+                int[] ids = new int[1024];
+                int count = 0;
+                try (ResultSet resultSet = stmt.executeQuery()) {
+                    while (resultSet.next()) {
+                        if (count == ids.length) {
+                            ids = Arrays.copyOf(ids, count * 2);
+                        }
+                        ids[count++] = resultSet.getInt(1);
+                    }
+                }
+                getFlashcardIdsTimer.setRows(event, count);
+                return Arrays.copyOf(ids, count);
+            }
+        } catch (SQLException | RuntimeException e) {
+            getFlashcardIdsTimer.failed(event);
+            throw e;
+        } finally {
+            getFlashcardIdsTimer.end(event, start);
+        }
+    }
+
+    // Deletes a flashcard with the specified ID
+    public void deleteFlashcard(int id) throws SQLException {
+        long start = System.nanoTime();
+        QueryEvent event = deleteFlashcardTimer.begin();
+        try {
+            String query = "DELETE FROM flashcards WHERE id = ?";
+
+            try (Connection conn = databaseManager.getWriteConnection();
+                 PreparedStatement stmt = conn.prepareStatement(query)) {
+
+                conn.setAutoCommit(false); // Start transaction
+                stmt.setInt(1, id);
+                deleteFlashcardTimer.setRows(event, stmt.executeUpdate());
+                conn.commit(); // Commit transaction
+            }
+        } catch (SQLException | RuntimeException e) {
+            deleteFlashcardTimer.failed(event);
+            throw e;
+        } finally {
+            deleteFlashcardTimer.end(event, start);
+        }
+    }
+
+    /**
+     * Deletes many flashcards with a set-based statement, executed once per {@link JsonIdArray#MAX_IDS_PER_ARRAY} IDs.
+     * When called inside {@link DatabaseManager#inTransaction}, the delete joins the caller's transaction.
+     *
+     * @param ids The IDs of the flashcards to delete.
+     * @return The IDs of the flashcards which existed and were deleted.
+     * @throws SQLException If a database error occurs.
+     */
+    public List<Integer> deleteFlashcards(Collection<Integer> ids) throws SQLException {
+        long start = System.nanoTime();
+        QueryEvent event = deleteFlashcardsTimer.begin();
+        try {
+            if (ids.isEmpty()) {
+                return new ArrayList<>();
+            }
+            String query = "DELETE FROM flashcards WHERE id IN (SELECT value FROM json_each(?)) RETURNING id";
+
+            try (Connection conn = databaseManager.getWriteConnection();
+                 PreparedStatement stmt = conn.prepareStatement(query)) {
+
+                conn.setAutoCommit(false);
+                List<Integer> deleted = new ArrayList<>(ids.size());
+                for (String chunk : JsonIdArray.chunksOf(ids)) {
+                    stmt.setString(1, chunk);
+                    deleted.addAll(readIds(stmt));
+                }
+                conn.commit();
+                deleteFlashcardsTimer.setRows(event, deleted.size());
+                return deleted;
+            }
+        } catch (SQLException | RuntimeException e) {
+            deleteFlashcardsTimer.failed(event);
+            throw e;
+        } finally {
+            deleteFlashcardsTimer.end(event, start);
+        }
+    }
+
+    // Retrieves a flashcard with the specified ID
+    public Flashcard getFlashcardById(int flashcardId) throws SQLException {
+        long start = System.nanoTime();
+        QueryEvent event = getFlashcardByIdTimer.begin();
+        try {
+            String query = "SELECT * FROM flashcards WHERE id = ?";
+
+            try (Connection conn = databaseManager.getReadConnection();
+                 PreparedStatement stmt = conn.prepareStatement(query)) {
+
+                stmt.setInt(1, flashcardId);
+                try (ResultSet resultSet = stmt.executeQuery()) {
+                    if (resultSet.next()) {
+                        getFlashcardByIdTimer.setRows(event, 1);
+                        return readFlashcard(resultSet);
+                    }
+                }
+            }
+            getFlashcardByIdTimer.setRows(event, 0);
+            return null;
+        } catch (SQLException | RuntimeException e) {
+            getFlashcardByIdTimer.failed(event);
+            throw e;
+        } finally {
+            getFlashcardByIdTimer.end(event, start);
+        }
+    }
+
+    // Updates a flashcard with the specified ID
+    public boolean updateFlashcard(Flashcard flashcard) throws SQLException {
+        long start = System.nanoTime();
+        QueryEvent event = updateFlashcardTimer.begin();
+        try {
+            String query = "UPDATE flashcards SET question = ?, answer = ?, hint = ?, state = ?, difficulty = ? WHERE id = ?";
+
+            try (Connection conn = databaseManager.getWriteConnection();
+                 PreparedStatement stmt = conn.prepareStatement(query)) {
+
+                conn.setAutoCommit(false); // Start transaction
+                stmt.setString(1, flashcard.getQuestion());
+                stmt.setString(2, flashcard.getAnswer());
+                stmt.setString(3, flashcard.getHint());
+                stmt.setString(4, flashcard.getState().toString());
+                stmt.setString(5, flashcard.getDifficulty().toString());
+                stmt.setInt(6, flashcard.getFlashcardId());
+
+                int rowsAffected = stmt.executeUpdate();
+                conn.commit(); // Commit changes
+                updateFlashcardTimer.setRows(event, rowsAffected);
+                return rowsAffected > 0;
+            }
+        } catch (SQLException | RuntimeException e) {
+            updateFlashcardTimer.failed(event);
+            throw e;
+        } finally {
+            updateFlashcardTimer.end(event, start);
+        }
+    }
+
+    // Updates the state of a flashcard in the database
+    public void updateFlashcardState(int id, Flashcard.State newState) throws SQLException {
+        long start = System.nanoTime();
+        QueryEvent event = updateFlashcardStateTimer.begin();
+        try {
+            String query = "UPDATE flashcards SET state = ? WHERE id = ?";
+
+            try (Connection conn = databaseManager.getWriteConnection();
+                 PreparedStatement stmt = conn.prepareStatement(query)) {
+
+                conn.setAutoCommit(false);
+                stmt.setString(1, newState.name());
+                stmt.setInt(2, id);
+                int rowsUpdated = stmt.executeUpdate();
+
+                if (rowsUpdated == 0) {
+                    conn.rollback();
+                    throw new SQLException("Failed to update flashcard state: no rows affected.");
+                }
+                conn.commit();
+                updateFlashcardStateTimer.setRows(event, rowsUpdated);
+            }
+        } catch (SQLException | RuntimeException e) {
+            updateFlashcardStateTimer.failed(event);
+            throw e;
+        } finally {
+            updateFlashcardStateTimer.end(event, start);
+        }
+    }
+
+    // Updates the difficulty of a flashcard in the database
+    public void updateFlashcardDifficulty(int id, Flashcard.Difficulty newDifficulty) throws SQLException {
+        long start = System.nanoTime();
+        QueryEvent event = updateFlashcardDifficultyTimer.begin();
+        try {
+            String query = "UPDATE flashcards SET difficulty = ? WHERE id = ?";
+
+            try (Connection conn = databaseManager.getWriteConnection();
+                 PreparedStatement stmt = conn.prepareStatement(query)) {
+
+                conn.setAutoCommit(false);
+                stmt.setString(1, newDifficulty.name());
+                stmt.setInt(2, id);
+                int rowsUpdated = stmt.executeUpdate();
+
+                if (rowsUpdated == 0) {
+                    conn.rollback();
+                    throw new SQLException("Failed to update flashcard difficulty: no rows affected.");
+                }
+                conn.commit();
+                updateFlashcardDifficultyTimer.setRows(event, rowsUpdated);
+            }
+        } catch (SQLException | RuntimeException e) {
+            updateFlashcardDifficultyTimer.failed(event);
+            throw e;
+        } finally {
+            updateFlashcardDifficultyTimer.end(event, start);
+        }
+    }
+
+    // Saves the state and difficulty changes of several flashcards in one transaction, using a batched statement.
+    // Null values keep the current state or difficulty; flashcards deleted in the meantime are skipped.
+    public void updateFlashcardsProgress(Collection<FlashcardProgress> changes) throws SQLException {
+        long start = System.nanoTime();
+        QueryEvent event = updateFlashcardsProgressTimer.begin();
+        try {
+            if (changes.isEmpty()) {
+                return;
+            }
+            String query = "UPDATE flashcards SET state = COALESCE(?, state), difficulty = COALESCE(?, difficulty), "
+                    + "interval_days = COALESCE(?, interval_days), ease = COALESCE(?, ease), "
+                    + "repetitions = COALESCE(?, repetitions), due_at = COALESCE(?, due_at) WHERE id = ?";
+
+            try (Connection conn = databaseManager.getWriteConnection();
+                 PreparedStatement stmt = conn.prepareStatement(query)) {
+
+                conn.setAutoCommit(false);
+                for (FlashcardProgress change : changes) {
+                    stmt.setString(1, change.getState() == null ? null : change.getState().name());
+                    stmt.setString(2, change.getDifficulty() == null ? null : change.getDifficulty().name());
+                    ReviewSchedule schedule = change.getSchedule();
+                    if (schedule == null) {
+                        stmt.setNull(3, Types.INTEGER);
+                        stmt.setNull(4, Types.REAL);
+                        stmt.setNull(5, Types.INTEGER);
+                        stmt.setNull(6, Types.INTEGER);
+                    } else {
+                        stmt.setInt(3, schedule.getIntervalDays());
+                        stmt.setDouble(4, schedule.getEase());
+                        stmt.setInt(5, schedule.getRepetitions());
+                        stmt.setLong(6, schedule.getDueAt());
+                    }
+                    stmt.setInt(7, change.getFlashcardId());
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+                conn.commit();
+                updateFlashcardsProgressTimer.setRows(event, changes.size());
+            }
+        } catch (SQLException | RuntimeException e) {
+            updateFlashcardsProgressTimer.failed(event);
+            throw e;
+        } finally {
+            updateFlashcardsProgressTimer.end(event, start);
+        }
+    }
+
+    /**
+     * Resets every flashcard of a deck to a new flashcard, with a single statement: the state becomes
+     * {@link Flashcard.State#CREATED}, the difficulty {@link Flashcard.Difficulty#DEFAULT} and the review
+     * schedule {@link ReviewSchedule#NEW}.
+     * When called inside {@link DatabaseManager#inTransaction}, the update joins the caller's transaction.
+     *
+     * @param deckId The ID of the deck.
+     * @return The IDs of the flashcards which were reset.
+     * @throws SQLException If a database error occurs.
+     */
+    public List<Integer> resetFlashcardsOfDeck(int deckId) throws SQLException {
+        long start = System.nanoTime();
+        QueryEvent event = resetFlashcardsOfDeckTimer.begin();
+        try {
+            String query = "UPDATE flashcards SET state = ?, difficulty = ?, "
+                    + "interval_days = ?, ease = ?, repetitions = ?, due_at = ? "
+                    + "WHERE id IN (SELECT flashcard_id FROM flashcard_deck WHERE deck_id = ?) RETURNING id";
+
+            try (Connection conn = databaseManager.getWriteConnection();
+                 PreparedStatement stmt = conn.prepareStatement(query)) {
+
+                conn.setAutoCommit(false);
+                ReviewSchedule schedule = ReviewSchedule.NEW;
+                stmt.setString(1, Flashcard.State.CREATED.name());
+                stmt.setString(2, Flashcard.Difficulty.DEFAULT.name());
+                stmt.setInt(3, schedule.getIntervalDays());
+                stmt.setDouble(4, schedule.getEase());
+                stmt.setInt(5, schedule.getRepetitions());
+                stmt.setLong(6, schedule.getDueAt());
+                stmt.setInt(7, deckId);
+                List<Integer> reset = readIds(stmt);
+                conn.commit();
+                resetFlashcardsOfDeckTimer.setRows(event, reset.size());
+                return reset;
+            }
+        } catch (SQLException | RuntimeException e) {
+            resetFlashcardsOfDeckTimer.failed(event);
+            throw e;
+        } finally {
+            resetFlashcardsOfDeckTimer.end(event, start);
+        }
+    }
+
+    // Streams the state and difficulty of every flashcard, read from the (state, difficulty) index only
+    public void forEachFlashcardProgress(Consumer<FlashcardProgress> action) throws SQLException {
+        long start = System.nanoTime();
+        QueryEvent event = forEachFlashcardProgressTimer.begin();
+        try {
+            String query = "SELECT id, state, difficulty FROM flashcards";
+
+            try (Connection conn = databaseManager.getReadConnection();
+                 PreparedStatement stmt = conn.prepareStatement(query)) {
+
+                stmt.setFetchSize(FETCH_SIZE);
+                long rows = 0;
+                try (ResultSet resultSet = stmt.executeQuery()) {
+                    while (resultSet.next()) {
+                        rows++;
+                        action.accept(new FlashcardProgress(resultSet.getInt(1),
+                                Flashcard.State.valueOf(resultSet.getString(2)),
+                                Flashcard.Difficulty.valueOf(resultSet.getString(3))));
+                    }
+                }
+                forEachFlashcardProgressTimer.setRows(event, rows);
+            }
+        } catch (SQLException | RuntimeException e) {
+            forEachFlashcardProgressTimer.failed(event);
+            throw e;
+        } finally {
+            forEachFlashcardProgressTimer.end(event, start);
+        }
+    }
+
+    // Returns a map where keys are the states of the flashcard and values are the number of flashcards in each state
+    public Map<Flashcard.State, Integer> getFlashcardsByState() throws SQLException {
+        long start = System.nanoTime();
+        QueryEvent event = getFlashcardsByStateTimer.begin();
+        try {
+            String query = "SELECT state, COUNT(*) FROM flashcards GROUP BY state";
+
+            try (Connection conn = databaseManager.getReadConnection();
+                 PreparedStatement stmt = conn.prepareStatement(query);
+                 ResultSet resultSet = stmt.executeQuery()) {
+
+                Map<Flashcard.State, Integer> stateCountMap = new EnumMap<>(Flashcard.State.class);
+                while (resultSet.next()) {
+                    stateCountMap.put(Flashcard.State.valueOf(resultSet.getString("state")), resultSet.getInt(2));
+                }
+                getFlashcardsByStateTimer.setRows(event, stateCountMap.size());
+                return stateCountMap;
+            }
+        } catch (SQLException | RuntimeException e) {
+            getFlashcardsByStateTimer.failed(event);
+            throw e;
+        } finally {
+            getFlashcardsByStateTimer.end(event, start);
+        }
+    }
+
+    // Returns a map where keys are the difficulties of the flashcard and values are the number of flashcards in each difficulty
+    public Map<Flashcard.Difficulty, Integer> getFlashcardsByDifficulty() throws SQLException {
+        long start = System.nanoTime();
+        QueryEvent event = getFlashcardsByDifficultyTimer.begin();
+        try {
+            String query = "SELECT difficulty, COUNT(*) FROM flashcards GROUP BY difficulty";
+
+            try (Connection conn = databaseManager.getReadConnection();
+                 PreparedStatement stmt = conn.prepareStatement(query);
+                 ResultSet resultSet = stmt.executeQuery()) {
+
+                Map<Flashcard.Difficulty, Integer> difficultyCountMap = new EnumMap<>(Flashcard.Difficulty.class);
+                while (resultSet.next()) {
+                    difficultyCountMap.put(Flashcard.Difficulty.valueOf(resultSet.getString("difficulty")), resultSet.getInt(2));
+                }
+                getFlashcardsByDifficultyTimer.setRows(event, difficultyCountMap.size());
+                return difficultyCountMap;
+            }
+        } catch (SQLException | RuntimeException e) {
+            getFlashcardsByDifficultyTimer.failed(event);
+            throw e;
+        } finally {
+            getFlashcardsByDifficultyTimer.end(event, start);
+        }
+    }
+
+    /**
+     * Searches the question, answer and hint of the flashcards with the full-text index.
+     * Every word of the text must appear in the flashcard, the last word also matches as a prefix, so results
+     * are found while the user is still typing. Matches in the question rank higher than matches in the answer,
+     * which rank higher than matches in the hint.
+     *
+     * @param text   The words to search for; FTS5 query syntax is not interpreted.
+     * @param limit  The maximum number of results.
+     * @param offset The number of best results to skip.
+     * @return The matching flashcards, the most relevant first; empty if the text contains no words.
+     * @throws SQLException If a database error occurs.
+     */
+    public List<SearchResult> search(String text, int limit, int offset) throws SQLException {
+        long start = System.nanoTime();
+        QueryEvent event = searchTimer.begin();
+        try {
+            String matchExpression = toMatchExpression(text);
+            if (matchExpression == null) {
+                return new ArrayList<>();
+            }
+            String query = "SELECT f.*, "
+                    + "highlight(flashcards_fts, 0, ?, ?) AS question_highlight, "
+                    + "highlight(flashcards_fts, 1, ?, ?) AS answer_highlight, "
+                    + "highlight(flashcards_fts, 2, ?, ?) AS hint_highlight, "
+                    + "bm25(flashcards_fts, 10.0, 5.0, 1.0) AS rank "
+                    + "FROM flashcards_fts JOIN flashcards f ON f.id = flashcards_fts.rowid "
+                    + "WHERE flashcards_fts MATCH ? "
+                    + "ORDER BY rank LIMIT ? OFFSET ?";
+
+            try (Connection conn = databaseManager.getReadConnection();
+                 PreparedStatement stmt = conn.prepareStatement(query)) {
+
+                int index = 1;
+                for (int column = 0; column < 3; column++) {
+                    stmt.setString(index++, String.valueOf(SearchResult.HIGHLIGHT_START));
+                    stmt.setString(index++, String.valueOf(SearchResult.HIGHLIGHT_END));
+                }
+                stmt.setString(index++, matchExpression);
+                stmt.setInt(index++, limit);
+                stmt.setInt(index, offset);
+
+                List<SearchResult> results = new ArrayList<>();
+                try (ResultSet resultSet = stmt.executeQuery()) {
+                    while (resultSet.next()) {
+                        results.add(new SearchResult(readFlashcard(resultSet),
+                                resultSet.getString("question_highlight"),
+                                resultSet.getString("answer_highlight"),
+                                resultSet.getString("hint_highlight"),
+                                resultSet.getDouble("rank")));
+                    }
+                }
+                searchTimer.setRows(event, results.size());
+                return results;
+            }
+        } catch (SQLException | RuntimeException e) {
+            searchTimer.failed(event);
+            throw e;
+        } finally {
+            searchTimer.end(event, start);
+        }
+    }
+
+    // Turns the text typed by the user into an FTS5 query: every word becomes a quoted string, so operators and
+    // special characters are matched literally, and the last word is matched as a prefix. Returns null if there is no word.
+    static String toMatchExpression(String text) {
+        if (text == null) {
+            return null;
+        }
+        StringBuilder expression = new StringBuilder();
+        for (String word : text.trim().split("\\s+")) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            if (!expression.isEmpty()) {
+                expression.append(' ');
+            }
+            expression.append('"').append(word.replace("\"", "\"\"")).append('"');
+        }
+        if (expression.isEmpty()) {
+            return null;
+        }
+        return expression.append('*').toString();
+    }
+
+    // Runs a statement returning one ID per row, such as a DELETE or UPDATE with a RETURNING clause
+    static List<Integer> readIds(PreparedStatement stmt) throws SQLException {
+        List<Integer> ids = new ArrayList<>();
+        try (ResultSet resultSet = stmt.executeQuery()) {
+            while (resultSet.next()) {
+                ids.add(resultSet.getInt(1));
+            }
+        }
+        return ids;
+    }
+
+    // Builds a flashcard from the current row of a result set containing the columns of the flashcards table
+    static Flashcard readFlashcard(ResultSet resultSet) throws SQLException {
+        Flashcard flashcard = new Flashcard(
+                resultSet.getInt("id"),
+                resultSet.getString("question"),
+                resultSet.getString("answer"),
+                resultSet.getString("hint"),
+                Flashcard.State.valueOf(resultSet.getString("state")),
+                Flashcard.Difficulty.valueOf(resultSet.getString("difficulty"))
+        );
+        flashcard.setSchedule(new ReviewSchedule(
+                resultSet.getInt("interval_days"),
+                resultSet.getDouble("ease"),
+                resultSet.getInt("repetitions"),
+                resultSet.getLong("due_at")));
+        return flashcard;
+    }
+}
@@ -0,0 +1,75 @@
+package mff.cuni.cz.bortosa.flashy.Repositories;
+
+import mff.cuni.cz.bortosa.flashy.DatabaseOperations.DatabaseManager;
+import mff.cuni.cz.bortosa.flashy.Models.ImportCheckpoint;
+
+import java.sql.*;
+
+/**
+ * Repository class for the progress of running deck imports.
+ * Checkpoints are written inside the transaction of the chunk they describe, so they always match the imported data.
+ */
+public class ImportCheckpointsRepository {
+    private final DatabaseManager databaseManager;
+
+    public ImportCheckpointsRepository(DatabaseManager databaseManager) {
+        this.databaseManager = databaseManager;
+    }
+
+    /**
+     * Retrieves the checkpoint of an unfinished import of the given file.
+     *
+     * @param source The normalized path of the imported file.
+     * @return The checkpoint if an import of the file was interrupted, otherwise null.
+     * @throws SQLException If a database error occurs.
+     */
+    public ImportCheckpoint getCheckpoint(String source) throws SQLException {
+        String query = "SELECT source, deck_id, rows_committed FROM import_checkpoints WHERE source = ?";
+        try (Connection conn = databaseManager.getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+            stmt.setString(1, source);
+            try (ResultSet resultSet = stmt.executeQuery()) {
+                if (resultSet.next()) {
+                    return new ImportCheckpoint(
+                            resultSet.getString("source"),
+                            resultSet.getInt("deck_id"),
+                            resultSet.getInt("rows_committed")
+                    );
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Inserts or replaces the checkpoint of an import.
+     *
+     * @param checkpoint The progress to save.
+     * @throws SQLException If a database error occurs.
+     */
+    public void saveCheckpoint(ImportCheckpoint checkpoint) throws SQLException {
+        String query = "INSERT OR REPLACE INTO import_checkpoints (source, deck_id, rows_committed) VALUES (?, ?, ?)";
+        try (Connection conn = databaseManager.getWriteConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+            stmt.setString(1, checkpoint.getSource());
+            stmt.setInt(2, checkpoint.getDeckId());
+            stmt.setInt(3, checkpoint.getRowsCommitted());
+            stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Deletes the checkpoint of an import, once it has finished.
+     *
+     * @param source The normalized path of the imported file.
+     * @throws SQLException If a database error occurs.
+     */
+    public void deleteCheckpoint(String source) throws SQLException {
+        String query = "DELETE FROM import_checkpoints WHERE source = ?";
+        try (Connection conn = databaseManager.getWriteConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+            stmt.setString(1, source);
+            stmt.executeUpdate();
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package mff.cuni.cz.bortosa.flashy.Repositories;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Passes a set of IDs to a statement as a single parameter: a JSON array, expanded in SQL by
+ * {@code json_each(?)}. The same statement then works on any number of rows, without building an
+ * {@code IN (?, ?, ...)} list of the right length or running the statement once per ID.
+ * <p>
+ * The JSON functions of the bundled SQLite re-read the array from its start for every element, so the cost of an
+ * array grows with the square of its length; the IDs are therefore split into arrays of at most
+ * {@link #MAX_IDS_PER_ARRAY} IDs, and the statement is executed once per array.
+ */
+final class JsonIdArray {
+    static final int MAX_IDS_PER_ARRAY = 250;
+
+    private JsonIdArray() {
+    }
+
+    // Formats the IDs as JSON arrays of at most MAX_IDS_PER_ARRAY IDs each, e.g. [1,5,7]
+    static List<String> chunksOf(Collection<Integer> ids) {
+        List<String> chunks = new ArrayList<>(ids.size() / MAX_IDS_PER_ARRAY + 1);
+        StringBuilder json = new StringBuilder(MAX_IDS_PER_ARRAY * 7 + 2);
+        int count = 0;
+        for (int id : ids) {
+            json.append(count == 0 ? '[' : ',').append(id);
+            if (++count == MAX_IDS_PER_ARRAY) {
+                chunks.add(json.append(']').toString());
+                json.setLength(0);
+                count = 0;
+            }
+        }
+        if (count > 0) {
+            chunks.add(json.append(']').toString());
+        }
+        return chunks;
+    }
+}
@@ -0,0 +1,105 @@
+package mff.cuni.cz.bortosa.flashy.Repositories;
+
+import mff.cuni.cz.bortosa.flashy.DatabaseOperations.DatabaseManager;
+import mff.cuni.cz.bortosa.flashy.Models.ReviewLogEntry;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository class for the history of the study sessions, kept as an append-only log of reviews.
+ * Reviews are only ever inserted; they are read back by flashcard, by deck or by time window,
+ * always restricted to a time window {@code [from, to)} and ordered by the time of the review.
+ */
+public class StudySessionsRepository {
+    private final DatabaseManager databaseManager;
+
+    public StudySessionsRepository(DatabaseManager databaseManager) {
+        this.databaseManager = databaseManager;
+    }
+
+    /**
+     * Appends reviews to the log in a single transaction, with one batched statement.
+     *
+     * @param entries The reviews to log.
+     * @throws SQLException If a database error occurs; none of the reviews is logged in that case.
+     */
+    public void addReviews(Collection<ReviewLogEntry> entries) throws SQLException {
+        if (entries.isEmpty()) {
+            return;
+        }
+        String query = "INSERT INTO review_log (flashcard_id, reviewed_at, grade, answer_millis, hint_used) VALUES (?, ?, ?, ?, ?)";
+
+        try (Connection conn = databaseManager.getWriteConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+
+            conn.setAutoCommit(false);
+            for (ReviewLogEntry entry : entries) {
+                stmt.setInt(1, entry.getFlashcardId());
+                stmt.setLong(2, entry.getReviewedAt());
+                stmt.setInt(3, entry.getGrade());
+                stmt.setLong(4, entry.getAnswerMillis());
+                stmt.setBoolean(5, entry.isHintUsed());
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+            conn.commit();
+        }
+    }
+
+    // Retrieves the reviews of one flashcard made in the time window [from, to)
+    public List<ReviewLogEntry> getReviewsOfFlashcard(int flashcardId, long from, long to) throws SQLException {
+        String query = "SELECT * FROM review_log WHERE flashcard_id = ? AND reviewed_at >= ? AND reviewed_at < ? "
+                + "ORDER BY reviewed_at, id";
+        return queryReviews(query, flashcardId, from, to);
+    }
+
+    // Retrieves the reviews of the flashcards of a deck made in the time window [from, to)
+    public List<ReviewLogEntry> getReviewsOfDeck(int deckId, long from, long to) throws SQLException {
+        String query = "SELECT r.* FROM flashcard_deck fd JOIN review_log r ON r.flashcard_id = fd.flashcard_id "
+                + "WHERE fd.deck_id = ? AND r.reviewed_at >= ? AND r.reviewed_at < ? "
+                + "ORDER BY r.reviewed_at, r.id";
+        return queryReviews(query, deckId, from, to);
+    }
+
+    // Retrieves all reviews made in the time window [from, to)
+    public List<ReviewLogEntry> getReviews(long from, long to) throws SQLException {
+        String query = "SELECT * FROM review_log WHERE reviewed_at >= ? AND reviewed_at < ? ORDER BY reviewed_at, id";
+
+        try (Connection conn = databaseManager.getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+            stmt.setLong(1, from);
+            stmt.setLong(2, to);
+            return readReviews(stmt);
+        }
+    }
+
+    private List<ReviewLogEntry> queryReviews(String query, int id, long from, long to) throws SQLException {
+        try (Connection conn = databaseManager.getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement(query)) {
+            stmt.setInt(1, id);
+            stmt.setLong(2, from);
+            stmt.setLong(3, to);
+            return readReviews(stmt);
+        }
+    }
+
+    private static List<ReviewLogEntry> readReviews(PreparedStatement stmt) throws SQLException {
+        List<ReviewLogEntry> entries = new ArrayList<>();
+        try (ResultSet resultSet = stmt.executeQuery()) {
+            while (resultSet.next()) {
+                entries.add(new ReviewLogEntry(
+                        resultSet.getLong("id"),
+                        resultSet.getInt("flashcard_id"),
+                        resultSet.getLong("reviewed_at"),
+                        resultSet.getInt("grade"),
+                        resultSet.getLong("answer_millis"),
+                        resultSet.getBoolean("hint_used")
+                ));
+            }
+        }
+        return entries;
+    }
+}
@@ -0,0 +1,83 @@
+package mff.cuni.cz.bortosa.flashy.Scheduling;
+
+import mff.cuni.cz.bortosa.flashy.Models.Flashcard;
+import mff.cuni.cz.bortosa.flashy.Models.ReviewSchedule;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Schedules the reviews of flashcards with the SM-2 algorithm.
+ * Every review is graded with a quality from 0 (complete blackout) to 5 (perfect response). A quality below 3
+ * starts the repetitions over with a one day interval; otherwise the interval goes from 1 to 6 days and then
+ * grows by the ease factor of the flashcard, which itself is adjusted by the quality of every review.
+ */
+public class Sm2Scheduler {
+    public static final int MIN_QUALITY = 0;
+    public static final int MAX_QUALITY = 5;
+    public static final int PASSING_QUALITY = 3;
+    public static final double MIN_EASE = 1.3;
+
+    private static final long DAY_MILLIS = TimeUnit.DAYS.toMillis(1);
+
+    /**
+     * Computes the schedule of a flashcard after a review.
+     *
+     * @param current The schedule before the review.
+     * @param quality The quality of the answer, from 0 to 5.
+     * @param now     The time of the review, in milliseconds since the epoch.
+     * @return The schedule after the review.
+     */
+    public ReviewSchedule schedule(ReviewSchedule current, int quality, long now) {
+        if (quality < MIN_QUALITY || quality > MAX_QUALITY) {
+            throw new IllegalArgumentException("Quality must be between " + MIN_QUALITY + " and " + MAX_QUALITY + ".");
+        }
+
+        int repetitions;
+        int intervalDays;
+        if (quality < PASSING_QUALITY) {
+            repetitions = 0;
+            intervalDays = 1;
+        } else {
+            repetitions = current.getRepetitions() + 1;
+            if (repetitions == 1) {
+                intervalDays = 1;
+            } else if (repetitions == 2) {
+                intervalDays = 6;
+            } else {
+                intervalDays = (int) Math.round(current.getIntervalDays() * current.getEase());
+            }
+        }
+
+        int missing = MAX_QUALITY - quality;
+        double ease = Math.max(MIN_EASE, current.getEase() + (0.1 - missing * (0.08 + missing * 0.02)));
+
+        return new ReviewSchedule(intervalDays, ease, repetitions, now + intervalDays * DAY_MILLIS);
+    }
+
+    /**
+     * Converts the answer given in a study session into the quality of the review.
+     *
+     * @param state      The state chosen for the flashcard: LEARNT if the answer was known, LEARNING if it was not,
+     *                   TO_REVIEW if it was unsure.
+     * @param difficulty How difficult the flashcard was for the user, or null if not given.
+     * @return The quality of the review, or -1 if the answer does not grade the flashcard.
+     */
+    public static int qualityOf(Flashcard.State state, Flashcard.Difficulty difficulty) {
+        if (state == null) {
+            return -1;
+        }
+        switch (state) {
+            case LEARNING:
+                return 1;
+            case TO_REVIEW:
+                return 3;
+            case LEARNT:
+                if (difficulty == Flashcard.Difficulty.EASY) {
+                    return 5;
+                }
+                return difficulty == Flashcard.Difficulty.HARD ? 3 : 4;
+            default:
+                return -1;
+        }
+    }
+}
@@ -0,0 +1,284 @@
+package mff.cuni.cz.bortosa.flashy.Services;
+
+import mff.cuni.cz.bortosa.flashy.Caching.CacheStats;
+import mff.cuni.cz.bortosa.flashy.Caching.CachingDecksRepository;
+import mff.cuni.cz.bortosa.flashy.Caching.CachingFlashcardsRepository;
+import mff.cuni.cz.bortosa.flashy.DatabaseOperations.DatabaseManager;
+import mff.cuni.cz.bortosa.flashy.Metrics.MetricsRegistry;
+import mff.cuni.cz.bortosa.flashy.Observer.Event;
+import mff.cuni.cz.bortosa.flashy.Observer.EventBus;
+import mff.cuni.cz.bortosa.flashy.Repositories.DecksRepository;
+import mff.cuni.cz.bortosa.flashy.Repositories.FlashcardDeckRepository;
+import mff.cuni.cz.bortosa.flashy.Repositories.FlashcardsRepository;
+import mff.cuni.cz.bortosa.flashy.Repositories.ImportCheckpointsRepository;
+import mff.cuni.cz.bortosa.flashy.Repositories.StudySessionsRepository;
+import mff.cuni.cz.bortosa.flashy.Scheduling.Sm2Scheduler;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * Handles dependency injection for various services and repositories.
+ * It does not depend on JavaFX, so batch jobs and benchmarks can use the services the same way as the application.
+ * Closing the injector releases the background resources it created.
+ */
+public class DependencyInjector implements AutoCloseable {
+    private static final EnumSet<Event> FLASHCARD_EVENTS = EnumSet.of(Event.ADD_FLASHCARD, Event.UPDATE_FLASHCARD,
+            Event.REMOVE_FLASHCARD, Event.ADD_FLASHCARDS, Event.UPDATE_FLASHCARDS, Event.REMOVE_FLASHCARDS);
+    private static final EnumSet<Event> DECK_EVENTS = EnumSet.of(Event.ADD_DECK, Event.UPDATE_DECK, Event.REMOVE_DECK);
+
+    private final DatabaseManager databaseManager;
+    private EventBus eventBus;
+    private CachingFlashcardsRepository flashcardsRepository;
+    private CachingDecksRepository decksRepository;
+    private FlashcardDeckRepository flashcardDeckRepository;
+    private ImportCheckpointsRepository importCheckpointsRepository;
+    private ServiceExecutor serviceExecutor;
+    private FlashcardService flashcardService;
+    private StudySessionsRepository studySessionsRepository;
+    private StudySessionService studySessionService;
+    private GradingWriteBuffer gradingWriteBuffer;
+    private ReviewLogAppender reviewLogAppender;
+    private StatisticsService statisticsService;
+
+    /**
+     * Constructor initializing the dependency injector with a database manager.
+     *
+     * @param databaseManager The database manager instance.
+     */
+    public DependencyInjector(DatabaseManager databaseManager) {
+        this.databaseManager = databaseManager;
+    }
+
+    /**
+     * Retrieves the database manager shared by all the repositories.
+     * @return The database manager.
+     */
+    public DatabaseManager getDatabaseManager() {
+        return databaseManager;
+    }
+
+    /**
+     * Retrieves the bus delivering the events of the services, initializing it if necessary.
+     * @return The event bus.
+     */
+    public EventBus getEventBus() {
+        if (eventBus == null) {
+            eventBus = new EventBus();
+        }
+        return eventBus;
+    }
+
+    /**
+     * Retrieves the flashcards repository, initializing it if necessary.
+     * It caches flashcards in memory and is kept consistent by the events of the services.
+     * @return The flashcards repository.
+     * @throws SQLException If a database error occurs.
+     */
+    public FlashcardsRepository getFlashcardsRepository() throws SQLException {
+        if (flashcardsRepository == null) {
+            flashcardsRepository = new CachingFlashcardsRepository(databaseManager);
+            registerCacheGauges(flashcardsRepository::getCacheStats);
+            // notified before the service call returns, so that no stale flashcard is read afterwards
+            getEventBus().subscribe(flashcardsRepository, FLASHCARD_EVENTS);
+        }
+        return flashcardsRepository;
+    }
+
+    /**
+     * Retrieves the decks repository, initializing it if necessary.
+     * It caches decks in memory and is kept consistent by the events of the services.
+     * @return The decks repository.
+     * @throws SQLException If a database error occurs.
+     */
+    public DecksRepository getDecksRepository() throws SQLException {
+        if (decksRepository == null) {
+            decksRepository = new CachingDecksRepository(databaseManager);
+            registerCacheGauges(decksRepository::getCacheStats);
+            getEventBus().subscribe(decksRepository, DECK_EVENTS);
+        }
+        return decksRepository;
+    }
+
+    /**
+     * Retrieves the flashcard-deck repository, initializing it if necessary.
+     *
+     * @return The flashcard-deck repository.
+     * @throws SQLException If a database error occurs.
+     */
+    public FlashcardDeckRepository getFlashcardDeckRepository() throws SQLException {
+        if (flashcardDeckRepository == null) {
+            flashcardDeckRepository = new FlashcardDeckRepository(databaseManager);
+        }
+        return flashcardDeckRepository;
+    }
+
+    /**
+     * Retrieves the import checkpoints repository, initializing it if necessary.
+     *
+     * @return The import checkpoints repository.
+     */
+    public ImportCheckpointsRepository getImportCheckpointsRepository() {
+        if (importCheckpointsRepository == null) {
+            importCheckpointsRepository = new ImportCheckpointsRepository(databaseManager);
+        }
+        return importCheckpointsRepository;
+    }
+
+    /**
+     * Retrieves the executor running the asynchronous service calls, initializing it if necessary.
+     *
+     * @return The service executor.
+     */
+    public ServiceExecutor getServiceExecutor() {
+        if (serviceExecutor == null) {
+            serviceExecutor = new ServiceExecutor();
+        }
+        return serviceExecutor;
+    }
+
+    /**
+     * Retrieves the flashcard service, initializing it if necessary.
+     *
+     * @return The flashcard service.
+     * @throws SQLException If a database error occurs.
+     */
+    public FlashcardService getFlashcardService() throws SQLException {
+        if (flashcardService == null) {
+            flashcardService = new FlashcardService(databaseManager, getFlashcardsRepository(), getFlashcardDeckRepository(), getDecksRepository(), getImportCheckpointsRepository(), getServiceExecutor(), getEventBus());
+        }
+        return flashcardService;
+    }
+
+    /**
+     * Retrieves the study session repository, initializing it if necessary.
+     *
+     * @return The study session repository.
+     * @throws SQLException If a database error occurs.
+     */
+    public StudySessionsRepository getStudySessionRepository() throws SQLException {
+        if (studySessionsRepository == null) {
+            studySessionsRepository = new StudySessionsRepository(databaseManager);
+        }
+        return studySessionsRepository;
+    }
+
+    /**
+     * Retrieves the study session service, initializing it if necessary.
+     *
+     * @return The study session service.
+     * @throws SQLException If a database error occurs.
+     */
+    public StudySessionService getStudySessionService() throws SQLException {
+        if (studySessionService == null) {
+            studySessionService = new StudySessionService(getFlashcardsRepository(), getFlashcardDeckRepository(), getDecksRepository(), getGradingWriteBuffer(), getReviewLogAppender(), new Sm2Scheduler(), getServiceExecutor(), getEventBus());
+        }
+        return studySessionService;
+    }
+
+    /**
+     * Retrieves the buffer of the answers given during study sessions, initializing it if necessary.
+     *
+     * @return The grading write buffer.
+     * @throws SQLException If a database error occurs.
+     */
+    public GradingWriteBuffer getGradingWriteBuffer() throws SQLException {
+        if (gradingWriteBuffer == null) {
+            gradingWriteBuffer = new GradingWriteBuffer(getFlashcardsRepository());
+        }
+        return gradingWriteBuffer;
+    }
+
+    /**
+     * Retrieves the background appender of the review log, initializing it if necessary.
+     *
+     * @return The review log appender.
+     * @throws SQLException If a database error occurs.
+     */
+    public ReviewLogAppender getReviewLogAppender() throws SQLException {
+        if (reviewLogAppender == null) {
+            reviewLogAppender = new ReviewLogAppender(getStudySessionRepository());
+        }
+        return reviewLogAppender;
+    }
+
+    /**
+     * Retrieves the statistics service, initializing it if necessary.
+     * It receives the flashcard events of all the services, to keep its counts current.
+     *
+     * @return The statistics service.
+     * @throws SQLException If a database error occurs.
+     */
+    public StatisticsService getStatisticsService() throws SQLException {
+        if (statisticsService == null) {
+            statisticsService = new StatisticsService(getFlashcardsRepository(), getGradingWriteBuffer(), getServiceExecutor());
+            getEventBus().subscribe(statisticsService, FLASHCARD_EVENTS);
+        }
+        return statisticsService;
+    }
+
+    /**
+     * Retrieves the statistics of the caches created so far.
+     *
+     * @return The statistics of each cache.
+     */
+    public List<CacheStats> getCacheStats() {
+        List<CacheStats> stats = new ArrayList<>();
+        if (flashcardsRepository != null) {
+            stats.addAll(flashcardsRepository.getCacheStats());
+        }
+        if (decksRepository != null) {
+            stats.addAll(decksRepository.getCacheStats());
+        }
+        return stats;
+    }
+
+    // publishes the statistics of the caches of a repository with the other metrics of the database
+    private void registerCacheGauges(Supplier<List<CacheStats>> cacheStats) {
+        MetricsRegistry metrics = databaseManager.getMetrics();
+        for (CacheStats stats : cacheStats.get()) {
+            String prefix = "cache." + stats.getCacheName() + ".";
+            metrics.gauge(prefix + "size", () -> readCacheStat(cacheStats, stats.getCacheName(), CacheStats::getSize));
+            metrics.gauge(prefix + "hits", () -> readCacheStat(cacheStats, stats.getCacheName(), CacheStats::getHitCount));
+            metrics.gauge(prefix + "misses", () -> readCacheStat(cacheStats, stats.getCacheName(), CacheStats::getMissCount));
+            metrics.gauge(prefix + "evictions", () -> readCacheStat(cacheStats, stats.getCacheName(), CacheStats::getEvictionCount));
+        }
+    }
+
+    private static long readCacheStat(Supplier<List<CacheStats>> cacheStats, String cacheName, ToLongFunction<CacheStats> stat) {
+        for (CacheStats stats : cacheStats.get()) {
+            if (stats.getCacheName().equals(cacheName)) {
+                return stat.applyAsLong(stats);
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Writes the buffered answers and reviews and waits for the running service calls, so that the database can be closed.
+     *
+     * @throws SQLException If the buffered answers or reviews could not be written.
+     */
+    @Override
+    public void close() throws SQLException {
+        try {
+            if (gradingWriteBuffer != null) {
+                gradingWriteBuffer.close();
+            }
+        } finally {
+            try {
+                if (reviewLogAppender != null) {
+                    reviewLogAppender.close();
+                }
+            } finally {
+                if (serviceExecutor != null) {
+                    serviceExecutor.close();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,536 @@
+package mff.cuni.cz.bortosa.flashy.Services;
+
+import mff.cuni.cz.bortosa.flashy.DatabaseOperations.DatabaseManager;
+import mff.cuni.cz.bortosa.flashy.ImportExport.DeckCsvExporter;
+import mff.cuni.cz.bortosa.flashy.ImportExport.DeckCsvImporter;
+import mff.cuni.cz.bortosa.flashy.ImportExport.ImportListener;
+import mff.cuni.cz.bortosa.flashy.ImportExport.ImportResult;
+import mff.cuni.cz.bortosa.flashy.Metrics.Counter;
+import mff.cuni.cz.bortosa.flashy.Metrics.MetricsRegistry;
+import mff.cuni.cz.bortosa.flashy.Metrics.Timer;
+import mff.cuni.cz.bortosa.flashy.Models.Deck;
+import mff.cuni.cz.bortosa.flashy.Models.Flashcard;
+import mff.cuni.cz.bortosa.flashy.Models.FlashcardProgress;
+import mff.cuni.cz.bortosa.flashy.Models.ReviewSchedule;
+import mff.cuni.cz.bortosa.flashy.Models.SearchResult;
+import mff.cuni.cz.bortosa.flashy.Observer.Event;
+import mff.cuni.cz.bortosa.flashy.Observer.EventBus;
+import mff.cuni.cz.bortosa.flashy.Repositories.DecksRepository;
+import mff.cuni.cz.bortosa.flashy.Repositories.FlashcardDeckRepository;
+import mff.cuni.cz.bortosa.flashy.Repositories.FlashcardsRepository;
+import mff.cuni.cz.bortosa.flashy.Repositories.ImportCheckpointsRepository;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLWarning;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Service class for managing flashcards and decks, publishing every change on the event bus.
+ * Provides methods to add, update, delete, and export flashcards and decks.
+ */
+public class FlashcardService {
+    private final DatabaseManager databaseManager;
+    private final FlashcardsRepository flashcardsRepository;
+    private final FlashcardDeckRepository flashcardDeckRepository;
+    private final DecksRepository decksRepository;
+    private final ImportCheckpointsRepository importCheckpointsRepository;
+    private final ServiceExecutor serviceExecutor;
+    private final EventBus eventBus;
+    private final Timer importTimer;
+    private final Timer exportTimer;
+    private final Counter importedFlashcards;
+    private final Counter exportedFlashcards;
+
+    /**
+     * Constructs a FlashcardService with the required repositories.
+     *
+     * @param databaseManager            Provider of the database connections, used for multi-step transactions.
+     * @param flashcardsRepository       Repository for flashcards.
+     * @param flashcardDeckRepository    Repository for flashcard-deck relationships.
+     * @param decksRepository            Repository for decks.
+     * @param importCheckpointsRepository Repository for the progress of deck imports.
+     * @param serviceExecutor            Executor running the asynchronous variants of the methods.
+     * @param eventBus                   Bus receiving the events of the changes, published from the thread which made them.
+     */
+    public FlashcardService(DatabaseManager databaseManager, FlashcardsRepository flashcardsRepository, FlashcardDeckRepository flashcardDeckRepository, DecksRepository decksRepository, ImportCheckpointsRepository importCheckpointsRepository, ServiceExecutor serviceExecutor, EventBus eventBus) {
+        this.databaseManager = databaseManager;
+        this.flashcardsRepository = flashcardsRepository;
+        this.flashcardDeckRepository = flashcardDeckRepository;
+        this.decksRepository = decksRepository;
+        this.importCheckpointsRepository = importCheckpointsRepository;
+        this.serviceExecutor = serviceExecutor;
+        this.eventBus = eventBus;
+        MetricsRegistry metrics = databaseManager.getMetrics();
+        this.importTimer = metrics.timer("FlashcardService.importDeckFromCSV");
+        this.exportTimer = metrics.timer("FlashcardService.exportDeckToCSV");
+        this.importedFlashcards = metrics.counter("FlashcardService.importedFlashcards");
+        this.exportedFlashcards = metrics.counter("FlashcardService.exportedFlashcards");
+    }
+
+    /**
+     * Adds a flashcard without associating it with a deck.
+     *
+     * @param flashcard The flashcard to add.
+     * @throws SQLException If a database error occurs.
+     */
+    public void addFlashcardWithoutDeck(Flashcard flashcard) throws SQLException {
+        this.flashcardsRepository.addFlashcard(flashcard);
+        eventBus.publish(Event.ADD_FLASHCARD, flashcard);
+    }
+
+    /**
+     * Adds a flashcard and associates it with an existing deck.
+     *
+     * @param flashcard The flashcard to add.
+     * @param deck      The deck to associate the flashcard with.
+     * @throws SQLException If a database error occurs.
+     */
+    public void addFlashcardWithDeck(Flashcard flashcard, Deck deck) throws SQLException {
+        int flashcardId = flashcardsRepository.addFlashcard(flashcard);
+        flashcardDeckRepository.addFlashcardToDeck(flashcardId, deck.getId());
+
+        // notify observers
+        eventBus.publish(Event.ADD_FLASHCARD, flashcard);
+    }
+
+    /**
+     * Adds a flashcard and creates a new deck for it.
+     *
+     * @param flashcard The flashcard to add.
+     * @param newDeck   The new deck to create and associate with the flashcard.
+     * @throws SQLException If a database error occurs.
+     */
+    public void addFlashcardWithNewDeck(Flashcard flashcard, Deck newDeck) throws SQLException {
+        int deckId = decksRepository.addDeck(newDeck);
+        int flashcardId = flashcardsRepository.addFlashcard(flashcard);
+        flashcardDeckRepository.addFlashcardToDeck(flashcardId, deckId);
+
+        // notify observers
+        eventBus.publish(Event.ADD_FLASHCARD, flashcard);
+        eventBus.publish(Event.ADD_DECK, newDeck);
+    }
+
+    /**
+     * Updates an existing flashcard.
+     *
+     * @param newFlashcard The flashcard to be updated.
+     * @throws SQLException If a database error occurs.
+     */
+    public void updateFlashcard(Flashcard newFlashcard) throws SQLException{
+        flashcardsRepository.updateFlashcard(newFlashcard);
+        eventBus.publish(Event.UPDATE_FLASHCARD, newFlashcard);
+    }
+
+    /**
+     * Retrieves all flashcards from the repository.
+     *
+     * @return A list of all flashcards.
+     * @throws SQLException If a database error occurs.
+     */
+    public List<Flashcard> getAllFlashcards() throws SQLException {
+        return flashcardsRepository.getAllFlashcards();
+    }
+
+    /**
+     * Retrieves all decks from the repository.
+     *
+     * @return A list of all decks.
+     * @throws SQLException If a database error occurs.
+     */
+    public List<Deck> getAllDecks() throws SQLException {
+        return decksRepository.getAllDecks();
+    }
+
+    /**
+     * Retrieves a page of flashcards ordered by ID.
+     *
+     * @param afterId The ID of the last flashcard of the previous page, 0 for the first page.
+     * @param limit   The maximum number of flashcards in the page.
+     * @return The flashcards with an ID greater than afterId.
+     * @throws SQLException If a database error occurs.
+     */
+    public List<Flashcard> getFlashcardsPage(int afterId, int limit) throws SQLException {
+        return flashcardsRepository.getFlashcardsPage(afterId, limit);
+    }
+
+    /**
+     * Retrieves the IDs of all flashcards.
+     *
+     * @return The IDs of all flashcards in ascending order.
+     * @throws SQLException If a database error occurs.
+     */
+    public int[] getFlashcardIds() throws SQLException {
+        return flashcardsRepository.getFlashcardIds();
+    }
+
+    /**
+     * Retrieves a deck by its name.
+     *
+     * @param name The name of the deck.
+     * @return The corresponding Deck object.
+     * @throws SQLException If a database error occurs.
+     */
+    public Deck getDeckByName(String name) throws SQLException {
+        return decksRepository.getDeckByName(name);
+    }
+
+    /**
+     * Deletes a flashcard and removes its associations with decks.
+     *
+     * @param flashcardId The ID of the flashcard to delete.
+     * @throws SQLException If a database error occurs.
+     */
+    public void deleteFlashcardWithDecks(int flashcardId) throws SQLException {
+        Flashcard removedFlashcard = databaseManager.inTransaction(conn -> {
+            // Remove associations from flashcard_deck table
+            List<Integer> associatedDecks = flashcardDeckRepository.getDecksContainingFlashcard(flashcardId);
+            for (int deckId : associatedDecks) {
+                flashcardDeckRepository.removeFlashcardFromDeck(flashcardId, deckId);
+            }
+
+            Flashcard flashcard = flashcardsRepository.getFlashcardById(flashcardId);
+
+            // Delete the flashcard from the flashcards table
+            flashcardsRepository.deleteFlashcard(flashcardId);
+            return flashcard;
+        });
+
+        // Notify observers
+        eventBus.publish(Event.REMOVE_FLASHCARD, removedFlashcard);
+    }
+
+    /**
+     * Adds many new flashcards to an existing deck in one transaction, with batched inserts.
+     * Publishes a single {@link Event#ADD_FLASHCARDS} event.
+     *
+     * @param flashcards The flashcards to add; they receive their IDs.
+     * @param deck       The deck to associate the flashcards with.
+     * @throws SQLException If a database error occurs; no flashcard is added in that case.
+     */
+    public void addFlashcardsToDeck(List<Flashcard> flashcards, Deck deck) throws SQLException {
+        if (flashcards.isEmpty()) {
+            return;
+        }
+        databaseManager.inTransaction(conn -> {
+            flashcardsRepository.addFlashcards(flashcards);
+            flashcardDeckRepository.addFlashcardsToDeck(flashcards, deck.getId());
+            return null;
+        });
+        eventBus.publish(Event.ADD_FLASHCARDS, List.copyOf(flashcards));
+    }
+
+    /**
+     * Deletes many flashcards and their associations with decks in one transaction, with one statement per table.
+     * Publishes a single {@link Event#REMOVE_FLASHCARDS} event.
+     *
+     * @param flashcardIds The IDs of the flashcards to delete.
+     * @return The number of deleted flashcards; IDs of flashcards which do not exist are ignored.
+     * @throws SQLException If a database error occurs; no flashcard is deleted in that case.
+     */
+    public int deleteFlashcards(Collection<Integer> flashcardIds) throws SQLException {
+        List<Integer> deleted = databaseManager.inTransaction(conn -> {
+            flashcardDeckRepository.removeFlashcardsFromDecks(flashcardIds);
+            return flashcardsRepository.deleteFlashcards(flashcardIds);
+        });
+        if (!deleted.isEmpty()) {
+            eventBus.publish(Event.REMOVE_FLASHCARDS, deleted);
+        }
+        return deleted.size();
+    }
+
+    /**
+     * Resets the progress of every flashcard of a deck with a single statement, so that the deck can be studied
+     * from the beginning: the flashcards become {@link Flashcard.State#CREATED}, with the
+     * {@link Flashcard.Difficulty#DEFAULT} difficulty and a new review schedule.
+     * Publishes a single {@link Event#UPDATE_FLASHCARDS} event.
+     *
+     * @param deck The deck to reset.
+     * @return The number of reset flashcards.
+     * @throws SQLException If a database error occurs.
+     */
+    public int resetDeckProgress(Deck deck) throws SQLException {
+        List<Integer> reset = flashcardsRepository.resetFlashcardsOfDeck(deck.getId());
+        if (!reset.isEmpty()) {
+            List<FlashcardProgress> changes = new ArrayList<>(reset.size());
+            for (int id : reset) {
+                changes.add(new FlashcardProgress(id, Flashcard.State.CREATED, Flashcard.Difficulty.DEFAULT, ReviewSchedule.NEW));
+            }
+            eventBus.publish(Event.UPDATE_FLASHCARDS, changes);
+        }
+        return reset.size();
+    }
+
+    /**
+     * Moves flashcards from one deck to another in one transaction, with set-based statements.
+     * The flashcards themselves do not change; an {@link Event#UPDATE_DECK} event is published for both decks.
+     *
+     * @param flashcardIds The IDs of the flashcards to move; those which are not in the source deck are ignored.
+     * @param from         The deck the flashcards are in.
+     * @param to           The deck receiving the flashcards.
+     * @return The number of moved flashcards.
+     * @throws SQLException If a database error occurs; no flashcard is moved in that case.
+     */
+    public int moveFlashcards(Collection<Integer> flashcardIds, Deck from, Deck to) throws SQLException {
+        int moved = flashcardDeckRepository.moveFlashcards(flashcardIds, from.getId(), to.getId());
+        if (moved > 0) {
+            eventBus.publish(Event.UPDATE_DECK, from);
+            eventBus.publish(Event.UPDATE_DECK, to);
+        }
+        return moved;
+    }
+
+    /**
+     * Adds a new deck to the repository.
+     *
+     * @param deck The deck to add.
+     * @throws SQLException If a database error occurs.
+     */
+    public void addDeck(Deck deck) throws SQLException {
+        this.decksRepository.addDeck(deck);
+        eventBus.publish(Event.ADD_DECK, deck);
+    }
+
+    /**
+     * Deletes a deck from the repository.
+     *
+     * @param deck The deck to delete.
+     * @throws SQLException If a database error occurs.
+     */
+    public void deleteDeck(Deck deck) throws SQLException{
+        this.decksRepository.deleteDeck(deck.getId());
+        eventBus.publish(Event.REMOVE_DECK, deck);
+    }
+
+    /**
+     * Deletes a deck by its name.
+     *
+     * @param deckName The name of the deck to delete.
+     * @throws SQLException If a database error occurs.
+     */
+    public void deleteDeckByName(String deckName) throws SQLException {
+        Deck deck = decksRepository.getDeckByName(deckName);
+        this.decksRepository.deleteDeck(deck.getId());
+        eventBus.publish(Event.REMOVE_DECK, deck);
+    }
+
+    /**
+     * Exports a deck's flashcards to a CSV file.
+     *
+     * @param deckName The name of the deck to export.
+     * @param fileName The name of the output CSV file.
+     * @throws SQLException If a database error occurs.
+     * @throws IOException  If a file writing error occurs.
+     */
+    public void exportDeckToCSV(String deckName, String fileName) throws SQLException, IOException {
+        String defaultDirectory = "exports";
+        if (!fileName.toLowerCase().endsWith(".csv")) {
+            fileName += ".csv";
+        }
+
+        // Ensure the directory exists
+        Files.createDirectories(Paths.get(defaultDirectory));
+
+        // Build the full file path
+        Path filePath = Paths.get(defaultDirectory, fileName);
+
+        try (OutputStream out = Files.newOutputStream(filePath)) {
+            exportDeckToCSV(deckName, out);
+        }
+    }
+
+    /**
+     * Streams a deck's flashcards as UTF-8 CSV into the given output stream, which is flushed but not closed.
+     *
+     * @param deckName The name of the deck to export.
+     * @param out      The stream receiving the CSV data.
+     * @return The number of exported flashcards.
+     * @throws SQLException If a database error occurs.
+     * @throws IOException  If writing to the stream fails.
+     */
+    public int exportDeckToCSV(String deckName, OutputStream out) throws SQLException, IOException {
+        long start = System.nanoTime();
+        try {
+            int deckID = getDeckByName(deckName).getId();
+            int exported = new DeckCsvExporter(flashcardDeckRepository).exportDeck(deckID, out);
+            exportedFlashcards.add(exported);
+            return exported;
+        } catch (SQLException | IOException e) {
+            exportTimer.failed();
+            throw e;
+        } finally {
+            exportTimer.record(start);
+        }
+    }
+
+    public Map<Flashcard.State, Integer> getFlashcardsByState() throws SQLException {
+        return flashcardsRepository.getFlashcardsByState();
+    }
+
+    public Map<Flashcard.Difficulty, Integer> getFlashcardsByDifficulty() throws SQLException {
+        return flashcardsRepository.getFlashcardsByDifficulty();
+    }
+
+    /**
+     * Full-text search over the question, answer and hint of all flashcards.
+     *
+     * @param query  The words to search for, the last one may be incomplete.
+     * @param limit  The maximum number of results.
+     * @param offset The number of best results to skip, used to page through the results.
+     * @return The matching flashcards ranked by relevance, with the matching terms highlighted.
+     * @throws SQLException If a database error occurs.
+     */
+    public List<SearchResult> search(String query, int limit, int offset) throws SQLException {
+        return flashcardsRepository.search(query, limit, offset);
+    }
+
+    /**
+     * Imports a deck from a CSV file in the exports directory, committing it in chunks of
+     * {@link DeckCsvImporter#DEFAULT_CHUNK_SIZE} rows.
+     *
+     * @param deck     The deck to create for the imported flashcards.
+     * @param fileName The name of the CSV file.
+     * @return The outcome of the import, including its throughput.
+     * @throws SQLException If a database error occurs.
+     * @throws IOException  If the file cannot be read.
+     */
+    public ImportResult importDeckFromCSV(Deck deck, String fileName) throws SQLException, IOException {
+        return importDeckFromCSV(deck, fileName, DeckCsvImporter.DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Imports a deck from a CSV file in the exports directory. Each chunk of rows is committed in one transaction;
+     * if the import fails, calling this method again for the same file resumes after the last committed chunk.
+     *
+     * @param deck      The deck to create for the imported flashcards.
+     * @param fileName  The name of the CSV file.
+     * @param chunkSize The number of rows per transaction, 0 or less for the whole file in one transaction.
+     * @return The outcome of the import, including its throughput.
+     * @throws SQLException If a database error occurs.
+     * @throws IOException  If the file cannot be read.
+     */
+    public ImportResult importDeckFromCSV(Deck deck, String fileName, int chunkSize) throws SQLException, IOException {
+        long start = System.nanoTime();
+        try {
+            ImportResult result = importDeck(deck, fileName, chunkSize);
+            importedFlashcards.add(result.getRowsImported());
+            return result;
+        } catch (SQLException | IOException e) {
+            importTimer.failed();
+            throw e;
+        } finally {
+            importTimer.record(start);
+        }
+    }
+
+    private ImportResult importDeck(Deck deck, String fileName, int chunkSize) throws SQLException, IOException {
+        String defaultDirectory = "exports";
+        Path filePath = Paths.get(defaultDirectory, fileName);
+
+        DeckCsvImporter importer = new DeckCsvImporter(databaseManager, flashcardsRepository, flashcardDeckRepository,
+                decksRepository, importCheckpointsRepository, chunkSize);
+        return importer.importDeck(deck, filePath, new ImportListener() {
+            @Override
+            public void onDeckCreated(Deck createdDeck) {
+                eventBus.publish(Event.ADD_DECK, createdDeck);
+            }
+
+            @Override
+            public void onChunkCommitted(List<Flashcard> flashcards, ImportResult progress) {
+                eventBus.publish(Event.ADD_FLASHCARDS, flashcards);
+            }
+        });
+    }
+
+    // Asynchronous variants of the methods above, running on the service executor.
+    // The returned futures complete on a background thread; their events are published from that thread as well.
+
+    public CompletableFuture<Void> addFlashcardWithoutDeckAsync(Flashcard flashcard) {
+        return serviceExecutor.run(() -> addFlashcardWithoutDeck(flashcard));
+    }
+
+    public CompletableFuture<Void> addFlashcardWithDeckAsync(Flashcard flashcard, Deck deck) {
+        return serviceExecutor.run(() -> addFlashcardWithDeck(flashcard, deck));
+    }
+
+    public CompletableFuture<Void> addFlashcardWithNewDeckAsync(Flashcard flashcard, Deck newDeck) {
+        return serviceExecutor.run(() -> addFlashcardWithNewDeck(flashcard, newDeck));
+    }
+
+    public CompletableFuture<Void> updateFlashcardAsync(Flashcard newFlashcard) {
+        return serviceExecutor.run(() -> updateFlashcard(newFlashcard));
+    }
+
+    public CompletableFuture<List<Flashcard>> getAllFlashcardsAsync() {
+        return serviceExecutor.submit(this::getAllFlashcards);
+    }
+
+    public CompletableFuture<List<Flashcard>> getFlashcardsPageAsync(int afterId, int limit) {
+        return serviceExecutor.submit(() -> getFlashcardsPage(afterId, limit));
+    }
+
+    public CompletableFuture<int[]> getFlashcardIdsAsync() {
+        return serviceExecutor.submit(this::getFlashcardIds);
+    }
+
+    public CompletableFuture<List<Deck>> getAllDecksAsync() {
+        return serviceExecutor.submit(this::getAllDecks);
+    }
+
+    public CompletableFuture<Void> deleteFlashcardWithDecksAsync(int flashcardId) {
+        return serviceExecutor.run(() -> deleteFlashcardWithDecks(flashcardId));
+    }
+
+    public CompletableFuture<Void> addFlashcardsToDeckAsync(List<Flashcard> flashcards, Deck deck) {
+        return serviceExecutor.run(() -> addFlashcardsToDeck(flashcards, deck));
+    }
+
+    public CompletableFuture<Integer> deleteFlashcardsAsync(Collection<Integer> flashcardIds) {
+        return serviceExecutor.submit(() -> deleteFlashcards(flashcardIds));
+    }
+
+    public CompletableFuture<Integer> resetDeckProgressAsync(Deck deck) {
+        return serviceExecutor.submit(() -> resetDeckProgress(deck));
+    }
+
+    public CompletableFuture<Integer> moveFlashcardsAsync(Collection<Integer> flashcardIds, Deck from, Deck to) {
+        return serviceExecutor.submit(() -> moveFlashcards(flashcardIds, from, to));
+    }
+
+    public CompletableFuture<Void> addDeckAsync(Deck deck) {
+        return serviceExecutor.run(() -> addDeck(deck));
+    }
+
+    public CompletableFuture<Void> deleteDeckByNameAsync(String deckName) {
+        return serviceExecutor.run(() -> deleteDeckByName(deckName));
+    }
+
+    public CompletableFuture<Void> exportDeckToCSVAsync(String deckName, String fileName) {
+        return serviceExecutor.run(() -> exportDeckToCSV(deckName, fileName));
+    }
+
+    public CompletableFuture<ImportResult> importDeckFromCSVAsync(Deck deck, String fileName) {
+        return serviceExecutor.submit(() -> importDeckFromCSV(deck, fileName));
+    }
+
+    public CompletableFuture<Map<Flashcard.State, Integer>> getFlashcardsByStateAsync() {
+        return serviceExecutor.submit(this::getFlashcardsByState);
+    }
+
+    public CompletableFuture<Map<Flashcard.Difficulty, Integer>> getFlashcardsByDifficultyAsync() {
+        return serviceExecutor.submit(this::getFlashcardsByDifficulty);
+    }
+
+    public CompletableFuture<List<SearchResult>> searchAsync(String query, int limit, int offset) {
+        return serviceExecutor.submit(() -> search(query, limit, offset));
+    }
+}
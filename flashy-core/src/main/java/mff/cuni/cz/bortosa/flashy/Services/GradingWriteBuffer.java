@@ -0,0 +1,144 @@
+package mff.cuni.cz.bortosa.flashy.Services;
+
+import mff.cuni.cz.bortosa.flashy.Models.FlashcardProgress;
+import mff.cuni.cz.bortosa.flashy.Repositories.FlashcardsRepository;
+
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind buffer for the answers given during study sessions.
+ * Answers are kept in memory, where the answers given for the same flashcard are merged into a single change,
+ * and are written in one transaction when the buffer is flushed: periodically, as soon as it holds
+ * {@code maxPending} flashcards, when a study session ends and when the buffer is closed.
+ * If a flush fails, its changes are kept (unless newer ones were recorded meanwhile) and written by the next flush.
+ */
+public class GradingWriteBuffer implements AutoCloseable {
+    public static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 2_000;
+    public static final int DEFAULT_MAX_PENDING = 50;
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 10;
+
+    private final FlashcardsRepository flashcardsRepository;
+    private final int maxPending;
+    private final ScheduledExecutorService scheduler;
+    private final Object flushLock = new Object(); // one flush at a time, so changes reach the database in order
+    private Map<Integer, FlashcardProgress> pending = new LinkedHashMap<>(); // guarded by this
+    private boolean closed; // guarded by this
+
+    public GradingWriteBuffer(FlashcardsRepository flashcardsRepository) {
+        this(flashcardsRepository, DEFAULT_FLUSH_INTERVAL_MILLIS, DEFAULT_MAX_PENDING);
+    }
+
+    /**
+     * Creates a grading buffer and starts its periodic flush.
+     *
+     * @param flashcardsRepository The repository the changes are written to.
+     * @param flushIntervalMillis  The delay between two periodic flushes.
+     * @param maxPending           The number of changed flashcards which triggers a flush.
+     */
+    public GradingWriteBuffer(FlashcardsRepository flashcardsRepository, long flushIntervalMillis, int maxPending) {
+        this.flashcardsRepository = flashcardsRepository;
+        this.maxPending = maxPending;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "flashy-grading-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Records a change without waiting for the database. It is merged with the pending change of the same flashcard.
+     *
+     * @param change The change to write.
+     * @throws IllegalStateException If the buffer is closed.
+     */
+    public void record(FlashcardProgress change) {
+        boolean full;
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("The grading buffer is closed.");
+            }
+            pending.merge(change.getFlashcardId(), change, FlashcardProgress::mergeWith);
+            full = pending.size() >= maxPending;
+        }
+        if (full) {
+            scheduler.execute(this::flushQuietly);
+        }
+    }
+
+    /**
+     * @return The number of flashcards with changes not written yet.
+     */
+    public synchronized int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Writes the pending changes in a single transaction.
+     *
+     * @return The number of flashcards written.
+     * @throws SQLException If a database error occurs; the changes stay pending in that case.
+     */
+    public int flush() throws SQLException {
+        synchronized (flushLock) {
+            Map<Integer, FlashcardProgress> batch;
+            synchronized (this) {
+                if (pending.isEmpty()) {
+                    return 0;
+                }
+                batch = pending;
+                pending = new LinkedHashMap<>();
+            }
+
+            try {
+                flashcardsRepository.updateFlashcardsProgress(batch.values());
+            } catch (SQLException | RuntimeException e) {
+                synchronized (this) {
+                    // put the changes back, the ones recorded during the flush are newer
+                    for (FlashcardProgress change : batch.values()) {
+                        pending.merge(change.getFlashcardId(), change, (newer, older) -> older.mergeWith(newer));
+                    }
+                }
+                throw e;
+            }
+            return batch.size();
+        }
+    }
+
+    /**
+     * Stops the periodic flush and writes the remaining changes.
+     *
+     * @throws SQLException If the remaining changes could not be written.
+     */
+    @Override
+    public void close() throws SQLException {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    // used by the background flushes, a failed flush is retried by the next one
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+}
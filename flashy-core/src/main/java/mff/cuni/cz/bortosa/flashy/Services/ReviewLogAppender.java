@@ -0,0 +1,142 @@
+package mff.cuni.cz.bortosa.flashy.Services;
+
+import mff.cuni.cz.bortosa.flashy.Models.ReviewLogEntry;
+import mff.cuni.cz.bortosa.flashy.Repositories.StudySessionsRepository;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background appender for the review log.
+ * Reviews are queued in memory and appended in one transaction when the queue is flushed: periodically, as soon as
+ * it holds {@code maxPending} reviews and when the appender is closed. Logging a review therefore never waits for
+ * the database. If a flush fails, its reviews are put back in front of the queue and appended by the next flush.
+ */
+public class ReviewLogAppender implements AutoCloseable {
+    public static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 5_000;
+    public static final int DEFAULT_MAX_PENDING = 100;
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 10;
+
+    private final StudySessionsRepository studySessionsRepository;
+    private final int maxPending;
+    private final ScheduledExecutorService scheduler;
+    private final Object flushLock = new Object(); // one flush at a time, so reviews are logged in order
+    private List<ReviewLogEntry> pending = new ArrayList<>(); // guarded by this
+    private boolean closed; // guarded by this
+
+    public ReviewLogAppender(StudySessionsRepository studySessionsRepository) {
+        this(studySessionsRepository, DEFAULT_FLUSH_INTERVAL_MILLIS, DEFAULT_MAX_PENDING);
+    }
+
+    /**
+     * Creates an appender and starts its periodic flush.
+     *
+     * @param studySessionsRepository The repository the reviews are appended to.
+     * @param flushIntervalMillis     The delay between two periodic flushes.
+     * @param maxPending              The number of queued reviews which triggers a flush.
+     */
+    public ReviewLogAppender(StudySessionsRepository studySessionsRepository, long flushIntervalMillis, int maxPending) {
+        this.studySessionsRepository = studySessionsRepository;
+        this.maxPending = maxPending;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "flashy-review-log");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Queues a review without waiting for the database.
+     *
+     * @param entry The review to log.
+     * @throws IllegalStateException If the appender is closed.
+     */
+    public void append(ReviewLogEntry entry) {
+        boolean full;
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("The review log appender is closed.");
+            }
+            pending.add(entry);
+            full = pending.size() >= maxPending;
+        }
+        if (full) {
+            scheduler.execute(this::flushQuietly);
+        }
+    }
+
+    /**
+     * @return The number of reviews not appended yet.
+     */
+    public synchronized int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Appends the queued reviews in a single transaction.
+     *
+     * @return The number of reviews appended.
+     * @throws SQLException If a database error occurs; the reviews stay queued in that case.
+     */
+    public int flush() throws SQLException {
+        synchronized (flushLock) {
+            List<ReviewLogEntry> batch;
+            synchronized (this) {
+                if (pending.isEmpty()) {
+                    return 0;
+                }
+                batch = pending;
+                pending = new ArrayList<>();
+            }
+
+            try {
+                studySessionsRepository.addReviews(batch);
+            } catch (SQLException | RuntimeException e) {
+                synchronized (this) {
+                    // put the reviews back before the ones queued during the flush
+                    batch.addAll(pending);
+                    pending = batch;
+                }
+                throw e;
+            }
+            return batch.size();
+        }
+    }
+
+    /**
+     * Stops the periodic flush and appends the remaining reviews.
+     *
+     * @throws SQLException If the remaining reviews could not be appended.
+     */
+    @Override
+    public void close() throws SQLException {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    // used by the background flushes, a failed flush is retried by the next one
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+}
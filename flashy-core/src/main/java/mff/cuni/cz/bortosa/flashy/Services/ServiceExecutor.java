@@ -0,0 +1,100 @@
+package mff.cuni.cz.bortosa.flashy.Services;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs service calls in the background and exposes their outcome as a {@link CompletableFuture}.
+ * Every call gets its own virtual thread, so callers such as the JavaFX application thread never wait for the
+ * database; the number of queries actually running at the same time is still bounded by the connection pools.
+ */
+public class ServiceExecutor implements AutoCloseable {
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 10;
+
+    /**
+     * A blocking service call which produces a result.
+     */
+    @FunctionalInterface
+    public interface ServiceCall<T> {
+        T call() throws Exception;
+    }
+
+    /**
+     * A blocking service call without a result.
+     */
+    @FunctionalInterface
+    public interface ServiceAction {
+        void run() throws Exception;
+    }
+
+    private final ExecutorService executor;
+
+    public ServiceExecutor() {
+        this(Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("flashy-service-", 0).factory()));
+    }
+
+    /**
+     * Creates a service executor running the calls on the given executor.
+     *
+     * @param executor The executor running the calls; it is shut down when this service executor is closed.
+     */
+    public ServiceExecutor(ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Runs a call in the background.
+     *
+     * @param call The call to run.
+     * @param <T>  The type of the result.
+     * @return A future completed with the result of the call, or exceptionally with the exception it threw.
+     */
+    public <T> CompletableFuture<T> submit(ServiceCall<T> call) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                try {
+                    future.complete(call.call());
+                } catch (Throwable e) {
+                    future.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e); // the application is shutting down
+        }
+        return future;
+    }
+
+    /**
+     * Runs an action in the background.
+     *
+     * @param action The action to run.
+     * @return A future completed when the action finishes, or exceptionally with the exception it threw.
+     */
+    public CompletableFuture<Void> run(ServiceAction action) {
+        return submit(() -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Stops accepting new calls and waits for the running ones to finish.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                System.err.println("Service calls still running after " + SHUTDOWN_TIMEOUT_SECONDS + "s, stopping them.");
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
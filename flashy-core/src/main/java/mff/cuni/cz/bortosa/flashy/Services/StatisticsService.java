@@ -0,0 +1,282 @@
+package mff.cuni.cz.bortosa.flashy.Services;
+
+import mff.cuni.cz.bortosa.flashy.Models.Flashcard;
+import mff.cuni.cz.bortosa.flashy.Models.FlashcardProgress;
+import mff.cuni.cz.bortosa.flashy.Models.FlashcardStatistics;
+import mff.cuni.cz.bortosa.flashy.Observer.Event;
+import mff.cuni.cz.bortosa.flashy.Observer.Observer;
+import mff.cuni.cz.bortosa.flashy.Repositories.FlashcardsRepository;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Service keeping the number of flashcards per state and per difficulty, implementing the Observer pattern.
+ * The counts are computed from the database once, on the first request, and are then kept current from the
+ * flashcard events of the services, so reading them does not query the database.
+ * The state and difficulty of every flashcard are kept packed in a byte array indexed by the flashcard ID,
+ * which makes the events idempotent: an update first takes back the previous values of the flashcard.
+ */
+public class StatisticsService implements Observer {
+    private static final Flashcard.State[] STATES = Flashcard.State.values();
+    private static final Flashcard.Difficulty[] DIFFICULTIES = Flashcard.Difficulty.values();
+
+    private final FlashcardsRepository flashcardsRepository;
+    private final GradingWriteBuffer gradingWriteBuffer;
+    private final ServiceExecutor serviceExecutor;
+    private final Object buildLock = new Object(); // one computation of the counts at a time
+
+    // guarded by this
+    private byte[] packedById; // 0 for no flashcard, 1 + state * DIFFICULTIES.length + difficulty otherwise
+    private int[] stateCounts;
+    private int[] difficultyCounts;
+    private int totalFlashcards;
+    private List<PendingEvent> eventsDuringBuild; // events received while the counts are being computed
+
+    /**
+     * Constructs a StatisticsService.
+     *
+     * @param flashcardsRepository Repository for flashcards, used to compute and verify the counts.
+     * @param gradingWriteBuffer   Buffer of the answers not written yet, flushed before reading the database.
+     * @param serviceExecutor      Executor running the asynchronous variants of the methods.
+     */
+    public StatisticsService(FlashcardsRepository flashcardsRepository, GradingWriteBuffer gradingWriteBuffer, ServiceExecutor serviceExecutor) {
+        this.flashcardsRepository = flashcardsRepository;
+        this.gradingWriteBuffer = gradingWriteBuffer;
+        this.serviceExecutor = serviceExecutor;
+    }
+
+    /**
+     * Retrieves the current statistics. Only the first call (or the first call after a failed verification)
+     * reads the database.
+     *
+     * @return The number of flashcards per state and per difficulty.
+     * @throws SQLException If a database error occurs while computing the counts.
+     */
+    public FlashcardStatistics getStatistics() throws SQLException {
+        synchronized (this) {
+            if (packedById != null) {
+                return snapshot();
+            }
+        }
+        build();
+        synchronized (this) {
+            return snapshot();
+        }
+    }
+
+    public CompletableFuture<FlashcardStatistics> getStatisticsAsync() {
+        return serviceExecutor.submit(this::getStatistics);
+    }
+
+    /**
+     * Compares the maintained counts with the counts computed by the database.
+     * If they differ, the counts are computed again.
+     *
+     * @return true if the counts were consistent with the database.
+     * @throws SQLException If a database error occurs.
+     */
+    public boolean verify() throws SQLException {
+        FlashcardStatistics maintained = getStatistics();
+        gradingWriteBuffer.flush(); // the maintained counts already include the buffered answers
+
+        Map<Flashcard.State, Integer> states = flashcardsRepository.getFlashcardsByState();
+        Map<Flashcard.Difficulty, Integer> difficulties = flashcardsRepository.getFlashcardsByDifficulty();
+        boolean consistent = maintained.getStateCounts().equals(states)
+                && maintained.getDifficultyCounts().equals(difficulties);
+
+        if (!consistent) {
+            System.err.println("Statistics out of sync with the database, recomputing them. Maintained: "
+                    + maintained + ", database: " + states + " " + difficulties);
+            synchronized (this) {
+                packedById = null;
+            }
+            build();
+        }
+        return consistent;
+    }
+
+    public CompletableFuture<Boolean> verifyAsync() {
+        return serviceExecutor.submit(this::verify);
+    }
+
+    /**
+     * Applies the flashcard events to the counts.
+     * @param eventType The type of event that occurred.
+     * @param data The flashcard added, updated or removed, or the changes of many flashcards (see {@link Event}).
+     */
+    @Override
+    public void update(Event eventType, Object data) {
+        List<PendingEvent> events = new ArrayList<>();
+        switch (eventType) {
+            case ADD_FLASHCARD:
+            case UPDATE_FLASHCARD:
+                if (data instanceof Flashcard flashcard) {
+                    events.add(new PendingEvent(flashcard.getFlashcardId(), pack(flashcard.getState(), flashcard.getDifficulty())));
+                }
+                break;
+            case REMOVE_FLASHCARD:
+                if (data instanceof Flashcard flashcard) {
+                    events.add(new PendingEvent(flashcard.getFlashcardId(), (byte) 0));
+                }
+                break;
+            case ADD_FLASHCARDS:
+                for (Object added : (List<?>) data) {
+                    Flashcard flashcard = (Flashcard) added;
+                    events.add(new PendingEvent(flashcard.getFlashcardId(), pack(flashcard.getState(), flashcard.getDifficulty())));
+                }
+                break;
+            case UPDATE_FLASHCARDS:
+                for (Object change : (List<?>) data) {
+                    FlashcardProgress progress = (FlashcardProgress) change;
+                    events.add(new PendingEvent(progress.getFlashcardId(), pack(progress.getState(), progress.getDifficulty())));
+                }
+                break;
+            case REMOVE_FLASHCARDS:
+                for (Object id : (List<?>) data) {
+                    events.add(new PendingEvent((Integer) id, (byte) 0));
+                }
+                break;
+            default:
+                return;
+        }
+
+        synchronized (this) {
+            if (eventsDuringBuild != null) {
+                eventsDuringBuild.addAll(events);
+            } else if (packedById != null) {
+                for (PendingEvent event : events) {
+                    apply(event);
+                }
+            }
+            // otherwise the counts are not computed yet and will include the changes when they are
+        }
+    }
+
+    // Computes the counts from the database, without blocking the events received in the meantime
+    private void build() throws SQLException {
+        synchronized (buildLock) {
+            synchronized (this) {
+                if (packedById != null) {
+                    return;
+                }
+                eventsDuringBuild = new ArrayList<>();
+            }
+
+            try {
+                gradingWriteBuffer.flush();
+
+                Counts counts = new Counts();
+                flashcardsRepository.forEachFlashcardProgress(counts::add);
+
+                synchronized (this) {
+                    packedById = counts.packedById;
+                    stateCounts = counts.stateCounts;
+                    difficultyCounts = counts.difficultyCounts;
+                    totalFlashcards = counts.total;
+                    // the events may be older than what was read, but the last event of a flashcard is its latest change
+                    for (PendingEvent event : eventsDuringBuild) {
+                        apply(event);
+                    }
+                }
+            } finally {
+                synchronized (this) {
+                    eventsDuringBuild = null;
+                }
+            }
+        }
+    }
+
+    // guarded by this
+    private void apply(PendingEvent event) {
+        int id = event.flashcardId;
+        if (id < 0) {
+            return;
+        }
+
+        byte previous = id < packedById.length ? packedById[id] : 0;
+        if (previous != 0) {
+            stateCounts[stateOf(previous)]--;
+            difficultyCounts[difficultyOf(previous)]--;
+            totalFlashcards--;
+        }
+        if (event.packed != 0) {
+            if (id >= packedById.length) {
+                packedById = Arrays.copyOf(packedById, Math.max(id + 1, packedById.length * 3 / 2));
+            }
+            stateCounts[stateOf(event.packed)]++;
+            difficultyCounts[difficultyOf(event.packed)]++;
+            totalFlashcards++;
+        }
+        if (id < packedById.length) {
+            packedById[id] = event.packed;
+        }
+    }
+
+    // guarded by this
+    private FlashcardStatistics snapshot() {
+        Map<Flashcard.State, Integer> states = new EnumMap<>(Flashcard.State.class);
+        for (int i = 0; i < STATES.length; i++) {
+            if (stateCounts[i] > 0) {
+                states.put(STATES[i], stateCounts[i]);
+            }
+        }
+        Map<Flashcard.Difficulty, Integer> difficulties = new EnumMap<>(Flashcard.Difficulty.class);
+        for (int i = 0; i < DIFFICULTIES.length; i++) {
+            if (difficultyCounts[i] > 0) {
+                difficulties.put(DIFFICULTIES[i], difficultyCounts[i]);
+            }
+        }
+        return new FlashcardStatistics(states, difficulties, totalFlashcards);
+    }
+
+    private static byte pack(Flashcard.State state, Flashcard.Difficulty difficulty) {
+        return (byte) (1 + state.ordinal() * DIFFICULTIES.length + difficulty.ordinal());
+    }
+
+    private static int stateOf(byte packed) {
+        return (packed - 1) / DIFFICULTIES.length;
+    }
+
+    private static int difficultyOf(byte packed) {
+        return (packed - 1) % DIFFICULTIES.length;
+    }
+
+    // A change of a single flashcard, packed as in packedById
+    private static final class PendingEvent {
+        private final int flashcardId;
+        private final byte packed;
+
+        private PendingEvent(int flashcardId, byte packed) {
+            this.flashcardId = flashcardId;
+            this.packed = packed;
+        }
+    }
+
+    // The counts being computed from the database
+    private static final class Counts {
+        private byte[] packedById = new byte[1024];
+        private final int[] stateCounts = new int[STATES.length];
+        private final int[] difficultyCounts = new int[DIFFICULTIES.length];
+        private int total;
+
+        private void add(FlashcardProgress progress) {
+            int id = progress.getFlashcardId();
+            if (id < 0) {
+                return;
+            }
+            if (id >= packedById.length) {
+                packedById = Arrays.copyOf(packedById, Math.max(id + 1, packedById.length * 2));
+            }
+            packedById[id] = pack(progress.getState(), progress.getDifficulty());
+            stateCounts[progress.getState().ordinal()]++;
+            difficultyCounts[progress.getDifficulty().ordinal()]++;
+            total++;
+        }
+    }
+}
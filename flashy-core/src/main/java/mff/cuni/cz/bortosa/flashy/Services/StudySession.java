@@ -0,0 +1,164 @@
+package mff.cuni.cz.bortosa.flashy.Services;
+
+import mff.cuni.cz.bortosa.flashy.Models.Flashcard;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The flashcards of a running study session, fetched ahead of the user on a background thread.
+ * A producer reads the session a page at a time and puts the flashcards into a bounded lookahead buffer; when the
+ * buffer is full the producer waits for the user to catch up, so only about two pages are ever held in memory and
+ * the first flashcard is available as soon as the first page is read, whatever the size of the deck.
+ */
+public class StudySession implements AutoCloseable {
+    public static final int DEFAULT_LOOKAHEAD = 32;
+    private static final long POLL_MILLIS = 100;
+
+    /**
+     * Reads the flashcards of the session a page at a time.
+     */
+    @FunctionalInterface
+    public interface PageLoader {
+        /**
+         * @param last  The last flashcard of the previous page, null for the first page.
+         * @param limit The maximum number of flashcards in the page.
+         * @return The flashcards following the given one; fewer than limit if the session has no more flashcards.
+         * @throws Exception If the page cannot be read; the session ends with this error.
+         */
+        List<Flashcard> loadPage(Flashcard last, int limit) throws Exception;
+    }
+
+    // put into the buffer by the producer after the last flashcard
+    private static final Flashcard END = new Flashcard(-1, "end", "end", null,
+            Flashcard.State.CREATED, Flashcard.Difficulty.DEFAULT);
+
+    private final PageLoader pageLoader;
+    private final ServiceExecutor serviceExecutor;
+    private final int lookahead;
+    private final BlockingQueue<Flashcard> buffer;
+    private final Thread producer;
+    private volatile Exception producerError;
+    private volatile boolean closed;
+    private boolean finished; // accessed by one consumer at a time
+    private int served;
+
+    /**
+     * Creates a session and starts prefetching its flashcards.
+     *
+     * @param pageLoader      Reads the flashcards of the session.
+     * @param serviceExecutor Runs the requests of flashcards which are not prefetched yet.
+     * @param lookahead       The number of flashcards fetched ahead of the user, which is also the page size.
+     */
+    public StudySession(PageLoader pageLoader, ServiceExecutor serviceExecutor, int lookahead) {
+        if (lookahead < 1) {
+            throw new IllegalArgumentException("The lookahead must be at least 1.");
+        }
+        this.pageLoader = pageLoader;
+        this.serviceExecutor = serviceExecutor;
+        this.lookahead = lookahead;
+        this.buffer = new ArrayBlockingQueue<>(lookahead);
+        this.producer = Thread.ofVirtual().name("flashy-session-prefetch").start(this::produce);
+    }
+
+    /**
+     * Retrieves the next flashcard of the session. The future is already completed if the flashcard was prefetched.
+     * Calls must not overlap: the next one should only be made once the previous future has completed.
+     *
+     * @return A future completed with the next flashcard, or with null once the session has no more flashcards
+     * or is closed; completed exceptionally if the flashcards could not be read.
+     */
+    public CompletableFuture<Flashcard> nextAsync() {
+        if (finished || closed) {
+            return CompletableFuture.completedFuture(null);
+        }
+        Flashcard prefetched = buffer.poll();
+        if (prefetched != null) {
+            try {
+                return CompletableFuture.completedFuture(accept(prefetched));
+            } catch (Exception e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+        return serviceExecutor.submit(this::take);
+    }
+
+    /**
+     * @return The number of flashcards handed out so far.
+     */
+    public int getServedCount() {
+        return served;
+    }
+
+    /**
+     * @return The number of flashcards currently waiting in the lookahead buffer.
+     */
+    public int getPrefetchedCount() {
+        return (int) buffer.stream().filter(flashcard -> flashcard != END).count();
+    }
+
+    /**
+     * Stops the prefetching and releases the buffered flashcards.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        producer.interrupt();
+        buffer.clear();
+    }
+
+    // waits for the producer, giving up when the session is closed
+    private Flashcard take() throws Exception {
+        while (!closed) {
+            Flashcard flashcard = buffer.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+            if (flashcard != null) {
+                return accept(flashcard);
+            }
+        }
+        return null;
+    }
+
+    private Flashcard accept(Flashcard flashcard) throws Exception {
+        if (flashcard != END) {
+            served++;
+            return flashcard;
+        }
+        finished = true;
+        if (producerError != null) {
+            throw producerError;
+        }
+        return null;
+    }
+
+    private void produce() {
+        try {
+            Flashcard last = null;
+            while (!closed) {
+                List<Flashcard> page = pageLoader.loadPage(last, lookahead);
+                if (page.size() == lookahead) {
+                    // copied before the user can answer it, the next page follows the flashcard as it was read
+                    last = new Flashcard(page.get(page.size() - 1));
+                }
+                for (Flashcard flashcard : page) {
+                    buffer.put(flashcard); // waits while the buffer is full
+                }
+                if (page.size() < lookahead) {
+                    break;
+                }
+            }
+        } catch (InterruptedException e) {
+            return; // the session was closed
+        } catch (Exception e) {
+            producerError = e;
+        }
+
+        try {
+            buffer.put(END);
+        } catch (InterruptedException e) {
+            // the session was closed
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package mff.cuni.cz.bortosa.flashy.Services;
+
+import mff.cuni.cz.bortosa.flashy.Models.Flashcard;
+import mff.cuni.cz.bortosa.flashy.Models.FlashcardProgress;
+import mff.cuni.cz.bortosa.flashy.Models.ReviewLogEntry;
+import mff.cuni.cz.bortosa.flashy.Models.ReviewSchedule;
+import mff.cuni.cz.bortosa.flashy.Observer.Event;
+import mff.cuni.cz.bortosa.flashy.Observer.EventBus;
+import mff.cuni.cz.bortosa.flashy.Repositories.DecksRepository;
+import mff.cuni.cz.bortosa.flashy.Repositories.FlashcardDeckRepository;
+import mff.cuni.cz.bortosa.flashy.Repositories.FlashcardsRepository;
+import mff.cuni.cz.bortosa.flashy.Scheduling.Sm2Scheduler;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Service class for managing a study session, publishing the changes of the flashcards on the event bus.
+ * Provides methods to add, update, delete, and export flashcards and decks.
+ */
+public class StudySessionService {
+    private final FlashcardsRepository flashcardsRepository;
+    private final FlashcardDeckRepository flashcardDeckRepository;
+    private final DecksRepository decksRepository;
+    private final GradingWriteBuffer gradingWriteBuffer;
+    private final ReviewLogAppender reviewLogAppender;
+    private final Sm2Scheduler scheduler;
+    private final ServiceExecutor serviceExecutor;
+    private final EventBus eventBus;
+
+    public StudySessionService(FlashcardsRepository flashcardsRepository, FlashcardDeckRepository flashcardDeckRepository, DecksRepository decksRepository, GradingWriteBuffer gradingWriteBuffer, ReviewLogAppender reviewLogAppender, Sm2Scheduler scheduler, ServiceExecutor serviceExecutor, EventBus eventBus) {
+        this.flashcardsRepository = flashcardsRepository;
+        this.flashcardDeckRepository = flashcardDeckRepository;
+        this.decksRepository = decksRepository;
+        this.gradingWriteBuffer = gradingWriteBuffer;
+        this.reviewLogAppender = reviewLogAppender;
+        this.scheduler = scheduler;
+        this.serviceExecutor = serviceExecutor;
+        this.eventBus = eventBus;
+    }
+
+    // Retrieves all flashcards from the deck with the specified ID
+    public List<Integer> getFlashcardsFromDeck(int deckId) throws SQLException {
+        return flashcardDeckRepository.getFlashcardsFromDeck(deckId);
+    }
+
+    // Retrieves the fully populated flashcards from the deck with the specified ID, using a single query
+    public List<Flashcard> getFlashcardsInDeck(int deckId) throws SQLException {
+        return flashcardDeckRepository.getFlashcardsInDeck(deckId);
+    }
+
+    /**
+     * Retrieves the flashcards of a deck that should be studied in a session, filtered by the database.
+     *
+     * @param deckId     The ID of the deck being studied.
+     * @param state      The state the flashcards must be in, or null for all states.
+     * @param difficulty The difficulty the flashcards must have, or null for all difficulties.
+     * @return The flashcards to study, in the order they should be shown.
+     * @throws SQLException If a database error occurs.
+     */
+    public List<Flashcard> getStudyQueue(int deckId, Flashcard.State state, Flashcard.Difficulty difficulty) throws SQLException {
+        return flashcardDeckRepository.getFlashcardsInDeck(deckId, state, difficulty);
+    }
+
+    /**
+     * Retrieves the flashcards of all decks which are due for a review by the end of the current day,
+     * the longest overdue first.
+     *
+     * @param limit The maximum number of flashcards.
+     * @return The due flashcards, in the order they should be shown.
+     * @throws SQLException If a database error occurs.
+     */
+    public List<Flashcard> getDueFlashcards(int limit) throws SQLException {
+        return getDueFlashcards(endOfToday(), limit);
+    }
+
+    /**
+     * Retrieves the flashcards of all decks which are due for a review at the given time, the longest overdue first.
+     * Only the due flashcards are read from the database, through the index on their due time.
+     *
+     * @param dueBefore The time, in milliseconds since the epoch, by which the flashcards must be due.
+     * @param limit     The maximum number of flashcards.
+     * @return The due flashcards.
+     * @throws SQLException If a database error occurs.
+     */
+    public List<Flashcard> getDueFlashcards(long dueBefore, int limit) throws SQLException {
+        gradingWriteBuffer.flush(); // answers still in the buffer may have moved flashcards out of the due range
+        return flashcardsRepository.getDueFlashcards(dueBefore, limit);
+    }
+
+    /**
+     * Starts a study session over the flashcards of a deck matching the given state and difficulty.
+     * The flashcards are fetched in the background, a few at a time, while the user studies the first ones.
+     *
+     * @param deckId     The ID of the deck being studied.
+     * @param state      The state the flashcards must be in, or null for all states.
+     * @param difficulty The difficulty the flashcards must have, or null for all difficulties.
+     * @return The running session, which must be closed when the user leaves it.
+     */
+    public StudySession startSession(int deckId, Flashcard.State state, Flashcard.Difficulty difficulty) {
+        return new StudySession((last, limit) -> flashcardDeckRepository.getFlashcardsInDeckPage(
+                deckId, state, difficulty, last == null ? 0 : last.getFlashcardId(), limit),
+                serviceExecutor, StudySession.DEFAULT_LOOKAHEAD);
+    }
+
+    /**
+     * Starts a study session over the flashcards of all decks which are due for a review by the end of the day,
+     * the longest overdue first.
+     *
+     * @return The running session, which must be closed when the user leaves it.
+     */
+    public StudySession startDueSession() {
+        long dueBefore = endOfToday();
+        return new StudySession((last, limit) -> {
+            if (last == null) {
+                gradingWriteBuffer.flush(); // answers still in the buffer may have moved flashcards out of the due range
+                return flashcardsRepository.getDueFlashcardsPage(dueBefore, Long.MIN_VALUE, 0, limit);
+            }
+            // the page follows the position the last flashcard had when it was read, not its new schedule
+            return flashcardsRepository.getDueFlashcardsPage(dueBefore, last.getSchedule().getDueAt(), last.getFlashcardId(), limit);
+        }, serviceExecutor, StudySession.DEFAULT_LOOKAHEAD);
+    }
+
+    // Retrieves a flashcards with the specified ID
+    public Flashcard getFlashcardByID(int flashcardID) throws SQLException {
+        return flashcardsRepository.getFlashcardById(flashcardID);
+    }
+
+    // Updates the state of a flashcard
+    public void setFlashcardState(Flashcard flashcard, Flashcard.State state) throws SQLException {
+        flashcard.setState(state);
+        flashcardsRepository.updateFlashcardState(flashcard.getFlashcardId(), state);
+        eventBus.publish(Event.UPDATE_FLASHCARD, flashcard);
+    }
+
+    // Updates the difficulty of a flashcard
+    public void setFlashcardDifficulty(Flashcard flashcard, Flashcard.Difficulty difficulty) throws SQLException {
+       flashcard.setDifficulty(difficulty);
+       flashcardsRepository.updateFlashcardDifficulty(flashcard.getFlashcardId(), difficulty);
+        eventBus.publish(Event.UPDATE_FLASHCARD, flashcard);
+    }
+
+    // Asynchronous variant of getStudyQueue, running on the service executor
+    public CompletableFuture<List<Flashcard>> getStudyQueueAsync(int deckId, Flashcard.State state, Flashcard.Difficulty difficulty) {
+        return serviceExecutor.submit(() -> getStudyQueue(deckId, state, difficulty));
+    }
+
+    // Asynchronous variant of getDueFlashcards, running on the service executor
+    public CompletableFuture<List<Flashcard>> getDueFlashcardsAsync(int limit) {
+        return serviceExecutor.submit(() -> getDueFlashcards(limit));
+    }
+
+    /**
+     * Records the answer given for a flashcard during a study session. The flashcard is updated immediately,
+     * while the database is updated later by the grading write buffer, so this method never waits for the disk.
+     * If the answer grades the flashcard (see {@link Sm2Scheduler#qualityOf}), its next review is scheduled
+     * and the review is added to the review log, in the background as well.
+     *
+     * @param flashcard    The flashcard that was answered.
+     * @param state        The new state of the flashcard, or null to keep the current one.
+     * @param difficulty   The new difficulty of the flashcard, or null to keep the current one.
+     * @param answerMillis The time the user took to answer.
+     * @param hintUsed     Whether the user looked at the hint.
+     */
+    public void recordAnswer(Flashcard flashcard, Flashcard.State state, Flashcard.Difficulty difficulty,
+                             long answerMillis, boolean hintUsed) {
+        if (state == null && difficulty == null) {
+            return;
+        }
+        if (state != null) {
+            flashcard.setState(state);
+        }
+        if (difficulty != null) {
+            flashcard.setDifficulty(difficulty);
+        }
+        ReviewSchedule schedule = null;
+        int quality = Sm2Scheduler.qualityOf(state, difficulty);
+        if (quality >= 0) {
+            long now = System.currentTimeMillis();
+            schedule = scheduler.schedule(flashcard.getSchedule(), quality, now);
+            flashcard.setSchedule(schedule);
+            reviewLogAppender.append(new ReviewLogEntry(flashcard.getFlashcardId(), now, quality, answerMillis, hintUsed));
+        }
+        gradingWriteBuffer.record(new FlashcardProgress(flashcard.getFlashcardId(), state, difficulty, schedule));
+        eventBus.publish(Event.UPDATE_FLASHCARD, flashcard);
+    }
+
+    private static long endOfToday() {
+        return LocalDate.now().plusDays(1).atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    // Writes the recorded answers and the review log to the database in the background, e.g. when a study session ends
+    public CompletableFuture<Integer> flushAnswersAsync() {
+        return serviceExecutor.submit(() -> {
+            int written = gradingWriteBuffer.flush();
+            reviewLogAppender.flush();
+            return written;
+        });
+    }
+}
@@ -0,0 +1,15 @@
+module mff.cuni.cz.bortosa.flashy.core {
+    requires transitive java.sql;
+    requires transitive java.management;
+    requires transitive jdk.jfr;
+
+    exports mff.cuni.cz.bortosa.flashy.Models;
+    exports mff.cuni.cz.bortosa.flashy.Repositories;
+    exports mff.cuni.cz.bortosa.flashy.Services;
+    exports mff.cuni.cz.bortosa.flashy.DatabaseOperations;
+    exports mff.cuni.cz.bortosa.flashy.Observer;
+    exports mff.cuni.cz.bortosa.flashy.Caching;
+    exports mff.cuni.cz.bortosa.flashy.ImportExport;
+    exports mff.cuni.cz.bortosa.flashy.Scheduling;
+    exports mff.cuni.cz.bortosa.flashy.Metrics;
+}
@@ -0,0 +1,59 @@
+package mff.cuni.cz.bortosa.flashy.Caching;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LruCacheTests {
+
+    @Test
+    void testLeastRecentlyUsedEntryIsEvicted() {
+        LruCache<Integer, String> cache = new LruCache<>("test", 2);
+        cache.put(1, "one", cache.stamp());
+        cache.put(2, "two", cache.stamp());
+        assertEquals("one", cache.get(1)); // 2 becomes the least recently used
+        cache.put(3, "three", cache.stamp());
+
+        assertNull(cache.get(2));
+        assertEquals("one", cache.get(1));
+        assertEquals("three", cache.get(3));
+
+        CacheStats stats = cache.getStats();
+        assertEquals(2, stats.getSize());
+        assertEquals(1, stats.getEvictionCount());
+        assertEquals(3, stats.getHitCount());
+        assertEquals(1, stats.getMissCount());
+    }
+
+    @Test
+    void testCacheIsBoundedByWeight() {
+        LruCache<Integer, String> cache = new LruCache<>("test", 10, String::length);
+        cache.put(1, "aaaa", cache.stamp());
+        cache.put(2, "bbbb", cache.stamp());
+        cache.put(3, "ccccccc", cache.stamp()); // needs the room of both previous entries
+
+        assertNull(cache.get(1));
+        assertNull(cache.get(2));
+        assertEquals(7, cache.getStats().getWeight());
+        assertEquals(2, cache.getStats().getEvictionCount());
+
+        cache.put(4, "this value is heavier than the whole cache", cache.stamp());
+        assertNull(cache.get(4));
+        assertEquals("ccccccc", cache.get(3));
+    }
+
+    @Test
+    void testValuesReadBeforeAnInvalidationAreNotCached() {
+        LruCache<Integer, String> cache = new LruCache<>("test", 10);
+        long stamp = cache.stamp();
+        cache.invalidate(1); // a write happened while the value was being read
+        cache.put(1, "stale", stamp);
+        assertNull(cache.get(1));
+
+        cache.put(1, "fresh", cache.stamp());
+        assertEquals("fresh", cache.get(1));
+        cache.invalidateAll();
+        assertNull(cache.get(1));
+        assertEquals(0, cache.getStats().getWeight());
+    }
+}
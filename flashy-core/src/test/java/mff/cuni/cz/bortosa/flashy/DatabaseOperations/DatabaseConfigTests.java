@@ -0,0 +1,66 @@
+package mff.cuni.cz.bortosa.flashy.DatabaseOperations;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DatabaseConfigTests {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testExternalFileAndSystemPropertiesOverrideTheDefaults() throws Exception {
+        Path externalFile = tempDir.resolve("flashy.properties");
+        Files.writeString(externalFile, "db.readerPoolSize=8\ndb.synchronous=full\nunrelated.key=1\n");
+        System.setProperty(DatabaseConfig.CONFIG_FILE_PROPERTY, externalFile.toString());
+        System.setProperty("flashy." + DatabaseConfig.READER_POOL_SIZE, "6");
+        DatabaseConfig config;
+        try {
+            config = DatabaseConfig.load();
+        } finally {
+            System.clearProperty(DatabaseConfig.CONFIG_FILE_PROPERTY);
+            System.clearProperty("flashy." + DatabaseConfig.READER_POOL_SIZE);
+        }
+
+        assertEquals(6, config.getReaderPoolSize());
+        assertEquals("system property", config.getSources().get(DatabaseConfig.READER_POOL_SIZE));
+        assertEquals("FULL", config.getSynchronous());
+        assertEquals(externalFile.toString(), config.getSources().get(DatabaseConfig.SYNCHRONOUS));
+        assertEquals("WAL", config.getJournalMode());
+        assertEquals("default", config.getSources().get(DatabaseConfig.JOURNAL_MODE));
+        assertTrue(config.toString().contains("db.readerPoolSize = 6 (system property)"), config.toString());
+    }
+
+    @Test
+    void testInvalidSettingsAreRejected() {
+        DatabaseConfig config = DatabaseConfig.defaults();
+        assertThrows(IllegalArgumentException.class, () -> config.with(DatabaseConfig.READER_POOL_SIZE, "0"));
+        assertThrows(IllegalArgumentException.class, () -> config.with(DatabaseConfig.CACHE_SIZE_KIB, "a lot"));
+        // the value becomes part of a pragma statement
+        assertThrows(IllegalArgumentException.class, () -> config.with(DatabaseConfig.JOURNAL_MODE, "WAL; DROP TABLE decks"));
+        assertThrows(IllegalArgumentException.class, () -> config.with("db.unknown", "1"));
+        assertEquals(4, config.getReaderPoolSize());
+    }
+
+    @Test
+    void testPragmasAreAppliedToTheConnections() throws Exception {
+        DatabaseConfig config = DatabaseConfig.defaults()
+                .with(DatabaseConfig.DB_PATH, tempDir.resolve("test.db").toString())
+                .with(DatabaseConfig.CACHE_SIZE_KIB, "4096")
+                .with(DatabaseConfig.TEMP_STORE, "memory")
+                .with(DatabaseConfig.SLOW_QUERY_THRESHOLD_MILLIS, "-1");
+        try (DatabaseManager databaseManager = new DatabaseManager(config)) {
+            Map<String, String> pragmas = databaseManager.getEffectivePragmas();
+            assertEquals("wal", pragmas.get("journal_mode"));
+            assertEquals("NORMAL", pragmas.get("synchronous"));
+            assertEquals("-4096", pragmas.get("cache_size"));
+            assertEquals("MEMORY", pragmas.get("temp_store"));
+            assertTrue(databaseManager.getSettingsReport().contains("db.tempStore = memory (set by the application)"));
+        }
+    }
+}
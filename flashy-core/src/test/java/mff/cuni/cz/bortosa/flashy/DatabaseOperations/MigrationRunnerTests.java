@@ -0,0 +1,118 @@
+package mff.cuni.cz.bortosa.flashy.DatabaseOperations;
+
+import mff.cuni.cz.bortosa.flashy.Models.Deck;
+import mff.cuni.cz.bortosa.flashy.Repositories.DecksRepository;
+import mff.cuni.cz.bortosa.flashy.Repositories.FlashcardDeckRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MigrationRunnerTests {
+    @TempDir
+    Path tempDir;
+
+    private DatabaseManager openDatabase() {
+        return new DatabaseManager("jdbc:sqlite:" + tempDir.resolve("test.db"), 2);
+    }
+
+    @Test
+    void testNewDatabaseIsMigratedToTheLatestVersionOnce() throws SQLException {
+        try (DatabaseManager databaseManager = openDatabase()) {
+            MigrationRunner runner = new MigrationRunner(databaseManager);
+            assertEquals(DatabaseInitializer.MIGRATIONS.size(), runner.migrate(DatabaseInitializer.MIGRATIONS));
+            assertEquals(DatabaseInitializer.MIGRATIONS.getLast().getVersion(), runner.getSchemaVersion());
+            assertEquals(0, runner.migrate(DatabaseInitializer.MIGRATIONS));
+
+            DecksRepository decksRepository = new DecksRepository(databaseManager);
+            decksRepository.addDeck(new Deck("deck", null));
+            SQLException e = assertThrows(SQLException.class, () -> decksRepository.addDeck(new Deck("deck", null)));
+            assertTrue(e.getMessage().contains("UNIQUE constraint failed: decks.name"), e.getMessage());
+            assertEquals(List.of("SEARCH decks USING INDEX idx_decks_name (name=?)"),
+                    queryPlan(databaseManager, "SELECT * FROM decks WHERE name = 'deck'"));
+        }
+    }
+
+    @Test
+    void testUnversionedDatabaseWithDuplicateDeckNamesIsUpgradedInPlace() throws SQLException {
+        try (DatabaseManager databaseManager = openDatabase()) {
+            // a database created before the migrations, where deck names could repeat
+            databaseManager.inTransaction(connection -> {
+                DatabaseInitializer.MIGRATIONS.getFirst().getChange().apply(connection);
+                try (Statement stmt = connection.createStatement()) {
+                    stmt.execute("INSERT INTO decks (name) VALUES ('deck'), ('deck (2)'), ('deck'), ('other'), ('deck')");
+                    stmt.execute("INSERT INTO flashcards (question, answer) VALUES ('q', 'a')");
+                    stmt.execute("INSERT INTO flashcard_deck (flashcard_id, deck_id) VALUES (1, 3)");
+                }
+                return null;
+            });
+
+            MigrationRunner runner = new MigrationRunner(databaseManager);
+            assertEquals(0, runner.getSchemaVersion());
+            runner.migrate(DatabaseInitializer.MIGRATIONS);
+
+            List<String> names = new ArrayList<>();
+            new DecksRepository(databaseManager).getAllDecks().forEach(deck -> names.add(deck.getId() + ":" + deck.getName()));
+            assertEquals(List.of("1:deck", "2:deck (2)", "3:deck (3)", "4:other", "5:deck (4)"), names);
+            // the renamed deck keeps its flashcards
+            assertEquals(List.of(3), new FlashcardDeckRepository(databaseManager).getDecksContainingFlashcard(1));
+            assertEquals(DatabaseInitializer.MIGRATIONS.getLast().getVersion(), runner.getSchemaVersion());
+        }
+    }
+
+    @Test
+    void testFailedMigrationIsRolledBackWithItsVersion() throws SQLException {
+        List<Migration> migrations = List.of(
+                new Migration(1, "create a table", connection -> {
+                    try (Statement stmt = connection.createStatement()) {
+                        stmt.execute("CREATE TABLE first (id INTEGER PRIMARY KEY)");
+                    }
+                }),
+                new Migration(2, "fail halfway", connection -> {
+                    try (Statement stmt = connection.createStatement()) {
+                        stmt.execute("CREATE TABLE second (id INTEGER PRIMARY KEY)");
+                        stmt.execute("INSERT INTO missing VALUES (1)");
+                    }
+                }));
+
+        try (DatabaseManager databaseManager = openDatabase()) {
+            MigrationRunner runner = new MigrationRunner(databaseManager);
+            assertThrows(SQLException.class, () -> runner.migrate(migrations));
+            assertEquals(1, runner.getSchemaVersion());
+            assertEquals(List.of("first"), tableNames(databaseManager));
+            assertEquals(1, databaseManager.getMetrics().timer("MigrationRunner.migrate").getFailureCount());
+        }
+    }
+
+    private static List<String> queryPlan(DatabaseManager databaseManager, String query) throws SQLException {
+        List<String> plan = new ArrayList<>();
+        try (Connection connection = databaseManager.getReadConnection();
+             Statement stmt = connection.createStatement();
+             ResultSet resultSet = stmt.executeQuery("EXPLAIN QUERY PLAN " + query)) {
+            while (resultSet.next()) {
+                plan.add(resultSet.getString("detail"));
+            }
+        }
+        return plan;
+    }
+
+    private static List<String> tableNames(DatabaseManager databaseManager) throws SQLException {
+        List<String> names = new ArrayList<>();
+        try (Connection connection = databaseManager.getReadConnection();
+             Statement stmt = connection.createStatement();
+             ResultSet resultSet = stmt.executeQuery("SELECT name FROM sqlite_master WHERE type = 'table' ORDER BY name")) {
+            while (resultSet.next()) {
+                names.add(resultSet.getString("name"));
+            }
+        }
+        return names;
+    }
+}
@@ -0,0 +1,73 @@
+package mff.cuni.cz.bortosa.flashy.DatabaseOperations;
+
+import mff.cuni.cz.bortosa.flashy.Models.Flashcard;
+import mff.cuni.cz.bortosa.flashy.Repositories.FlashcardsRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlowQueryLogTests {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testStatementsAreLoggedWithRedactedParametersAndPlan() throws Exception {
+        Path logFile = tempDir.resolve("logs").resolve("slow-queries.log");
+        // every statement is slow with a zero threshold
+        SlowQueryLog slowQueryLog = new SlowQueryLog(Duration.ZERO, logFile, 1024 * 1024, 2);
+        try (DatabaseManager databaseManager = new DatabaseManager("jdbc:sqlite:" + tempDir.resolve("test.db"), 2, slowQueryLog)) {
+            DatabaseInitializer.initializeDatabase(databaseManager);
+            FlashcardsRepository repository = new FlashcardsRepository(databaseManager);
+            repository.addFlashcard(new Flashcard("a secret question", "a secret answer", null));
+            repository.addFlashcard(new Flashcard("another question", "another answer", null));
+            repository.getFlashcardsPage(0, 10);
+            repository.getFlashcardsPage(1, 10);
+            repository.getAllFlashcards();
+        }
+
+        String log = Files.readString(logFile);
+        assertFalse(log.contains("secret"), log);
+        assertTrue(log.contains("parameters: ?1=TEXT(17), ?2=TEXT(15), ?3=NULL"), log);
+        assertTrue(log.contains("1 row, FlashcardsRepository.addFlashcard called by SlowQueryLogTests."), log);
+        assertTrue(log.contains("2 rows, FlashcardsRepository.getFlashcardsPage"), log);
+        assertTrue(log.contains("1 row, FlashcardsRepository.getFlashcardsPage"), log);
+        assertTrue(log.contains("2 rows, FlashcardsRepository.getAllFlashcards"), log);
+        // the plan is captured once per statement
+        assertEquals(1, countOccurrences(log, "SEARCH flashcards USING INTEGER PRIMARY KEY"), log);
+        assertEquals(2, log.lines().filter(line -> line.contains("SELECT * FROM flashcards WHERE id > ?")).count());
+        assertFalse(log.contains("INSERT INTO flashcards (question, answer, hint) VALUES (?, ?, ?)" + System.lineSeparator()
+                + "  parameters: ?1=TEXT(17), ?2=TEXT(15), ?3=NULL" + System.lineSeparator() + "  plan:"), log);
+        assertEquals(0, slowQueryLog.getDroppedCount());
+    }
+
+    @Test
+    void testLogFileIsRotated() throws IOException {
+        Path logFile = tempDir.resolve("rotated.log");
+        RotatingLogWriter writer = new RotatingLogWriter(logFile, 100, 3);
+        for (int i = 0; i < 10; i++) {
+            writer.append(String.valueOf(i).repeat(40));
+        }
+        writer.close();
+
+        assertEquals(10, writer.getWrittenCount());
+        // two entries fit in a file
+        assertTrue(Files.readString(logFile).startsWith("8"));
+        assertTrue(Files.readString(tempDir.resolve("rotated.log.1")).startsWith("6"));
+        assertTrue(Files.readString(tempDir.resolve("rotated.log.2")).startsWith("4"));
+        assertFalse(Files.exists(tempDir.resolve("rotated.log.3")));
+    }
+
+    private static int countOccurrences(String text, String part) {
+        int count = 0;
+        for (int index = text.indexOf(part); index >= 0; index = text.indexOf(part, index + 1)) {
+            count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,75 @@
+package mff.cuni.cz.bortosa.flashy.ImportExport;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvReaderTests {
+
+    private static List<List<String>> readAll(String csv, int bufferSize) throws IOException {
+        List<List<String>> records = new ArrayList<>();
+        try (CsvReader reader = new CsvReader(new StringReader(csv), bufferSize)) {
+            List<String> fields = new ArrayList<>();
+            while (reader.readRecord(fields)) {
+                records.add(new ArrayList<>(fields));
+            }
+        }
+        return records;
+    }
+
+    @Test
+    void testSimpleRecords() throws IOException {
+        List<List<String>> records = readAll("ID,Question\n1,What is Java?\n", 64);
+        assertEquals(List.of(List.of("ID", "Question"), List.of("1", "What is Java?")), records);
+    }
+
+    @Test
+    void testQuotedFieldWithCommaAndEscapedQuotes() throws IOException {
+        List<List<String>> records = readAll("1,\"a, \"\"quoted\"\" word\",x", 64);
+        assertEquals(List.of(List.of("1", "a, \"quoted\" word", "x")), records);
+    }
+
+    @Test
+    void testQuotedFieldWithLineBreaks() throws IOException {
+        List<List<String>> records = readAll("1,\"first line\nsecond line\",LEARNT\r\n2,\"\",EASY", 64);
+        assertEquals(2, records.size());
+        assertEquals(List.of("1", "first line\nsecond line", "LEARNT"), records.get(0));
+        assertEquals(List.of("2", "", "EASY"), records.get(1));
+    }
+
+    @Test
+    void testByteOrderMarkAndBlankLines() throws IOException {
+        List<List<String>> records = readAll("\uFEFFID,Hint\n\n1,h\n\r\n", 64);
+        assertEquals(List.of(List.of("ID", "Hint"), List.of("1", "h")), records);
+    }
+
+    @Test
+    void testEmptyFields() throws IOException {
+        List<List<String>> records = readAll(",,\n", 64);
+        assertEquals(List.of(List.of("", "", "")), records);
+    }
+
+    @Test
+    void testRecordsSpanningBufferBoundaries() throws IOException {
+        String csv = "1,\"a \"\"long\"\"\r\nvalue\",b\r\n2,c,d\r\n";
+        // a tiny buffer forces every escaped quote and CRLF to be split across refills
+        assertEquals(readAll(csv, 64), readAll(csv, 1));
+        assertEquals(List.of("1", "a \"long\"\r\nvalue", "b"), readAll(csv, 1).get(0));
+    }
+
+    @Test
+    void testRecordNumber() throws IOException {
+        try (CsvReader reader = new CsvReader(new StringReader("a\nb\nc"))) {
+            List<String> fields = new ArrayList<>();
+            while (reader.readRecord(fields)) {
+                // read everything
+            }
+            assertEquals(3, reader.getRecordNumber());
+        }
+    }
+}
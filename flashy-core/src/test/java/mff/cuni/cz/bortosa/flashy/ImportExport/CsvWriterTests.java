@@ -0,0 +1,43 @@
+package mff.cuni.cz.bortosa.flashy.ImportExport;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvWriterTests {
+
+    @Test
+    void testQuotedFieldsAreEscaped() throws IOException {
+        StringWriter out = new StringWriter();
+        try (CsvWriter writer = new CsvWriter(out)) {
+            writer.writePlain(1).writeQuoted("say \"hi\"").writeQuoted(null).writePlain("EASY");
+            writer.endRecord();
+        }
+        assertEquals("1,\"say \"\"hi\"\"\",\"\",EASY\n", out.toString());
+    }
+
+    @Test
+    void testRoundTripThroughReader() throws IOException {
+        List<String> values = List.of("a, b", "\"\"", "line\r\nbreak", "plain");
+        StringWriter out = new StringWriter();
+        try (CsvWriter writer = new CsvWriter(out)) {
+            for (String value : values) {
+                writer.writeQuoted(value);
+            }
+            writer.endRecord();
+        }
+
+        List<String> fields = new ArrayList<>();
+        try (CsvReader reader = new CsvReader(new StringReader(out.toString()))) {
+            assertTrue(reader.readRecord(fields));
+            assertFalse(reader.readRecord(new ArrayList<>()));
+        }
+        assertEquals(values, fields);
+    }
+}
@@ -0,0 +1,184 @@
+package mff.cuni.cz.bortosa.flashy.ImportExport;
+
+import mff.cuni.cz.bortosa.flashy.DatabaseOperations.DatabaseInitializer;
+import mff.cuni.cz.bortosa.flashy.DatabaseOperations.DatabaseManager;
+import mff.cuni.cz.bortosa.flashy.Models.Deck;
+import mff.cuni.cz.bortosa.flashy.Models.Flashcard;
+import mff.cuni.cz.bortosa.flashy.Repositories.DecksRepository;
+import mff.cuni.cz.bortosa.flashy.Repositories.FlashcardDeckRepository;
+import mff.cuni.cz.bortosa.flashy.Repositories.FlashcardsRepository;
+import mff.cuni.cz.bortosa.flashy.Repositories.ImportCheckpointsRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DeckCsvImporterTests {
+    private static final int ROWS = 10;
+    private static final int CHUNK_SIZE = 3;
+
+    @TempDir
+    Path tempDir;
+
+    private DatabaseManager databaseManager;
+    private DecksRepository decksRepository;
+    private FlashcardDeckRepository flashcardDeckRepository;
+    private ImportCheckpointsRepository checkpointsRepository;
+    private DeckCsvImporter importer;
+    private Path file;
+
+    @BeforeEach
+    void setUp() throws SQLException, IOException {
+        databaseManager = new DatabaseManager("jdbc:sqlite:" + tempDir.resolve("test.db"), 2);
+        DatabaseInitializer.initializeDatabase(databaseManager);
+        decksRepository = new DecksRepository(databaseManager);
+        flashcardDeckRepository = new FlashcardDeckRepository(databaseManager);
+        checkpointsRepository = new ImportCheckpointsRepository(databaseManager);
+        importer = new DeckCsvImporter(databaseManager, new FlashcardsRepository(databaseManager),
+                flashcardDeckRepository, decksRepository, checkpointsRepository, CHUNK_SIZE);
+
+        StringBuilder csv = new StringBuilder("ID,Question,Answer,Hint,State,Difficulty\n");
+        for (int i = 0; i < ROWS; i++) {
+            csv.append(i).append(",question ").append(i).append(",answer ").append(i).append(",,CREATED,EASY\n");
+            if (i == 4) {
+                csv.append("99,a malformed row\n"); // skipped, and not counted as a row of the file
+            }
+        }
+        file = tempDir.resolve("deck.csv");
+        Files.writeString(file, csv);
+    }
+
+    @AfterEach
+    void tearDown() {
+        databaseManager.close();
+    }
+
+    @Test
+    void testRowsAreCommittedInChunks() throws SQLException, IOException {
+        List<Integer> chunkSizes = new ArrayList<>();
+        List<Deck> createdDecks = new ArrayList<>();
+        ImportResult result = importer.importDeck(new Deck("deck", null), file, new ImportListener() {
+            @Override
+            public void onDeckCreated(Deck deck) {
+                createdDecks.add(deck);
+            }
+
+            @Override
+            public void onChunkCommitted(List<Flashcard> flashcards, ImportResult progress) {
+                chunkSizes.add(flashcards.size());
+            }
+        });
+
+        assertEquals(List.of(3, 3, 3, 1), chunkSizes);
+        assertEquals(1, createdDecks.size());
+        assertEquals(ROWS, result.getRowsImported());
+        assertEquals(0, result.getRowsResumedFrom());
+        assertEquals(4, result.getChunksCommitted());
+        assertEquals(questions(0, ROWS), importedQuestions(result.getDeck()));
+        assertNull(checkpointsRepository.getCheckpoint(source()));
+    }
+
+    @Test
+    void testFailedImportResumesAfterTheLastCommittedChunk() throws SQLException, IOException {
+        failInsertOf("question 7"); // in the third chunk
+        Deck deck = new Deck("deck", null);
+        assertThrows(SQLException.class, () -> importer.importDeck(deck, file, new ImportListener() { }));
+
+        // the first two chunks are kept
+        assertEquals(questions(0, 6), importedQuestions(deck));
+        assertEquals(6, checkpointsRepository.getCheckpoint(source()).getRowsCommitted());
+
+        allowInserts();
+        Deck resumed = new Deck("deck", null);
+        ImportResult result = importer.importDeck(resumed, file, new ImportListener() { });
+
+        assertEquals(deck.getId(), resumed.getId());
+        assertEquals(6, result.getRowsResumedFrom());
+        assertEquals(ROWS - 6, result.getRowsImported());
+        // every row exactly once
+        assertEquals(questions(0, ROWS), importedQuestions(resumed));
+        assertNull(checkpointsRepository.getCheckpoint(source()));
+    }
+
+    @Test
+    void testFailedFirstChunkRollsBackTheDeck() throws SQLException, IOException {
+        failInsertOf("question 1");
+        Deck deck = new Deck("deck", null);
+        assertThrows(SQLException.class, () -> importer.importDeck(deck, file, new ImportListener() { }));
+
+        assertEquals(-1, deck.getId());
+        assertNull(decksRepository.getDeckByName("deck"));
+        assertNull(checkpointsRepository.getCheckpoint(source()));
+
+        allowInserts();
+        ImportResult result = importer.importDeck(deck, file, new ImportListener() { });
+
+        assertEquals(0, result.getRowsResumedFrom());
+        assertEquals(questions(0, ROWS), importedQuestions(deck));
+    }
+
+    @Test
+    void testFailingListenerKeepsTheCommittedChunk() throws SQLException, IOException {
+        Deck deck = new Deck("deck", null);
+        assertThrows(IllegalStateException.class, () -> importer.importDeck(deck, file, new ImportListener() {
+            @Override
+            public void onChunkCommitted(List<Flashcard> flashcards, ImportResult progress) {
+                throw new IllegalStateException("listener failed");
+            }
+        }));
+        assertEquals(questions(0, 3), importedQuestions(deck));
+
+        ImportResult result = importer.importDeck(deck, file, new ImportListener() { });
+
+        assertEquals(3, result.getRowsResumedFrom());
+        assertEquals(questions(0, ROWS), importedQuestions(deck));
+        assertNull(checkpointsRepository.getCheckpoint(source()));
+    }
+
+    private String source() {
+        return file.toAbsolutePath().normalize().toString();
+    }
+
+    // makes the insert of the flashcard with the given question fail, and roll back its transaction
+    private void failInsertOf(String question) throws SQLException {
+        try (Connection connection = databaseManager.getWriteConnection();
+             Statement stmt = connection.createStatement()) {
+            stmt.execute("CREATE TRIGGER fail_import BEFORE INSERT ON flashcards WHEN NEW.question = '" + question
+                    + "' BEGIN SELECT RAISE(ABORT, 'injected failure'); END");
+        }
+    }
+
+    private void allowInserts() throws SQLException {
+        try (Connection connection = databaseManager.getWriteConnection();
+             Statement stmt = connection.createStatement()) {
+            stmt.execute("DROP TRIGGER fail_import");
+        }
+    }
+
+    private List<String> importedQuestions(Deck deck) throws SQLException {
+        List<String> questions = new ArrayList<>();
+        for (Flashcard flashcard : flashcardDeckRepository.getFlashcardsInDeck(deck.getId())) {
+            questions.add(flashcard.getQuestion());
+        }
+        return questions;
+    }
+
+    private static List<String> questions(int from, int to) {
+        List<String> questions = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            questions.add("question " + i);
+        }
+        return questions;
+    }
+}
@@ -0,0 +1,205 @@
+package mff.cuni.cz.bortosa.flashy.Metrics;
+
+import mff.cuni.cz.bortosa.flashy.DatabaseOperations.DatabaseInitializer;
+import mff.cuni.cz.bortosa.flashy.DatabaseOperations.DatabaseManager;
+import mff.cuni.cz.bortosa.flashy.Models.Deck;
+import mff.cuni.cz.bortosa.flashy.Models.Flashcard;
+import mff.cuni.cz.bortosa.flashy.Repositories.DecksRepository;
+import mff.cuni.cz.bortosa.flashy.Repositories.FlashcardsRepository;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.TabularData;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetricsRegistryTests {
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testHistogramPercentilesAreWithinAnEighth() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long micros = 1; micros <= 1_000; micros++) {
+            histogram.record(micros * 1_000);
+        }
+
+        assertEquals(1_000, histogram.getCount());
+        assertEquals(1_000_000, histogram.getMaxNanos());
+        long p50 = histogram.getPercentileNanos(50);
+        long p99 = histogram.getPercentileNanos(99);
+        assertTrue(p50 >= 500_000 && p50 <= 500_000 * 9 / 8, "p50 was " + p50);
+        assertTrue(p99 >= 990_000 && p99 <= 1_000_000, "p99 was " + p99);
+    }
+
+    @Test
+    void testBucketsCoverEveryDuration() {
+        long previousUpperBound = -1;
+        for (long value : new long[]{0, 1, 7, 8, 9, 15, 16, 1_000, 123_456_789, Long.MAX_VALUE}) {
+            int index = LatencyHistogram.bucketIndex(value);
+            assertTrue(LatencyHistogram.bucketUpperBound(index) >= value);
+            assertTrue(LatencyHistogram.bucketUpperBound(index) >= previousUpperBound);
+            previousUpperBound = LatencyHistogram.bucketUpperBound(index);
+        }
+    }
+
+    @Test
+    void testRecordingDoesNotAllocate() {
+        Timer timer = new MetricsRegistry().timer("test");
+        long threadId = Thread.currentThread().threadId();
+        timer.record(System.nanoTime());
+        timer.end(timer.begin(), System.nanoTime());
+
+        long before = THREADS.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < 100_000; i++) {
+            timer.record(System.nanoTime() - i);
+            // the block of the repositories, while no flight recording is running
+            long start = System.nanoTime();
+            QueryEvent event = timer.begin();
+            timer.setRows(event, 1);
+            timer.end(event, start);
+        }
+        long allocated = THREADS.getThreadAllocatedBytes(threadId) - before;
+
+        assertEquals(200_002, timer.getLatencies().getCount());
+        assertTrue(allocated < 1_024, allocated + " bytes allocated");
+    }
+
+    @Test
+    void testTimedRepositoryCallsAllocateLikeUntimedOnes() throws SQLException {
+        try (DatabaseManager databaseManager = new DatabaseManager("jdbc:sqlite:file:allocations?mode=memory&cache=shared", 1)) {
+            DatabaseInitializer.initializeDatabase(databaseManager);
+            DecksRepository repository = new DecksRepository(databaseManager);
+            int deckId = repository.addDeck(new Deck("deck", null));
+
+            // the driver allocates for every statement, so the timed call is compared with the same statement untimed
+            long timed = Long.MAX_VALUE;
+            long untimed = Long.MAX_VALUE;
+            for (int round = 0; round < 5; round++) {
+                timed = Math.min(timed, allocatedPerCall(() -> repository.getDeckById(deckId)));
+                untimed = Math.min(untimed, allocatedPerCall(() -> getDeckByIdUntimed(databaseManager, deckId)));
+            }
+
+            assertEquals(5 * 2 * 10_000, databaseManager.getMetrics().timer("DecksRepository.getDeckById").getLatencies().getCount());
+            assertTrue(timed - untimed < 8, timed + " bytes per timed call, " + untimed + " per untimed call");
+        }
+    }
+
+    @Test
+    void testRepositoryCallsAreTimedAndPublishedAsMBean() throws Exception {
+        DatabaseManager databaseManager = new DatabaseManager("jdbc:sqlite:" + tempDir.resolve("test.db"), 2);
+        try {
+            DatabaseInitializer.initializeDatabase(databaseManager);
+            FlashcardsRepository repository = new FlashcardsRepository(databaseManager);
+            int id = repository.addFlashcard(new Flashcard("question", "answer", "hint"));
+            repository.getFlashcardById(id);
+            repository.getFlashcardById(id + 1);
+
+            MetricsRegistry metrics = databaseManager.getMetrics();
+            assertEquals(2, metrics.getTimers().get("FlashcardsRepository.getFlashcardById").getCount());
+            assertEquals(1, metrics.getTimers().get("FlashcardsRepository.addFlashcard").getCount());
+            assertTrue(metrics.getGauges().containsKey("pool.reader.borrows"));
+
+            ObjectName name = metrics.registerMBean();
+            try {
+                MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+                TabularData timers = (TabularData) server.getAttribute(name, "Timers");
+                CompositeData row = timers.get(new Object[]{"FlashcardsRepository.getFlashcardById"});
+                CompositeData snapshot = (CompositeData) row.get("value");
+                assertEquals(2L, snapshot.get("count"));
+            } finally {
+                metrics.unregisterMBean();
+            }
+
+            databaseManager.close();
+            assertThrows(SQLException.class, () -> repository.getFlashcardById(id));
+            assertEquals(1, metrics.getTimers().get("FlashcardsRepository.getFlashcardById").getFailureCount());
+        } finally {
+            databaseManager.close();
+        }
+    }
+
+    @Test
+    void testRepositoryCallsAreRecordedAsFlightRecorderEvents() throws Exception {
+        DatabaseManager databaseManager = new DatabaseManager("jdbc:sqlite:" + tempDir.resolve("test.db"), 2);
+        Path recordingFile = tempDir.resolve("test.jfr");
+        try (Recording recording = new Recording()) {
+            DatabaseInitializer.initializeDatabase(databaseManager);
+            FlashcardsRepository repository = new FlashcardsRepository(databaseManager);
+            repository.addFlashcard(new Flashcard("first", "answer", null));
+
+            recording.enable(QueryEvent.class).withThreshold(Duration.ZERO);
+            recording.start();
+            repository.addFlashcard(new Flashcard("second", "answer", null));
+            repository.getAllFlashcards();
+            repository.getFlashcardById(-1);
+            recording.stop();
+            recording.dump(recordingFile);
+        } finally {
+            databaseManager.close();
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(recordingFile).stream()
+                .filter(event -> event.getEventType().getName().equals("mff.cuni.cz.bortosa.flashy.Query"))
+                .toList();
+        assertEquals(3, events.size());
+        assertEquals("FlashcardsRepository.addFlashcard", events.get(0).getString("query"));
+        assertEquals(1, events.get(0).getLong("rows"));
+        assertEquals("FlashcardsRepository.getAllFlashcards", events.get(1).getString("query"));
+        assertEquals(2, events.get(1).getLong("rows"));
+        assertEquals(0, events.get(2).getLong("rows"));
+        assertFalse(events.get(2).getBoolean("failed"));
+    }
+
+    private interface DeckQuery {
+        Deck run() throws SQLException;
+    }
+
+    // the average number of bytes the query allocates on the calling thread
+    private static long allocatedPerCall(DeckQuery query) throws SQLException {
+        long threadId = Thread.currentThread().threadId();
+        for (int i = 0; i < 10_000; i++) {
+            assertNotNull(query.run());
+        }
+        long before = THREADS.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < 10_000; i++) {
+            query.run();
+        }
+        return (THREADS.getThreadAllocatedBytes(threadId) - before) / 10_000;
+    }
+
+    // DecksRepository.getDeckById without the timer
+    private static Deck getDeckByIdUntimed(DatabaseManager databaseManager, int deckId) throws SQLException {
+        try (Connection conn = databaseManager.getReadConnection();
+             PreparedStatement stmt = conn.prepareStatement("SELECT * FROM decks WHERE id = ?")) {
+            stmt.setInt(1, deckId);
+            try (ResultSet resultSet = stmt.executeQuery()) {
+                if (resultSet.next()) {
+                    return new Deck(
+                            resultSet.getInt("id"),
+                            resultSet.getString("name"),
+                            resultSet.getString("description")
+                    );
+                }
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,138 @@
+package mff.cuni.cz.bortosa.flashy.Observer;
+
+import mff.cuni.cz.bortosa.flashy.Models.Deck;
+import mff.cuni.cz.bortosa.flashy.Models.Flashcard;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventBusTests {
+    private static final EnumSet<Event> FLASHCARD_EVENTS =
+            EnumSet.of(Event.ADD_FLASHCARD, Event.UPDATE_FLASHCARD, Event.REMOVE_FLASHCARD);
+
+    @Test
+    void testSynchronousSubscribersOnlyReceiveTheirEvents() {
+        EventBus eventBus = new EventBus();
+        List<Event> received = new ArrayList<>();
+        eventBus.subscribe((eventType, data) -> received.add(eventType), FLASHCARD_EVENTS);
+
+        eventBus.publish(Event.ADD_FLASHCARD, flashcard(1));
+        eventBus.publish(Event.ADD_DECK, new Deck(1, "deck", ""));
+        eventBus.publish(Event.REMOVE_FLASHCARD, flashcard(1));
+
+        assertEquals(List.of(Event.ADD_FLASHCARD, Event.REMOVE_FLASHCARD), received);
+    }
+
+    @Test
+    void testEventsPublishedBeforeTheDeliveryArriveInOneBatch() {
+        EventBus eventBus = new EventBus();
+        List<Runnable> scheduled = new ArrayList<>();
+        List<List<Notification>> batches = new ArrayList<>();
+        eventBus.subscribe(batchRecorder(batches), FLASHCARD_EVENTS, scheduled::add);
+
+        for (int id = 1; id <= 1_000; id++) {
+            eventBus.publish(Event.ADD_FLASHCARD, flashcard(id));
+        }
+        assertEquals(1, scheduled.size());
+        assertTrue(batches.isEmpty());
+
+        scheduled.removeFirst().run();
+        assertEquals(1, batches.size());
+        assertEquals(1_000, batches.getFirst().size());
+
+        eventBus.publish(Event.UPDATE_FLASHCARD, flashcard(1));
+        assertEquals(1, scheduled.size()); // the next event schedules the next delivery
+    }
+
+    @Test
+    void testEventsOfTheSameFlashcardAreCoalesced() {
+        Flashcard first = flashcard(1);
+        Flashcard firstEdited = flashcard(1);
+        Flashcard second = flashcard(2);
+        Flashcard third = flashcard(3);
+
+        List<Notification> coalesced = EventBus.coalesce(List.of(
+                new Notification(Event.ADD_FLASHCARD, first),
+                new Notification(Event.UPDATE_FLASHCARD, second),
+                new Notification(Event.ADD_FLASHCARD, third),
+                new Notification(Event.UPDATE_FLASHCARD, firstEdited),
+                new Notification(Event.UPDATE_FLASHCARD, second),
+                new Notification(Event.REMOVE_FLASHCARD, second),
+                new Notification(Event.REMOVE_FLASHCARD, third)));
+
+        assertEquals(2, coalesced.size());
+        assertEquals(Event.ADD_FLASHCARD, coalesced.get(0).getEventType());
+        assertSame(firstEdited, coalesced.get(0).getData());
+        assertEquals(Event.REMOVE_FLASHCARD, coalesced.get(1).getEventType());
+        assertSame(second, coalesced.get(1).getData());
+    }
+
+    @Test
+    void testConcurrentPublishersLoseNoEvents() throws InterruptedException {
+        EventBus eventBus = new EventBus();
+        AtomicInteger received = new AtomicInteger();
+        ExecutorService delivery = Executors.newSingleThreadExecutor();
+        eventBus.subscribe((eventType, data) -> received.incrementAndGet(), FLASHCARD_EVENTS, delivery);
+
+        int publishers = 4;
+        int eventsPerPublisher = 5_000;
+        CountDownLatch done = new CountDownLatch(publishers);
+        for (int publisher = 0; publisher < publishers; publisher++) {
+            int firstId = 1 + publisher * eventsPerPublisher;
+            Thread.ofPlatform().start(() -> {
+                for (int id = firstId; id < firstId + eventsPerPublisher; id++) {
+                    eventBus.publish(Event.ADD_FLASHCARD, flashcard(id));
+                }
+                done.countDown();
+            });
+        }
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        delivery.shutdown();
+        assertTrue(delivery.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(publishers * eventsPerPublisher, received.get());
+    }
+
+    @Test
+    void testUnsubscribedObserverReceivesNoQueuedEvents() {
+        EventBus eventBus = new EventBus();
+        List<Runnable> scheduled = new ArrayList<>();
+        List<List<Notification>> batches = new ArrayList<>();
+        Observer observer = batchRecorder(batches);
+        eventBus.subscribe(observer, FLASHCARD_EVENTS, scheduled::add);
+
+        eventBus.publish(Event.ADD_FLASHCARD, flashcard(1));
+        eventBus.unsubscribe(observer);
+        eventBus.publish(Event.ADD_FLASHCARD, flashcard(2));
+        scheduled.forEach(Runnable::run);
+
+        assertTrue(batches.isEmpty());
+    }
+
+    private static Flashcard flashcard(int id) {
+        return new Flashcard(id, "question " + id, "answer", null, Flashcard.State.CREATED, Flashcard.Difficulty.DEFAULT);
+    }
+
+    private static Observer batchRecorder(List<List<Notification>> batches) {
+        return new Observer() {
+            @Override
+            public void update(Event eventType, Object data) {
+                fail("Batched observers should receive updateAll");
+            }
+
+            @Override
+            public void updateAll(List<Notification> notifications) {
+                batches.add(notifications);
+            }
+        };
+    }
+}
@@ -0,0 +1,121 @@
+package mff.cuni.cz.bortosa.flashy.Repositories;
+
+import mff.cuni.cz.bortosa.flashy.DatabaseOperations.DatabaseInitializer;
+import mff.cuni.cz.bortosa.flashy.DatabaseOperations.DatabaseManager;
+import mff.cuni.cz.bortosa.flashy.Metrics.MetricsRegistry;
+import mff.cuni.cz.bortosa.flashy.Models.Deck;
+import mff.cuni.cz.bortosa.flashy.Models.Flashcard;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlashcardDeckRepositoryTests {
+    @TempDir
+    Path tempDir;
+
+    private DatabaseManager databaseManager;
+    private FlashcardDeckRepository flashcardDeckRepository;
+
+    @BeforeEach
+    void setUp() {
+        databaseManager = new DatabaseManager("jdbc:sqlite:" + tempDir.resolve("test.db"), 2);
+        DatabaseInitializer.initializeDatabase(databaseManager);
+        flashcardDeckRepository = new FlashcardDeckRepository(databaseManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        databaseManager.close();
+    }
+
+    @Test
+    void testFilteredQueriesVisitOnlyTheMatchingFlashcards() throws SQLException {
+        for (boolean paged : new boolean[]{false, true}) {
+            String range = paged ? " AND rowid>?)" : ")";
+            assertEquals(List.of("SEARCH fd USING COVERING INDEX idx_flashcard_deck_deck (deck_id=?"
+                                    + (paged ? " AND flashcard_id>?)" : ")"),
+                            "SEARCH f USING INTEGER PRIMARY KEY (rowid=?)"),
+                    queryPlan(false, false, paged));
+            assertEquals("SEARCH f USING INDEX idx_flashcards_state (state=?" + range,
+                    queryPlan(true, false, paged).getFirst());
+            assertEquals("SEARCH f USING INDEX idx_flashcards_difficulty (difficulty=?" + range,
+                    queryPlan(false, true, paged).getFirst());
+            assertEquals("SEARCH f USING INDEX idx_flashcards_state_difficulty (state=? AND difficulty=?" + range,
+                    queryPlan(true, true, paged).getFirst());
+        }
+    }
+
+    @Test
+    void testFlashcardsInDeckAreFilteredByStateAndDifficulty() throws SQLException {
+        FlashcardsRepository flashcardsRepository = new FlashcardsRepository(databaseManager);
+        DecksRepository decksRepository = new DecksRepository(databaseManager);
+        Deck deck = new Deck("deck", null);
+        decksRepository.addDeck(deck);
+        Deck otherDeck = new Deck("other deck", null);
+        decksRepository.addDeck(otherDeck);
+        List<Flashcard> flashcards = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            flashcards.add(new Flashcard(0, "question " + i, "answer", null,
+                    i % 2 == 0 ? Flashcard.State.CREATED : Flashcard.State.LEARNING,
+                    i % 4 < 2 ? Flashcard.Difficulty.EASY : Flashcard.Difficulty.HARD));
+        }
+        flashcardsRepository.addFlashcards(flashcards);
+        flashcardDeckRepository.addFlashcardsToDeck(flashcards.subList(0, 6), deck.getId());
+        flashcardDeckRepository.addFlashcardsToDeck(flashcards.subList(6, 8), otherDeck.getId());
+
+        assertEquals(List.of("question 0", "question 2", "question 4"),
+                questions(flashcardDeckRepository.getFlashcardsInDeck(deck.getId(), Flashcard.State.CREATED, null)));
+        assertEquals(List.of("question 2", "question 3"),
+                questions(flashcardDeckRepository.getFlashcardsInDeck(deck.getId(), null, Flashcard.Difficulty.HARD)));
+        assertEquals(List.of("question 2"), questions(flashcardDeckRepository.getFlashcardsInDeck(deck.getId(),
+                Flashcard.State.CREATED, Flashcard.Difficulty.HARD)));
+        assertEquals(List.of("question 3"), questions(flashcardDeckRepository.getFlashcardsInDeckPage(deck.getId(),
+                null, Flashcard.Difficulty.HARD, flashcards.get(2).getFlashcardId(), 1)));
+    }
+
+    @Test
+    void testDeckQueryIsTimedOncePerCall() throws SQLException {
+        Deck deck = new Deck("deck", null);
+        new DecksRepository(databaseManager).addDeck(deck);
+        flashcardDeckRepository.getFlashcardsInDeck(deck.getId());
+        flashcardDeckRepository.getFlashcardsInDeck(deck.getId(), Flashcard.State.CREATED, null);
+
+        MetricsRegistry metrics = databaseManager.getMetrics();
+        assertEquals(2, metrics.timer("FlashcardDeckRepository.getFlashcardsInDeck").getLatencies().getCount());
+        assertEquals(0, metrics.timer("FlashcardDeckRepository.forEachFlashcardInDeck").getLatencies().getCount());
+    }
+
+    private List<String> queryPlan(boolean byState, boolean byDifficulty, boolean paged) throws SQLException {
+        List<String> plan = new ArrayList<>();
+        try (Connection connection = databaseManager.getReadConnection();
+             PreparedStatement stmt = connection.prepareStatement("EXPLAIN QUERY PLAN "
+                     + FlashcardDeckRepository.flashcardsInDeckQuery(byState, byDifficulty, paged));
+             ResultSet resultSet = stmt.executeQuery()) {
+            while (resultSet.next()) {
+                plan.add(resultSet.getString("detail"));
+            }
+        }
+        // the rows are read in the order of the index, without a sort
+        assertFalse(plan.stream().anyMatch(step -> step.contains("TEMP B-TREE")), plan.toString());
+        return plan;
+    }
+
+    private static List<String> questions(List<Flashcard> flashcards) {
+        List<String> questions = new ArrayList<>();
+        for (Flashcard flashcard : flashcards) {
+            questions.add(flashcard.getQuestion());
+        }
+        return questions;
+    }
+}
@@ -0,0 +1,144 @@
+package mff.cuni.cz.bortosa.flashy.Repositories;
+
+import mff.cuni.cz.bortosa.flashy.DatabaseOperations.DatabaseInitializer;
+import mff.cuni.cz.bortosa.flashy.DatabaseOperations.DatabaseManager;
+import mff.cuni.cz.bortosa.flashy.Models.Flashcard;
+import mff.cuni.cz.bortosa.flashy.Models.FlashcardProgress;
+import mff.cuni.cz.bortosa.flashy.Models.ReviewSchedule;
+import mff.cuni.cz.bortosa.flashy.Models.SearchResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlashcardsRepositoryTests {
+    @TempDir
+    Path tempDir;
+
+    private DatabaseManager databaseManager;
+    private FlashcardsRepository flashcardsRepository;
+
+    @BeforeEach
+    void setUp() {
+        databaseManager = new DatabaseManager("jdbc:sqlite:" + tempDir.resolve("test.db"), 2);
+        DatabaseInitializer.initializeDatabase(databaseManager);
+        flashcardsRepository = new FlashcardsRepository(databaseManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        databaseManager.close();
+    }
+
+    @Test
+    void pagesFollowEachOtherByIdAndCoverAllFlashcards() throws SQLException {
+        for (int i = 0; i < 7; i++) {
+            flashcardsRepository.addFlashcard(new Flashcard("question " + i, "answer " + i, null));
+        }
+        int[] ids = flashcardsRepository.getFlashcardIds();
+        assertEquals(7, ids.length);
+
+        List<Flashcard> firstPage = flashcardsRepository.getFlashcardsPage(0, 3);
+        List<Flashcard> secondPage = flashcardsRepository.getFlashcardsPage(firstPage.get(2).getFlashcardId(), 3);
+        List<Flashcard> lastPage = flashcardsRepository.getFlashcardsPage(secondPage.get(2).getFlashcardId(), 3);
+
+        assertEquals(List.of(ids[0], ids[1], ids[2]), firstPage.stream().map(Flashcard::getFlashcardId).toList());
+        assertEquals(List.of(ids[3], ids[4], ids[5]), secondPage.stream().map(Flashcard::getFlashcardId).toList());
+        assertEquals(List.of(ids[6]), lastPage.stream().map(Flashcard::getFlashcardId).toList());
+        assertTrue(flashcardsRepository.getFlashcardsPage(ids[6], 3).isEmpty());
+    }
+
+    @Test
+    void bulkDeleteSpansSeveralIdArrays() throws SQLException {
+        List<Flashcard> flashcards = new ArrayList<>();
+        for (int i = 0; i < JsonIdArray.MAX_IDS_PER_ARRAY * 2 + 10; i++) {
+            flashcards.add(new Flashcard("question " + i, "answer", null));
+        }
+        flashcardsRepository.addFlashcards(flashcards);
+        List<Integer> toDelete = new ArrayList<>();
+        for (int i = 0; i < flashcards.size(); i += 2) {
+            toDelete.add(flashcards.get(i).getFlashcardId());
+        }
+        toDelete.add(-5); // unknown IDs are ignored
+
+        List<Integer> deleted = flashcardsRepository.deleteFlashcards(toDelete);
+
+        assertEquals(toDelete.subList(0, toDelete.size() - 1), deleted.stream().sorted().toList());
+        assertEquals(flashcards.size() - deleted.size(), flashcardsRepository.getFlashcardIds().length);
+        assertNotNull(flashcardsRepository.getFlashcardById(flashcards.get(1).getFlashcardId()));
+    }
+
+    @Test
+    void dueFlashcardsFollowTheSavedSchedules() throws SQLException {
+        Flashcard reviewed = new Flashcard("reviewed", "answer", null);
+        Flashcard overdue = new Flashcard("overdue", "answer", null);
+        Flashcard fresh = new Flashcard("new", "answer", null);
+        flashcardsRepository.addFlashcard(reviewed);
+        flashcardsRepository.addFlashcard(overdue);
+        flashcardsRepository.addFlashcard(fresh);
+
+        ReviewSchedule later = new ReviewSchedule(6, 2.6, 2, 5_000);
+        flashcardsRepository.updateFlashcardsProgress(List.of(
+                new FlashcardProgress(reviewed.getFlashcardId(), Flashcard.State.LEARNT, null, later),
+                new FlashcardProgress(overdue.getFlashcardId(), null, null, new ReviewSchedule(1, 2.5, 1, 100)),
+                new FlashcardProgress(fresh.getFlashcardId(), Flashcard.State.LEARNING, null)));
+
+        List<Flashcard> due = flashcardsRepository.getDueFlashcards(1_000, 10);
+        assertEquals(List.of(fresh.getFlashcardId(), overdue.getFlashcardId()),
+                due.stream().map(Flashcard::getFlashcardId).toList());
+        assertEquals(1, flashcardsRepository.getDueFlashcards(1_000, 1).size());
+
+        ReviewSchedule saved = flashcardsRepository.getFlashcardById(reviewed.getFlashcardId()).getSchedule();
+        assertEquals(6, saved.getIntervalDays());
+        assertEquals(2.6, saved.getEase(), 1e-9);
+        assertEquals(2, saved.getRepetitions());
+        assertEquals(5_000, saved.getDueAt());
+    }
+
+    @Test
+    void searchRanksQuestionMatchesFirstAndHighlightsThem() throws SQLException {
+        Flashcard inAnswer = new Flashcard("Capital of France", "Paris, on the Seine", null);
+        Flashcard inQuestion = new Flashcard("Which river flows through Paris?", "Seine", "starts with S");
+        flashcardsRepository.addFlashcard(inAnswer);
+        flashcardsRepository.addFlashcard(inQuestion);
+        flashcardsRepository.addFlashcard(new Flashcard("Capital of Italy", "Rome", null));
+
+        List<SearchResult> results = flashcardsRepository.search("pari", 10, 0);
+
+        assertEquals(2, results.size());
+        assertEquals(inQuestion.getFlashcardId(), results.get(0).getFlashcard().getFlashcardId());
+        assertEquals("Which river flows through " + SearchResult.HIGHLIGHT_START + "Paris" + SearchResult.HIGHLIGHT_END + "?",
+                results.get(0).getHighlightedQuestion());
+        assertEquals(inAnswer.getFlashcardId(), results.get(1).getFlashcard().getFlashcardId());
+    }
+
+    @Test
+    void searchFollowsUpdatesAndDeletes() throws SQLException {
+        Flashcard flashcard = new Flashcard("Speed of light", "299 792 km/s", null);
+        flashcardsRepository.addFlashcard(flashcard);
+
+        flashcard.setQuestion("Speed of sound");
+        flashcardsRepository.updateFlashcard(flashcard);
+        assertTrue(flashcardsRepository.search("light", 10, 0).isEmpty());
+        assertEquals(1, flashcardsRepository.search("sound", 10, 0).size());
+
+        flashcardsRepository.deleteFlashcard(flashcard.getFlashcardId());
+        assertTrue(flashcardsRepository.search("sound", 10, 0).isEmpty());
+    }
+
+    @Test
+    void searchTreatsQuerySyntaxAsText() throws SQLException {
+        flashcardsRepository.addFlashcard(new Flashcard("What does \"AND\" return?", "true OR false", null));
+
+        assertEquals(1, flashcardsRepository.search("\"AND\" OR", 10, 0).size());
+        assertTrue(flashcardsRepository.search("   ", 10, 0).isEmpty());
+        assertEquals("\"a\"\"b\" \"c\"*", FlashcardsRepository.toMatchExpression(" a\"b  c "));
+    }
+}
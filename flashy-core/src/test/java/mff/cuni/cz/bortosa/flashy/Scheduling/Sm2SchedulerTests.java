@@ -0,0 +1,52 @@
+package mff.cuni.cz.bortosa.flashy.Scheduling;
+
+import mff.cuni.cz.bortosa.flashy.Models.Flashcard;
+import mff.cuni.cz.bortosa.flashy.Models.ReviewSchedule;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Sm2SchedulerTests {
+    private static final long NOW = 1_700_000_000_000L;
+    private static final long DAY = TimeUnit.DAYS.toMillis(1);
+
+    private final Sm2Scheduler scheduler = new Sm2Scheduler();
+
+    @Test
+    void successfulReviewsGrowTheInterval() {
+        ReviewSchedule first = scheduler.schedule(ReviewSchedule.NEW, 4, NOW);
+        ReviewSchedule second = scheduler.schedule(first, 4, NOW);
+        ReviewSchedule third = scheduler.schedule(second, 4, NOW);
+
+        assertEquals(1, first.getIntervalDays());
+        assertEquals(6, second.getIntervalDays());
+        assertEquals(15, third.getIntervalDays()); // 6 * 2.5
+        assertEquals(3, third.getRepetitions());
+        assertEquals(ReviewSchedule.INITIAL_EASE, third.getEase(), 1e-9); // quality 4 keeps the ease
+        assertEquals(NOW + 15 * DAY, third.getDueAt());
+    }
+
+    @Test
+    void failedReviewStartsOverAndLowersTheEase() {
+        ReviewSchedule learnt = new ReviewSchedule(30, 2.5, 5, NOW);
+
+        ReviewSchedule failed = scheduler.schedule(learnt, 1, NOW);
+
+        assertEquals(0, failed.getRepetitions());
+        assertEquals(1, failed.getIntervalDays());
+        assertEquals(2.5 - 0.54, failed.getEase(), 1e-9);
+        assertEquals(Sm2Scheduler.MIN_EASE, scheduler.schedule(new ReviewSchedule(1, 1.4, 0, NOW), 0, NOW).getEase(), 1e-9);
+    }
+
+    @Test
+    void answersMapToQualities() {
+        assertEquals(5, Sm2Scheduler.qualityOf(Flashcard.State.LEARNT, Flashcard.Difficulty.EASY));
+        assertEquals(4, Sm2Scheduler.qualityOf(Flashcard.State.LEARNT, null));
+        assertEquals(3, Sm2Scheduler.qualityOf(Flashcard.State.LEARNT, Flashcard.Difficulty.HARD));
+        assertEquals(1, Sm2Scheduler.qualityOf(Flashcard.State.LEARNING, Flashcard.Difficulty.EASY));
+        assertEquals(-1, Sm2Scheduler.qualityOf(null, Flashcard.Difficulty.EASY));
+        assertThrows(IllegalArgumentException.class, () -> scheduler.schedule(ReviewSchedule.NEW, 6, NOW));
+    }
+}
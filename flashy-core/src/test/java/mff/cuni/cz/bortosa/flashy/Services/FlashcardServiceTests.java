@@ -0,0 +1,141 @@
+package mff.cuni.cz.bortosa.flashy.Services;
+
+import mff.cuni.cz.bortosa.flashy.DatabaseOperations.DatabaseInitializer;
+import mff.cuni.cz.bortosa.flashy.DatabaseOperations.DatabaseManager;
+import mff.cuni.cz.bortosa.flashy.Models.Deck;
+import mff.cuni.cz.bortosa.flashy.Models.Flashcard;
+import mff.cuni.cz.bortosa.flashy.Models.ReviewSchedule;
+import mff.cuni.cz.bortosa.flashy.Observer.Event;
+import mff.cuni.cz.bortosa.flashy.Observer.EventBus;
+import mff.cuni.cz.bortosa.flashy.Repositories.DecksRepository;
+import mff.cuni.cz.bortosa.flashy.Repositories.FlashcardDeckRepository;
+import mff.cuni.cz.bortosa.flashy.Repositories.FlashcardsRepository;
+import mff.cuni.cz.bortosa.flashy.Repositories.ImportCheckpointsRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlashcardServiceTests {
+    @TempDir
+    Path tempDir;
+
+    private DatabaseManager databaseManager;
+    private FlashcardsRepository flashcardsRepository;
+    private FlashcardDeckRepository flashcardDeckRepository;
+    private DecksRepository decksRepository;
+    private GradingWriteBuffer gradingWriteBuffer;
+    private ServiceExecutor serviceExecutor;
+    private FlashcardService flashcardService;
+    private StatisticsService statisticsService;
+    private final List<Event> events = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        databaseManager = new DatabaseManager("jdbc:sqlite:" + tempDir.resolve("test.db"), 2);
+        DatabaseInitializer.initializeDatabase(databaseManager);
+        flashcardsRepository = new FlashcardsRepository(databaseManager);
+        flashcardDeckRepository = new FlashcardDeckRepository(databaseManager);
+        decksRepository = new DecksRepository(databaseManager);
+        gradingWriteBuffer = new GradingWriteBuffer(flashcardsRepository, 60_000, 100);
+        serviceExecutor = new ServiceExecutor();
+
+        EventBus eventBus = new EventBus();
+        eventBus.addObserver((eventType, data) -> events.add(eventType));
+        statisticsService = new StatisticsService(flashcardsRepository, gradingWriteBuffer, serviceExecutor);
+        eventBus.subscribe(statisticsService, EnumSet.allOf(Event.class));
+        flashcardService = new FlashcardService(databaseManager, flashcardsRepository, flashcardDeckRepository,
+                decksRepository, new ImportCheckpointsRepository(databaseManager), serviceExecutor, eventBus);
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        gradingWriteBuffer.close();
+        serviceExecutor.close();
+        databaseManager.close();
+    }
+
+    private Deck addDeckWithFlashcards(String name, int count) throws SQLException {
+        Deck deck = new Deck(name, "");
+        flashcardService.addDeck(deck);
+        List<Flashcard> flashcards = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            flashcards.add(new Flashcard(-1, name + " question " + i, "answer", null,
+                    Flashcard.State.LEARNT, Flashcard.Difficulty.HARD));
+        }
+        flashcardService.addFlashcardsToDeck(flashcards, deck);
+        return deck;
+    }
+
+    @Test
+    void testAddingFlashcardsToDeckPublishesOneEvent() throws SQLException {
+        statisticsService.getStatistics();
+        Deck deck = addDeckWithFlashcards("deck", 500);
+
+        assertEquals(List.of(Event.ADD_DECK, Event.ADD_FLASHCARDS), events);
+        assertEquals(500, flashcardDeckRepository.getFlashcardsFromDeck(deck.getId()).size());
+        assertEquals(500, statisticsService.getStatistics().getTotalFlashcards());
+        assertTrue(statisticsService.verify());
+    }
+
+    @Test
+    void testDeletingFlashcardsRemovesThemFromTheirDecks() throws SQLException {
+        Deck deck = addDeckWithFlashcards("deck", 10);
+        statisticsService.getStatistics();
+        List<Integer> ids = flashcardDeckRepository.getFlashcardsFromDeck(deck.getId());
+
+        assertEquals(3, flashcardService.deleteFlashcards(List.of(ids.get(0), ids.get(1), ids.get(2), 999_999)));
+
+        assertEquals(Event.REMOVE_FLASHCARDS, events.getLast());
+        assertEquals(7, flashcardDeckRepository.getFlashcardsFromDeck(deck.getId()).size());
+        assertNull(flashcardsRepository.getFlashcardById(ids.get(0)));
+        assertEquals(7, statisticsService.getStatistics().getTotalFlashcards());
+        assertTrue(statisticsService.verify());
+    }
+
+    @Test
+    void testResettingADeckOnlyChangesItsFlashcards() throws SQLException {
+        Deck reset = addDeckWithFlashcards("reset", 20);
+        Deck other = addDeckWithFlashcards("other", 5);
+        statisticsService.getStatistics();
+
+        assertEquals(20, flashcardService.resetDeckProgress(reset));
+
+        assertEquals(Event.UPDATE_FLASHCARDS, events.getLast());
+        for (Flashcard flashcard : flashcardDeckRepository.getFlashcardsInDeck(reset.getId())) {
+            assertEquals(Flashcard.State.CREATED, flashcard.getState());
+            assertEquals(Flashcard.Difficulty.DEFAULT, flashcard.getDifficulty());
+            assertEquals(ReviewSchedule.NEW.getEase(), flashcard.getSchedule().getEase());
+        }
+        for (Flashcard flashcard : flashcardDeckRepository.getFlashcardsInDeck(other.getId())) {
+            assertEquals(Flashcard.State.LEARNT, flashcard.getState());
+        }
+        assertEquals(20, statisticsService.getStatistics().getStateCounts().get(Flashcard.State.CREATED));
+        assertTrue(statisticsService.verify());
+    }
+
+    @Test
+    void testMovingFlashcardsBetweenDecks() throws SQLException {
+        Deck from = addDeckWithFlashcards("from", 6);
+        Deck to = addDeckWithFlashcards("to", 2);
+        List<Integer> ids = flashcardDeckRepository.getFlashcardsFromDeck(from.getId());
+        int otherDeckFlashcard = flashcardDeckRepository.getFlashcardsFromDeck(to.getId()).getFirst();
+
+        // flashcards which are not in the source deck are ignored
+        assertEquals(4, flashcardService.moveFlashcards(List.of(ids.get(0), ids.get(1), ids.get(2), ids.get(3),
+                otherDeckFlashcard), from, to));
+
+        assertEquals(List.of(Event.UPDATE_DECK, Event.UPDATE_DECK), events.subList(events.size() - 2, events.size()));
+        assertEquals(2, flashcardDeckRepository.getFlashcardsFromDeck(from.getId()).size());
+        assertEquals(6, flashcardDeckRepository.getFlashcardsFromDeck(to.getId()).size());
+        assertEquals(List.of(to.getId()), flashcardDeckRepository.getDecksContainingFlashcard(ids.get(0)));
+    }
+}
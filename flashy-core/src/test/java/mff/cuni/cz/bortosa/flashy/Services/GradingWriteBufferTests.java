@@ -0,0 +1,91 @@
+package mff.cuni.cz.bortosa.flashy.Services;
+
+import mff.cuni.cz.bortosa.flashy.DatabaseOperations.DatabaseInitializer;
+import mff.cuni.cz.bortosa.flashy.DatabaseOperations.DatabaseManager;
+import mff.cuni.cz.bortosa.flashy.Models.Flashcard;
+import mff.cuni.cz.bortosa.flashy.Models.FlashcardProgress;
+import mff.cuni.cz.bortosa.flashy.Repositories.FlashcardsRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GradingWriteBufferTests {
+    @TempDir
+    Path tempDir;
+
+    private DatabaseManager databaseManager;
+    private FlashcardsRepository flashcardsRepository;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        databaseManager = new DatabaseManager("jdbc:sqlite:" + tempDir.resolve("test.db"), 2);
+        DatabaseInitializer.initializeDatabase(databaseManager);
+        flashcardsRepository = new FlashcardsRepository(databaseManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        databaseManager.close();
+    }
+
+    @Test
+    void testChangesOfTheSameFlashcardAreMerged() throws SQLException {
+        int id = flashcardsRepository.addFlashcard(new Flashcard("question", "answer", null));
+        try (GradingWriteBuffer buffer = new GradingWriteBuffer(flashcardsRepository, 60_000, 100)) {
+            buffer.record(new FlashcardProgress(id, Flashcard.State.LEARNING, null));
+            buffer.record(new FlashcardProgress(id, null, Flashcard.Difficulty.HARD));
+            buffer.record(new FlashcardProgress(id, Flashcard.State.LEARNT, null));
+            assertEquals(1, buffer.getPendingCount());
+
+            // nothing is written before the flush
+            assertEquals(Flashcard.State.CREATED, flashcardsRepository.getFlashcardById(id).getState());
+
+            assertEquals(1, buffer.flush());
+            assertEquals(0, buffer.getPendingCount());
+        }
+
+        Flashcard saved = flashcardsRepository.getFlashcardById(id);
+        assertEquals(Flashcard.State.LEARNT, saved.getState());
+        assertEquals(Flashcard.Difficulty.HARD, saved.getDifficulty());
+    }
+
+    @Test
+    void testCloseWritesThePendingChanges() throws SQLException {
+        int first = flashcardsRepository.addFlashcard(new Flashcard("first", "answer", null));
+        int second = flashcardsRepository.addFlashcard(new Flashcard("second", "answer", null));
+
+        GradingWriteBuffer buffer = new GradingWriteBuffer(flashcardsRepository, 60_000, 100);
+        buffer.record(new FlashcardProgress(first, Flashcard.State.TO_REVIEW, Flashcard.Difficulty.EASY));
+        buffer.record(new FlashcardProgress(second, null, Flashcard.Difficulty.MEDIUM));
+        buffer.close();
+
+        assertEquals(Flashcard.State.TO_REVIEW, flashcardsRepository.getFlashcardById(first).getState());
+        assertEquals(Flashcard.State.CREATED, flashcardsRepository.getFlashcardById(second).getState());
+        assertEquals(Flashcard.Difficulty.MEDIUM, flashcardsRepository.getFlashcardById(second).getDifficulty());
+        assertThrows(IllegalStateException.class,
+                () -> buffer.record(new FlashcardProgress(first, Flashcard.State.LEARNT, null)));
+    }
+
+    @Test
+    void testReachingTheThresholdTriggersAFlush() throws Exception {
+        int first = flashcardsRepository.addFlashcard(new Flashcard("first", "answer", null));
+        int second = flashcardsRepository.addFlashcard(new Flashcard("second", "answer", null));
+        try (GradingWriteBuffer buffer = new GradingWriteBuffer(flashcardsRepository, 60_000, 2)) {
+            buffer.record(new FlashcardProgress(first, Flashcard.State.LEARNT, null));
+            buffer.record(new FlashcardProgress(second, Flashcard.State.LEARNT, null));
+
+            long deadline = System.currentTimeMillis() + 5_000;
+            while (buffer.getPendingCount() > 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(0, buffer.getPendingCount());
+        }
+        assertEquals(Flashcard.State.LEARNT, flashcardsRepository.getFlashcardById(second).getState());
+    }
+}
@@ -0,0 +1,86 @@
+package mff.cuni.cz.bortosa.flashy.Services;
+
+import mff.cuni.cz.bortosa.flashy.DatabaseOperations.DatabaseInitializer;
+import mff.cuni.cz.bortosa.flashy.DatabaseOperations.DatabaseManager;
+import mff.cuni.cz.bortosa.flashy.Models.Deck;
+import mff.cuni.cz.bortosa.flashy.Models.Flashcard;
+import mff.cuni.cz.bortosa.flashy.Models.ReviewLogEntry;
+import mff.cuni.cz.bortosa.flashy.Repositories.DecksRepository;
+import mff.cuni.cz.bortosa.flashy.Repositories.FlashcardDeckRepository;
+import mff.cuni.cz.bortosa.flashy.Repositories.FlashcardsRepository;
+import mff.cuni.cz.bortosa.flashy.Repositories.StudySessionsRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReviewLogAppenderTests {
+    @TempDir
+    Path tempDir;
+
+    private DatabaseManager databaseManager;
+    private FlashcardsRepository flashcardsRepository;
+    private StudySessionsRepository studySessionsRepository;
+
+    @BeforeEach
+    void setUp() {
+        databaseManager = new DatabaseManager("jdbc:sqlite:" + tempDir.resolve("test.db"), 2);
+        DatabaseInitializer.initializeDatabase(databaseManager);
+        flashcardsRepository = new FlashcardsRepository(databaseManager);
+        studySessionsRepository = new StudySessionsRepository(databaseManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        databaseManager.close();
+    }
+
+    @Test
+    void testReviewsAreAppendedWhenFlushedOrClosed() throws SQLException {
+        int id = flashcardsRepository.addFlashcard(new Flashcard("question", "answer", null));
+        ReviewLogAppender appender = new ReviewLogAppender(studySessionsRepository, 60_000, 100);
+        appender.append(new ReviewLogEntry(id, 1_000, 4, 2_500, false));
+        appender.append(new ReviewLogEntry(id, 2_000, 1, 9_000, true));
+
+        assertEquals(2, appender.getPendingCount());
+        assertTrue(studySessionsRepository.getReviews(0, Long.MAX_VALUE).isEmpty());
+        assertEquals(2, appender.flush());
+
+        appender.append(new ReviewLogEntry(id, 3_000, 5, 800, false));
+        appender.close();
+        assertThrows(IllegalStateException.class, () -> appender.append(new ReviewLogEntry(id, 4_000, 5, 800, false)));
+
+        List<ReviewLogEntry> reviews = studySessionsRepository.getReviewsOfFlashcard(id, 0, Long.MAX_VALUE);
+        assertEquals(List.of(1_000L, 2_000L, 3_000L), reviews.stream().map(ReviewLogEntry::getReviewedAt).toList());
+        assertTrue(reviews.get(1).isHintUsed());
+        assertEquals(9_000, reviews.get(1).getAnswerMillis());
+    }
+
+    @Test
+    void testReviewsAreQueriedByDeckAndTimeWindow() throws SQLException {
+        Flashcard inDeck = new Flashcard("in deck", "answer", null);
+        Flashcard other = new Flashcard("other", "answer", null);
+        flashcardsRepository.addFlashcard(inDeck);
+        flashcardsRepository.addFlashcard(other);
+        Deck deck = new Deck("deck", null);
+        new DecksRepository(databaseManager).addDeck(deck);
+        new FlashcardDeckRepository(databaseManager).addFlashcardsToDeck(List.of(inDeck), deck.getId());
+
+        studySessionsRepository.addReviews(List.of(
+                new ReviewLogEntry(inDeck.getFlashcardId(), 100, 3, 1_000, false),
+                new ReviewLogEntry(other.getFlashcardId(), 200, 4, 1_000, false),
+                new ReviewLogEntry(inDeck.getFlashcardId(), 300, 5, 1_000, false)));
+
+        assertEquals(List.of(100L, 300L), studySessionsRepository.getReviewsOfDeck(deck.getId(), 0, 1_000)
+                .stream().map(ReviewLogEntry::getReviewedAt).toList());
+        assertEquals(List.of(100L, 200L), studySessionsRepository.getReviews(100, 300)
+                .stream().map(ReviewLogEntry::getReviewedAt).toList());
+        assertEquals(1, studySessionsRepository.getReviewsOfFlashcard(inDeck.getFlashcardId(), 101, 1_000).size());
+    }
+}
@@ -0,0 +1,48 @@
+package mff.cuni.cz.bortosa.flashy.Services;
+
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ServiceExecutorTests {
+
+    @Test
+    void testSubmitRunsOffTheCallingThread() throws Exception {
+        try (ServiceExecutor executor = new ServiceExecutor()) {
+            Thread caller = Thread.currentThread();
+            CompletableFuture<Thread> future = executor.submit(Thread::currentThread);
+            Thread worker = future.get();
+            assertNotSame(caller, worker);
+            assertTrue(worker.isVirtual());
+        }
+    }
+
+    @Test
+    void testCheckedExceptionsCompleteTheFuture() {
+        try (ServiceExecutor executor = new ServiceExecutor()) {
+            CompletableFuture<Void> future = executor.run(() -> {
+                throw new SQLException("database is locked");
+            });
+            ExecutionException e = assertThrows(ExecutionException.class, future::get);
+            assertInstanceOf(SQLException.class, e.getCause());
+        }
+    }
+
+    @Test
+    void testCloseWaitsForRunningCalls() {
+        AtomicBoolean finished = new AtomicBoolean();
+        ServiceExecutor executor = new ServiceExecutor();
+        executor.run(() -> {
+            Thread.sleep(100);
+            finished.set(true);
+        });
+        executor.close();
+        assertTrue(finished.get());
+        assertTrue(executor.submit(() -> 1).isCompletedExceptionally());
+    }
+}
@@ -0,0 +1,98 @@
+package mff.cuni.cz.bortosa.flashy.Services;
+
+import mff.cuni.cz.bortosa.flashy.DatabaseOperations.DatabaseInitializer;
+import mff.cuni.cz.bortosa.flashy.DatabaseOperations.DatabaseManager;
+import mff.cuni.cz.bortosa.flashy.Models.Flashcard;
+import mff.cuni.cz.bortosa.flashy.Models.FlashcardStatistics;
+import mff.cuni.cz.bortosa.flashy.Observer.Event;
+import mff.cuni.cz.bortosa.flashy.Repositories.FlashcardsRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StatisticsServiceTests {
+    @TempDir
+    Path tempDir;
+
+    private DatabaseManager databaseManager;
+    private FlashcardsRepository flashcardsRepository;
+    private GradingWriteBuffer gradingWriteBuffer;
+    private ServiceExecutor serviceExecutor;
+    private StatisticsService statisticsService;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        databaseManager = new DatabaseManager("jdbc:sqlite:" + tempDir.resolve("test.db"), 2);
+        DatabaseInitializer.initializeDatabase(databaseManager);
+        flashcardsRepository = new FlashcardsRepository(databaseManager);
+        gradingWriteBuffer = new GradingWriteBuffer(flashcardsRepository, 60_000, 100);
+        serviceExecutor = new ServiceExecutor();
+        statisticsService = new StatisticsService(flashcardsRepository, gradingWriteBuffer, serviceExecutor);
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        gradingWriteBuffer.close();
+        serviceExecutor.close();
+        databaseManager.close();
+    }
+
+    private Flashcard addFlashcard(String question) throws SQLException {
+        Flashcard flashcard = new Flashcard(question, "answer", null);
+        flashcardsRepository.addFlashcard(flashcard);
+        return flashcard;
+    }
+
+    @Test
+    void testCountsAreComputedFromTheDatabase() throws SQLException {
+        addFlashcard("first");
+        addFlashcard("second");
+
+        FlashcardStatistics statistics = statisticsService.getStatistics();
+        assertEquals(Map.of(Flashcard.State.CREATED, 2), statistics.getStateCounts());
+        assertEquals(Map.of(Flashcard.Difficulty.DEFAULT, 2), statistics.getDifficultyCounts());
+        assertEquals(2, statistics.getTotalFlashcards());
+    }
+
+    @Test
+    void testEventsKeepTheCountsCurrent() throws SQLException {
+        Flashcard first = addFlashcard("first");
+        statisticsService.getStatistics();
+
+        Flashcard second = addFlashcard("second");
+        statisticsService.update(Event.ADD_FLASHCARD, second);
+
+        first.setState(Flashcard.State.LEARNT);
+        first.setDifficulty(Flashcard.Difficulty.HARD);
+        flashcardsRepository.updateFlashcard(first);
+        statisticsService.update(Event.UPDATE_FLASHCARD, first);
+        statisticsService.update(Event.UPDATE_FLASHCARD, first); // repeated events are harmless
+
+        flashcardsRepository.deleteFlashcard(second.getFlashcardId());
+        statisticsService.update(Event.REMOVE_FLASHCARD, second);
+
+        FlashcardStatistics statistics = statisticsService.getStatistics();
+        assertEquals(Map.of(Flashcard.State.LEARNT, 1), statistics.getStateCounts());
+        assertEquals(Map.of(Flashcard.Difficulty.HARD, 1), statistics.getDifficultyCounts());
+        assertEquals(1, statistics.getTotalFlashcards());
+        assertTrue(statisticsService.verify());
+    }
+
+    @Test
+    void testVerifyRepairsCountsOutOfSync() throws SQLException {
+        addFlashcard("first");
+        statisticsService.getStatistics();
+
+        addFlashcard("added without an event");
+        assertFalse(statisticsService.verify());
+        assertEquals(2, statisticsService.getStatistics().getTotalFlashcards());
+        assertTrue(statisticsService.verify());
+    }
+}
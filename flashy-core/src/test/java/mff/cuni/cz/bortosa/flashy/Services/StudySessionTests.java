@@ -0,0 +1,78 @@
+package mff.cuni.cz.bortosa.flashy.Services;
+
+import mff.cuni.cz.bortosa.flashy.Models.Flashcard;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StudySessionTests {
+    private final ServiceExecutor serviceExecutor = new ServiceExecutor();
+
+    @AfterEach
+    void tearDown() {
+        serviceExecutor.close();
+    }
+
+    // a session over the flashcards with the IDs 1..count, counting the pages read
+    private static StudySession.PageLoader pagesOf(int count, AtomicInteger pagesRead) {
+        return (last, limit) -> {
+            pagesRead.incrementAndGet();
+            int first = last == null ? 1 : last.getFlashcardId() + 1;
+            List<Flashcard> page = new ArrayList<>();
+            for (int id = first; id <= count && page.size() < limit; id++) {
+                page.add(new Flashcard(id, "question " + id, "answer " + id, null,
+                        Flashcard.State.CREATED, Flashcard.Difficulty.DEFAULT));
+            }
+            return page;
+        };
+    }
+
+    private static Flashcard next(StudySession session) throws Exception {
+        return session.nextAsync().get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void testFlashcardsAreServedInOrderUntilTheEnd() throws Exception {
+        try (StudySession session = new StudySession(pagesOf(10, new AtomicInteger()), serviceExecutor, 4)) {
+            for (int id = 1; id <= 10; id++) {
+                assertEquals(id, next(session).getFlashcardId());
+            }
+            assertNull(next(session));
+            assertNull(next(session));
+            assertEquals(10, session.getServedCount());
+        }
+    }
+
+    @Test
+    void testPrefetchingStopsWhenTheBufferIsFull() throws Exception {
+        AtomicInteger pagesRead = new AtomicInteger();
+        try (StudySession session = new StudySession(pagesOf(1_000_000, pagesRead), serviceExecutor, 8)) {
+            assertEquals(1, next(session).getFlashcardId());
+            Thread.sleep(200); // give the producer time to run ahead
+
+            // the buffer holds one page and the producer waits with the next one
+            assertTrue(pagesRead.get() <= 3, "pages read: " + pagesRead.get());
+            assertTrue(session.getPrefetchedCount() <= 8);
+            assertEquals(2, next(session).getFlashcardId());
+        }
+    }
+
+    @Test
+    void testErrorsOfThePageLoaderEndTheSession() throws Exception {
+        StudySession.PageLoader failing = (last, limit) -> {
+            throw new SQLException("disk on fire");
+        };
+        try (StudySession session = new StudySession(failing, serviceExecutor, 4)) {
+            ExecutionException e = assertThrows(ExecutionException.class, () -> next(session));
+            assertInstanceOf(SQLException.class, e.getCause());
+        }
+    }
+}
@@ -17,12 +17,14 @@ import mff.cuni.cz.bortosa.flashy.Services.FlashcardService;
 import mff.cuni.cz.bortosa.flashy.Scenes.SceneType;
 import mff.cuni.cz.bortosa.flashy.Utils.AlertDialog;
 import mff.cuni.cz.bortosa.flashy.Utils.ComboBoxUtil;
+import mff.cuni.cz.bortosa.flashy.Utils.FxTasks;
 
 import java.net.URL;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.ResourceBundle;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Controller class for managing the scene responsible for creating and adding flashcards to decks.
@@ -74,18 +76,15 @@ public class AddingFlashcardController implements Initializable, SceneManaged, O
 
     private void loadDecksComboBox() {
         decks = FXCollections.observableArrayList();
-
-        try {
-            List<Deck> deckList = flashcardService.getAllDecks();
-            decks.setAll(deckList);
-
-            ComboBoxUtil.createDecksComboBox(decks, deckCombobox);
-
-        }
-        catch (SQLException e) {
-            e.printStackTrace();
-            AlertDialog.show(Alert.AlertType.ERROR, "Error", "Error fetching decks.");
-        }
+        ComboBoxUtil.createDecksComboBox(decks, deckCombobox);
+
+        // decks added while the list is being fetched are kept
+        FxTasks.handle(flashcardService.getAllDecksAsync(),
+                deckList -> decks.addAll(0, deckList.stream().filter(deck -> !decks.contains(deck)).toList()),
+                e -> {
+                    e.printStackTrace();
+                    AlertDialog.show(Alert.AlertType.ERROR, "Error", "Error fetching decks.");
+                });
     }
 
     /**
@@ -95,6 +94,7 @@ public class AddingFlashcardController implements Initializable, SceneManaged, O
      */
     @Override
     public void update(Event eventType, Object data) {
+        // delivered on the JavaFX thread by the event bus
         switch(eventType) {
             case ADD_DECK:
                 decks.add((Deck) data);
@@ -153,38 +153,43 @@ public class AddingFlashcardController implements Initializable, SceneManaged, O
      */
     @FXML
     public void onAddButtonAction(javafx.event.ActionEvent actionEvent) {
-        try {
-            String question = questionTextArea.getText().trim();
-            String answer = answerTextArea.getText().trim();
-            String hint = addHintRadioButton.isSelected() ? hintTextArea.getText().trim() : null;
-            Deck selectedDeck = deckCombobox.getSelectionModel().getSelectedItem();
-
-            // Validate inputs
-            if (question.isEmpty() || answer.isEmpty()) {
-                AlertDialog.show(Alert.AlertType.ERROR, "Error", "Question and Answer fields cannot be empty.");
-                return;
-            }
-
-            if (addHintRadioButton.isSelected() && (hint == null || hint.isEmpty())) {
-                AlertDialog.show(Alert.AlertType.ERROR, "Error", "Hint is required but empty.");
-                return;
-            }
-
-            if (createDeckRadioButton.isSelected() && newDeckTextField.getText().trim().isEmpty()){
-                AlertDialog.show(Alert.AlertType.ERROR, "Error", "Please provide the name of the new deck!");
-                return;
-            }
-
-            Flashcard flashcard = new Flashcard(question, answer, hint);
-            String newDeckName = newDeckTextField.getText().trim();
-            if (createDeckRadioButton.isSelected() && !newDeckName.isEmpty()) {
-                Deck newDeck = new Deck(newDeckName, "");
-                flashcardService.addFlashcardWithNewDeck(flashcard, newDeck);
-            } else if (selectedDeck != null) {
-                flashcardService.addFlashcardWithDeck(flashcard, selectedDeck);
-            } else {
-                flashcardService.addFlashcardWithoutDeck(flashcard);
-            }
+        String question = questionTextArea.getText().trim();
+        String answer = answerTextArea.getText().trim();
+        String hint = addHintRadioButton.isSelected() ? hintTextArea.getText().trim() : null;
+        Deck selectedDeck = deckCombobox.getSelectionModel().getSelectedItem();
+
+        // Validate inputs
+        if (question.isEmpty() || answer.isEmpty()) {
+            AlertDialog.show(Alert.AlertType.ERROR, "Error", "Question and Answer fields cannot be empty.");
+            return;
+        }
+
+        if (addHintRadioButton.isSelected() && (hint == null || hint.isEmpty())) {
+            AlertDialog.show(Alert.AlertType.ERROR, "Error", "Hint is required but empty.");
+            return;
+        }
+
+        if (createDeckRadioButton.isSelected() && newDeckTextField.getText().trim().isEmpty()){
+            AlertDialog.show(Alert.AlertType.ERROR, "Error", "Please provide the name of the new deck!");
+            return;
+        }
+
+        Flashcard flashcard = new Flashcard(question, answer, hint);
+        String newDeckName = newDeckTextField.getText().trim();
+        CompletableFuture<Void> saved;
+        if (createDeckRadioButton.isSelected() && !newDeckName.isEmpty()) {
+            Deck newDeck = new Deck(newDeckName, "");
+            saved = flashcardService.addFlashcardWithNewDeckAsync(flashcard, newDeck);
+        } else if (selectedDeck != null) {
+            saved = flashcardService.addFlashcardWithDeckAsync(flashcard, selectedDeck);
+        } else {
+            saved = flashcardService.addFlashcardWithoutDeckAsync(flashcard);
+        }
+
+        // the inputs are kept until the flashcard is saved, so they are not lost if saving fails
+        addFlashcardButton.setDisable(true);
+        FxTasks.handle(saved, _ -> {
+            addFlashcardButton.setDisable(false);
 
             // Clear input fields
             questionTextArea.clear();
@@ -198,13 +203,13 @@ public class AddingFlashcardController implements Initializable, SceneManaged, O
             newDeckTextField.setVisible(false);
 
             AlertDialog.show(Alert.AlertType.CONFIRMATION, "Flashcard added successfully!", null);
-        }
-        catch (SQLException e) {
-            if (e.getMessage().contains("decks.name_UNIQUE"))
+        }, e -> {
+            addFlashcardButton.setDisable(false);
+            if (e.getMessage() != null && e.getMessage().contains("UNIQUE constraint failed: decks.name"))
                 AlertDialog.show(Alert.AlertType.ERROR, "Error adding flashcard", "The new deck already exists.");
             else
                 AlertDialog.show(Alert.AlertType.ERROR, "Error adding flashcard.", e.getMessage());
-        }
+        });
     }
 
     /**
@@ -14,6 +14,7 @@ import mff.cuni.cz.bortosa.flashy.Scenes.SceneManager;
 import mff.cuni.cz.bortosa.flashy.Services.FlashcardService;
 import mff.cuni.cz.bortosa.flashy.Scenes.SceneType;
 import mff.cuni.cz.bortosa.flashy.Utils.AlertDialog;
+import mff.cuni.cz.bortosa.flashy.Utils.FxTasks;
 
 import java.net.URL;
 import java.sql.SQLException;
@@ -79,22 +80,23 @@ public class DeckController implements Initializable, SceneManaged {
      * @param actionEvent The action event triggered by clicking the button.
      */
     public void onAddButtonAction(javafx.event.ActionEvent actionEvent) {
-        try {
-            String name = nameTextField.getText().trim();
-            String description = descriptionRadioButton.isSelected() ?  descriptionTextField.getText().trim() : null;
+        String name = nameTextField.getText().trim();
+        String description = descriptionRadioButton.isSelected() ?  descriptionTextField.getText().trim() : null;
 
-            if(name.isEmpty()){
-                AlertDialog.show(Alert.AlertType.ERROR, "Error", "The name field cannot be empty!");
-                return;
-            }
+        if(name.isEmpty()){
+            AlertDialog.show(Alert.AlertType.ERROR, "Error", "The name field cannot be empty!");
+            return;
+        }
 
-            if (descriptionRadioButton.isSelected() && description.isEmpty()) {
-                AlertDialog.show(Alert.AlertType.ERROR, "Error", "Please provide the description of the new deck!");
-                return;
-            }
+        if (descriptionRadioButton.isSelected() && description.isEmpty()) {
+            AlertDialog.show(Alert.AlertType.ERROR, "Error", "Please provide the description of the new deck!");
+            return;
+        }
 
-            Deck newDeck = new Deck(name, description);
-            flashcardService.addDeck(newDeck);
+        Deck newDeck = new Deck(name, description);
+        addButton.setDisable(true);
+        FxTasks.handle(flashcardService.addDeckAsync(newDeck), _ -> {
+            addButton.setDisable(false);
 
             // Clear input fields
             nameTextField.clear();
@@ -103,10 +105,13 @@ public class DeckController implements Initializable, SceneManaged {
             descriptionTextField.setVisible(false);
 
             AlertDialog.show(Alert.AlertType.CONFIRMATION, "Deck added successfully!", null);
-
-        } catch (SQLException e) {
-            AlertDialog.show(Alert.AlertType.ERROR, "Error adding deck.", e.getMessage());
-        }
+        }, e -> {
+            addButton.setDisable(false);
+            if (e.getMessage() != null && e.getMessage().contains("UNIQUE constraint failed: decks.name"))
+                AlertDialog.show(Alert.AlertType.ERROR, "Error adding deck.", "A deck with this name already exists.");
+            else
+                AlertDialog.show(Alert.AlertType.ERROR, "Error adding deck.", e.getMessage());
+        });
     }
 
     /**
@@ -99,6 +99,9 @@ public class MainController implements Initializable, SceneManaged, Observer {
     @FXML
     public Button exportDeckButton;
 
+    @FXML
+    private ProgressIndicator decksLoadingIndicator;
+
     private TitledPane currentlyExpandedPane = null; // Track the expanded pane in the decks view
 
     public MainController(FlashcardService flashcardService) {
@@ -146,16 +149,16 @@ public class MainController implements Initializable, SceneManaged, Observer {
             }
         });
 
-        try{
-            List<Deck> decksFromDB = flashcardService.getAllDecks();
-            decks.addAll(decksFromDB);
-            decksListView.setItems(decks);
-            decksListView.setOnMousePressed(_ -> decksListView.getSelectionModel().clearSelection());
-        }
-        catch (SQLException e){
-            e.printStackTrace();
-            AlertDialog.show(Alert.AlertType.ERROR, "Error", "Error fetching decks");
-        }
+        decksListView.setItems(decks);
+        decksListView.setOnMousePressed(_ -> decksListView.getSelectionModel().clearSelection());
+
+        // the decks are fetched in the background, decks added in the meantime are kept
+        FxTasks.handle(flashcardService.getAllDecksAsync(), decksLoadingIndicator,
+                decksFromDB -> decks.addAll(0, decksFromDB.stream().filter(deck -> !decks.contains(deck)).toList()),
+                e -> {
+                    e.printStackTrace();
+                    AlertDialog.show(Alert.AlertType.ERROR, "Error", "Error fetching decks");
+                });
     }
 
     @Override
@@ -175,6 +178,7 @@ public class MainController implements Initializable, SceneManaged, Observer {
 
     @Override
     public void update(Event eventType, Object data) {
+        // delivered on the JavaFX thread by the event bus
         switch(eventType){
             case ADD_DECK:
                 decks.add((Deck) data);
@@ -229,8 +233,12 @@ public class MainController implements Initializable, SceneManaged, Observer {
             initializeStudySessionInfoDialog();
             Button okButton = (Button) studySessionInfoPane.lookupButton(ButtonType.OK);
             okButton.addEventFilter(ActionEvent.ACTION, event -> {
-                if (chooseStudyModeCombobox.getSelectionModel().getSelectedItem() == null ||
-                        chooseDifficultyCombobox.getSelectionModel().getSelectedItem() == null) {
+                String selectedMode = chooseStudyModeCombobox.getSelectionModel().getSelectedItem();
+                // a "due today" session covers every deck, the other modes study the chosen one
+                boolean deckRequired = !StudySessionController.StudyMode.DUE.getName().equals(selectedMode);
+                if (selectedMode == null ||
+                        chooseDifficultyCombobox.getSelectionModel().getSelectedItem() == null ||
+                        (deckRequired && chooseDeckCombobox.getSelectionModel().getSelectedItem() == null)) {
                     AlertDialog.show(Alert.AlertType.ERROR, "Error", "Please select all the required fields!");
                     event.consume();
                 }
@@ -271,12 +279,10 @@ public class MainController implements Initializable, SceneManaged, Observer {
         String selectedDifficulty = chooseDifficultyCombobox.getSelectionModel().getSelectedItem();
 
         StudySessionController controller = (StudySessionController) sceneManager.getController(SceneType.STUDY_SESSION);
-        controller.setCurrentDeckID(deck.getId());
-        //!!
-        if(selectedMode == StudySessionController.StudyMode.TO_REVIEW.getName())
-            controller.setStudyMode(StudySessionController.StudyMode.TO_REVIEW);
-        else
-            controller.setStudyMode(StudySessionController.StudyMode.valueOf(selectedMode));
+        if (deck != null) {
+            controller.setCurrentDeckID(deck.getId());
+        }
+        controller.setStudyMode(StudySessionController.StudyMode.fromName(selectedMode));
         controller.setStudySessionDifficulty(StudySessionController.StudySessionDifficulty.valueOf(selectedDifficulty));
 
         sceneManager.switchTo(SceneType.STUDY_SESSION);
@@ -289,13 +295,17 @@ public class MainController implements Initializable, SceneManaged, Observer {
     public void onDeleteButtonAction(ActionEvent actionEvent) {
 //        Deck selectedDeck = decksListView.getSelectionModel().getSelectedItem();
         if (currentlyExpandedPane != null) {
-            try {
-                flashcardService.deleteDeckByName(currentlyExpandedPane.getText().trim());
-                AlertDialog.show(Alert.AlertType.CONFIRMATION, "Confirmation", "Deck successfully deleted!");
-            } catch (SQLException e) {
-                e.printStackTrace();
-                AlertDialog.show(Alert.AlertType.ERROR, "Error", "Error deleting deck");
-            }
+            deleteDeckButton.setDisable(true);
+            FxTasks.handle(flashcardService.deleteDeckByNameAsync(currentlyExpandedPane.getText().trim()), decksLoadingIndicator,
+                    _ -> {
+                        deleteDeckButton.setDisable(false);
+                        AlertDialog.show(Alert.AlertType.CONFIRMATION, "Confirmation", "Deck successfully deleted!");
+                    },
+                    e -> {
+                        deleteDeckButton.setDisable(false);
+                        e.printStackTrace();
+                        AlertDialog.show(Alert.AlertType.ERROR, "Error", "Error deleting deck");
+                    });
         } else {
             AlertDialog.show(Alert.AlertType.ERROR, "Error", "No deck selected");
         }
@@ -329,13 +339,17 @@ public class MainController implements Initializable, SceneManaged, Observer {
 
         Optional<String> result = GetFileNameDialog.show(title, content);
         result.ifPresent(fileName -> {
-            try {
-                flashcardService.exportDeckToCSV(currentlyExpandedPane.getText().trim(), fileName.trim());
-                AlertDialog.show(Alert.AlertType.INFORMATION, "Confirmation", "Deck successfully exported!");
-            } catch(SQLException | IOException e){
-                e.printStackTrace();
-                AlertDialog.show(Alert.AlertType.ERROR, "Error", "Error exporting deck");
-            }
+            exportDeckButton.setDisable(true);
+            FxTasks.handle(flashcardService.exportDeckToCSVAsync(currentlyExpandedPane.getText().trim(), fileName.trim()), decksLoadingIndicator,
+                    _ -> {
+                        exportDeckButton.setDisable(false);
+                        AlertDialog.show(Alert.AlertType.INFORMATION, "Confirmation", "Deck successfully exported!");
+                    },
+                    e -> {
+                        exportDeckButton.setDisable(false);
+                        e.printStackTrace();
+                        AlertDialog.show(Alert.AlertType.ERROR, "Error", "Error exporting deck");
+                    });
         });
     }
 
@@ -0,0 +1,402 @@
+package mff.cuni.cz.bortosa.flashy.Controllers;
+
+import javafx.animation.PauseTransition;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.ObservableValue;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.event.ActionEvent;
+import javafx.fxml.FXML;
+import javafx.fxml.FXMLLoader;
+import javafx.fxml.Initializable;
+import javafx.scene.control.*;
+import javafx.util.Duration;
+import mff.cuni.cz.bortosa.flashy.Models.Deck;
+import mff.cuni.cz.bortosa.flashy.Models.Flashcard;
+import mff.cuni.cz.bortosa.flashy.Models.FlashcardProgress;
+import mff.cuni.cz.bortosa.flashy.Models.SearchResult;
+import mff.cuni.cz.bortosa.flashy.Observer.Event;
+import mff.cuni.cz.bortosa.flashy.Observer.Notification;
+import mff.cuni.cz.bortosa.flashy.Observer.Observer;
+import mff.cuni.cz.bortosa.flashy.Scenes.SceneManaged;
+import mff.cuni.cz.bortosa.flashy.Scenes.SceneManager;
+import mff.cuni.cz.bortosa.flashy.Services.FlashcardService;
+import mff.cuni.cz.bortosa.flashy.Scenes.SceneType;
+import mff.cuni.cz.bortosa.flashy.Utils.AlertDialog;
+import mff.cuni.cz.bortosa.flashy.Utils.FxTasks;
+import mff.cuni.cz.bortosa.flashy.Utils.HighlightedTextCell;
+import mff.cuni.cz.bortosa.flashy.Utils.PagedFlashcardList;
+
+import java.net.URL;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.ResourceBundle;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Controller class for managing the scene responsible for displaying the existing flashcards, deleting and
+ * updating them.
+ * Implements {@link Initializable}, {@link SceneManaged}, and {@link Observer} to handle UI initialization,
+ * scene management, and event updates respectively.
+ */
+public class ModifyingFlashcardController implements Initializable, SceneManaged, Observer {
+    private static final int SEARCH_RESULTS_LIMIT = 200;
+    private static final Duration SEARCH_DELAY = Duration.millis(250);
+
+    private final FlashcardService flashcardService;
+    private SceneManager sceneManager;
+
+    // all flashcards, fetched page by page while scrolling
+    private PagedFlashcardList flashcards;
+
+    // results of the current search, shown instead of all flashcards while the search box is not empty
+    private final ObservableList<Flashcard> searchResults = FXCollections.observableArrayList();
+    private final Map<Integer, SearchResult> highlightsById = new HashMap<>();
+    private final PauseTransition searchDelay = new PauseTransition(SEARCH_DELAY);
+    // incremented by every search, so that the results of an outdated search are ignored
+    private int searchGeneration;
+
+    @FXML
+    public TableView<Flashcard> flashcardsTableView;
+
+    @FXML
+    private TableColumn<Flashcard, String> questionColumn;
+
+    @FXML
+    private TableColumn<Flashcard, String> answerColumn;
+
+    @FXML
+    private TableColumn<Flashcard, String> hintColumn;
+
+    @FXML
+    private TableColumn<Flashcard, String> stateColumn;
+
+    @FXML
+    private TableColumn<Flashcard, String> difficultyColumn;
+
+    @FXML
+    public Label titleLabel;
+
+    @FXML
+    public Button editButton;
+
+    @FXML
+    public Button deleteButton;
+
+    @FXML
+    public Button backButton;
+
+    @FXML
+    private TextArea editAnswerTextArea;
+
+    @FXML
+    private ComboBox<String> editDifficultyCombobox;
+
+    @FXML
+    private TextArea editHintTextArea;
+
+    @FXML
+    private TextArea editQuestionTextArea;
+
+    @FXML
+    private ComboBox<String> editStateCombobox;
+
+    @FXML
+    private ProgressIndicator flashcardsLoadingIndicator;
+
+    @FXML
+    private TextField searchTextField;
+
+    public ModifyingFlashcardController(FlashcardService flashcardService){
+        this.flashcardService = flashcardService;
+    }
+
+    private void initializeFlashcardsTableView(){
+        flashcards = new PagedFlashcardList(flashcardService::getFlashcardsPageAsync, e -> {
+            e.printStackTrace();
+            AlertDialog.show(Alert.AlertType.ERROR, "Error", "Error fetching flashcards");
+        });
+
+        // Define the Cell Value Factory for each column, rows whose page is still loading are null
+        questionColumn.setCellValueFactory(cellData ->
+                new SimpleStringProperty(cellData.getValue() == null ? null : cellData.getValue().getQuestion()));
+
+        answerColumn.setCellValueFactory(cellData ->
+                new SimpleStringProperty(cellData.getValue() == null ? null : cellData.getValue().getAnswer()));
+
+        hintColumn.setCellValueFactory(cellData ->
+                new SimpleStringProperty(cellData.getValue() == null ? null : cellData.getValue().getHint()));
+
+        stateColumn.setCellValueFactory(cellData ->
+                new SimpleStringProperty(cellData.getValue() == null ? null : cellData.getValue().getState().toString()));
+
+        difficultyColumn.setCellValueFactory(cellData ->
+                new SimpleStringProperty(cellData.getValue() == null ? null : cellData.getValue().getDifficulty().toString()));
+
+        // While searching, the text columns show the matching terms in bold
+        questionColumn.setCellFactory(_ -> new HighlightedTextCell<>(flashcard -> highlightOf(flashcard, SearchResult::getHighlightedQuestion)));
+        answerColumn.setCellFactory(_ -> new HighlightedTextCell<>(flashcard -> highlightOf(flashcard, SearchResult::getHighlightedAnswer)));
+        hintColumn.setCellFactory(_ -> new HighlightedTextCell<>(flashcard -> highlightOf(flashcard, SearchResult::getHighlightedHint)));
+
+        flashcardsTableView.setItems(flashcards);
+
+        // Fetch only the IDs of the flashcards in the background, the table then loads the pages it shows.
+        // The flashcards added in the meantime are kept by the list.
+        FxTasks.handle(flashcardService.getFlashcardIdsAsync(), flashcardsLoadingIndicator,
+                flashcards::setIds,
+                e -> {
+                    e.printStackTrace();
+                    AlertDialog.show(Alert.AlertType.ERROR, "Error", "Error fetching flashcards");
+                });
+    }
+
+    // The search runs once the user stops typing for a moment instead of on every key stroke
+    private void initializeSearch() {
+        searchDelay.setOnFinished(_ -> search(searchTextField.getText()));
+        searchTextField.textProperty().addListener((_, _, newText) -> {
+            if (newText == null || newText.isBlank()) {
+                searchDelay.stop();
+                showAllFlashcards();
+            } else {
+                searchDelay.playFromStart();
+            }
+        });
+    }
+
+    private void search(String query) {
+        int generation = ++searchGeneration;
+        FxTasks.handle(flashcardService.searchAsync(query, SEARCH_RESULTS_LIMIT, 0), flashcardsLoadingIndicator,
+                results -> {
+                    if (generation != searchGeneration) {
+                        return; // the query changed while searching
+                    }
+                    highlightsById.clear();
+                    List<Flashcard> found = new ArrayList<>(results.size());
+                    for (SearchResult result : results) {
+                        highlightsById.put(result.getFlashcard().getFlashcardId(), result);
+                        found.add(result.getFlashcard());
+                    }
+                    searchResults.setAll(found);
+                    flashcardsTableView.setItems(searchResults);
+                },
+                e -> {
+                    e.printStackTrace();
+                    AlertDialog.show(Alert.AlertType.ERROR, "Error", "Error searching flashcards");
+                });
+    }
+
+    private void showAllFlashcards() {
+        searchGeneration++;
+        highlightsById.clear();
+        searchResults.clear();
+        flashcardsTableView.setItems(flashcards);
+    }
+
+    private String highlightOf(Flashcard flashcard, Function<SearchResult, String> highlightedText) {
+        SearchResult result = highlightsById.get(flashcard.getFlashcardId());
+        return result != null ? highlightedText.apply(result) : null;
+    }
+
+    @Override
+    public void initialize(URL url, ResourceBundle resourceBundle) {
+        initializeFlashcardsTableView();
+        initializeSearch();
+    }
+
+    @Override
+    public void setSceneManager(SceneManager sceneManager) {
+        this.sceneManager = sceneManager;
+    }
+
+    @Override
+    public void onReloadSceneAction() {
+    }
+
+    /**
+     * Handles updates when a flashcard is added, removed or updated.
+     * @param eventType The type of event that occurred.
+     * @param data The data associated with the event (e.g., a new or removed flashcard).
+     */
+    @Override
+    public void update(Event eventType, Object data) {
+        // delivered on the JavaFX thread by the event bus
+        switch (eventType) {
+            case ADD_FLASHCARD:
+                flashcards.flashcardAdded((Flashcard) data);
+                break;
+            case REMOVE_FLASHCARD:
+                flashcards.flashcardRemoved((Flashcard) data);
+                searchResults.remove((Flashcard) data);
+                break;
+            case UPDATE_FLASHCARD:
+                Flashcard updated = (Flashcard) data;
+                flashcards.flashcardUpdated(updated);
+                // the highlighted text of the search result may no longer match the flashcard
+                highlightsById.remove(updated.getFlashcardId());
+                int resultIndex = searchResults.indexOf(updated);
+                if (resultIndex != -1) {
+                    searchResults.set(resultIndex, updated);
+                }
+                break;
+            case ADD_FLASHCARDS:
+                for (Object added : (List<?>) data) {
+                    flashcards.flashcardAdded((Flashcard) added);
+                }
+                break;
+            case REMOVE_FLASHCARDS:
+                Set<Integer> removedIds = new HashSet<>();
+                for (Object id : (List<?>) data) {
+                    removedIds.add((Integer) id);
+                }
+                flashcards.flashcardsRemoved(removedIds);
+                searchResults.removeIf(flashcard -> removedIds.contains(flashcard.getFlashcardId()));
+                break;
+            case UPDATE_FLASHCARDS:
+                Map<Integer, FlashcardProgress> changes = new HashMap<>();
+                for (Object change : (List<?>) data) {
+                    FlashcardProgress progress = (FlashcardProgress) change;
+                    changes.put(progress.getFlashcardId(), progress);
+                }
+                flashcards.flashcardsChanged(changes.keySet());
+                searchResults.replaceAll(flashcard -> {
+                    FlashcardProgress progress = changes.get(flashcard.getFlashcardId());
+                    return progress != null ? withProgress(flashcard, progress) : flashcard;
+                });
+                break;
+            default:
+                break;
+        }
+    }
+
+    private static Flashcard withProgress(Flashcard flashcard, FlashcardProgress progress) {
+        Flashcard updated = new Flashcard(flashcard);
+        updated.setState(progress.getState());
+        updated.setDifficulty(progress.getDifficulty());
+        updated.setSchedule(progress.getSchedule());
+        return updated;
+    }
+
+    // A whole batch of events, such as the flashcards of an import, reaches the table as a single list change
+    @Override
+    public void updateAll(List<Notification> notifications) {
+        flashcards.applyChanges(() -> Observer.super.updateAll(notifications));
+    }
+
+    @FXML
+    public void onBackButtonAction(javafx.event.ActionEvent actionEvent) {
+        sceneManager.switchTo(SceneType.MAIN_MENU);
+    }
+
+    /**
+     * Handles the action of editing a flashcard. It creates a new dialog with all the fields the user
+     * can update, already initialized with the flashcard's current information.
+     * @param actionEvent - The action event triggered by clicking the button.
+     */
+    @FXML
+    public void onEditButtonAction(javafx.event.ActionEvent actionEvent) {
+        Flashcard selectedFlashcard = flashcardsTableView.getSelectionModel().getSelectedItem();
+        if (selectedFlashcard == null) {
+            AlertDialog.show(Alert.AlertType.ERROR, "Error", "No flashcard selected");
+        }
+        else{
+            try {
+                FXMLLoader loader = new FXMLLoader(getClass().getResource("/Fxml/EditFlashcard-View.fxml"));
+                loader.setController(this);
+                DialogPane editFlashcardPane = loader.load();
+
+                Dialog<ButtonType> editFlashcardDialog = new Dialog<>();
+                editFlashcardDialog.setDialogPane(editFlashcardPane);
+                initializeEditDialogComponents(selectedFlashcard);
+                Button applyButton = (Button) editFlashcardPane.lookupButton(ButtonType.APPLY);
+                applyButton.addEventFilter(ActionEvent.ACTION, event -> {
+                    if (editStateCombobox.getSelectionModel().getSelectedItem() == null ||
+                            editDifficultyCombobox.getSelectionModel().getSelectedItem() == null ||
+                            editQuestionTextArea.getText().isEmpty() || editAnswerTextArea.getText().isEmpty()) {
+                        AlertDialog.show(Alert.AlertType.ERROR, "Error", "Please make sure all required fields are correct!");
+                        event.consume();
+                    }
+                });
+                Optional<ButtonType> clickedButton = editFlashcardDialog.showAndWait();
+
+                if (clickedButton.get() == ButtonType.APPLY) {
+                    FxTasks.handle(updateFlashcardInfo(selectedFlashcard), flashcardsLoadingIndicator,
+                            _ -> AlertDialog.show(Alert.AlertType.INFORMATION, "Success", "Flashcard updated successfully"),
+                            e -> {
+                                e.printStackTrace();
+                                AlertDialog.show(Alert.AlertType.ERROR, "Error", "Error updating flashcard");
+                            });
+                }
+            }
+            catch(Exception e){
+                AlertDialog.show(Alert.AlertType.ERROR, "Error", "Error editing flashcard");
+            }
+        }
+    }
+
+    private void initializeEditDialogComponents(Flashcard flashcard){
+        editAnswerTextArea.setText(flashcard.getAnswer());
+        editQuestionTextArea.setText(flashcard.getQuestion());
+        String hint = flashcard.getHint();
+        if(hint != null)
+            editHintTextArea.setText(hint);
+
+        editStateCombobox.getItems().addAll(
+                Stream.of(Flashcard.State.values())
+                        .map(Flashcard.State::name)
+                        .toList()
+        );
+        editStateCombobox.getSelectionModel().select(flashcard.getState().toString());
+
+        editDifficultyCombobox.getItems().addAll(
+                Stream.of(Flashcard.Difficulty.values())
+                        .map(Flashcard.Difficulty::name)
+                        .toList()
+        );
+        editDifficultyCombobox.getSelectionModel().select(flashcard.getDifficulty().toString());
+    }
+
+    private CompletableFuture<Void> updateFlashcardInfo(Flashcard flashcard) {
+        String newQuestion = editQuestionTextArea.getText();
+        String newAnswer = editAnswerTextArea.getText();
+        String newHint = editHintTextArea.getText();
+        String newState = editStateCombobox.getSelectionModel().getSelectedItem();
+        String newDifficulty = editDifficultyCombobox.getSelectionModel().getSelectedItem();
+
+        flashcard.setQuestion(newQuestion);
+        flashcard.setAnswer(newAnswer);
+        flashcard.setHint(newHint);
+        flashcard.setState(Flashcard.State.valueOf(newState));
+        flashcard.setDifficulty(Flashcard.Difficulty.valueOf(newDifficulty));
+
+        return flashcardService.updateFlashcardAsync(flashcard);
+    }
+
+    /**
+     * Handles deleting a flashcard from the list.
+     * @param actionEvent - The action event triggered by clicking the button.
+     */
+    @FXML
+    public void onDeleteButtonAction(javafx.event.ActionEvent actionEvent) {
+        Flashcard selectedFlashcard = flashcardsTableView.getSelectionModel().getSelectedItem();
+        if (selectedFlashcard != null) {
+            FxTasks.handle(flashcardService.deleteFlashcardWithDecksAsync(selectedFlashcard.getFlashcardId()), flashcardsLoadingIndicator,
+                    _ -> {},
+                    e -> {
+                        e.printStackTrace();
+                        AlertDialog.show(Alert.AlertType.ERROR, "Error", "Error deleting flashcard");
+                    });
+        } else {
+            AlertDialog.show(Alert.AlertType.ERROR, "Error", "No flashcard selected");
+        }
+    }
+
+}
@@ -5,12 +5,14 @@ import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
 import javafx.scene.chart.PieChart;
 import javafx.scene.control.Button;
+import javafx.scene.control.ProgressIndicator;
 import mff.cuni.cz.bortosa.flashy.Models.Flashcard;
 import mff.cuni.cz.bortosa.flashy.Observer.Observer;
 import mff.cuni.cz.bortosa.flashy.Scenes.SceneManaged;
 import mff.cuni.cz.bortosa.flashy.Scenes.SceneManager;
 import mff.cuni.cz.bortosa.flashy.Scenes.SceneType;
-import mff.cuni.cz.bortosa.flashy.Services.FlashcardService;
+import mff.cuni.cz.bortosa.flashy.Services.StatisticsService;
+import mff.cuni.cz.bortosa.flashy.Utils.FxTasks;
 
 import java.net.URL;
 import java.sql.SQLException;
@@ -25,7 +27,7 @@ import java.util.ResourceBundle;
 public class StatisticsController implements Initializable, SceneManaged {
     public Button exitButtton;
     private SceneManager sceneManager;
-    private final FlashcardService flashcardService;
+    private final StatisticsService statisticsService;
 
     @FXML
     public PieChart statePieChart;
@@ -33,8 +35,11 @@ public class StatisticsController implements Initializable, SceneManaged {
     @FXML
     public PieChart difficultyPieChart;
 
-    public StatisticsController(FlashcardService flashcardService) {
-        this.flashcardService = flashcardService;
+    @FXML
+    private ProgressIndicator statisticsLoadingIndicator;
+
+    public StatisticsController(StatisticsService statisticsService) {
+        this.statisticsService = statisticsService;
     }
 
     @Override
@@ -53,31 +58,27 @@ public class StatisticsController implements Initializable, SceneManaged {
     }
 
     /**
-     * Populates the pie charts according to the current statistics (state and difficulty)
+     * Populates the pie charts according to the current statistics (state and difficulty).
+     * The counts are kept current by the statistics service, only the first request reads the database.
      */
     public void updatePieCharts(){
-        try {
-            // Fetch data for flashcards by state and difficulty
-            Map<Flashcard.State, Integer> stateCountMap = flashcardService.getFlashcardsByState();
-            Map<Flashcard.Difficulty, Integer> difficultyCountMap = flashcardService.getFlashcardsByDifficulty();
-
-            // Update the state pie chart
-            statePieChart.getData().clear();
-            for (Map.Entry<Flashcard.State, Integer> entry : stateCountMap.entrySet()) {
-                PieChart.Data data = new PieChart.Data(entry.getKey().toString(), entry.getValue());
-                statePieChart.getData().add(data);
-            }
+        FxTasks.handle(statisticsService.getStatisticsAsync(), statisticsLoadingIndicator,
+                statistics -> {
+                    // Update the state pie chart
+                    statePieChart.getData().clear();
+                    for (Map.Entry<Flashcard.State, Integer> entry : statistics.getStateCounts().entrySet()) {
+                        PieChart.Data data = new PieChart.Data(entry.getKey().toString(), entry.getValue());
+                        statePieChart.getData().add(data);
+                    }
 
-            // Update the difficulty pie chart
-            difficultyPieChart.getData().clear();
-            for (Map.Entry<Flashcard.Difficulty, Integer> entry : difficultyCountMap.entrySet()) {
-                PieChart.Data data = new PieChart.Data(entry.getKey().toString(), entry.getValue());
-                difficultyPieChart.getData().add(data);
-            }
-        }
-        catch (SQLException e) {
-            e.printStackTrace();
-        }
+                    // Update the difficulty pie chart
+                    difficultyPieChart.getData().clear();
+                    for (Map.Entry<Flashcard.Difficulty, Integer> entry : statistics.getDifficultyCounts().entrySet()) {
+                        PieChart.Data data = new PieChart.Data(entry.getKey().toString(), entry.getValue());
+                        difficultyPieChart.getData().add(data);
+                    }
+                },
+                Throwable::printStackTrace);
     }
 
     /**
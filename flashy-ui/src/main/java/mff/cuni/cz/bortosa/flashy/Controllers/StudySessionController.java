@@ -0,0 +1,361 @@
+package mff.cuni.cz.bortosa.flashy.Controllers;
+
+import javafx.event.ActionEvent;
+import javafx.fxml.FXML;
+import javafx.fxml.Initializable;
+import javafx.scene.control.*;
+import mff.cuni.cz.bortosa.flashy.Models.Flashcard;
+import mff.cuni.cz.bortosa.flashy.Observer.Observer;
+import mff.cuni.cz.bortosa.flashy.Scenes.SceneManaged;
+import mff.cuni.cz.bortosa.flashy.Scenes.SceneManager;
+import mff.cuni.cz.bortosa.flashy.Scenes.SceneType;
+import mff.cuni.cz.bortosa.flashy.Services.StudySession;
+import mff.cuni.cz.bortosa.flashy.Services.StudySessionService;
+import mff.cuni.cz.bortosa.flashy.Utils.AlertDialog;
+import mff.cuni.cz.bortosa.flashy.Utils.ConfirmationDialog;
+import mff.cuni.cz.bortosa.flashy.Utils.FxTasks;
+
+import java.net.URL;
+import java.sql.SQLException;
+import java.util.ResourceBundle;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Controller class for managing the scene responsible for handling the study session.
+ * It provides a means of going through the filtered list of flashcards in order to learn them,
+ * updating the information about their state and difficulty if needed.
+ * The user can see the answer for a specific flashcard only by pressing a button. The same goes for seeing a hint.
+ * Implements {@link Initializable}, {@link SceneManaged}, and {@link Observer} to handle UI initialization,
+ * scene management, and event updates respectively.
+ */
+public class StudySessionController implements Initializable, SceneManaged {
+
+    public enum StudyMode {
+        CREATED("CREATED"),
+        LEARNT("LEARNT"),
+        LEARNING("LEARNING"),
+        TO_REVIEW("TO REVIEW"),
+        ALL("ALL"),
+        // the flashcards of all decks scheduled for a review today
+        DUE("DUE TODAY");
+
+        private String name;
+
+        StudyMode(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        // the flashcard state studied in this mode, null if every state is included
+        public Flashcard.State toState() {
+            return this == ALL || this == DUE ? null : Flashcard.State.valueOf(name());
+        }
+
+        // the mode with the given display name
+        public static StudyMode fromName(String name) {
+            for (StudyMode mode : values()) {
+                if (mode.name.equals(name)) {
+                    return mode;
+                }
+            }
+            throw new IllegalArgumentException("Unknown study mode: " + name);
+        }
+    }
+
+    public enum StudySessionDifficulty {
+        EASY, MEDIUM, HARD, DEFAULT, ALL;
+
+        // the flashcard difficulty studied, null if every difficulty is included
+        public Flashcard.Difficulty toDifficulty() {
+            return this == ALL ? null : Flashcard.Difficulty.valueOf(name());
+        }
+    }
+
+    private final StudySessionService studySessionService;
+    private SceneManager sceneManager;
+    private int currentDeckID;
+    private Flashcard currentFlashcard; // null while no flashcard can be answered
+    private StudyMode studyMode;
+    private StudySessionDifficulty sessionDifficulty;
+    private StudySession session; // fetches the flashcards of the session ahead of the user
+    private int sessionGeneration; // identifies the latest session, so that stale loads are ignored
+    private long questionShownAt; // System.nanoTime() when the current question was shown
+    private long answerShownAt; // System.nanoTime() when the answer was revealed, 0 if it was not
+    private boolean hintUsed;
+
+    @FXML
+    private Label cardDifficultyLabel;
+
+    @FXML
+    private RadioButton easyDifficultyRadioButton;
+
+    @FXML
+    private RadioButton hardDifficultyRadioButton;
+
+    @FXML
+    private RadioButton mediumDifficultyRadioButton;
+
+    @FXML
+    private Button nextFlashcardButton;
+
+    @FXML
+    private TextArea questionTextArea;
+
+    @FXML
+    private Button showAnswerButton;
+
+    @FXML
+    public Button exitSessionButton;
+
+    @FXML
+    public TextArea answerTextArea;
+
+    @FXML
+    public Button showHintButton;
+
+    @FXML
+    public ToggleGroup difficulty;
+
+    @FXML
+    public TextArea hintTextArea;
+
+    @FXML
+    public ToggleGroup answerKnew;
+
+    @FXML
+    public RadioButton yesRadioButton;
+
+    @FXML
+    public RadioButton noRadioButton;
+
+    @FXML
+    public RadioButton toReviewRadioButton;
+
+    @FXML
+    private ProgressIndicator sessionLoadingIndicator;
+
+    public StudySessionController(StudySessionService studySessionService) {
+        this.studySessionService = studySessionService;
+    }
+
+    @Override
+    public void initialize(URL url, ResourceBundle resourceBundle) {
+
+    }
+
+    @Override
+    public void setSceneManager(SceneManager sceneManager) {
+        this.sceneManager = sceneManager;
+    }
+
+    /**
+     * Resets certain UI elements when a new study session is created, ensuring the user starts seeing
+     * the filtered flashcard from the beginning of the selected deck.
+     */
+    @Override
+    public void onReloadSceneAction() {
+        int generation = ++sessionGeneration;
+
+        // no flashcard can be answered until the first one is loaded
+        currentFlashcard = null;
+        questionTextArea.setText("");
+        answerTextArea.setText("");
+        hintTextArea.setText("");
+
+        // the filtering by state and difficulty, or by due date, is done by the database; the flashcards are
+        // fetched a few at a time in the background, so the first one is shown without reading the whole deck
+        if (session != null) {
+            session.close();
+        }
+        session = studyMode == StudyMode.DUE
+                ? studySessionService.startDueSession()
+                : studySessionService.startSession(currentDeckID, studyMode.toState(), sessionDifficulty.toDifficulty());
+        showNextFlashcard(generation);
+    }
+
+    // Shows the next flashcard once it is read; returns whether it was already prefetched
+    private boolean showNextFlashcard(int generation) {
+        CompletableFuture<Flashcard> next = session.nextAsync();
+        boolean prefetched = next.isDone();
+        FxTasks.handle(next,
+                sessionLoadingIndicator,
+                flashcard -> {
+                    if (generation != sessionGeneration) {
+                        return; // the session was left or restarted in the meantime
+                    }
+                    if (flashcard == null) {
+                        displayEndOfCardsMessage();
+                    } else {
+                        currentFlashcard = flashcard;
+                        setQuestionTextArea(flashcard);
+                    }
+                },
+                e -> {
+                    e.printStackTrace();
+                    AlertDialog.show(Alert.AlertType.ERROR, "Error", "Could not load the flashcards of the session.");
+                });
+        return prefetched;
+    }
+
+    private void displayEndOfCardsMessage() {
+        questionTextArea.setText("You have reached the end of your cards!");
+    }
+
+    private void setQuestionTextArea(Flashcard flashcard) {
+        questionTextArea.setText(flashcard.getQuestion());
+        questionShownAt = System.nanoTime();
+        answerShownAt = 0;
+        hintUsed = false;
+    }
+
+    private void setAnswerTextArea(Flashcard flashcard) {
+        answerTextArea.setText(flashcard.getAnswer());
+    }
+
+    public void setCurrentDeckID(int deckID) {
+        this.currentDeckID = deckID;
+    }
+
+    public void setStudyMode(StudyMode studyMode) {
+        this.studyMode = studyMode;
+    }
+
+    /**
+     * Updates the difficulty of the study session.
+     */
+    public void setStudySessionDifficulty(StudySessionDifficulty sessionDifficulty) {
+        this.sessionDifficulty = sessionDifficulty;
+    }
+
+    private void processUserInput(Flashcard flashcard) {
+        // handle flashcard state changed
+        Flashcard.State newState = null;
+        if(answerKnew.getSelectedToggle() == yesRadioButton) {
+            newState = Flashcard.State.LEARNT;
+        }
+        else if(answerKnew.getSelectedToggle() == noRadioButton){
+            newState = Flashcard.State.LEARNING;
+        }
+        else if (answerKnew.getSelectedToggle() == toReviewRadioButton){
+            newState = Flashcard.State.TO_REVIEW;
+        }
+
+        // handle flashcard difficulty changed
+        Flashcard.Difficulty newDifficulty = null;
+        if(difficulty.getSelectedToggle() == easyDifficultyRadioButton){
+            newDifficulty = Flashcard.Difficulty.EASY;
+        }
+        else if(difficulty.getSelectedToggle() == mediumDifficultyRadioButton){
+            newDifficulty = Flashcard.Difficulty.MEDIUM;
+        }
+        else if(difficulty.getSelectedToggle() == hardDifficultyRadioButton){
+            newDifficulty = Flashcard.Difficulty.HARD;
+        }
+
+        // the time to answer ends when the answer is revealed, or when the user moves on without revealing it
+        long answeredAt = answerShownAt != 0 ? answerShownAt : System.nanoTime();
+        long answerMillis = TimeUnit.NANOSECONDS.toMillis(answeredAt - questionShownAt);
+
+        // the answer is written to the database later, the user can continue with the next flashcard meanwhile
+        studySessionService.recordAnswer(flashcard, newState, newDifficulty, answerMillis, hintUsed);
+    }
+
+    /**
+     * Handles switching to the next flashcard in the deck for the current study session.\
+     *  @param actionEvent The action event triggered by clicking the add button.
+     */
+    public void onNextButtonAction(ActionEvent actionEvent) {
+        if(currentFlashcard == null){
+            return;
+        }
+        StudySessionStepEvent event = new StudySessionStepEvent();
+        event.begin();
+        event.flashcardId = currentFlashcard.getFlashcardId();
+
+        processUserInput(currentFlashcard);
+
+        // usually already prefetched, otherwise shown as soon as it is read
+        currentFlashcard = null;
+        answerTextArea.setText("");
+        hintTextArea.setText("");
+        resetUserInput();
+        event.nextPrefetched = showNextFlashcard(sessionGeneration);
+        event.commit();
+    }
+
+    private void resetUserInput(){
+        answerKnew.selectToggle(null);
+        difficulty.selectToggle(null);
+    }
+
+    /**
+     * Handles switching back to the main scene.
+     *  @param actionEvent The action event triggered by clicking the add button.
+     */
+    public void onExitSessionAction(ActionEvent actionEvent) {
+        if(currentFlashcard != null){
+            processUserInput(currentFlashcard);
+        }
+        FxTasks.handle(studySessionService.flushAnswersAsync(),
+                _ -> {},
+                e -> {
+                    e.printStackTrace();
+                    AlertDialog.show(Alert.AlertType.ERROR, "Error", "Could not save changes to the flashcards, they will be saved later.");
+                });
+        sessionGeneration++; // a flashcard still loading is not shown anymore
+        if (session != null) {
+            session.close();
+            session = null;
+        }
+        currentFlashcard = null;
+        questionTextArea.setText("");
+        answerTextArea.setText("");
+        hintTextArea.setText("");
+        resetUserInput();
+        sceneManager.switchTo(SceneType.MAIN_MENU);
+    }
+
+    /**
+     * Handles displaying the answer for the current flashcard in the study session.
+     *  @param actionEvent The action event triggered by clicking the add button.
+     */
+    public void onShowAnswerAction(ActionEvent actionEvent) {
+        if(currentFlashcard == null){
+            return;
+        }
+        if (answerShownAt == 0) {
+            answerShownAt = System.nanoTime();
+        }
+        setAnswerTextArea(currentFlashcard);
+    }
+
+    /**
+     * Handles displaying the hint for the current flashcard in the study session.
+     *  @param actionEvent The action event triggered by clicking the add button.
+     */
+    public void onShowHintAction(ActionEvent actionEvent) {
+        if(currentFlashcard == null){
+            return;
+        }
+
+        boolean confirmed = ConfirmationDialog.show(
+                "Confirmation",
+                "Are you sure you want to see the hint for this card?"
+        );
+
+        if (confirmed) {
+            hintUsed = true;
+            String hint = currentFlashcard.getHint();
+            if(hint == null || hint.isEmpty()){
+                hintTextArea.setText("There is no hint for this card!");
+            }
+            else{
+                hintTextArea.setText(hint);
+            }
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package mff.cuni.cz.bortosa.flashy.Controllers;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Java Flight Recorder event of {@link StudySessionController#onNextButtonAction}: saving the answer to a flashcard
+ * and showing the next one, on the JavaFX thread.
+ */
+@Name("mff.cuni.cz.bortosa.flashy.StudySessionStep")
+@Label("Study Session Step")
+@Category({"Flashy", "UI"})
+@Description("A move to the next flashcard of a study session")
+class StudySessionStepEvent extends Event {
+    @Label("Flashcard ID")
+    @Description("The flashcard which was answered")
+    int flashcardId;
+
+    @Label("Next Prefetched")
+    @Description("Whether the next flashcard was already read, so that it was shown without waiting for the database")
+    boolean nextPrefetched;
+}
@@ -0,0 +1,115 @@
+package mff.cuni.cz.bortosa.flashy;
+
+import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.scene.layout.Pane;
+import javafx.stage.Stage;
+import mff.cuni.cz.bortosa.flashy.DatabaseOperations.DatabaseInitializer;
+import mff.cuni.cz.bortosa.flashy.DatabaseOperations.DatabaseManager;
+import mff.cuni.cz.bortosa.flashy.Models.Deck;
+import mff.cuni.cz.bortosa.flashy.Scenes.SceneManager;
+import mff.cuni.cz.bortosa.flashy.Scenes.SceneType;
+import mff.cuni.cz.bortosa.flashy.Scenes.StartupTimeline;
+import mff.cuni.cz.bortosa.flashy.Services.DependencyInjector;
+import mff.cuni.cz.bortosa.flashy.Services.FlashcardService;
+
+import javax.management.JMException;
+import java.sql.SQLException;
+import java.time.Duration;
+
+public class FlashCardsApp extends Application {
+    private static final String STARTUP_BUDGET_PROPERTY = "flashy.startupBudgetMillis";
+    private static final String PREWARM_PROPERTY = "flashy.prewarmScenes";
+    // the statistics are also published as the MXBean of the metrics; this prints them once more on exit
+    private static final String PRINT_STATS_PROPERTY = "flashy.printStatsOnExit";
+    private static final long DEFAULT_STARTUP_BUDGET_MILLIS = 1000;
+
+    private DatabaseManager databaseManager;
+    private DependencyInjector injector;
+    private boolean stopped;
+
+    @Override
+    public void start(Stage primaryStage) throws Exception {
+        // measured from here, so that opening the database counts towards the startup time
+        StartupTimeline timeline = new StartupTimeline(SceneType.MAIN_MENU, Duration.ofMillis(Long.getLong(STARTUP_BUDGET_PROPERTY, DEFAULT_STARTUP_BUDGET_MILLIS)));
+        databaseManager = new DatabaseManager();
+        DatabaseInitializer.initializeDatabase(databaseManager);
+        // where every setting comes from, and whether SQLite accepted the pragmas
+        System.out.println(databaseManager.getSettingsReport());
+        injector = new DependencyInjector(databaseManager);
+        try {
+            // the timings of the repositories and services, readable with JConsole or VisualVM
+            databaseManager.getMetrics().registerMBean();
+        } catch (JMException e) {
+            e.printStackTrace();
+        }
+        // stop() is not called when the JVM is terminated, e.g. by a signal
+        Runtime.getRuntime().addShutdownHook(new Thread(this::stop, "flashy-shutdown"));
+        SceneManager sceneManager = new SceneManager(primaryStage, injector, timeline);
+        timeline.getTimeToInteractive().thenAccept(timeToInteractive -> {
+            System.out.println(timeline);
+            if (timeToInteractive.compareTo(timeline.getBudget()) > 0) {
+                System.err.println("Startup exceeded its budget of " + timeline.getBudget().toMillis() + " ms");
+            }
+            // the other scenes are loaded once the main menu has its data, so that they don't compete for the database
+            if (Boolean.parseBoolean(System.getProperty(PREWARM_PROPERTY, "true"))) {
+                Platform.runLater(sceneManager::prewarmScenes);
+            }
+        });
+
+//        FlashcardService serv = injector.getFlashcardService();
+//        serv.importDeckFromCSV(new Deck("Harry Potter French", "Phrases from the first chapter of Harry Potter à l'École des Sorciers by J.K. Rowling, with their translation in English"), "harry.csv");
+//        serv.importDeckFromCSV(new Deck("Advanced French Vocab", "A selection of advanced French vocabulary. As a hint, an example of the word used in a specific context is given."), "advanced.csv");
+//        serv.importDeckFromCSV(new Deck("Upper Limb Anatomy", "A set of questions from upper limb anatomy"), "anat.csv");
+//        serv.importDeckFromCSV(new Deck("Microbiology", "This set of flashcards focuses on key concepts and definitions from Microbiology."), "microb.csv");
+//        serv.importDeckFromCSV(new Deck("German A1", "A selection of useful phrases in German level A1."), "german.csv");
+
+        // only the main menu is loaded before the window appears, the other scenes when they are first shown
+        Scene scene = new Scene(sceneManager.getScene(SceneType.MAIN_MENU));
+        scene.addPostLayoutPulseListener(new Runnable() {
+            @Override
+            public void run() {
+                timeline.markFirstPaint();
+                scene.removePostLayoutPulseListener(this); // only the first pulse is of interest
+            }
+        });
+        primaryStage.setScene(scene);
+        primaryStage.setTitle("Flashcard Application");
+        primaryStage.show();
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (stopped) {
+            return;
+        }
+        stopped = true;
+        boolean printStats = Boolean.getBoolean(PRINT_STATS_PROPERTY);
+
+        if (injector != null) {
+            try {
+                injector.close(); // write the buffered answers and let the pending saves finish
+            } catch (SQLException e) {
+                e.printStackTrace();
+            }
+            if (printStats) {
+                injector.getCacheStats().forEach(System.out::println);
+            }
+        }
+        if (databaseManager != null) {
+            if (printStats) {
+                System.out.println(databaseManager.getMetrics());
+                System.out.println(databaseManager.getReaderPoolMetrics());
+                System.out.println(databaseManager.getWriterPoolMetrics());
+            }
+            databaseManager.getMetrics().unregisterMBean();
+            databaseManager.close();
+        }
+    }
+
+    public static void main(String[] args) {
+        launch(args);
+    }
+}
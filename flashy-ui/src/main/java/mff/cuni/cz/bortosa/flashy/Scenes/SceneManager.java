@@ -0,0 +1,216 @@
+package mff.cuni.cz.bortosa.flashy.Scenes;
+
+import javafx.application.Platform;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Parent;
+import javafx.stage.Stage;
+import mff.cuni.cz.bortosa.flashy.Controllers.*;
+import mff.cuni.cz.bortosa.flashy.Observer.Event;
+import mff.cuni.cz.bortosa.flashy.Services.DependencyInjector;
+import mff.cuni.cz.bortosa.flashy.Utils.FxTasks;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+/**
+ * Manages the scenes of the JavaFX application, allowing for loading, switching,
+ * and retrieving scene controllers while handling dependency injection.
+ * Scenes are loaded when they are first needed, so that only the initial scene delays the first frame; the others
+ * can be pre-warmed in the background once the application is interactive. The loading of every scene is recorded
+ * in the startup timeline.
+ */
+public class SceneManager {
+    // the controllers receive the events on the JavaFX thread, everything published in the meantime in one batch
+    private static final Executor FX_THREAD = Platform::runLater;
+    private static final EnumSet<Event> DECK_EVENTS = EnumSet.of(Event.ADD_DECK, Event.REMOVE_DECK);
+    private static final EnumSet<Event> FLASHCARD_EVENTS = EnumSet.of(Event.ADD_FLASHCARD, Event.UPDATE_FLASHCARD,
+            Event.REMOVE_FLASHCARD, Event.ADD_FLASHCARDS, Event.UPDATE_FLASHCARDS, Event.REMOVE_FLASHCARDS);
+
+    private final Stage primaryStage;
+    private final Map<SceneType, Parent> scenes = new HashMap<>();
+    private final Map<SceneType, Object> controllers = new HashMap<>();
+    private final DependencyInjector injector;
+    private final StartupTimeline timeline;
+
+    /**
+     * Constructs a SceneManager with the primary stage and a dependency injector.
+     * @param primaryStage The primary stage of the application.
+     * @param injector     The dependency injector for providing required services.
+     * @param timeline     The timeline recording the loading of the scenes.
+     */
+    public SceneManager(Stage primaryStage, DependencyInjector injector, StartupTimeline timeline) {
+        this.primaryStage = primaryStage;
+        this.injector = injector;
+        this.timeline = timeline;
+    }
+
+    /**
+     * Loads and stores an FXML scene based on the provided scene type, unless it is already loaded.
+     * @param sceneType The type of scene to be loaded.
+     * @throws IOException If loading the FXML file fails.
+     */
+    public void loadScene(SceneType sceneType) throws IOException {
+        if (!scenes.containsKey(sceneType)) {
+            Parent root = loadView(sceneType);
+            scenes.put(sceneType, root);
+        }
+    }
+
+    /**
+     * Loads the scenes which are not loaded yet in the background, one scene per JavaFX pulse,
+     * so that the application stays responsive while they load.
+     */
+    public void prewarmScenes() {
+        Deque<SceneType> remaining = new ArrayDeque<>(EnumSet.allOf(SceneType.class));
+        remaining.removeAll(scenes.keySet());
+        prewarmNext(remaining);
+    }
+
+    /**
+     * Switches the current scene to the specified scene type, loading it first if necessary.
+     * If the scene is managed, it triggers the onReloadSceneAction method.
+     * Every switch is recorded as a {@link SceneSwitchEvent} when a flight recording is running.
+     * @param sceneType The scene type to switch to.
+     */
+    public void switchTo(SceneType sceneType) {
+        SceneSwitchEvent event = new SceneSwitchEvent();
+        event.begin();
+        event.scene = sceneType.name();
+        event.loaded = !scenes.containsKey(sceneType);
+        Parent sceneRoot = getScene(sceneType);
+        if (sceneRoot != null) {
+            Object controller = controllers.get(sceneType);
+            primaryStage.getScene().setRoot(sceneRoot);
+            if(controller instanceof SceneManaged) {
+                // a scene may only query its data when it is shown
+                long reloadStart = System.nanoTime();
+                FxTasks.setCallListener(query -> timeline.recordQuery(sceneType, query));
+                try {
+                    ((SceneManaged) controller).onReloadSceneAction();
+                } finally {
+                    FxTasks.setCallListener(null);
+                    event.reloadDuration = System.nanoTime() - reloadStart;
+                }
+            }
+            event.commit();
+        } else {
+            System.err.println("Scene not found: " + sceneType);
+        }
+    }
+
+    /**
+     * Retrieves the controller associated with a given scene type, loading the scene if necessary.
+     * @param sceneType The scene type for which the controller is requested.
+     * @return The controller object or null if not found.
+     */
+    public Object getController(SceneType sceneType) {
+        return getScene(sceneType) == null ? null : controllers.get(sceneType);
+    }
+
+    private void prewarmNext(Deque<SceneType> remaining) {
+        Platform.runLater(() -> {
+            SceneType sceneType = remaining.poll();
+            if (sceneType == null) {
+                return;
+            }
+            try {
+                loadScene(sceneType); // skipped if the user opened the scene in the meantime
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+            prewarmNext(remaining);
+        });
+    }
+
+    private Parent loadView(SceneType sceneType) throws IOException {
+        FXMLLoader loader = new FXMLLoader(getClass().getResource(sceneType.getPath()));
+        long[] controllerNanos = new long[1];
+        loader.setControllerFactory(controllerClass -> {
+            long start = System.nanoTime();
+            try {
+                // Inject dependencies into controllers
+                Object controller = createController(controllerClass);
+                if (controller instanceof SceneManaged) {
+                    ((SceneManaged) controller).setSceneManager(this);
+                }
+                controllers.put(sceneType, controller);
+                return controller;
+            } catch (Exception e) {
+                throw new RuntimeException("Failed to instantiate controller: " + controllerClass.getName(), e);
+            } finally {
+                // the services the controller needs are created with it, e.g. the caches for the first scene
+                controllerNanos[0] += System.nanoTime() - start;
+                timeline.record(sceneType, StartupTimeline.Phase.CONTROLLER_INIT, start, controllerNanos[0]);
+            }
+        });
+
+        long start = System.nanoTime();
+        // the queries issued by the controller's initialize method are the scene's first queries
+        FxTasks.setCallListener(query -> timeline.recordQuery(sceneType, query));
+        try {
+            Parent root = loader.load();
+            // includes the controller's initialize method, which the loader calls once the nodes are created
+            timeline.record(sceneType, StartupTimeline.Phase.FXML_LOAD, start, System.nanoTime() - start - controllerNanos[0]);
+            return root;
+        } finally {
+            FxTasks.setCallListener(null);
+        }
+    }
+
+    /**
+     * Creates a controller instance for the given class and injects necessary dependencies.
+     *
+     * @param controllerClass The class of the controller to create.
+     * @return The instantiated controller object.
+     * @throws Exception If instantiation fails.
+     */
+    private Object createController(Class<?> controllerClass) throws Exception {
+        if (controllerClass == AddingFlashcardController.class) {
+            AddingFlashcardController controller = new AddingFlashcardController(injector.getFlashcardService());
+            injector.getEventBus().subscribe(controller, DECK_EVENTS, FX_THREAD);
+            return controller;
+        }
+        else if (controllerClass == ModifyingFlashcardController.class) {
+            ModifyingFlashcardController controller = new ModifyingFlashcardController(injector.getFlashcardService());
+            injector.getEventBus().subscribe(controller, FLASHCARD_EVENTS, FX_THREAD);
+            return controller;
+        }
+        else if (controllerClass == DeckController.class){
+            DeckController controller = new DeckController(injector.getFlashcardService());
+            return controller;
+        }
+        else if (controllerClass == MainController.class) {
+            MainController controller = new MainController(injector.getFlashcardService());
+            injector.getEventBus().subscribe(controller, DECK_EVENTS, FX_THREAD);
+            return controller;
+        }
+        else if (controllerClass == StudySessionController.class) {
+            StudySessionController controller = new StudySessionController(injector.getStudySessionService());
+            return controller;
+        }
+        else if (controllerClass == StatisticsController.class) {
+            StatisticsController controller = new StatisticsController(injector.getStatisticsService());
+            return controller;
+        }
+        return controllerClass.getDeclaredConstructor().newInstance();
+    }
+
+    /**
+     * Retrieves the root node of a scene, loading the scene if necessary.
+     * @param sceneType The type of scene to retrieve.
+     * @return The root Parent node of the scene, or null if it could not be loaded.
+     */
+    public Parent getScene(SceneType sceneType) {
+        try {
+            loadScene(sceneType);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        return scenes.get(sceneType);
+    }
+}
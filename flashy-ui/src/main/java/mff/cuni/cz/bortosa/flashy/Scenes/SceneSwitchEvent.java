@@ -0,0 +1,31 @@
+package mff.cuni.cz.bortosa.flashy.Scenes;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Java Flight Recorder event of {@link SceneManager#switchTo(SceneType)}, which runs on the JavaFX thread.
+ * The database queries the controller issues while reloading are recorded as separate query events in the same
+ * time span, so a recording shows which of them made the switch slow.
+ */
+@Name("mff.cuni.cz.bortosa.flashy.SceneSwitch")
+@Label("Scene Switch")
+@Category({"Flashy", "UI"})
+@Description("A switch to another scene, including the loading of the scene and the reload of its controller")
+class SceneSwitchEvent extends Event {
+    @Label("Scene")
+    String scene;
+
+    @Label("Loaded")
+    @Description("Whether the scene was loaded by the switch, instead of before it")
+    boolean loaded;
+
+    @Label("Reload Duration")
+    @Description("The time spent in the controller's onReloadSceneAction")
+    @Timespan(Timespan.NANOSECONDS)
+    long reloadDuration;
+}
@@ -0,0 +1,191 @@
+package mff.cuni.cz.bortosa.flashy.Scenes;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Records where the time goes until the application becomes interactive.
+ * For every scene it keeps the first FXML load, the first controller initialization and the first background query
+ * issued by the scene, each with its offset from the start of the timeline; the application is interactive once the
+ * first frame is painted and the first query of the initial scene has completed.
+ * The timeline is safe to use from any thread, since the queries complete in the background.
+ */
+public class StartupTimeline {
+    /**
+     * The phases of preparing a scene.
+     */
+    public enum Phase {
+        FXML_LOAD("FXML load"),
+        CONTROLLER_INIT("controller init"),
+        FIRST_QUERY("first query");
+
+        private final String label;
+
+        Phase(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+    }
+
+    private final long originNanos = System.nanoTime();
+    private final SceneType initialScene;
+    private final Duration budget;
+    private final Map<SceneType, EnumMap<Phase, Span>> spans = new EnumMap<>(SceneType.class);
+    private final EnumSet<SceneType> pendingQueries = EnumSet.noneOf(SceneType.class);
+    private final CompletableFuture<Duration> interactive = new CompletableFuture<>();
+    private long firstPaintNanos = -1;
+
+    /**
+     * Starts a timeline, measuring from now.
+     *
+     * @param initialScene The scene shown when the application starts.
+     * @param budget       The time the application should take to become interactive.
+     */
+    public StartupTimeline(SceneType initialScene, Duration budget) {
+        this.initialScene = initialScene;
+        this.budget = budget;
+    }
+
+    /**
+     * Records a phase of a scene, unless the phase was already recorded for it.
+     *
+     * @param sceneType     The scene.
+     * @param phase         The phase.
+     * @param startNanos    The {@link System#nanoTime()} at which the phase started.
+     * @param durationNanos How long the phase took.
+     */
+    public synchronized void record(SceneType sceneType, Phase phase, long startNanos, long durationNanos) {
+        spans.computeIfAbsent(sceneType, _ -> new EnumMap<>(Phase.class))
+                .putIfAbsent(phase, new Span(startNanos - originNanos, durationNanos));
+    }
+
+    /**
+     * Records the first background query of a scene once it completes; later queries of the scene are ignored.
+     *
+     * @param sceneType The scene which issued the query.
+     * @param query     The future of the query.
+     */
+    public void recordQuery(SceneType sceneType, CompletableFuture<?> query) {
+        long startNanos = System.nanoTime();
+        synchronized (this) {
+            Map<Phase, Span> sceneSpans = spans.get(sceneType);
+            if (pendingQueries.contains(sceneType) || (sceneSpans != null && sceneSpans.containsKey(Phase.FIRST_QUERY))) {
+                return;
+            }
+            pendingQueries.add(sceneType);
+        }
+        // a failed query still ends the wait, the scene shows its error
+        query.whenComplete((_, _) -> {
+            synchronized (this) {
+                pendingQueries.remove(sceneType);
+                record(sceneType, Phase.FIRST_QUERY, startNanos, System.nanoTime() - startNanos);
+                checkInteractive();
+            }
+        });
+    }
+
+    /**
+     * Records that the first frame of the application was painted.
+     */
+    public synchronized void markFirstPaint() {
+        if (firstPaintNanos < 0) {
+            firstPaintNanos = System.nanoTime() - originNanos;
+            checkInteractive();
+        }
+    }
+
+    /**
+     * @return A future completed with the time the application took to become interactive.
+     */
+    public CompletableFuture<Duration> getTimeToInteractive() {
+        return interactive;
+    }
+
+    /**
+     * @return The time the application should take to become interactive.
+     */
+    public Duration getBudget() {
+        return budget;
+    }
+
+    /**
+     * Retrieves how long a phase of a scene took.
+     *
+     * @param sceneType The scene.
+     * @param phase     The phase.
+     * @return The duration of the phase, or null if it was not recorded.
+     */
+    public synchronized Duration getDuration(SceneType sceneType, Phase phase) {
+        Map<Phase, Span> sceneSpans = spans.get(sceneType);
+        Span span = sceneSpans == null ? null : sceneSpans.get(phase);
+        return span == null ? null : Duration.ofNanos(span.durationNanos);
+    }
+
+    /**
+     * @return The recorded phases in the order they started, one per line.
+     */
+    @Override
+    public synchronized String toString() {
+        List<String[]> lines = new ArrayList<>();
+        List<Long> offsets = new ArrayList<>();
+        spans.forEach((sceneType, sceneSpans) -> sceneSpans.forEach((phase, span) -> {
+            offsets.add(span.offsetNanos);
+            lines.add(new String[]{sceneType.name(), phase.getLabel(), formatMillis(span.durationNanos)});
+        }));
+        if (firstPaintNanos >= 0) {
+            offsets.add(firstPaintNanos);
+            lines.add(new String[]{"", "first paint", ""});
+        }
+
+        List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < lines.size(); i++) {
+            order.add(i);
+        }
+        order.sort(Comparator.comparing(offsets::get));
+
+        StringBuilder builder = new StringBuilder("Startup timeline");
+        if (interactive.isDone()) {
+            builder.append(String.format(" (interactive after %s, budget %s)",
+                    formatMillis(interactive.join().toNanos()), formatMillis(budget.toNanos())));
+        }
+        for (int i : order) {
+            String[] line = lines.get(i);
+            builder.append(String.format("%n  +%9s  %-14s %-16s %s", formatMillis(offsets.get(i)), line[0], line[1], line[2]).stripTrailing());
+        }
+        return builder.toString();
+    }
+
+    // completes the time to interactive once the first frame is painted and the initial scene has its data
+    private void checkInteractive() {
+        if (interactive.isDone() || firstPaintNanos < 0 || pendingQueries.contains(initialScene)) {
+            return;
+        }
+        Map<Phase, Span> initialSpans = spans.get(initialScene);
+        Span query = initialSpans == null ? null : initialSpans.get(Phase.FIRST_QUERY);
+        long interactiveNanos = query == null ? firstPaintNanos : Math.max(firstPaintNanos, query.offsetNanos + query.durationNanos);
+        interactive.complete(Duration.ofNanos(interactiveNanos));
+    }
+
+    private static String formatMillis(long nanos) {
+        return String.format("%.1f ms", nanos / 1_000_000.0);
+    }
+
+    private static class Span {
+        private final long offsetNanos;
+        private final long durationNanos;
+
+        private Span(long offsetNanos, long durationNanos) {
+            this.offsetNanos = offsetNanos;
+            this.durationNanos = durationNanos;
+        }
+    }
+}
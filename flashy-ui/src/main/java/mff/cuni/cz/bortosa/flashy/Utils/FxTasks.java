@@ -0,0 +1,85 @@
+package mff.cuni.cz.bortosa.flashy.Utils;
+
+import javafx.application.Platform;
+import javafx.scene.Node;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+
+/**
+ * Utility class for handing the results of background work back to the JavaFX application thread.
+ */
+public class FxTasks {
+    private static Consumer<CompletableFuture<?>> callListener; // accessed on the JavaFX application thread only
+
+    /**
+     * Runs the action on the JavaFX application thread: immediately if called from it, later otherwise.
+     * @param action The action to run.
+     */
+    public static void runOnFxThread(Runnable action) {
+        if (Platform.isFxApplicationThread()) {
+            action.run();
+        } else {
+            Platform.runLater(action);
+        }
+    }
+
+    /**
+     * Sets the listener receiving every background call handed over on the JavaFX application thread from now on,
+     * such as the calls made by a scene while it loads.
+     * @param listener The listener, or null to remove it.
+     */
+    public static void setCallListener(Consumer<CompletableFuture<?>> listener) {
+        callListener = listener;
+    }
+
+    /**
+     * Handles the outcome of a background call on the JavaFX application thread.
+     * @param future The future of the background call.
+     * @param onSuccess Receives the result of the call.
+     * @param onError Receives the exception thrown by the call.
+     * @param <T> The type of the result.
+     */
+    public static <T> void handle(CompletableFuture<T> future, Consumer<T> onSuccess, Consumer<Throwable> onError) {
+        if (callListener != null && Platform.isFxApplicationThread()) {
+            callListener.accept(future);
+        }
+        future.whenComplete((result, error) -> runOnFxThread(() -> {
+            if (error != null) {
+                onError.accept(unwrap(error));
+            } else {
+                onSuccess.accept(result);
+            }
+        }));
+    }
+
+    /**
+     * Handles the outcome of a background call on the JavaFX application thread,
+     * showing the loading indicator until the call completes.
+     * @param future The future of the background call.
+     * @param loadingIndicator The node shown while the call is running.
+     * @param onSuccess Receives the result of the call.
+     * @param onError Receives the exception thrown by the call.
+     * @param <T> The type of the result.
+     */
+    public static <T> void handle(CompletableFuture<T> future, Node loadingIndicator, Consumer<T> onSuccess, Consumer<Throwable> onError) {
+        loadingIndicator.setVisible(true);
+        handle(future, result -> {
+            loadingIndicator.setVisible(false);
+            onSuccess.accept(result);
+        }, error -> {
+            loadingIndicator.setVisible(false);
+            onError.accept(error);
+        });
+    }
+
+    // returns the exception thrown by the background call itself
+    private static Throwable unwrap(Throwable error) {
+        while ((error instanceof CompletionException || error instanceof ExecutionException) && error.getCause() != null) {
+            error = error.getCause();
+        }
+        return error;
+    }
+}
@@ -0,0 +1,71 @@
+package mff.cuni.cz.bortosa.flashy.Utils;
+
+import javafx.scene.control.TableCell;
+import javafx.scene.text.Text;
+import javafx.scene.text.TextFlow;
+import mff.cuni.cz.bortosa.flashy.Models.SearchResult;
+
+import java.util.function.Function;
+
+/**
+ * Table cell showing the text of a flashcard with the terms matched by a search in bold.
+ * The highlighted text is provided for the row item by a function; when it returns null (the row is not
+ * a search result), the plain value of the cell is shown.
+ *
+ * @param <S> The type of the table rows.
+ */
+public class HighlightedTextCell<S> extends TableCell<S, String> {
+    private final Function<S, String> highlightedText;
+
+    /**
+     * @param highlightedText Returns the text of the row with the matching terms enclosed in
+     *                        {@link SearchResult#HIGHLIGHT_START} and {@link SearchResult#HIGHLIGHT_END}, or null.
+     */
+    public HighlightedTextCell(Function<S, String> highlightedText) {
+        this.highlightedText = highlightedText;
+    }
+
+    @Override
+    protected void updateItem(String item, boolean empty) {
+        super.updateItem(item, empty);
+        S row = getTableRow() != null ? getTableRow().getItem() : null;
+        String highlighted = empty || row == null ? null : highlightedText.apply(row);
+
+        if (empty || item == null) {
+            setText(null);
+            setGraphic(null);
+        } else if (highlighted == null || highlighted.indexOf(SearchResult.HIGHLIGHT_START) == -1) {
+            setText(item);
+            setGraphic(null);
+        } else {
+            setText(null);
+            setGraphic(toTextFlow(highlighted));
+        }
+    }
+
+    // Splits the text at the highlight markers, the highlighted parts get the "search-highlight" style class
+    private static TextFlow toTextFlow(String highlighted) {
+        TextFlow textFlow = new TextFlow();
+        int start = 0;
+        while (start < highlighted.length()) {
+            int highlightStart = highlighted.indexOf(SearchResult.HIGHLIGHT_START, start);
+            if (highlightStart == -1) {
+                textFlow.getChildren().add(new Text(highlighted.substring(start)));
+                break;
+            }
+            if (highlightStart > start) {
+                textFlow.getChildren().add(new Text(highlighted.substring(start, highlightStart)));
+            }
+
+            int highlightEnd = highlighted.indexOf(SearchResult.HIGHLIGHT_END, highlightStart);
+            if (highlightEnd == -1) {
+                highlightEnd = highlighted.length();
+            }
+            Text match = new Text(highlighted.substring(highlightStart + 1, highlightEnd));
+            match.getStyleClass().add("search-highlight");
+            textFlow.getChildren().add(match);
+            start = highlightEnd + 1;
+        }
+        return textFlow;
+    }
+}
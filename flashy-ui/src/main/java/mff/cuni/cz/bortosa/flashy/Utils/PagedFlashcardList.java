@@ -0,0 +1,318 @@
+package mff.cuni.cz.bortosa.flashy.Utils;
+
+import javafx.collections.ObservableListBase;
+import mff.cuni.cz.bortosa.flashy.Models.Flashcard;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+
+/**
+ * Observable list of all flashcards, ordered by ID, which only keeps a few pages of them in memory.
+ * The list holds the IDs of all flashcards; the flashcards themselves are fetched a page at a time, in the
+ * background, when the table first asks for one of their rows. Until its page arrives, a row is {@code null}.
+ * Once more than {@code maxLoadedPages} pages are loaded, the pages farthest from the last requested row are dropped.
+ * <p>
+ * Like any list shown in a JavaFX control, it must only be used from the JavaFX application thread.
+ */
+public class PagedFlashcardList extends ObservableListBase<Flashcard> {
+    public static final int DEFAULT_PAGE_SIZE = 200;
+    public static final int DEFAULT_MAX_LOADED_PAGES = 8;
+
+    private final BiFunction<Integer, Integer, CompletableFuture<List<Flashcard>>> pageLoader;
+    private final Consumer<Throwable> onError;
+    private final int pageSize;
+    private final int maxLoadedPages;
+
+    private int[] ids = new int[0];
+    private int size;
+    private final Map<Integer, Flashcard> loadedById = new HashMap<>();
+    private final TreeSet<Integer> loadedPages = new TreeSet<>();
+    private final Set<Integer> loadingPages = new HashSet<>();
+    private int focusPage;
+    // incremented when the IDs are replaced, so that pages requested before are ignored
+    private int generation;
+
+    /**
+     * @param pageLoader Fetches, in the background, at most the given number of flashcards following the given ID.
+     * @param onError    Receives the errors of the page loads.
+     */
+    public PagedFlashcardList(BiFunction<Integer, Integer, CompletableFuture<List<Flashcard>>> pageLoader,
+                              Consumer<Throwable> onError) {
+        this(pageLoader, onError, DEFAULT_PAGE_SIZE, DEFAULT_MAX_LOADED_PAGES);
+    }
+
+    public PagedFlashcardList(BiFunction<Integer, Integer, CompletableFuture<List<Flashcard>>> pageLoader,
+                              Consumer<Throwable> onError, int pageSize, int maxLoadedPages) {
+        if (pageSize < 1 || maxLoadedPages < 1) {
+            throw new IllegalArgumentException("Page size and number of loaded pages must be at least 1.");
+        }
+        this.pageLoader = pageLoader;
+        this.onError = onError;
+        this.pageSize = pageSize;
+        this.maxLoadedPages = maxLoadedPages;
+    }
+
+    /**
+     * Replaces the contents of the list. The flashcards added before through {@link #flashcardAdded(Flashcard)}
+     * are kept, in case they were added after the IDs were read.
+     *
+     * @param sortedIds The IDs of all flashcards in ascending order.
+     */
+    public void setIds(int[] sortedIds) {
+        List<Flashcard> removed = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            removed.add(loadedById.get(ids[i])); // without get(), which would start loading the pages
+        }
+        int[] merged = sortedIds;
+        for (int i = 0; i < size; i++) {
+            if (Arrays.binarySearch(merged, ids[i]) < 0) {
+                merged = insertSorted(merged, ids[i]);
+            }
+        }
+
+        generation++;
+        ids = merged;
+        size = merged.length;
+        loadedById.keySet().retainAll(idSet());
+        loadedPages.clear();
+        loadingPages.clear();
+
+        beginChange();
+        nextReplace(0, size, removed);
+        endChange();
+    }
+
+    @Override
+    public Flashcard get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+        Flashcard flashcard = loadedById.get(ids[index]);
+        if (flashcard == null) {
+            focusPage = index / pageSize;
+            // rows move between pages when flashcards are added or removed, so a loaded page may miss some
+            loadedPages.remove(focusPage);
+            loadPage(focusPage);
+        }
+        return flashcard;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    // Position of the flashcard in the list, found by its ID
+    @Override
+    public int indexOf(Object o) {
+        if (!(o instanceof Flashcard flashcard)) {
+            return -1;
+        }
+        int index = Arrays.binarySearch(ids, 0, size, flashcard.getFlashcardId());
+        return index >= 0 ? index : -1;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return indexOf(o) != -1;
+    }
+
+    /**
+     * Inserts a newly created flashcard at the position of its ID. The flashcard is only kept if its page is loaded,
+     * and is then dropped with the page; otherwise its row is fetched with its page like any other.
+     */
+    public void flashcardAdded(Flashcard flashcard) {
+        int index = Arrays.binarySearch(ids, 0, size, flashcard.getFlashcardId());
+        if (index >= 0) {
+            flashcardUpdated(flashcard);
+            return;
+        }
+        index = -index - 1;
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, Math.max(16, size * 2));
+        }
+        System.arraycopy(ids, index, ids, index + 1, size - index);
+        ids[index] = flashcard.getFlashcardId();
+        size++;
+        if (loadedPages.contains(index / pageSize)) {
+            loadedById.put(flashcard.getFlashcardId(), flashcard);
+        }
+
+        beginChange();
+        nextAdd(index, index + 1);
+        endChange();
+    }
+
+    /**
+     * Removes a deleted flashcard.
+     */
+    public void flashcardRemoved(Flashcard flashcard) {
+        int index = indexOf(flashcard);
+        if (index == -1) {
+            return;
+        }
+        Flashcard removed = loadedById.remove(ids[index]);
+        System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+        size--;
+
+        beginChange();
+        nextRemove(index, removed);
+        endChange();
+    }
+
+    /**
+     * Removes deleted flashcards by their IDs.
+     */
+    public void flashcardsRemoved(Collection<Integer> flashcardIds) {
+        applyChanges(() -> {
+            for (int id : flashcardIds) {
+                int index = Arrays.binarySearch(ids, 0, size, id);
+                if (index < 0) {
+                    continue;
+                }
+                Flashcard removed = loadedById.remove(id);
+                System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+                size--;
+                nextRemove(index, removed);
+            }
+        });
+    }
+
+    /**
+     * Drops the loaded copies of flashcards changed in the database, so that their rows are read again
+     * the next time they are shown.
+     */
+    public void flashcardsChanged(Collection<Integer> flashcardIds) {
+        applyChanges(() -> {
+            for (int id : flashcardIds) {
+                Flashcard old = loadedById.remove(id);
+                if (old != null) {
+                    int index = Arrays.binarySearch(ids, 0, size, id);
+                    loadedPages.remove(index / pageSize);
+                    nextSet(index, old);
+                }
+            }
+        });
+    }
+
+    /**
+     * Replaces the flashcard with the same ID, if its page is loaded.
+     */
+    public void flashcardUpdated(Flashcard flashcard) {
+        int index = indexOf(flashcard);
+        if (index == -1 || !loadedById.containsKey(flashcard.getFlashcardId())) {
+            return;
+        }
+        Flashcard old = loadedById.put(flashcard.getFlashcardId(), flashcard);
+
+        beginChange();
+        nextSet(index, old);
+        endChange();
+    }
+
+    /**
+     * Runs several modifications of the list, such as {@link #flashcardAdded(Flashcard)} calls, reporting them to the
+     * listeners as a single change once they are all done.
+     *
+     * @param changes The modifications to run.
+     */
+    public void applyChanges(Runnable changes) {
+        beginChange();
+        try {
+            changes.run();
+        } finally {
+            endChange();
+        }
+    }
+
+    /**
+     * @return The number of flashcards currently held in memory.
+     */
+    public int getLoadedCount() {
+        return loadedById.size();
+    }
+
+    private void loadPage(int page) {
+        if (!loadingPages.add(page)) {
+            return;
+        }
+        int first = page * pageSize;
+        // keyset pagination: the page starts after the last ID of the previous page
+        int afterId = first == 0 ? 0 : ids[first - 1];
+        int requestGeneration = generation;
+        FxTasks.handle(pageLoader.apply(afterId, pageSize),
+                flashcards -> {
+                    if (requestGeneration == generation) {
+                        pageLoaded(page, flashcards);
+                    }
+                },
+                e -> {
+                    loadingPages.remove(page);
+                    onError.accept(e);
+                });
+    }
+
+    private void pageLoaded(int page, List<Flashcard> flashcards) {
+        loadingPages.remove(page);
+        loadedPages.add(page);
+
+        beginChange();
+        for (Flashcard flashcard : flashcards) {
+            int index = indexOf(flashcard);
+            if (index != -1 && !loadedById.containsKey(flashcard.getFlashcardId())) {
+                loadedById.put(flashcard.getFlashcardId(), flashcard);
+                nextSet(index, null);
+            }
+        }
+        evictFarPages(page);
+        endChange();
+    }
+
+    // Drops the loaded pages farthest from the last requested one, they are far off-screen
+    private void evictFarPages(int justLoadedPage) {
+        while (loadedPages.size() > maxLoadedPages) {
+            int first = loadedPages.first();
+            int last = loadedPages.last();
+            int evicted = Math.abs(focusPage - first) >= Math.abs(last - focusPage) ? first : last;
+            if (evicted == justLoadedPage) {
+                evicted = evicted == first ? last : first;
+            }
+            loadedPages.remove(evicted);
+
+            int end = Math.min(size, (evicted + 1) * pageSize);
+            for (int index = evicted * pageSize; index < end; index++) {
+                Flashcard flashcard = loadedById.remove(ids[index]);
+                if (flashcard != null) {
+                    nextSet(index, flashcard);
+                }
+            }
+        }
+    }
+
+    private Set<Integer> idSet() {
+        Set<Integer> set = new HashSet<>(size * 2);
+        for (int i = 0; i < size; i++) {
+            set.add(ids[i]);
+        }
+        return set;
+    }
+
+    private static int[] insertSorted(int[] sorted, int id) {
+        int index = -Arrays.binarySearch(sorted, id) - 1;
+        int[] result = new int[sorted.length + 1];
+        System.arraycopy(sorted, 0, result, 0, index);
+        result[index] = id;
+        System.arraycopy(sorted, index, result, index + 1, sorted.length - index);
+        return result;
+    }
+}
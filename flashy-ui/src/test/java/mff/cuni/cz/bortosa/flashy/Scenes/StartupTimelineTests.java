@@ -0,0 +1,53 @@
+package mff.cuni.cz.bortosa.flashy.Scenes;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StartupTimelineTests {
+
+    @Test
+    void testInteractiveOnceFirstPaintAndInitialQueryAreDone() {
+        StartupTimeline timeline = new StartupTimeline(SceneType.MAIN_MENU, Duration.ofSeconds(1));
+        CompletableFuture<Object> decks = new CompletableFuture<>();
+        timeline.recordQuery(SceneType.MAIN_MENU, decks);
+
+        timeline.markFirstPaint();
+        assertFalse(timeline.getTimeToInteractive().isDone());
+
+        decks.complete(null);
+        assertTrue(timeline.getTimeToInteractive().isDone());
+        assertNotNull(timeline.getDuration(SceneType.MAIN_MENU, StartupTimeline.Phase.FIRST_QUERY));
+    }
+
+    @Test
+    void testQueriesOfOtherScenesDoNotDelayInteractive() {
+        StartupTimeline timeline = new StartupTimeline(SceneType.MAIN_MENU, Duration.ofSeconds(1));
+        timeline.recordQuery(SceneType.BROWSE, new CompletableFuture<>());
+
+        timeline.markFirstPaint();
+        assertTrue(timeline.getTimeToInteractive().isDone());
+        assertNull(timeline.getDuration(SceneType.BROWSE, StartupTimeline.Phase.FIRST_QUERY));
+    }
+
+    @Test
+    void testOnlyTheFirstOfEachPhaseIsRecorded() {
+        StartupTimeline timeline = new StartupTimeline(SceneType.MAIN_MENU, Duration.ofSeconds(1));
+        long now = System.nanoTime();
+        timeline.record(SceneType.STATISTICS, StartupTimeline.Phase.FXML_LOAD, now, 5_000_000);
+        timeline.record(SceneType.STATISTICS, StartupTimeline.Phase.FXML_LOAD, now, 1_000_000);
+
+        CompletableFuture<Object> first = new CompletableFuture<>();
+        timeline.recordQuery(SceneType.STATISTICS, first);
+        timeline.recordQuery(SceneType.STATISTICS, CompletableFuture.completedFuture(null));
+        assertNull(timeline.getDuration(SceneType.STATISTICS, StartupTimeline.Phase.FIRST_QUERY));
+        first.complete(null);
+
+        assertEquals(Duration.ofMillis(5), timeline.getDuration(SceneType.STATISTICS, StartupTimeline.Phase.FXML_LOAD));
+        assertNotNull(timeline.getDuration(SceneType.STATISTICS, StartupTimeline.Phase.FIRST_QUERY));
+        assertTrue(timeline.toString().contains("STATISTICS"));
+    }
+}
@@ -0,0 +1,38 @@
+package mff.cuni.cz.bortosa.flashy.Utils;
+
+import mff.cuni.cz.bortosa.flashy.Models.Flashcard;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PagedFlashcardListTests {
+
+    @Test
+    void testAddedFlashcardsAreOnlyKeptOnLoadedPages() {
+        List<Integer> requestedPages = new ArrayList<>();
+        PagedFlashcardList list = new PagedFlashcardList((afterId, count) -> {
+            requestedPages.add(afterId);
+            return new CompletableFuture<>(); // never arrives
+        }, e -> fail(e), 10, 2);
+        list.setIds(new int[0]);
+
+        // e.g. the chunks of a large import
+        for (int id = 1; id <= 10_000; id++) {
+            list.flashcardAdded(flashcard(id));
+        }
+
+        assertEquals(10_000, list.size());
+        assertEquals(0, list.getLoadedCount());
+        assertNull(list.get(5_000));
+        // the page of the row is fetched after the last ID of the previous page
+        assertEquals(List.of(5_000), requestedPages);
+    }
+
+    private static Flashcard flashcard(int id) {
+        return new Flashcard(id, "question " + id, "answer", null, Flashcard.State.CREATED, Flashcard.Difficulty.DEFAULT);
+    }
+}
@@ -1,6 +0,0 @@
-package mff.cuni.cz.bortosa.flashy.Observer;
-
-public enum Event {
-    ADD_FLASHCARD, REMOVE_FLASHCARD, UPDATE_FLASHCARD,
-    ADD_DECK, REMOVE_DECK, UPDATE_DECK
-}